@@ -23,9 +23,13 @@ import java.awt.GraphicsConfigTemplate;
 import java.awt.GraphicsConfiguration;
 import java.awt.GraphicsDevice;
 import java.awt.GraphicsEnvironment;
+import java.awt.Dimension;
 import java.awt.image.BufferedImage;
+import java.util.ArrayList;
+import java.util.List;
 import java.util.concurrent.CountDownLatch;
 import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
 
 import javax.media.j3d.Canvas3D;
 import javax.media.j3d.GraphicsConfigTemplate3D;
@@ -48,6 +52,7 @@ import com.sun.j3d.utils.universe.ViewingPlatform;
  */
 public class Component3DManager {
   private static final String CHECK_OFF_SCREEN_IMAGE_SUPPORT = "com.eteks.sweethome3d.j3d.checkOffScreenSupport";
+  private static final int    MAX_IDLE_OFF_SCREEN_CANVASES   = 3;
   
   private static Component3DManager instance;
   
@@ -57,6 +62,10 @@ public class Component3DManager {
   private Object                 renderingErrorListener; 
   private Boolean                offScreenImageSupported;
   private GraphicsConfiguration  defaultScreenConfiguration;
+  // Off screen canvases kept to be reused by further off screen images 
+  private final List<Canvas3D>   idleOffScreenCanvases = new ArrayList<Canvas3D>();
+  private final AtomicInteger    pendingOffScreenImageCount = new AtomicInteger();
+  private volatile long          lastOffScreenImageTime;
 
   private Component3DManager() {
     if (!GraphicsEnvironment.isHeadless()) {
@@ -243,7 +252,14 @@ public class Component3DManager {
    */
   public Canvas3D getOffScreenCanvas3D(int width, int height) {
     Canvas3D offScreenCanvas = getCanvas3D(null, true, null);
-    // Configure canvas 3D for offscreen
+    setOffScreenCanvas3DSize(offScreenCanvas, width, height);
+    return offScreenCanvas;
+  }
+
+  /**
+   * Configures the screen and the buffer of the given off screen canvas at the given size.
+   */
+  private void setOffScreenCanvas3DSize(Canvas3D offScreenCanvas, int width, int height) {
     Screen3D screen3D = offScreenCanvas.getScreen3D();
     screen3D.setSize(width, height);
     screen3D.setPhysicalScreenWidth(2f);
@@ -252,16 +268,74 @@ public class Component3DManager {
     ImageComponent2D imageComponent2D = new ImageComponent2D(ImageComponent2D.FORMAT_RGB, image);
     imageComponent2D.setCapability(ImageComponent2D.ALLOW_IMAGE_READ);
     offScreenCanvas.setOffScreenBuffer(imageComponent2D);
-    return offScreenCanvas;
+  }
+
+  /**
+   * Returns an off screen canvas at the given size, taken among idle canvases if one exists, 
+   * preferably among the ones that were used at the same size.
+   */
+  private Canvas3D acquireOffScreenCanvas3D(int width, int height) {
+    Canvas3D offScreenCanvas = null;
+    synchronized (this.idleOffScreenCanvases) {
+      if (!this.idleOffScreenCanvases.isEmpty()) {
+        Dimension size = new Dimension(width, height);
+        int canvasIndex = this.idleOffScreenCanvases.size() - 1;
+        for (int i = canvasIndex; i >= 0; i--) {
+          if (size.equals(this.idleOffScreenCanvases.get(i).getScreen3D().getSize())) {
+            canvasIndex = i;
+            break;
+          }
+        }
+        offScreenCanvas = this.idleOffScreenCanvases.remove(canvasIndex);
+      }
+    }
+    if (offScreenCanvas == null) {
+      return getOffScreenCanvas3D(width, height);
+    } else {
+      // Set a new buffer to keep unchanged the images previously returned 
+      setOffScreenCanvas3DSize(offScreenCanvas, width, height);
+      return offScreenCanvas;
+    }
+  }
+
+  /**
+   * Keeps the given off screen canvas for further off screen images, 
+   * if there are not too many idle canvases.
+   */
+  private void releaseOffScreenCanvas3D(Canvas3D offScreenCanvas) {
+    synchronized (this.idleOffScreenCanvases) {
+      if (this.idleOffScreenCanvases.size() < MAX_IDLE_OFF_SCREEN_CANVASES) {
+        this.idleOffScreenCanvases.add(offScreenCanvas);
+      }
+    }
+  }
+
+  /**
+   * Returns the count of off screen images being computed.
+   * @since 4.2
+   */
+  public int getPendingOffScreenImageCount() {
+    return this.pendingOffScreenImageCount.get();
+  }
+
+  /**
+   * Returns the time in milliseconds spent to compute the last off screen image.
+   * @since 4.2
+   */
+  public long getLastOffScreenImageTime() {
+    return this.lastOffScreenImageTime;
   }
   
   /**
    * Returns an image at the given size of the 3D <code>view</code>. 
-   * This image is created with an off screen canvas.
+   * This image is created with an off screen canvas, reused from a previous call if possible.
    * @throws IllegalRenderingStateException  if the image couldn't be created.
    */
   public BufferedImage getOffScreenImage(View view, int width, int height)  {
     Canvas3D offScreenCanvas = null;
+    boolean rendered = false;
+    long startTime = System.nanoTime();
+    this.pendingOffScreenImageCount.incrementAndGet();
     RenderingErrorObserver previousRenderingErrorObserver = getRenderingErrorObserver();
     try {
       // Replace current rendering error observer by a listener that counts down
@@ -274,8 +348,8 @@ public class Component3DManager {
           }
         });
       
-      // Create an off screen canvas and bind it to view
-      offScreenCanvas = getOffScreenCanvas3D(width, height);
+      // Get an off screen canvas and bind it to view
+      offScreenCanvas = acquireOffScreenCanvas3D(width, height);
       view.addCanvas3D(offScreenCanvas);
       
       // Render off screen canvas
@@ -288,7 +362,9 @@ public class Component3DManager {
         throw new IllegalRenderingStateException("Off screen rendering unavailable");
       }
       
-      return offScreenCanvas.getOffScreenBuffer().getImage();
+      BufferedImage image = offScreenCanvas.getOffScreenBuffer().getImage();
+      rendered = true;
+      return image;
     } catch (InterruptedException ex) {
       IllegalRenderingStateException ex2 = 
           new IllegalRenderingStateException("Off screen rendering interrupted");
@@ -303,9 +379,15 @@ public class Component3DManager {
         } catch (NullPointerException ex) {
           // Java 3D 1.3 may throw an exception
         }
+        // Don't reuse a canvas that failed to render
+        if (rendered) {
+          releaseOffScreenCanvas3D(offScreenCanvas);
+        }
       }
       // Reset previous rendering error listener
       setRenderingErrorObserver(previousRenderingErrorObserver);
+      this.lastOffScreenImageTime = (System.nanoTime() - startTime) / 1000000;
+      this.pendingOffScreenImageCount.decrementAndGet();
     }
   }
   
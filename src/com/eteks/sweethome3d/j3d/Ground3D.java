@@ -28,11 +28,16 @@ import java.util.Arrays;
 import java.util.Collections;
 import java.util.Comparator;
 import java.util.HashMap;
+import java.util.HashSet;
 import java.util.List;
 import java.util.Map;
+import java.util.Set;
 import java.util.TreeMap;
+import java.util.WeakHashMap;
+import java.util.concurrent.Callable;
 
 import javax.media.j3d.Appearance;
+import javax.media.j3d.Geometry;
 import javax.media.j3d.Shape3D;
 import javax.media.j3d.Texture;
 import javax.media.j3d.TextureAttributes;
@@ -44,6 +49,7 @@ import com.eteks.sweethome3d.model.HomePieceOfFurniture;
 import com.eteks.sweethome3d.model.HomeTexture;
 import com.eteks.sweethome3d.model.Level;
 import com.eteks.sweethome3d.model.Room;
+import com.eteks.sweethome3d.model.Selectable;
 import com.eteks.sweethome3d.model.Wall;
 import com.sun.j3d.utils.geometry.GeometryInfo;
 import com.sun.j3d.utils.geometry.NormalGenerator;
@@ -57,6 +63,15 @@ public class Ground3D extends Object3DBranch {
   private final float originY;
   private final float width;
   private final float depth;
+  // Areas and geometries kept from a computation of ground geometries to the other
+  private final Map<Selectable, ItemArea> itemAreas = new WeakHashMap<Selectable, ItemArea>();
+  private Map<List<Object>, AreaUnion>    areaUnions = new HashMap<List<Object>, AreaUnion>();
+  private Map<Level, LevelArea>           levelAreas = new HashMap<Level, LevelArea>();
+  private Map<List<Object>, Geometry []>  areaGeometries = new HashMap<List<Object>, Geometry []>();
+  private Area                            areaRemovedFromGround;
+  private Rectangle2D                     groundCenterBounds;
+  private Area                            groundCenterArea;
+  private Area                            outsideGroundArea;
 
   /**
    * Creates a 3D ground for the given <code>home</code>.
@@ -101,14 +116,30 @@ public class Ground3D extends Object3DBranch {
     update(false);
   }
   
+  /**
+   * Updates the geometry and attributes of ground and sublevels with the given <code>geometries</code>.
+   * @since 4.2
+   */
+  @Override
+  public void update(Geometry [][] geometries) {
+    updateGroundAppearance(false);
+    updateGroundGeometry(geometries);
+  }
+  
   /**
    * Updates the geometry and attributes of ground and sublevels.
    */
   private void update(boolean waitTextureLoadingEnd) {
+    updateGroundAppearance(waitTextureLoadingEnd);
+    updateGroundGeometry(createGeometries());
+  }
+  
+  /**
+   * Updates ground coloring and texture attributes from home ground color and texture.
+   */
+  private void updateGroundAppearance(boolean waitTextureLoadingEnd) {
     Home home = (Home)getUserData();
     Shape3D groundShape = (Shape3D)getChild(0);
-    int currentGeometriesCount = groundShape.numGeometries();
-    
     final Appearance groundAppearance = groundShape.getAppearance();
     HomeTexture groundTexture = home.getEnvironment().getGroundTexture();
     if (groundTexture == null) {
@@ -125,102 +156,174 @@ public class Ground3D extends Object3DBranch {
               }
             });
     }
-    
-    Area areaRemovedFromGround = new Area();
-    // Compute the union of the rooms, the underground walls and furniture areas 
+  }
+  
+  /**
+   * Replaces the geometries of ground shape by the given ones.
+   */
+  private void updateGroundGeometry(Geometry [][] geometries) {
+    Shape3D groundShape = (Shape3D)getChild(0);
+    int currentGeometriesCount = groundShape.numGeometries();
+    Set<Geometry> currentGeometries = new HashSet<Geometry>();
+    for (int i = 0; i < currentGeometriesCount; i++) {
+      currentGeometries.add(groundShape.getGeometry(i));
+    }
+    Set<Geometry> newGeometries = new HashSet<Geometry>(Arrays.asList(geometries [0]));
+    for (Geometry geometry : geometries [0]) {
+      if (!currentGeometries.contains(geometry)) {
+        groundShape.addGeometry(geometry);
+      }
+    }
+    // Remove old geometries that weren't reused
+    for (int i = currentGeometriesCount - 1; i >= 0; i--) {
+      if (!newGeometries.contains(groundShape.getGeometry(i))) {
+        groundShape.removeGeometry(i);
+      }
+    }
+  }
+  
+  /**
+   * Returns the geometries of ground and sublevels. The areas of home items, their unions per level
+   * and the geometries built from them are kept from one call to the other, and computed 
+   * again only for the items and the levels that changed.
+   */
+  private Geometry [][] createGeometries() {
+    return createGeometries(getGroundData());
+  }
+
+  /**
+   * Returns a task that computes the geometries of ground and sublevels from the areas 
+   * of home items and the elevations of levels, read when this method is called.
+   * @since 4.2
+   */
+  @Override
+  public Callable<Geometry [][]> createGeometriesBuilder() {
+    final GroundData groundData = getGroundData();
+    return new Callable<Geometry [][]>() {
+        public Geometry [][] call() {
+          return createGeometries(groundData);
+        }
+      };
+  }
+
+  /**
+   * Returns the ground texture, the elevations of levels and the areas of the items 
+   * of home that ground geometries depend on. Should be called from the thread that modifies home.
+   */
+  private GroundData getGroundData() {
+    Home home = (Home)getUserData();
+    final Map<Level, Float> levelElevations = new HashMap<Level, Float>();
+    for (Level level : home.getLevels()) {
+      levelElevations.put(level, level.getElevation());
+    }
     Comparator<Level> levelComparator = new Comparator<Level>() {
         public int compare(Level level1, Level level2) {
-          return -Float.compare(level1.getElevation(), level2.getElevation());
+          return -Float.compare(levelElevations.get(level1), levelElevations.get(level2));
         }
       };
-    Map<Level, Area> undergroundAreas = new TreeMap<Level, Area>(levelComparator);
-    Map<Level, Area> roomAreas = new TreeMap<Level, Area>(levelComparator);
+    List<Area> areasRemovedFromGround = new ArrayList<Area>();
+    // Gather the areas of the rooms, the underground walls and furniture per level 
+    Map<Level, List<Area>> undergroundItemAreas = new TreeMap<Level, List<Area>>(levelComparator);
+    Map<Level, List<Area>> roomItemAreas = new TreeMap<Level, List<Area>>(levelComparator);
     for (Room room : home.getRooms()) {
       Level roomLevel = room.getLevel();
       if (room.isFloorVisible()) {
         float [][] roomPoints = room.getPoints();
         if (roomPoints.length > 2) {
-          Area roomArea = null;
+          Area roomArea = getItemArea(room, roomPoints, null);
           if (roomLevel == null
               || (roomLevel.getElevation() <= 0
                   && roomLevel.isVisible())) {
-            roomArea = new Area(getShape(roomPoints));
-            areaRemovedFromGround.add(roomArea);
-            updateUndergroundAreas(roomAreas, room.getLevel(), roomPoints, roomArea);
+            areasRemovedFromGround.add(roomArea);
+            updateUndergroundAreas(roomItemAreas, roomLevel, roomArea);
           }
-          updateUndergroundAreas(undergroundAreas, room.getLevel(), roomPoints, roomArea);
+          updateUndergroundAreas(undergroundItemAreas, roomLevel, roomArea);
         }
       }
     }
     
     // Search all items at negative levels that could dig the ground 
     for (HomePieceOfFurniture piece : home.getFurniture()) {
-      if (piece.getStaircaseCutOutShape() == null) {
-        updateUndergroundAreas(undergroundAreas, piece.getLevel(), piece.getPoints(), null);
-      } else {
-        updateUndergroundAreas(undergroundAreas, piece.getLevel(), null, ModelManager.getInstance().getAreaOnFloor(piece));
+      if (isUnderground(piece.getLevel())) {
+        updateUndergroundAreas(undergroundItemAreas, piece.getLevel(), getItemArea(piece, piece.getPoints(), 
+            piece.getStaircaseCutOutShape() != null  ? piece  : null));
       }
     }
-    Map<Level, Area> wallAreas = new HashMap<Level, Area>();
+    Map<Level, List<Area>> wallItemAreas = new HashMap<Level, List<Area>>();
     for (Wall wall : home.getWalls()) {
-      updateUndergroundAreas(wallAreas, wall.getLevel(), wall.getPoints(), null);
+      if (isUnderground(wall.getLevel())) {
+        updateUndergroundAreas(wallItemAreas, wall.getLevel(), getItemArea(wall, wall.getPoints(), null));
+      }
     }
+    return new GroundData(home.getEnvironment().getGroundTexture(), levelElevations, levelComparator, 
+        areasRemovedFromGround, undergroundItemAreas, roomItemAreas, wallItemAreas);
+  }
+
+  /**
+   * Returns the geometries of ground and sublevels computed from the given data,
+   * without reading home. 
+   */
+  private synchronized Geometry [][] createGeometries(GroundData groundData) {
+    HomeTexture groundTexture = groundData.groundTexture;
+    List<Geometry> groundGeometries = new ArrayList<Geometry>();
+    Map<List<Object>, AreaUnion> areaUnions = new HashMap<List<Object>, AreaUnion>();
+    Map<Level, LevelArea> levelAreas = new HashMap<Level, LevelArea>();
+    Map<List<Object>, Geometry []> areaGeometries = new HashMap<List<Object>, Geometry []>();
+    List<Area> areasRemovedFromGround = new ArrayList<Area>(groundData.areasRemovedFromGround);
+    Map<Level, List<Area>> undergroundItemAreas = groundData.undergroundItemAreas;
+    Map<Level, List<Area>> roomItemAreas = groundData.roomItemAreas;
     // Consider that walls around a closed area define a hole 
-    for (Map.Entry<Level, Area> wallAreaEntry : wallAreas.entrySet()) {
-      for (float [][] points : getAreaPoints(wallAreaEntry.getValue())) {
-        if (!new Room(points).isClockwise()) {
-          updateUndergroundAreas(undergroundAreas, wallAreaEntry.getKey(), points, null);
+    for (Map.Entry<Level, List<Area>> wallAreaEntry : groundData.wallItemAreas.entrySet()) {
+      AreaUnion wallsUnion = getAreaUnion(areaUnions, 
+          Arrays.asList(new Object [] {Wall.class, wallAreaEntry.getKey()}), wallAreaEntry.getValue());
+      if (wallsUnion.holes == null) {
+        wallsUnion.holes = new ArrayList<Area>();
+        for (float [][] points : getAreaPoints(wallsUnion.area)) {
+          if (!new Room(points).isClockwise()) {
+            wallsUnion.holes.add(new Area(getShape(points)));
+          }
         }
       }
+      for (Area hole : wallsUnion.holes) {
+        addArea(undergroundItemAreas, wallAreaEntry.getKey(), hole);
+      }
     }
     
-    Map<Level, Area> undergroundSideAreas = new TreeMap<Level, Area>(levelComparator);
-    Map<Level, Area> upperLevelAreas = new HashMap<Level, Area>();
-    for (Map.Entry<Level, Area> undergroundAreaEntry : undergroundAreas.entrySet()) {
+    Map<Level, AreaUnion> undergroundAreas = new TreeMap<Level, AreaUnion>(groundData.levelComparator);
+    for (Map.Entry<Level, List<Area>> undergroundItemAreaEntry : undergroundItemAreas.entrySet()) {
+      undergroundAreas.put(undergroundItemAreaEntry.getKey(), getAreaUnion(areaUnions, 
+          Arrays.asList(new Object [] {Level.class, undergroundItemAreaEntry.getKey()}), undergroundItemAreaEntry.getValue()));
+    }
+    for (Map.Entry<Level, AreaUnion> undergroundAreaEntry : undergroundAreas.entrySet()) {
       Level level = undergroundAreaEntry.getKey();
-      Area area = undergroundAreaEntry.getValue();
-      undergroundSideAreas.put(level, (Area)area.clone());
-      upperLevelAreas.put(level, new Area());
-      // Remove lower levels areas from the area at the current level
-      for (Map.Entry<Level, Area> otherUndergroundAreaEntry : undergroundAreas.entrySet()) {
-        if (otherUndergroundAreaEntry.getKey().getElevation() < level.getElevation()) {
-          for (float [][] points : getAreaPoints(otherUndergroundAreaEntry.getValue())) {
-            if (!new Room(points).isClockwise()) {
-              Area pointsArea = new Area(getShape(points));
-              area.subtract(pointsArea);
-              undergroundSideAreas.get(level).add(pointsArea);
-            }
-          }
-        }
-      }      
-      // Add underground area to ground area at ground level
-      for (float [][] points : getAreaPoints(area)) {
-        if (new Room(points).isClockwise()) {
-          upperLevelAreas.get(level).add(new Area(getShape(points)));
-        } else {
-          areaRemovedFromGround.add(new Area(getShape(points)));
+      List<Area> roomAreas = roomItemAreas.get(level);
+      AreaUnion roomsUnion = roomAreas != null
+          ? getAreaUnion(areaUnions, Arrays.asList(new Object [] {Room.class, level}), roomAreas)
+          : null;
+      // Compute the areas of a level again only if its area, its rooms or lower levels changed
+      List<Area> sourceAreas = new ArrayList<Area>();
+      sourceAreas.add(undergroundAreaEntry.getValue().area);
+      sourceAreas.add(roomsUnion != null  ? roomsUnion.area  : null);
+      for (Map.Entry<Level, AreaUnion> otherUndergroundAreaEntry : undergroundAreas.entrySet()) {
+        if (groundData.getElevation(otherUndergroundAreaEntry.getKey()) < groundData.getElevation(level)) {
+          sourceAreas.add(otherUndergroundAreaEntry.getValue().area);
         }
       }
-    }
-    // Remove room areas 
-    for (Map.Entry<Level, Area> undergroundAreaEntry : undergroundAreas.entrySet()) {
-      Level level = undergroundAreaEntry.getKey();
-      Area area = undergroundAreaEntry.getValue();
-      Area roomArea = roomAreas.get(level);
-      if (roomArea != null) {
-        area.subtract(roomArea);
+      LevelArea levelArea = this.levelAreas.get(level);
+      if (levelArea == null 
+          || !isSameAreas(levelArea.sourceAreas, sourceAreas)) {
+        levelArea = createLevelArea(sourceAreas);
       }
+      levelAreas.put(level, levelArea);
+      areasRemovedFromGround.addAll(levelArea.areasRemovedFromGround);
     }
     
     // Define ground and underground levels surfaces
-    Area groundArea = new Area(getShape(new float [][] {
-        {this.originX, this.originY}, 
-        {this.originX, this.originY + this.depth},
-        {this.originX + this.width, this.originY + this.depth},
-        {this.originX + this.width, this.originY}}));
+    Area areaRemovedFromGround = getAreaUnion(areaUnions, 
+        Arrays.asList(new Object [] {Home.class}), areasRemovedFromGround).area;
+    Rectangle2D groundBounds = new Rectangle2D.Float(this.originX, this.originY, this.width, this.depth);
     Rectangle2D removedAreaBounds = areaRemovedFromGround.getBounds2D();
-    if (!groundArea.getBounds2D().equals(removedAreaBounds)) {
-      Area outsideGroundArea = groundArea;
+    if (!groundBounds.equals(removedAreaBounds)) {
       if (areaRemovedFromGround.isEmpty()) {
         removedAreaBounds = new Rectangle2D.Float(Math.max(-5E3f, this.originX), Math.max(-5E3f, this.originY), 0, 0);
         removedAreaBounds.add(Math.min(5E3f, this.originX + this.width), 
@@ -231,33 +334,105 @@ public class Ground3D extends Object3DBranch {
         removedAreaBounds.add(Math.min(removedAreaBounds.getMaxX() + 5E3, this.originX + this.width), 
             Math.min(removedAreaBounds.getMaxY() + 5E3, this.originY + this.depth));
       }
-      groundArea = new Area(removedAreaBounds);
-      outsideGroundArea.subtract(groundArea);
       // Divide the ground at level 0 in two geometries to limit visual artifacts on large zone  
-      addAreaGeometry(groundShape, groundTexture, outsideGroundArea, 0);
+      if (!removedAreaBounds.equals(this.groundCenterBounds)) {
+        this.outsideGroundArea = new Area(groundBounds);
+        this.outsideGroundArea.subtract(new Area(removedAreaBounds));
+      }
+      addAreaGeometry(groundGeometries, areaGeometries, groundTexture, this.outsideGroundArea, 0);
+    } 
+    if (!removedAreaBounds.equals(this.groundCenterBounds)
+        || areaRemovedFromGround != this.areaRemovedFromGround) {
+      this.groundCenterArea = new Area(removedAreaBounds);
+      this.groundCenterArea.subtract(areaRemovedFromGround);
+      this.groundCenterBounds = removedAreaBounds;
+      this.areaRemovedFromGround = areaRemovedFromGround;
     }
-    groundArea.subtract(areaRemovedFromGround);
-    undergroundAreas.put(new Level("Ground", 0, 0, 0), groundArea);
+    addAreaGeometry(groundGeometries, areaGeometries, groundTexture, this.groundCenterArea, 0);
     float previousLevelElevation = 0;
-    for (Map.Entry<Level, Area> undergroundAreaEntry : undergroundAreas.entrySet()) {
-      Level level = undergroundAreaEntry.getKey();
-      float elevation = level.getElevation();
-      addAreaGeometry(groundShape, groundTexture, undergroundAreaEntry.getValue(), elevation);
+    for (Level level : undergroundAreas.keySet()) {
+      LevelArea levelArea = levelAreas.get(level);
+      float elevation = groundData.getElevation(level);
+      addAreaGeometry(groundGeometries, areaGeometries, groundTexture, levelArea.area, elevation);
       if (previousLevelElevation - elevation > 0) {
-        for (float [][] points : getAreaPoints(undergroundSideAreas.get(level))) {
-          addAreaSidesGeometry(groundShape, groundTexture, points, elevation, previousLevelElevation - elevation);
-        }
-        for (float [][] points : getAreaPoints(upperLevelAreas.get(level))) {
-          addAreaGeometry(groundShape, groundTexture, points, null, previousLevelElevation);
-        }
+        addAreaSidesGeometry(groundGeometries, areaGeometries, groundTexture, levelArea.sideArea, 
+            elevation, previousLevelElevation - elevation);
+        addAreaPartsGeometry(groundGeometries, areaGeometries, groundTexture, levelArea.upperLevelArea, 
+            previousLevelElevation);
       }
       previousLevelElevation = elevation;
     }
+    
+    // Keep only the cached data used by this computation
+    this.areaUnions = areaUnions;
+    this.levelAreas = levelAreas;
+    this.areaGeometries = areaGeometries;
+    return new Geometry [][] {groundGeometries.toArray(new Geometry [groundGeometries.size()])};
+  }
 
-    // Remove old geometries
-    for (int i = currentGeometriesCount - 1; i >= 0; i--) {
-      groundShape.removeGeometry(i);
+  /**
+   * Returns <code>true</code> if the given <code>level</code> is below zero.
+   */
+  private boolean isUnderground(Level level) {
+    return level != null 
+        && level.getElevation() < 0;
+  }
+
+  /**
+   * Returns the area of the given home <code>item</code>, computed again only if its points changed.
+   * If <code>staircase</code> isn't <code>null</code>, the area will match its cut out shape.
+   * The returned area is shared and must not be modified.
+   */
+  private Area getItemArea(Selectable item, float [][] points, HomePieceOfFurniture staircase) {
+    List<Object> shapeKey = staircase != null
+        ? Arrays.asList(new Object [] {staircase.getStaircaseCutOutShape(), staircase.isModelMirrored()})
+        : null;
+    ItemArea itemArea = this.itemAreas.get(item);
+    if (itemArea == null
+        || !Arrays.deepEquals(itemArea.points, points)
+        || (shapeKey == null 
+              ? itemArea.shapeKey != null
+              : !shapeKey.equals(itemArea.shapeKey))) {
+      Area area = staircase != null
+          ? ModelManager.getInstance().getAreaOnFloor(staircase)
+          : new Area(getShape(points));
+      itemArea = new ItemArea(points, shapeKey, area);
+      this.itemAreas.put(item, itemArea);
+    }
+    return itemArea.area;
+  }
+
+  /**
+   * Returns the union of the given <code>areas</code> stored in <code>areaUnions</code> with <code>key</code>, 
+   * computed again only if these areas aren't the same as the ones of the previous union matching this key.
+   */
+  private AreaUnion getAreaUnion(Map<List<Object>, AreaUnion> areaUnions, List<Object> key, List<Area> areas) {
+    AreaUnion areaUnion = this.areaUnions.get(key);
+    if (areaUnion == null 
+        || !isSameAreas(areaUnion.areas, areas)) {
+      Area area = new Area();
+      for (Area itemArea : areas) {
+        area.add(itemArea);
+      }
+      areaUnion = new AreaUnion(areas, area);
+    }
+    areaUnions.put(key, areaUnion);
+    return areaUnion;
+  }
+
+  /**
+   * Returns <code>true</code> if the given lists contain the same area instances.
+   */
+  private static boolean isSameAreas(List<Area> areas1, List<Area> areas2) {
+    if (areas1.size() != areas2.size()) {
+      return false;
     }
+    for (int i = 0; i < areas1.size(); i++) {
+      if (areas1.get(i) != areas2.get(i)) {
+        return false;
+      }
+    }
+    return true;
   }
 
   /**
@@ -295,42 +470,132 @@ public class Ground3D extends Object3DBranch {
   /**
    * Adds the given area to the underground areas for level below zero.
    */
-  private void updateUndergroundAreas(Map<Level, Area> undergroundAreas, 
-                                      Level      level, 
-                                      float [][] points, 
-                                      Area       area) {
-    if (level != null 
-        && level.getElevation() < 0) {
-      Area itemsArea = undergroundAreas.get(level);
-      if (itemsArea == null) {
-        itemsArea = new Area();
-        undergroundAreas.put(level, itemsArea);
-      }
-      itemsArea.add(area != null
-          ? area
-          : new Area(getShape(points)));
+  private void updateUndergroundAreas(Map<Level, List<Area>> undergroundAreas, 
+                                      Level level, 
+                                      Area  area) {
+    if (isUnderground(level)) {
+      addArea(undergroundAreas, level, area);
+    }
+  }
+
+  /**
+   * Adds the given area to the areas of <code>level</code>.
+   */
+  private static void addArea(Map<Level, List<Area>> levelAreas, 
+                              Level level, 
+                              Area  area) {
+    List<Area> areas = levelAreas.get(level);
+    if (areas == null) {
+      areas = new ArrayList<Area>();
+      levelAreas.put(level, areas);
     }
+    areas.add(area);
   }
 
   /**
-   * Adds to ground shape the geometry matching the given area.
+   * Returns the areas of a level computed from the given <code>sourceAreas</code>, 
+   * that contain the area of the items at this level, the area of its rooms 
+   * and the areas of the lower levels.
    */
-  private void addAreaGeometry(Shape3D groundShape, HomeTexture groundTexture, Area area, float elevation) {
-    List<float [][]> levelHolesPoints = new ArrayList<float[][]>();
+  private LevelArea createLevelArea(List<Area> sourceAreas) {
+    Area area = (Area)sourceAreas.get(0).clone();
+    Area sideArea = (Area)area.clone();
+    Area upperLevelArea = new Area();
+    List<Area> areasRemovedFromGround = new ArrayList<Area>();
+    // Remove lower levels areas from the area at the current level
+    for (Area lowerLevelArea : sourceAreas.subList(2, sourceAreas.size())) {
+      for (float [][] points : getAreaPoints(lowerLevelArea)) {
+        if (!new Room(points).isClockwise()) {
+          Area pointsArea = new Area(getShape(points));
+          area.subtract(pointsArea);
+          sideArea.add(pointsArea);
+        }
+      }
+    }      
+    // Add underground area to ground area at ground level
     for (float [][] points : getAreaPoints(area)) {
       if (new Room(points).isClockwise()) {
-        levelHolesPoints.add(points);
+        upperLevelArea.add(new Area(getShape(points)));
       } else {
-        addAreaGeometry(groundShape, groundTexture, points, levelHolesPoints, elevation);
-        levelHolesPoints.clear();
+        areasRemovedFromGround.add(new Area(getShape(points)));
+      }
+    }
+    // Remove room areas 
+    Area roomsArea = sourceAreas.get(1);
+    if (roomsArea != null) {
+      area.subtract(roomsArea);
+    }
+    return new LevelArea(sourceAreas, area, sideArea, upperLevelArea, areasRemovedFromGround);
+  }
+
+  /**
+   * Adds to ground geometries the geometry matching the given area, 
+   * reusing the geometries built for the same area at previous computation.
+   */
+  private void addAreaGeometry(List<Geometry> groundGeometries, 
+                               Map<List<Object>, Geometry []> areaGeometries, 
+                               HomeTexture groundTexture, 
+                               Area area, 
+                               float elevation) {
+    List<Object> key = Arrays.asList(new Object [] {"area", area, elevation, groundTexture});
+    if (!addCachedGeometries(groundGeometries, areaGeometries, key)) {
+      int geometriesCount = groundGeometries.size();
+      List<float [][]> levelHolesPoints = new ArrayList<float[][]>();
+      for (float [][] points : getAreaPoints(area)) {
+        if (new Room(points).isClockwise()) {
+          levelHolesPoints.add(points);
+        } else {
+          addAreaGeometry(groundGeometries, groundTexture, points, levelHolesPoints, elevation);
+          levelHolesPoints.clear();
+        }
+      }
+      cacheGeometries(groundGeometries, geometriesCount, areaGeometries, key);
+    }
+  }
+
+  /**
+   * Adds to ground geometries the geometry matching each part of the given area, 
+   * reusing the geometries built for the same area at previous computation.
+   */
+  private void addAreaPartsGeometry(List<Geometry> groundGeometries, 
+                                    Map<List<Object>, Geometry []> areaGeometries, 
+                                    HomeTexture groundTexture, 
+                                    Area area, 
+                                    float elevation) {
+    List<Object> key = Arrays.asList(new Object [] {"parts", area, elevation, groundTexture});
+    if (!addCachedGeometries(groundGeometries, areaGeometries, key)) {
+      int geometriesCount = groundGeometries.size();
+      for (float [][] points : getAreaPoints(area)) {
+        addAreaGeometry(groundGeometries, groundTexture, points, null, elevation);
+      }
+      cacheGeometries(groundGeometries, geometriesCount, areaGeometries, key);
+    }
+  }
+
+  /**
+   * Adds to ground geometries the geometry matching the sides of the given area, 
+   * reusing the geometries built for the same area at previous computation.
+   */
+  private void addAreaSidesGeometry(List<Geometry> groundGeometries, 
+                                    Map<List<Object>, Geometry []> areaGeometries, 
+                                    HomeTexture groundTexture, 
+                                    Area area,
+                                    float elevation, 
+                                    float sideHeight) {
+    List<Object> key = Arrays.asList(new Object [] {"sides", area, elevation, sideHeight, groundTexture});
+    if (!addCachedGeometries(groundGeometries, areaGeometries, key)) {
+      int geometriesCount = groundGeometries.size();
+      for (float [][] points : getAreaPoints(area)) {
+        addAreaSidesGeometry(groundGeometries, groundTexture, points, elevation, sideHeight);
       }
+      cacheGeometries(groundGeometries, geometriesCount, areaGeometries, key);
     }
   }
 
   /**
-   * Adds to ground shape the geometry matching the area defined by the given points and hole points.
+   * Adds to ground geometries the geometry matching the area defined by the given points and hole points.
    */
-  private void addAreaGeometry(Shape3D groundShape, 
+  private void addAreaGeometry(List<Geometry> groundGeometries, 
                                HomeTexture groundTexture, 
                                float [][] areaPoints,
                                List<float [][]> holesPoints, 
@@ -384,13 +649,13 @@ public class Ground3D extends Object3DBranch {
     geometryInfo.setStripCounts(stripCounts);
     geometryInfo.setContourCounts(contourCounts);
     new NormalGenerator(0).generateNormals(geometryInfo);
-    groundShape.addGeometry(geometryInfo.getIndexedGeometryArray());
+    groundGeometries.add(geometryInfo.getIndexedGeometryArray());
   }
 
   /**
-   * Adds to ground shape the geometry matching the given area sides.
+   * Adds to ground geometries the geometry matching the given area sides.
    */
-  private void addAreaSidesGeometry(Shape3D groundShape, 
+  private void addAreaSidesGeometry(List<Geometry> groundGeometries, 
                                     HomeTexture groundTexture, 
                                     float [][] areaPoints,
                                     float elevation, 
@@ -428,7 +693,116 @@ public class Ground3D extends Object3DBranch {
     geometryInfo.setStripCounts(stripCounts);
     geometryInfo.setContourCounts(contourCounts);
     new NormalGenerator(0).generateNormals(geometryInfo);
-    groundShape.addGeometry(geometryInfo.getIndexedGeometryArray());
+    groundGeometries.add(geometryInfo.getIndexedGeometryArray());
+  }
+
+  /**
+   * Adds to ground geometries the geometries previously built for the given <code>key</code>
+   * and returns <code>true</code> if they exist.
+   */
+  private boolean addCachedGeometries(List<Geometry> groundGeometries, 
+                                      Map<List<Object>, Geometry []> areaGeometries, 
+                                      List<Object> key) {
+    Geometry [] geometries = this.areaGeometries.get(key);
+    if (geometries != null) {
+      areaGeometries.put(key, geometries);
+      groundGeometries.addAll(Arrays.asList(geometries));
+      return true;
+    } else {
+      return false;
+    }
+  }
+
+  /**
+   * Stores with <code>key</code> the ground geometries added from the given index.
+   */
+  private void cacheGeometries(List<Geometry> groundGeometries, int fromIndex,
+                               Map<List<Object>, Geometry []> areaGeometries, 
+                               List<Object> key) {
+    List<Geometry> addedGeometries = groundGeometries.subList(fromIndex, groundGeometries.size());
+    areaGeometries.put(key, addedGeometries.toArray(new Geometry [addedGeometries.size()]));
+  }
+
+  /**
+   * The data read from home that ground geometries depend on.
+   */
+  private static class GroundData {
+    private final HomeTexture            groundTexture;
+    private final Map<Level, Float>      levelElevations;
+    private final Comparator<Level>      levelComparator;
+    private final List<Area>             areasRemovedFromGround;
+    private final Map<Level, List<Area>> undergroundItemAreas;
+    private final Map<Level, List<Area>> roomItemAreas;
+    private final Map<Level, List<Area>> wallItemAreas;
+
+    public GroundData(HomeTexture groundTexture, 
+                      Map<Level, Float> levelElevations,
+                      Comparator<Level> levelComparator,
+                      List<Area> areasRemovedFromGround,
+                      Map<Level, List<Area>> undergroundItemAreas,
+                      Map<Level, List<Area>> roomItemAreas,
+                      Map<Level, List<Area>> wallItemAreas) {
+      this.groundTexture = groundTexture;
+      this.levelElevations = levelElevations;
+      this.levelComparator = levelComparator;
+      this.areasRemovedFromGround = areasRemovedFromGround;
+      this.undergroundItemAreas = undergroundItemAreas;
+      this.roomItemAreas = roomItemAreas;
+      this.wallItemAreas = wallItemAreas;
+    }
+
+    public float getElevation(Level level) {
+      return this.levelElevations.get(level);
+    }
+  }
+
+  /**
+   * The area of a home item computed for given points.
+   */
+  private static class ItemArea {
+    private final float [][]   points;
+    private final List<Object> shapeKey;
+    private final Area         area;
+
+    public ItemArea(float [][] points, List<Object> shapeKey, Area area) {
+      this.points = points;
+      this.shapeKey = shapeKey;
+      this.area = area;
+    }
+  }
+
+  /**
+   * The union of a list of areas.
+   */
+  private static class AreaUnion {
+    private final List<Area> areas;
+    private final Area       area;
+    private List<Area>       holes;
+
+    public AreaUnion(List<Area> areas, Area area) {
+      this.areas = areas;
+      this.area = area;
+    }
+  }
+
+  /**
+   * The areas of an underground level computed from source areas.
+   */
+  private static class LevelArea {
+    private final List<Area> sourceAreas;
+    private final Area       area;
+    private final Area       sideArea;
+    private final Area       upperLevelArea;
+    private final List<Area> areasRemovedFromGround;
+
+    public LevelArea(List<Area> sourceAreas, Area area, Area sideArea, 
+                     Area upperLevelArea, List<Area> areasRemovedFromGround) {
+      this.sourceAreas = sourceAreas;
+      this.area = area;
+      this.sideArea = sideArea;
+      this.upperLevelArea = upperLevelArea;
+      this.areasRemovedFromGround = areasRemovedFromGround;
+    }
   }
 }
 
@@ -23,10 +23,13 @@ import java.awt.Color;
 import java.awt.Rectangle;
 import java.awt.Shape;
 import java.lang.ref.WeakReference;
+import java.util.ArrayList;
 import java.util.Enumeration;
 import java.util.HashSet;
 import java.util.List;
+import java.util.Map;
 import java.util.Set;
+import java.util.WeakHashMap;
 
 import javax.media.j3d.Appearance;
 import javax.media.j3d.BoundingBox;
@@ -45,6 +48,7 @@ import javax.media.j3d.PointLight;
 import javax.media.j3d.PolygonAttributes;
 import javax.media.j3d.RenderingAttributes;
 import javax.media.j3d.Shape3D;
+import javax.media.j3d.Switch;
 import javax.media.j3d.TexCoordGeneration;
 import javax.media.j3d.Texture;
 import javax.media.j3d.TextureAttributes;
@@ -86,8 +90,14 @@ public class HomePieceOfFurniture3D extends Object3DBranch {
       new PolygonAttributes(PolygonAttributes.POLYGON_FILL, PolygonAttributes.CULL_NONE, 0);
   private static final TextureAttributes      MODULATE_TEXTURE_ATTRIBUTES = new TextureAttributes();
   private static final Bounds                 DEFAULT_INFLUENCING_BOUNDS = new BoundingSphere(new Point3d(), 1E7);
+  
+  // The appearances of models shared by the pieces displayed with their default attributes
+  private static final Map<Content, Appearance []> sharedModelAppearances = new WeakHashMap<Content, Appearance []>();
 
-  private final Home home;
+  private final Home    home;
+  private final boolean modelAppearancesSharingEnabled;
+  private boolean       modelLoaded;
+  private boolean       modelAppearancesShared;
   
   static {
     MODULATE_TEXTURE_ATTRIBUTES.setTextureMode(TextureAttributes.MODULATE);
@@ -109,6 +119,10 @@ public class HomePieceOfFurniture3D extends Object3DBranch {
                                 boolean waitModelAndTextureLoadingEnd) {
     setUserData(piece);      
     this.home = home;
+    // Share model appearances only in views that don't display outlines and load models asynchronously
+    this.modelAppearancesSharingEnabled = home != null 
+        && ignoreDrawingMode 
+        && !waitModelAndTextureLoadingEnd;
 
     // Allow piece branch to be removed from its parent
     setCapability(BranchGroup.ALLOW_DETACH);
@@ -145,6 +159,15 @@ public class HomePieceOfFurniture3D extends Object3DBranch {
       addChild(bounds);
     }
 
+    // Add a switch above model to be able to hide this piece without changing 
+    // the appearances of its model that may be shared with other pieces
+    Switch modelSwitch = new Switch(Switch.CHILD_ALL);
+    modelSwitch.setCapability(Switch.ALLOW_SWITCH_WRITE);
+    modelSwitch.setCapability(Group.ALLOW_CHILDREN_READ);
+    modelSwitch.setCapability(Group.ALLOW_CHILDREN_WRITE);
+    modelSwitch.setCapability(Group.ALLOW_CHILDREN_EXTEND);
+    pieceTransformGroup.addChild(modelSwitch);
+
     // While loading model use a temporary node that displays a white box  
     final BranchGroup waitBranch = new BranchGroup();
     waitBranch.setCapability(BranchGroup.ALLOW_DETACH);
@@ -152,7 +175,7 @@ public class HomePieceOfFurniture3D extends Object3DBranch {
     // Allow appearance change on all children
     setModelCapabilities(waitBranch);
     
-    pieceTransformGroup.addChild(waitBranch);
+    modelSwitch.addChild(waitBranch);
     
     // Set piece model initial location, orientation and size      
     updatePieceOfFurnitureTransform();
@@ -161,13 +184,29 @@ public class HomePieceOfFurniture3D extends Object3DBranch {
     Content model = piece.getModel();
     ModelManager.getInstance().loadModel(model, waitModelAndTextureLoadingEnd,
         new ModelManager.ModelObserver() {
-          public void modelUpdated(BranchGroup modelRoot) {
-            float [][] modelRotation = piece.getModelRotation();
-            // Add piece model scene to a normalized transform group
-            TransformGroup modelTransformGroup = 
-                ModelManager.getInstance().getNormalizedTransformGroup(modelRoot, modelRotation, 1);
+          public void modelUpdated(final BranchGroup modelRoot) {
+            Runnable modelSwap = new Runnable() {
+                public void run() {
+                  float [][] modelRotation = piece.getModelRotation();
+                  // Add piece model scene to a normalized transform group
+                  TransformGroup modelTransformGroup = 
+                      ModelManager.getInstance().getNormalizedTransformGroup(modelRoot, modelRotation, 1);
 
-            updatePieceOfFurnitureModelNode(modelRoot, modelTransformGroup, ignoreDrawingMode, waitModelAndTextureLoadingEnd);            
+                  updatePieceOfFurnitureModelNode(modelRoot, modelTransformGroup, ignoreDrawingMode, waitModelAndTextureLoadingEnd);            
+                  modelLoaded = true;
+                  if (isModelAppearancesShareable(piece)) {
+                    shareModelAppearances();
+                  }
+                }
+              };
+            if (home != null 
+                && !waitModelAndTextureLoadingEnd
+                && isLive()) {
+              // Spread over frames the models displayed in the scene once loaded
+              ModelStreamingScheduler.getInstance(home).scheduleModelSwap(HomePieceOfFurniture3D.this, modelSwap);
+            } else {
+              modelSwap.run();
+            }
           }
           
           public void modelError(Exception ex) {
@@ -177,6 +216,88 @@ public class HomePieceOfFurniture3D extends Object3DBranch {
         });
   }
 
+  /**
+   * Returns <code>true</code> if the appearances of the model of the given <code>piece</code>
+   * can be shared with other pieces displayed with the same model.
+   */
+  private boolean isModelAppearancesShareable(HomePieceOfFurniture piece) {
+    return this.modelAppearancesSharingEnabled
+        && this.modelLoaded
+        && !(piece instanceof HomeLight)
+        && piece.getColor() == null
+        && piece.getTexture() == null
+        && piece.getModelMaterials() == null
+        && piece.getShininess() == null
+        && !piece.isModelMirrored()
+        && !piece.isBackFaceShown();
+  }
+
+  /**
+   * Replaces the appearances of the model of this piece by the ones shared by
+   * the pieces displayed with the same model and default attributes. If no appearances 
+   * are shared yet for this model, the appearances of this piece become the shared ones.
+   */
+  private void shareModelAppearances() {
+    HomePieceOfFurniture piece = (HomePieceOfFurniture)getUserData();
+    List<Shape3D> shapes = new ArrayList<Shape3D>();
+    searchShapes(getFilledModelNode(), shapes);
+    synchronized (sharedModelAppearances) {
+      Appearance [] appearances = sharedModelAppearances.get(piece.getModel());
+      if (appearances == null) {
+        appearances = new Appearance [shapes.size()];
+        for (int i = 0; i < appearances.length; i++) {
+          appearances [i] = shapes.get(i).getAppearance();
+        }
+        sharedModelAppearances.put(piece.getModel(), appearances);
+      } else if (appearances.length == shapes.size()) {
+        for (int i = 0; i < appearances.length; i++) {
+          shapes.get(i).setAppearance(appearances [i]);
+        }
+      } else {
+        return;
+      }
+    }
+    this.modelAppearancesShared = true;
+  }
+
+  /**
+   * Replaces the model of this piece by a new copy, to be able to modify its appearances
+   * without changing the appearances shared with other pieces. 
+   */
+  private void unshareModelAppearances() {
+    this.modelAppearancesShared = false;
+    final HomePieceOfFurniture piece = (HomePieceOfFurniture)getUserData();
+    // Model is already loaded, so get its copy synchronously
+    ModelManager.getInstance().loadModel(piece.getModel(), true,
+        new ModelManager.ModelObserver() {
+          public void modelUpdated(BranchGroup modelRoot) {
+            TransformGroup modelTransformGroup = 
+                ModelManager.getInstance().getNormalizedTransformGroup(modelRoot, piece.getModelRotation(), 1);
+            updatePieceOfFurnitureModelNode(modelRoot, modelTransformGroup, true, false);            
+          }
+          
+          public void modelError(Exception ex) {
+            updatePieceOfFurnitureModelNode(getModelBox(Color.RED), new TransformGroup(), true, false);            
+          }
+        });
+  }
+
+  /**
+   * Adds to <code>shapes</code> the shapes found in the given <code>node</code>.
+   */
+  private void searchShapes(Node node, List<Shape3D> shapes) {
+    if (node instanceof Group) {
+      Enumeration<?> enumeration = ((Group)node).getAllChildren(); 
+      while (enumeration.hasMoreElements()) {
+        searchShapes((Node)enumeration.nextElement(), shapes);
+      }
+    } else if (node instanceof Link) {
+      searchShapes(((Link)node).getSharedGroup(), shapes);
+    } else if (node instanceof Shape3D) {
+      shapes.add((Shape3D)node);
+    }
+  }
+
   @Override
   public void update() {
     HomePieceOfFurniture piece = (HomePieceOfFurniture)getUserData();
@@ -186,11 +307,20 @@ public class HomePieceOfFurniture3D extends Object3DBranch {
         ((HomePieceOfFurniture3D)enumeration.nextElement()).update();
       }
     } else {
+      boolean modelAppearancesShareable = isModelAppearancesShareable(piece);
+      if (this.modelAppearancesShared 
+          && !modelAppearancesShareable) {
+        unshareModelAppearances();
+      }
       updatePieceOfFurnitureTransform();
       updatePieceOfFurnitureColorAndTexture(false);      
       updateLight();
       updatePieceOfFurnitureVisibility();      
       updatePieceOfFurnitureModelMirrored();
+      if (!this.modelAppearancesShared 
+          && modelAppearancesShareable) {
+        shareModelAppearances();
+      }
     }
   }
 
@@ -324,8 +454,7 @@ public class HomePieceOfFurniture3D extends Object3DBranch {
    * Returns the node of the filled model.
    */
   private Node getFilledModelNode() {
-    TransformGroup transformGroup = (TransformGroup)getChild(0);
-    BranchGroup branchGroup = (BranchGroup)transformGroup.getChild(0);
+    BranchGroup branchGroup = (BranchGroup)getModelSwitch().getChild(0);
     return branchGroup.getChild(0);
   }
 
@@ -333,8 +462,7 @@ public class HomePieceOfFurniture3D extends Object3DBranch {
    * Returns the node of the outline model.
    */
   private Node getOutlineModelNode() {
-    TransformGroup transformGroup = (TransformGroup)getChild(0);
-    BranchGroup branchGroup = (BranchGroup)transformGroup.getChild(0);
+    BranchGroup branchGroup = (BranchGroup)getModelSwitch().getChild(0);
     if (branchGroup.numChildren() > 1) {
       return branchGroup.getChild(1);
     } else {
@@ -342,6 +470,14 @@ public class HomePieceOfFurniture3D extends Object3DBranch {
     }
   }
 
+  /**
+   * Returns the switch parent of the model branch.
+   */
+  private Switch getModelSwitch() {
+    TransformGroup transformGroup = (TransformGroup)getChild(0);
+    return (Switch)transformGroup.getChild(0);
+  }
+
   /**
    * Sets whether this piece model is visible or not.
    */
@@ -358,6 +494,11 @@ public class HomePieceOfFurniture3D extends Object3DBranch {
     boolean visible = piece.isVisible() 
         && (piece.getLevel() == null
             || piece.getLevel().isVisible()); 
+    getModelSwitch().setWhichChild(visible  ? Switch.CHILD_ALL  : Switch.CHILD_NONE);
+    if (this.modelAppearancesSharingEnabled) {
+      // Keep model shapes visible to avoid changing appearances shared with other pieces
+      visible = true;
+    }
     setVisible(getFilledModelNode(), visible
         && (drawingMode == null
             || drawingMode == HomeEnvironment.DrawingMode.FILL 
@@ -404,11 +545,11 @@ public class HomePieceOfFurniture3D extends Object3DBranch {
     }
     setModelCapabilities(modelBranch);
 
-    TransformGroup transformGroup = (TransformGroup)getChild(0);
+    Switch modelSwitch = getModelSwitch();
     // Remove previous nodes    
-    transformGroup.removeAllChildren();
+    modelSwitch.removeAllChildren();
     // Add model branch to live scene
-    transformGroup.addChild(modelBranch);
+    modelSwitch.addChild(modelBranch);
 
     HomePieceOfFurniture piece = (HomePieceOfFurniture)getUserData();
     if (piece instanceof HomeLight) {
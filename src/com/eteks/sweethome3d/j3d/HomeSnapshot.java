@@ -0,0 +1,108 @@
+/*
+ * HomeSnapshot.java 18 oct. 2026
+ *
+ * Sweet Home 3D, Copyright (c) 2026 Emmanuel PUYBARET / eTeks <info@eteks.com>
+ *
+ * This program is free software; you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation; either version 2 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program; if not, write to the Free Software
+ * Foundation, Inc., 59 Temple Place, Suite 330, Boston, MA  02111-1307  USA
+ */
+package com.eteks.sweethome3d.j3d;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import com.eteks.sweethome3d.model.Home;
+import com.eteks.sweethome3d.model.HomePieceOfFurniture;
+import com.eteks.sweethome3d.model.Level;
+import com.eteks.sweethome3d.model.Room;
+import com.eteks.sweethome3d.model.Wall;
+
+/**
+ * A partial copy of a home made in the thread that modifies it, from which
+ * the geometries of 3D objects can be computed in other threads.
+ * A snapshot contains a copy of the levels of home and the copies
+ * of the items added to it, placed at the copies of their levels.
+ * @author Emmanuel Puybaret
+ * @since 4.2
+ */
+class HomeSnapshot {
+  private final Home              home;
+  private final Map<Level, Level> levels;
+
+  /**
+   * Creates a snapshot of the levels, the wall height and the environment
+   * of the given <code>home</code> that geometries depend on.
+   */
+  public HomeSnapshot(Home home) {
+    this.home = new Home(home.getWallHeight());
+    this.home.getEnvironment().setSubpartSizeUnderLight(home.getEnvironment().getSubpartSizeUnderLight());
+    this.levels = new HashMap<Level, Level>();
+    for (Level level : home.getLevels()) {
+      Level levelCopy = level.clone();
+      this.levels.put(level, levelCopy);
+      this.home.addLevel(levelCopy);
+    }
+  }
+
+  /**
+   * Returns the home that contains the copied items.
+   */
+  public Home getHome() {
+    return this.home;
+  }
+
+  /**
+   * Adds to this snapshot a copy of the given <code>walls</code>, joined together
+   * like the original ones, and returns these copies in the same order.
+   */
+  public List<Wall> addWalls(List<Wall> walls) {
+    List<Wall> wallsCopy = Wall.clone(walls);
+    for (int i = 0; i < walls.size(); i++) {
+      Wall wallCopy = wallsCopy.get(i);
+      this.home.addWall(wallCopy);
+      wallCopy.setLevel(getLevel(walls.get(i).getLevel()));
+    }
+    return wallsCopy;
+  }
+
+  /**
+   * Adds to this snapshot a copy of the given <code>room</code> and returns it.
+   */
+  public Room addRoom(Room room) {
+    Room roomCopy = room.clone();
+    this.home.addRoom(roomCopy);
+    roomCopy.setLevel(getLevel(room.getLevel()));
+    return roomCopy;
+  }
+
+  /**
+   * Adds to this snapshot a copy of the given <code>piece</code> and returns it.
+   */
+  public HomePieceOfFurniture addPieceOfFurniture(HomePieceOfFurniture piece) {
+    HomePieceOfFurniture pieceCopy = piece.clone();
+    this.home.addPieceOfFurniture(pieceCopy);
+    pieceCopy.setLevel(getLevel(piece.getLevel()));
+    return pieceCopy;
+  }
+
+  /**
+   * Returns the copy of the given <code>level</code>.
+   */
+  public Level getLevel(Level level) {
+    return level != null
+        ? this.levels.get(level)
+        : null;
+  }
+}
@@ -0,0 +1,266 @@
+/*
+ * LightScopeCache.java 18 oct. 2026
+ *
+ * Sweet Home 3D, Copyright (c) 2026 Emmanuel PUYBARET / eTeks <info@eteks.com>
+ *
+ * This program is free software; you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation; either version 2 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program; if not, write to the Free Software
+ * Foundation, Inc., 59 Temple Place, Suite 330, Boston, MA  02111-1307  USA
+ */
+package com.eteks.sweethome3d.j3d;
+
+import java.awt.EventQueue;
+import java.awt.geom.Area;
+import java.awt.geom.GeneralPath;
+import java.awt.geom.PathIterator;
+import java.awt.geom.Rectangle2D;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.WeakHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadFactory;
+
+import com.eteks.sweethome3d.model.Room;
+import com.eteks.sweethome3d.model.Selectable;
+import com.eteks.sweethome3d.model.Wall;
+import com.eteks.sweethome3d.tools.SpatialIndex;
+
+/**
+ * A cache able to compute in a worker thread which home items are outside the area surrounded 
+ * by walls, to add them to the scope of default lights when home uses subparts under light. 
+ * The polygons surrounded by walls are computed again only when walls change, 
+ * and are indexed to test each item point only against the polygons around it.
+ * The result computed for each item is kept as long as its points and walls don't change. 
+ * @author Emmanuel Puybaret
+ * @since 4.2
+ */
+public class LightScopeCache {
+  private static final float INDEX_CELL_SIZE = 500;
+  
+  private static ExecutorService scopeComputer;
+  
+  private List<float [][]>                  wallsPoints;
+  private SpatialIndex<GeneralPath>         insideWallsPolygons;
+  private final Map<Selectable, ItemScope>  itemScopes;
+  private int                               lastComputedItemCount;
+
+  /**
+   * Creates an empty cache.
+   */
+  public LightScopeCache() {
+    this.itemScopes = new WeakHashMap<Selectable, ItemScope>();
+  }
+
+  /**
+   * Returns the points of <code>walls</code> made slightly thinner, 
+   * to compute the area surrounded by walls. This method should be invoked from Event Dispatch Thread.
+   */
+  public static List<float [][]> getThinnerWallsPoints(Collection<Wall> walls) {
+    List<float [][]> wallsPoints = new ArrayList<float[][]>(walls.size());
+    for (Wall wall : walls) {
+      Wall thinnerWall = wall.clone();
+      thinnerWall.setThickness(Math.max(thinnerWall.getThickness() - 0.1f, 0.08f));
+      wallsPoints.add(thinnerWall.getPoints());
+    }
+    return wallsPoints;
+  }
+
+  /**
+   * Computes in a worker thread the items of <code>itemsPoints</code> which are outside the area surrounded 
+   * by the walls of <code>wallsPoints</code>, then notifies <code>observer</code> in Event Dispatch Thread.
+   * The computations requested to this method are performed in the order of the calls.
+   * @param wallsPoints  the points returned by {@link #getThinnerWallsPoints(Collection) getThinnerWallsPoints}
+   * @param itemsPoints  the points of the items to check. Points must not be modified once given to this method.
+   */
+  public void computeItemsOutsideWalls(final List<float [][]> wallsPoints, 
+                                       final Map<Selectable, float [][]> itemsPoints, 
+                                       final ScopeObserver observer) {
+    getScopeComputer().execute(new Runnable() {
+        public void run() {
+          final Map<Selectable, boolean []> itemsOutsideWalls = getItemsOutsideWalls(wallsPoints, itemsPoints);
+          EventQueue.invokeLater(new Runnable() {
+              public void run() {
+                observer.scopeComputed(itemsOutsideWalls);
+              }
+            });
+        }
+      });
+  }
+
+  /**
+   * Returns for each item of <code>itemsPoints</code> whether it's outside the area surrounded 
+   * by the walls of <code>wallsPoints</code>. The returned array contains one value for the start 
+   * and one value for the end of walls, and only one value for other items, equal to <code>true</code> 
+   * if one of their points is outside.
+   */
+  public synchronized Map<Selectable, boolean []> getItemsOutsideWalls(List<float [][]> wallsPoints, 
+                                                                      Map<Selectable, float [][]> itemsPoints) {
+    if (this.wallsPoints == null
+        || !equalPoints(this.wallsPoints, wallsPoints)) {
+      this.insideWallsPolygons = getInsideWallsPolygons(wallsPoints);
+      this.wallsPoints = wallsPoints;
+    }
+    
+    this.lastComputedItemCount = 0;
+    Map<Selectable, boolean []> itemsOutsideWalls = new LinkedHashMap<Selectable, boolean[]>(itemsPoints.size());
+    for (Map.Entry<Selectable, float [][]> entry : itemsPoints.entrySet()) {
+      Selectable item = entry.getKey();
+      float [][] points = entry.getValue();
+      ItemScope itemScope = this.itemScopes.get(item);
+      if (itemScope == null
+          || itemScope.insideWallsPolygons != this.insideWallsPolygons
+          || !Arrays.deepEquals(itemScope.points, points)) {
+        boolean [] outsideWalls;
+        if (item instanceof Wall) {
+          outsideWalls = new boolean [] {
+              !isInsideWalls(points [0][0], points [0][1]), 
+              !isInsideWalls(points [points.length - 1][0], points [points.length - 1][1])};
+        } else {
+          outsideWalls = new boolean [1];
+          for (float [] point : points) {
+            if (!isInsideWalls(point [0], point [1])) {
+              outsideWalls [0] = true;
+              break;
+            }
+          }
+        }
+        itemScope = new ItemScope(this.insideWallsPolygons, points, outsideWalls);
+        this.itemScopes.put(item, itemScope);
+        this.lastComputedItemCount++;
+      }
+      itemsOutsideWalls.put(item, itemScope.outsideWalls);
+    }
+    return itemsOutsideWalls;
+  }
+  
+  /**
+   * Returns the count of items which scope was computed again at the last call to 
+   * {@link #getItemsOutsideWalls(List, Map) getItemsOutsideWalls}.
+   */
+  public synchronized int getLastComputedItemCount() {
+    return this.lastComputedItemCount;
+  }
+
+  /**
+   * Returns <code>true</code> if the given lists contain the same points.
+   */
+  private static boolean equalPoints(List<float [][]> points1, List<float [][]> points2) {
+    if (points1.size() != points2.size()) {
+      return false;
+    }
+    for (int i = 0; i < points1.size(); i++) {
+      if (!Arrays.deepEquals(points1.get(i), points2.get(i))) {
+        return false;
+      }
+    }
+    return true;
+  }
+
+  /**
+   * Returns an index of the polygons surrounded by the given walls.
+   */
+  private static SpatialIndex<GeneralPath> getInsideWallsPolygons(List<float [][]> wallsPoints) {
+    Area wallsArea = new Area();
+    for (float [][] points : wallsPoints) {
+      wallsArea.add(new Area(getShape(points)));
+    }
+    SpatialIndex<GeneralPath> polygons = new SpatialIndex<GeneralPath>(INDEX_CELL_SIZE);
+    List<float []> points = new ArrayList<float[]>();
+    for (PathIterator it = wallsArea.getPathIterator(null, 1); !it.isDone(); it.next()) {
+      float [] point = new float[2];
+      switch (it.currentSegment(point)) {
+        case PathIterator.SEG_MOVETO : 
+        case PathIterator.SEG_LINETO : 
+          points.add(point);
+          break;
+        case PathIterator.SEG_CLOSE :
+          if (points.size() > 2) {
+            float [][] pointsArray = points.toArray(new float [points.size()][]);
+            if (new Room(pointsArray).isClockwise()) {
+              GeneralPath polygon = getShape(pointsArray);
+              polygons.add(polygon, polygon.getBounds2D());
+            }               
+          }
+          points.clear();
+          break;
+      }
+    }
+    return polygons;
+  }
+
+  private static GeneralPath getShape(float [][] points) {
+    GeneralPath path = new GeneralPath();
+    path.moveTo(points [0][0], points [0][1]);
+    for (int i = 1; i < points.length; i++) {
+      path.lineTo(points [i][0], points [i][1]);
+    }
+    path.closePath();
+    return path;
+  }
+
+  /**
+   * Returns <code>true</code> if the given point belongs to a polygon surrounded by walls.
+   */
+  private boolean isInsideWalls(float x, float y) {
+    for (GeneralPath polygon : this.insideWallsPolygons.getItems(new Rectangle2D.Float(x, y, 0, 0))) {
+      if (polygon.contains(x, y)) {
+        return true;
+      }
+    }
+    return false;
+  }
+
+  /**
+   * Returns the executor shared by caches to compute scopes, 
+   * which runs computations one after the other.
+   */
+  private static synchronized ExecutorService getScopeComputer() {
+    if (scopeComputer == null) {
+      scopeComputer = Executors.newSingleThreadExecutor(new ThreadFactory() {
+          public Thread newThread(Runnable runnable) {
+            Thread thread = new Thread(runnable);
+            thread.setDaemon(true);
+            return thread;
+          }
+        });
+    }
+    return scopeComputer;
+  }
+
+  /**
+   * An observer notified once the scope of items is computed.
+   */
+  public static interface ScopeObserver {
+    public void scopeComputed(Map<Selectable, boolean []> itemsOutsideWalls); 
+  }
+
+  /**
+   * The scope computed for an item with given points.
+   */
+  private static class ItemScope {
+    private final SpatialIndex<GeneralPath> insideWallsPolygons;
+    private final float [][]                points;
+    private final boolean []                outsideWalls;
+
+    public ItemScope(SpatialIndex<GeneralPath> insideWallsPolygons, float [][] points, boolean [] outsideWalls) {
+      this.insideWallsPolygons = insideWallsPolygons;
+      this.points = points;
+      this.outsideWalls = outsideWalls;
+    }
+  }
+}
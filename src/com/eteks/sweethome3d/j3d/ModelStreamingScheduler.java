@@ -0,0 +1,213 @@
+/*
+ * ModelStreamingScheduler.java 18 oct. 2026
+ *
+ * Sweet Home 3D, Copyright (c) 2026 Emmanuel PUYBARET / eTeks <info@eteks.com>
+ *
+ * This program is free software; you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation; either version 2 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program; if not, write to the Free Software
+ * Foundation, Inc., 59 Temple Place, Suite 330, Boston, MA  02111-1307  USA
+ */
+package com.eteks.sweethome3d.j3d;
+
+import java.awt.EventQueue;
+import java.lang.ref.WeakReference;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.WeakHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.TimeUnit;
+
+import com.eteks.sweethome3d.model.Camera;
+import com.eteks.sweethome3d.model.Home;
+import com.eteks.sweethome3d.model.HomePieceOfFurniture;
+
+/**
+ * A scheduler that spreads over successive frames the replacement of the boxes displayed 
+ * while models are loaded by the models of the pieces of a home, to keep navigation fluid 
+ * when a lot of models are loaded at once. At most <code>MAX_SWAPS_PER_FRAME</code> models 
+ * are swapped at each frame, the pieces closest to the camera first, and pieces far from 
+ * the camera keep their box until the camera stops moving. 
+ * The same scheduler is shared by all the views of a home with {@link #getInstance(Home) getInstance}.
+ * @author Emmanuel Puybaret
+ * @since 4.2
+ */
+public class ModelStreamingScheduler {
+  private static final int   MAX_SWAPS_PER_FRAME = 4;
+  private static final int   FRAME_DELAY         = 15;  // ms
+  private static final long  IDLE_DELAY          = 500; // ms
+  private static final float FAR_DISTANCE        = 2000;
+
+  private static final Map<Home, ModelStreamingScheduler> instances = new WeakHashMap<Home, ModelStreamingScheduler>();
+  private static ScheduledExecutorService frameTimer;
+
+  // Weak reference to home to let it be garbage collected with its scheduler
+  private final WeakReference<Home>                   home;
+  private final Map<HomePieceOfFurniture3D, Runnable> pendingSwaps;
+  private final Runnable                              frameRequest;
+  private boolean                                     framePending;
+  // Counts read also by rendering threads
+  private volatile int                                pendingModelCount;
+  private volatile int                                swappedModelCount;
+  private float []                                    lastCameraState;
+  private long                                        lastCameraMoveTime;
+
+  /**
+   * Creates a scheduler for the models of the furniture of the given <code>home</code>.
+   */
+  public ModelStreamingScheduler(Home home) {
+    this.home = new WeakReference<Home>(home);
+    this.pendingSwaps = new LinkedHashMap<HomePieceOfFurniture3D, Runnable>();
+    final Runnable frameRunner = new Runnable() {
+        public void run() {
+          runFrame();
+        }
+      };
+    this.frameRequest = new Runnable() {
+        public void run() {
+          EventQueue.invokeLater(frameRunner);
+        }
+      };
+  }
+
+  /**
+   * Returns the scheduler shared for the furniture of the given <code>home</code>.
+   */
+  public static ModelStreamingScheduler getInstance(Home home) {
+    synchronized (instances) {
+      ModelStreamingScheduler instance = instances.get(home);
+      if (instance == null) {
+        instance = new ModelStreamingScheduler(home);
+        instances.put(home, instance);
+      }
+      return instance;
+    }
+  }
+
+  /**
+   * Schedules the given <code>modelSwap</code> that replaces the box of <code>piece3D</code> 
+   * by its loaded model. If a swap is already pending for this piece, it's replaced by the new one.
+   * Should be invoked from Event Dispatch Thread.
+   */
+  public void scheduleModelSwap(HomePieceOfFurniture3D piece3D, Runnable modelSwap) {
+    this.pendingSwaps.put(piece3D, modelSwap);
+    this.pendingModelCount = this.pendingSwaps.size();
+    requestFrame();
+  }
+
+  /**
+   * Requests to run a frame in Event Dispatch Thread after <code>FRAME_DELAY</code> ms, 
+   * if no frame is already pending.
+   */
+  private void requestFrame() {
+    if (!this.framePending) {
+      this.framePending = true;
+      getFrameTimer().schedule(this.frameRequest, FRAME_DELAY, TimeUnit.MILLISECONDS);
+    }
+  }
+
+  /**
+   * Returns the timer shared by schedulers to request frames.
+   */
+  private static synchronized ScheduledExecutorService getFrameTimer() {
+    if (frameTimer == null) {
+      frameTimer = Executors.newSingleThreadScheduledExecutor(new ThreadFactory() {
+          public Thread newThread(Runnable runnable) {
+            Thread thread = new Thread(runnable);
+            thread.setDaemon(true);
+            return thread;
+          }
+        });
+    }
+    return frameTimer;
+  }
+
+  /**
+   * Returns the count of models waiting to be displayed.
+   */
+  public int getPendingModelCount() {
+    return this.pendingModelCount;
+  }
+
+  /**
+   * Returns the count of models displayed since the last time no model was pending.
+   */
+  public int getSwappedModelCount() {
+    return this.swappedModelCount;
+  }
+
+  /**
+   * Swaps the models of the pieces closest to camera, 
+   * and the ones of far pieces only if camera didn't move recently.
+   */
+  private void runFrame() {
+    this.framePending = false;
+    Home home = this.home.get();
+    if (home == null) {
+      this.pendingSwaps.clear();
+      this.pendingModelCount = 0;
+      return;
+    }
+    long now = System.currentTimeMillis();
+    Camera camera = home.getCamera();
+    float [] cameraState = {camera.getX(), camera.getY(), camera.getZ(), 
+                            camera.getYaw(), camera.getPitch(), camera.getFieldOfView()};
+    if (this.lastCameraState == null
+        || !Arrays.equals(this.lastCameraState, cameraState)) {
+      this.lastCameraState = cameraState;
+      this.lastCameraMoveTime = now;
+    }
+    boolean idle = now - this.lastCameraMoveTime > IDLE_DELAY;
+
+    // Sort pending pieces from the closest to the farthest
+    final Map<HomePieceOfFurniture3D, Float> distances = new HashMap<HomePieceOfFurniture3D, Float>();
+    for (HomePieceOfFurniture3D piece3D : this.pendingSwaps.keySet()) {
+      HomePieceOfFurniture piece = (HomePieceOfFurniture)piece3D.getUserData();
+      float dx = piece.getX() - cameraState [0];
+      float dy = piece.getY() - cameraState [1];
+      float dz = piece.getGroundElevation() + piece.getHeight() / 2 - cameraState [2];
+      distances.put(piece3D, (float)Math.sqrt(dx * dx + dy * dy + dz * dz));
+    }
+    List<HomePieceOfFurniture3D> pieces3D = new ArrayList<HomePieceOfFurniture3D>(this.pendingSwaps.keySet());
+    Collections.sort(pieces3D, new Comparator<HomePieceOfFurniture3D>() {
+        public int compare(HomePieceOfFurniture3D piece3D1, HomePieceOfFurniture3D piece3D2) {
+          return Float.compare(distances.get(piece3D1), distances.get(piece3D2));
+        }
+      });
+    
+    int swapCount = 0;
+    for (HomePieceOfFurniture3D piece3D : pieces3D) {
+      if (swapCount == MAX_SWAPS_PER_FRAME
+          || !idle && distances.get(piece3D) > FAR_DISTANCE) {
+        break;
+      }
+      this.pendingSwaps.remove(piece3D).run();
+      this.swappedModelCount++;
+      swapCount++;
+    }
+    this.pendingModelCount = this.pendingSwaps.size();
+    
+    if (this.pendingSwaps.isEmpty()) {
+      this.swappedModelCount = 0;
+    } else {
+      requestFrame();
+    }
+  }
+}
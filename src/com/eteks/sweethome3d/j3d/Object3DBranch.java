@@ -23,9 +23,11 @@ import java.awt.Shape;
 import java.awt.geom.GeneralPath;
 import java.util.HashMap;
 import java.util.Map;
+import java.util.concurrent.Callable;
 
 import javax.media.j3d.BranchGroup;
 import javax.media.j3d.ColoringAttributes;
+import javax.media.j3d.Geometry;
 import javax.media.j3d.LineAttributes;
 import javax.media.j3d.Material;
 import javax.media.j3d.PolygonAttributes;
@@ -60,6 +62,37 @@ public abstract class Object3DBranch extends BranchGroup {
    */
   public abstract void update();
 
+  /**
+   * Returns a task that computes the geometries of the shapes of this branch 
+   * from a copy of the home data they depend on, or <code>null</code> if this branch 
+   * can't compute its geometries apart. This method should be called from the thread 
+   * that modifies home, but the returned task may be run in any other thread
+   * because it doesn't read home objects.
+   * @since 4.2
+   */
+  public Callable<Geometry [][]> createGeometriesBuilder() {
+    return null;
+  }
+
+  /**
+   * Updates this branch from the home object, replacing the geometries of its shapes
+   * by the given ones, previously computed by the task returned by 
+   * {@link #createGeometriesBuilder() createGeometriesBuilder}.
+   * @since 4.2
+   */
+  public void update(Geometry [][] geometries) {
+    update();
+  }
+
+  /**
+   * Updates the appearance of this branch from the home object, when its geometries 
+   * didn't change. By default, this method updates the whole branch.
+   * @since 4.2
+   */
+  public void updateAppearance() {
+    update();
+  }
+
   /**
    * Returns the shape matching the coordinates in <code>points</code> array.
    */
@@ -72,6 +105,20 @@ public abstract class Object3DBranch extends BranchGroup {
     path.closePath();
     return path;
   }
+
+  /**
+   * Returns the shape matching the <code>pointCount</code> first points 
+   * stored as alternated x and y coordinates in <code>points</code> array.
+   */
+  protected Shape getShape(float [] points, int pointCount) {
+    GeneralPath path = new GeneralPath(GeneralPath.WIND_NON_ZERO, pointCount + 1);
+    path.moveTo(points [0], points [1]);
+    for (int i = 2; i < 2 * pointCount; i += 2) {
+      path.lineTo(points [i], points [i + 1]);
+    }
+    path.closePath();
+    return path;
+  }
   
   /**
    * Returns a shared material instance matching the given color.
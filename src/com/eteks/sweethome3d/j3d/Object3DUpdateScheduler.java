@@ -0,0 +1,297 @@
+/*
+ * Object3DUpdateScheduler.java 18 oct. 2026
+ *
+ * Sweet Home 3D, Copyright (c) 2026 Emmanuel PUYBARET / eTeks <info@eteks.com>
+ *
+ * This program is free software; you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation; either version 2 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program; if not, write to the Free Software
+ * Foundation, Inc., 59 Temple Place, Suite 330, Boston, MA  02111-1307  USA
+ */
+package com.eteks.sweethome3d.j3d;
+
+import java.awt.EventQueue;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+
+import javax.media.j3d.Geometry;
+
+/**
+ * A scheduler that gathers the updates of 3D objects and other 3D tasks requested
+ * in Event Dispatch Thread, to perform them together at the next frame.
+ * Each object and each task is updated at most once per frame, whatever the count of
+ * requested updates. The geometries of the objects able to {@link Object3DBranch#createGeometriesBuilder() compute them}
+ * apart are built in worker threads from a copy of the data they depend on, then swapped with 
+ * the current ones at the first frame following the end of their computation.
+ * @author Emmanuel Puybaret
+ * @since 4.2
+ */
+public class Object3DUpdateScheduler {
+  private static ExecutorService geometriesBuilder;
+
+  private final Set<Object3DBranch>              branchesToUpdate;
+  private final Map<Object3DBranch, BranchState> branchStates;
+  private final Map<Object, Runnable>            tasks;
+  private final List<BuiltGeometries>            builtGeometries;
+  private final AtomicBoolean                    framePending;
+  private final Runnable                         frameRunner;
+  private final AtomicLong                       geometriesBuildTime;
+  private int                                    frameCount;
+  private int                                    updateCount;
+  private int                                    lastFrameUpdateCount;
+
+  /**
+   * Creates a scheduler with no pending update.
+   */
+  public Object3DUpdateScheduler() {
+    this.branchesToUpdate = new LinkedHashSet<Object3DBranch>();
+    this.branchStates = new HashMap<Object3DBranch, BranchState>();
+    this.tasks = new LinkedHashMap<Object, Runnable>();
+    this.builtGeometries = new ArrayList<BuiltGeometries>();
+    this.framePending = new AtomicBoolean();
+    this.frameRunner = new Runnable() {
+        public void run() {
+          runFrame();
+        }
+      };
+    this.geometriesBuildTime = new AtomicLong();
+  }
+
+  /**
+   * Schedules the update of the given <code>branch</code> at next frame.
+   * If <code>buildGeometriesApart</code> is <code>true</code>, the geometries of the branch
+   * will be computed in a worker thread, and swapped at the first frame following their computation.
+   * Should be invoked from Event Dispatch Thread.
+   */
+  public void scheduleUpdate(Object3DBranch branch, boolean buildGeometriesApart) {
+    BranchState state = this.branchStates.get(branch);
+    if (state == null) {
+      state = new BranchState();
+      this.branchStates.put(branch, state);
+    }
+    state.requestStamp++;
+    state.buildGeometriesApart |= buildGeometriesApart;
+    this.branchesToUpdate.add(branch);
+    requestFrame();
+  }
+
+  /**
+   * Schedules the given <code>task</code> at next frame, after the update of 3D objects.
+   * If a task with the same <code>key</code> is already scheduled, it will be run only once.
+   * Should be invoked from Event Dispatch Thread.
+   */
+  public void scheduleTask(Object key, Runnable task) {
+    if (!this.tasks.containsKey(key)) {
+      this.tasks.put(key, task);
+      requestFrame();
+    }
+  }
+
+  /**
+   * Cancels the updates of the given <code>branch</code>, once it was removed from its scene.
+   * Should be invoked from Event Dispatch Thread.
+   */
+  public void cancelUpdate(Object3DBranch branch) {
+    this.branchesToUpdate.remove(branch);
+    this.branchStates.remove(branch);
+  }
+
+  /**
+   * Returns <code>true</code> if the update of some 3D objects is waiting for the next frame.
+   */
+  public boolean isUpdatePending() {
+    return !this.branchesToUpdate.isEmpty();
+  }
+
+  /**
+   * Returns the count of frames run by this scheduler.
+   */
+  public int getFrameCount() {
+    return this.frameCount;
+  }
+
+  /**
+   * Returns the count of 3D objects updates and tasks performed by this scheduler.
+   */
+  public int getUpdateCount() {
+    return this.updateCount;
+  }
+
+  /**
+   * Returns the count of 3D objects updates and tasks performed during the last frame.
+   */
+  public int getLastFrameUpdateCount() {
+    return this.lastFrameUpdateCount;
+  }
+
+  /**
+   * Returns the total time in milliseconds spent by worker threads to build geometries.
+   */
+  public long getGeometriesBuildTime() {
+    return this.geometriesBuildTime.get() / 1000000;
+  }
+
+  private void requestFrame() {
+    if (this.framePending.compareAndSet(false, true)) {
+      EventQueue.invokeLater(this.frameRunner);
+    }
+  }
+
+  /**
+   * Swaps the geometries built since last frame, then updates pending branches
+   * and runs pending tasks.
+   */
+  private void runFrame() {
+    this.framePending.set(false);
+    int frameUpdateCount = 0;
+    List<BuiltGeometries> builtGeometries;
+    synchronized (this.builtGeometries) {
+      builtGeometries = new ArrayList<BuiltGeometries>(this.builtGeometries);
+      this.builtGeometries.clear();
+    }
+    for (BuiltGeometries built : builtGeometries) {
+      BranchState state = this.branchStates.get(built.branch);
+      // Ignore geometries of branches cancelled meanwhile
+      if (state != null) {
+        state.building = false;
+        if (built.stamp > state.appliedStamp) {
+          state.appliedStamp = built.stamp;
+          if (built.geometries != null) {
+            built.branch.update(built.geometries);
+          } else {
+            // Geometries couldn't be computed apart
+            built.branch.update();
+          }
+          frameUpdateCount++;
+        }
+      }
+    }
+
+    for (Iterator<Object3DBranch> it = this.branchesToUpdate.iterator(); it.hasNext(); ) {
+      final Object3DBranch branch = it.next();
+      final BranchState state = this.branchStates.get(branch);
+      if (state.buildGeometriesApart) {
+        // Let the branch in the set until its geometries being built are swapped
+        if (!state.building) {
+          final int stamp = state.requestStamp;
+          // Copy in this thread the data read to build geometries 
+          final Callable<Geometry [][]> geometriesBuilder = branch.createGeometriesBuilder();
+          if (geometriesBuilder != null) {
+            state.building = true;
+            getGeometriesBuilder().execute(new Runnable() {
+                public void run() {
+                  buildGeometries(branch, stamp, geometriesBuilder);
+                }
+              });
+          } else {
+            state.appliedStamp = stamp;
+            branch.update();
+            frameUpdateCount++;
+          }
+          it.remove();
+        }
+      } else {
+        state.appliedStamp = state.requestStamp;
+        branch.update();
+        frameUpdateCount++;
+        it.remove();
+      }
+    }
+
+    if (!this.tasks.isEmpty()) {
+      List<Runnable> tasks = new ArrayList<Runnable>(this.tasks.values());
+      this.tasks.clear();
+      for (Runnable task : tasks) {
+        task.run();
+        frameUpdateCount++;
+      }
+    }
+
+    this.frameCount++;
+    this.updateCount += frameUpdateCount;
+    this.lastFrameUpdateCount = frameUpdateCount;
+  }
+
+  /**
+   * Builds the geometries of the given <code>branch</code> with its builder in a worker thread,
+   * and requests a frame to swap them.
+   */
+  private void buildGeometries(Object3DBranch branch, int stamp, Callable<Geometry [][]> geometriesBuilder) {
+    long start = System.nanoTime();
+    Geometry [][] geometries;
+    try {
+      geometries = geometriesBuilder.call();
+    } catch (Exception ex) {
+      // Let Event Dispatch Thread update the branch
+      geometries = null;
+    }
+    this.geometriesBuildTime.addAndGet(System.nanoTime() - start);
+    synchronized (this.builtGeometries) {
+      this.builtGeometries.add(new BuiltGeometries(branch, stamp, geometries));
+    }
+    requestFrame();
+  }
+
+  /**
+   * Returns the executor shared by schedulers to build geometries.
+   */
+  private static synchronized ExecutorService getGeometriesBuilder() {
+    if (geometriesBuilder == null) {
+      geometriesBuilder = Executors.newFixedThreadPool(Runtime.getRuntime().availableProcessors(),
+          new ThreadFactory() {
+            public Thread newThread(Runnable runnable) {
+              Thread thread = new Thread(runnable);
+              thread.setDaemon(true);
+              return thread;
+            }
+          });
+    }
+    return geometriesBuilder;
+  }
+
+  /**
+   * The update state of a branch.
+   */
+  private static class BranchState {
+    private int     requestStamp;
+    private int     appliedStamp;
+    private boolean buildGeometriesApart;
+    private boolean building;
+  }
+
+  /**
+   * Geometries built for a branch in a worker thread.
+   */
+  private static class BuiltGeometries {
+    private final Object3DBranch branch;
+    private final int            stamp;
+    private final Geometry [][]  geometries;
+
+    public BuiltGeometries(Object3DBranch branch, int stamp, Geometry [][] geometries) {
+      this.branch = branch;
+      this.stamp = stamp;
+      this.geometries = geometries;
+    }
+  }
+}
@@ -25,10 +25,12 @@ import java.awt.geom.Point2D;
 import java.awt.geom.Rectangle2D;
 import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.Collection;
 import java.util.Collections;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.concurrent.Callable;
 
 import javax.media.j3d.Appearance;
 import javax.media.j3d.BranchGroup;
@@ -65,7 +67,15 @@ public class Room3D extends Object3DBranch {
   private static final int FLOOR_PART  = 0;
   private static final int CEILING_PART = 1;
   
+  // Distance around room bounds used to search walls that give ceiling height 
+  private static final float NEARBY_WALLS_MARGIN = 100;
+  
   private final Home home;
+  // Last geometries computed for each room part, with the data they were computed from 
+  private final GeometriesKey [] geometriesKeys;
+  private final Geometry [][]    cachedGeometries;
+  // Geometries currently displayed by each room part
+  private final Geometry [][]    displayedGeometries = new Geometry [2][];
 
   /**
    * Creates the 3D room matching the given home <code>room</code>.
@@ -83,6 +93,8 @@ public class Room3D extends Object3DBranch {
                 boolean waitTextureLoadingEnd) {
     setUserData(room);
     this.home = home;
+    this.geometriesKeys = new GeometriesKey [2];
+    this.cachedGeometries = new Geometry [2][];
 
     // Allow room branch to be removed from its parent
     setCapability(BranchGroup.ALLOW_DETACH);
@@ -107,6 +119,17 @@ public class Room3D extends Object3DBranch {
     }
   }
 
+  /**
+   * Creates a 3D room with no shape, able only to compute the geometries of the given <code>room</code>
+   * copied in <code>home</code>, sharing the geometries cache of <code>room3D</code>.
+   */
+  private Room3D(Room room, Home home, Room3D room3D) {
+    setUserData(room);
+    this.home = home;
+    this.geometriesKeys = room3D.geometriesKeys;
+    this.cachedGeometries = room3D.cachedGeometries;
+  }
+
   /**
    * Returns a new room part shape with no geometry  
    * and a default appearance with a white material.
@@ -141,7 +164,78 @@ public class Room3D extends Object3DBranch {
 
   @Override
   public void update() {
-    updateRoomGeometry();
+    updateRoomGeometry(createGeometries());
+    updateRoomAppearance(false);
+  }
+  
+  /**
+   * Updates the color, the texture and the visibility of this room without computing its geometry.
+   * @since 4.2
+   */
+  @Override
+  public void updateAppearance() {
+    updateRoomAppearance(false);
+  }
+  
+  /**
+   * Returns the geometries of the floor and the ceiling of this room.
+   */
+  private Geometry [][] createGeometries() {
+    Room room = (Room)getUserData();
+    Geometry [][] geometries = new Geometry [2][];
+    geometries [FLOOR_PART] = createRoomPartGeometries(FLOOR_PART, room.getFloorTexture());
+    geometries [CEILING_PART] = createRoomPartGeometries(CEILING_PART, room.getCeilingTexture());
+    return geometries;
+  }
+  
+  /**
+   * Returns a task that computes the geometries of this room from a copy of the rooms, 
+   * the levels and the staircases of home, and of the walls that may give the height of its ceiling.
+   * @since 4.2
+   */
+  @Override
+  public Callable<Geometry [][]> createGeometriesBuilder() {
+    Room room = (Room)getUserData();
+    HomeSnapshot snapshot = new HomeSnapshot(this.home);
+    // Copy all rooms to keep the order of the rooms at the same elevation
+    Room roomCopy = null;
+    for (Room homeRoom : this.home.getRooms()) {
+      Room homeRoomCopy = snapshot.addRoom(homeRoom);
+      if (homeRoom == room) {
+        roomCopy = homeRoomCopy;
+      }
+    }
+    if (roomCopy == null) {
+      roomCopy = snapshot.addRoom(room);
+    }
+    for (HomePieceOfFurniture piece : this.home.getFurniture()) {
+      if (piece.isVisible()
+          && (piece instanceof HomeFurnitureGroup
+              || piece.getStaircaseCutOutShape() != null)) {
+        snapshot.addPieceOfFurniture(piece);
+      }
+    }
+    Level roomLevel = room.getLevel();
+    if (room.isCeilingVisible()
+        && (roomLevel == null || isLastLevel(roomLevel, this.home.getLevels()))) {
+      // Copy the walls from which ceiling heights are computed
+      snapshot.addWalls(this.home.getWallsAtLevel(roomLevel));
+    }
+    final Room3D room3D = new Room3D(roomCopy, snapshot.getHome(), this);
+    return new Callable<Geometry [][]>() {
+        public Geometry [][] call() {
+          return room3D.createGeometries();
+        }
+      };
+  }
+  
+  /**
+   * Updates this room with the given <code>geometries</code> and its current appearance.
+   * @since 4.2
+   */
+  @Override
+  public void update(Geometry [][] geometries) {
+    updateRoomGeometry(geometries);
     updateRoomAppearance(false);
   }
   
@@ -149,30 +243,49 @@ public class Room3D extends Object3DBranch {
    * Sets the 3D geometry of this room shapes that matches its 2D geometry.  
    */
   private void updateRoomGeometry() {
-    updateRoomPartGeometry(FLOOR_PART, ((Room)getUserData()).getFloorTexture());
-    updateRoomPartGeometry(CEILING_PART, ((Room)getUserData()).getCeilingTexture());
+    updateRoomGeometry(createGeometries());
   }
   
-  private void updateRoomPartGeometry(int roomPart, HomeTexture texture) {
-    Shape3D roomShape = (Shape3D)getChild(roomPart);
-    int currentGeometriesCount = roomShape.numGeometries();
-    Room room = (Room)getUserData();
-    if (room.getLevel() == null || room.getLevel().isVisible()) {
-      for (Geometry roomGeometry : createRoomGeometries(roomPart, texture)) {
+  /**
+   * Replaces the geometries of this room shapes by the given ones,
+   * if they're different from the displayed ones.  
+   */
+  private void updateRoomGeometry(Geometry [][] geometries) {
+    for (int roomPart = 0; roomPart < geometries.length; roomPart++) {
+      if (geometries [roomPart] == this.displayedGeometries [roomPart]) {
+        // Geometries reused from cache
+        continue;
+      }
+      this.displayedGeometries [roomPart] = geometries [roomPart];
+      Shape3D roomShape = (Shape3D)getChild(roomPart);
+      int currentGeometriesCount = roomShape.numGeometries();
+      for (Geometry roomGeometry : geometries [roomPart]) {
         roomShape.addGeometry(roomGeometry);
       }
+      for (int i = currentGeometriesCount - 1; i >= 0; i--) {
+        roomShape.removeGeometry(i);
+      }
     }
-    for (int i = currentGeometriesCount - 1; i >= 0; i--) {
-      roomShape.removeGeometry(i);
+  }
+  
+  private Geometry [] createRoomPartGeometries(int roomPart, HomeTexture texture) {
+    Room room = (Room)getUserData();
+    if (room.getLevel() == null || room.getLevel().isVisible()) {
+      return createRoomGeometries(roomPart, texture);
+    } else {
+      return new Geometry [0];
     }
   }
   
   /**
-   * Returns room geometry computed from its points.
+   * Returns room geometry computed from its points, or the geometry previously computed
+   * if the room, its level, the rooms overlapping it, its staircases cut-outs and the walls
+   * giving its ceiling height didn't change.
    */
   private Geometry [] createRoomGeometries(int roomPart, HomeTexture texture) {
     Room room = (Room)getUserData();
     float [][] points = room.getPoints();
+    float [] otherRoomPoints = null;
     if ((roomPart == FLOOR_PART && room.isFloorVisible()
          || roomPart == CEILING_PART && room.isCeilingVisible())
         && points.length > 2) {
@@ -229,6 +342,7 @@ public class Room3D extends Object3DBranch {
         }
       }
       
+      Rectangle2D roomBounds = getShape(points).getBounds2D();
       List<HomePieceOfFurniture> visibleStaircases;
       if (roomLevel == null
           || roomPart == CEILING_PART
@@ -236,16 +350,35 @@ public class Room3D extends Object3DBranch {
         visibleStaircases = Collections.emptyList();
       } else {
         visibleStaircases = getVisibleStaircases(this.home.getFurniture(), roomPart, roomLevel, 
-            roomLevel.getElevation() == firstLevelElevation);
+            roomLevel.getElevation() == firstLevelElevation, roomBounds);
+      }
+      RoomHeights roomHeights = new RoomHeights(roomLevel, 
+          roomPart == CEILING_PART && (roomLevel == null || lastLevel), roomBounds);
+      final float subpartSize = this.home.getEnvironment().getSubpartSizeUnderLight();
+
+      // Reuse the geometries last computed for this room part if they were computed from the same data
+      GeometriesKey geometriesKey = new GeometriesKey(new Object [] {
+          points, roomElevation, floorBottomElevation, 
+          roomLevel != null ? roomLevel.getHeight() : null, lastLevel, firstLevelElevation, 
+          getRoomsPoints(roomsAtSameElevation.subList(roomsAtSameElevation.indexOf(room) + 1, roomsAtSameElevation.size())),
+          getRoomsPoints(ceilingsAtSameFloorBottomElevation),
+          getStaircasesCutOuts(visibleStaircases),
+          roomHeights.getNearbyWallsHeights(),
+          texture != null ? new float [] {texture.getWidth(), texture.getHeight()} : null,
+          subpartSize});
+      synchronized (this.geometriesKeys) {
+        if (geometriesKey.equals(this.geometriesKeys [roomPart])) {
+          return this.cachedGeometries [roomPart];
+        }
       }
 
       // Check ceiling points of the last level are at the same elevation
       boolean sameElevation = true;
       if (roomPart == CEILING_PART
           && (roomLevel == null || lastLevel)) {
-        float firstPointElevation = getRoomHeightAt(points [0][0], points [0][1]);
+        float firstPointElevation = roomHeights.getHeightAt(points [0][0], points [0][1]);
         for (int i = 1; i < points.length && sameElevation; i++) {
-          sameElevation = getRoomHeightAt(points [i][0], points [i][1]) == firstPointElevation;
+          sameElevation = roomHeights.getHeightAt(points [i][0], points [i][1]) == firstPointElevation;
         }
       }
       
@@ -263,7 +396,8 @@ public class Room3D extends Object3DBranch {
           // Remove other rooms surface that may overlap the current room
           for (int i = roomsAtSameElevation.size() - 1; i > 0 && roomsAtSameElevation.get(i) != room; i--) {
             Room otherRoom = roomsAtSameElevation.get(i);
-            roomVisibleArea.subtract(new Area(getShape(otherRoom.getPoints())));
+            otherRoomPoints = otherRoom.getPoints(otherRoomPoints);
+            roomVisibleArea.subtract(new Area(getShape(otherRoomPoints, otherRoom.getPointCount())));
           }
         }        
         removeStaircasesFromArea(visibleStaircases, roomVisibleArea);
@@ -291,7 +425,8 @@ public class Room3D extends Object3DBranch {
           Area floorBottomVisibleArea = roomVisibleArea != null ? roomVisibleArea : new Area(getShape(points));
           // Remove other rooms surface that may overlap the floor bottom
           for (Room otherRoom : ceilingsAtSameFloorBottomElevation) {
-            floorBottomVisibleArea.subtract(new Area(getShape(otherRoom.getPoints())));
+            otherRoomPoints = otherRoom.getPoints(otherRoomPoints);
+            floorBottomVisibleArea.subtract(new Area(getShape(otherRoomPoints, otherRoom.getPointCount())));
           }          
           floorBottomPoints = new ArrayList<float[][]>();
           floorBottomHoles = new HashMap<Integer, List<float [][]>>();
@@ -311,7 +446,6 @@ public class Room3D extends Object3DBranch {
           && roomLevel.getElevation() != firstLevelElevation;
       // Compute room and border geometries
       int i = 0;      
-      final float subpartSize = this.home.getEnvironment().getSubpartSizeUnderLight();
       for ( ; i < roomPoints.size(); i++) {
         float [][] roomPartPoints = roomPoints.get(i);
         float [] roomPartPointElevations = new float [roomPartPoints.length];
@@ -319,7 +453,7 @@ public class Room3D extends Object3DBranch {
         for (int j = 0; j < roomPartPoints.length; j++) {
           roomPartPointElevations [j] = roomPart == FLOOR_PART 
               ? roomElevation 
-              : getRoomHeightAt(roomPartPoints [j][0], roomPartPoints [j][1]);
+              : roomHeights.getHeightAt(roomPartPoints [j][0], roomPartPoints [j][1]);
           if (roomPartAtSameElevation && j > 0) {
             roomPartAtSameElevation = roomPartPointElevations [j] == roomPartPointElevations [j - 1];
           }
@@ -356,14 +490,14 @@ public class Room3D extends Object3DBranch {
                 for (int j = 0 ; j < geometryPartPointsList.size(); j++) {
                   geometries.add(computeRoomPartGeometry(geometryPartPointsList.get(j), geometryPartHolesMap.get(j), 
                       null, roomLevel, roomPartPointElevations [0], floorBottomElevation, 
-                      roomPart == FLOOR_PART, false, texture));
+                      roomPart == FLOOR_PART, false, texture, roomHeights));
                 }
               }
             }
           }
         } else {
           geometries.add(computeRoomPartGeometry(roomPartPoints, roomHoles.get(i), roomPartPointElevations, roomLevel,
-              roomElevation, floorBottomElevation, roomPart == FLOOR_PART, false, texture));
+              roomElevation, floorBottomElevation, roomPart == FLOOR_PART, false, texture, roomHeights));
         }
         
         if (computeFloorBorder) {
@@ -405,18 +539,27 @@ public class Room3D extends Object3DBranch {
                 for (int j = 0 ; j < geometryPartPointsList.size(); j++) {
                   geometries.add(computeRoomPartGeometry(geometryPartPointsList.get(j), geometryPartHolesMap.get(j), 
                       null, roomLevel, roomElevation, floorBottomElevation, 
-                      true, true, texture));
+                      true, true, texture, roomHeights));
                 }
               }
             }
           }
         } else {
           geometries.add(computeRoomPartGeometry(floorBottomPartPoints, floorBottomHoles.get(i), null, roomLevel,
-              roomElevation, floorBottomElevation, true, true, texture));
+              roomElevation, floorBottomElevation, true, true, texture, roomHeights));
         }
       }
 
-      return geometries.toArray(new Geometry [geometries.size()]);
+      Geometry [] roomGeometries = geometries.toArray(new Geometry [geometries.size()]);
+      // Don't keep geometries computed with walls far from the room, 
+      // because their changes aren't tracked in geometries key 
+      if (!roomHeights.isAllWallsSearched()) {
+        synchronized (this.geometriesKeys) {
+          this.geometriesKeys [roomPart] = geometriesKey;
+          this.cachedGeometries [roomPart] = roomGeometries;
+        }
+      }
+      return roomGeometries;
     } else {
       return new Geometry [0];
     }
@@ -431,7 +574,7 @@ public class Room3D extends Object3DBranch {
                                            Level roomLevel,
                                            float roomPartElevation, float floorBottomElevation,
                                            boolean floorPart, boolean floorBottomPart, 
-                                           HomeTexture texture) {
+                                           HomeTexture texture, RoomHeights roomHeights) {
     if (geometryHoles == null) {
       geometryHoles = Collections.emptyList();
     }
@@ -462,7 +605,7 @@ public class Room3D extends Object3DBranch {
             ? floorBottomElevation
             : (floorPart
                   ? roomPartElevation 
-                  : getRoomHeightAt(geometryHole [j][0], geometryHole [j][1]));
+                  : roomHeights.getHeightAt(geometryHole [j][0], geometryHole [j][1]));
         coords [i++] = new Point3f(geometryHole [j][0], y, geometryHole [j][1]);
       }
     }
@@ -594,16 +737,20 @@ public class Room3D extends Object3DBranch {
   }
 
   /**
-   * Returns the visible staircases among the given <code>furniture</code>.  
+   * Returns the visible staircases among the given <code>furniture</code>
+   * which bounds intersect <code>roomBounds</code>.  
    */
   private List<HomePieceOfFurniture> getVisibleStaircases(List<HomePieceOfFurniture> furniture, 
                                                           int roomPart, Level roomLevel,
-                                                          boolean firstLevel) {
-    List<HomePieceOfFurniture> visibleStaircases = new ArrayList<HomePieceOfFurniture>(furniture.size());
+                                                          boolean firstLevel, 
+                                                          Rectangle2D roomBounds) {
+    List<HomePieceOfFurniture> visibleStaircases = new ArrayList<HomePieceOfFurniture>();
     for (HomePieceOfFurniture piece : furniture) {
-      if (piece.isVisible()) {
+      if (piece.isVisible()
+          // Ignore pieces far from room, including groups, before checking their shape 
+          && getShape(piece.getPoints()).getBounds2D().intersects(roomBounds)) {
         if (piece instanceof HomeFurnitureGroup) {
-          visibleStaircases.addAll(getVisibleStaircases(((HomeFurnitureGroup)piece).getFurniture(), roomPart, roomLevel, firstLevel));
+          visibleStaircases.addAll(getVisibleStaircases(((HomeFurnitureGroup)piece).getFurniture(), roomPart, roomLevel, firstLevel, roomBounds));
         } else if (piece.getStaircaseCutOutShape() != null
             && !"false".equalsIgnoreCase(piece.getStaircaseCutOutShape())
             && ((roomPart == FLOOR_PART 
@@ -692,79 +839,209 @@ public class Room3D extends Object3DBranch {
   }
   
   /**
-   * Returns the room height at the given point. 
+   * Returns the points of the given <code>rooms</code>.
    */
-  private float getRoomHeightAt(float x, float y) {
-    double smallestDistance = Float.POSITIVE_INFINITY;
-    Room room = (Room)getUserData();
-    Level roomLevel = room.getLevel();
-    float roomElevation = roomLevel != null
-        ? roomLevel.getElevation()
-        : 0;
-    float roomHeight = roomElevation + 
-        (roomLevel == null ? this.home.getWallHeight() : roomLevel.getHeight());
-    List<Level> levels = this.home.getLevels();
-    if (roomLevel == null || isLastLevel(roomLevel, levels)) {
-      // Search the closest wall point to x, y at last level
-      Wall closestWall = null;
-      float [][] closestWallPoints = null;
-      int closestIndex = -1;
-      for (Wall wall : this.home.getWalls()) {
-        if (wall.isAtLevel(roomLevel)) {
-          float [][] points = wall.getPoints();
-          for (int i = 0; i < points.length; i++) {
-            double distanceToWallPoint = Point2D.distanceSq(points [i][0], points [i][1], x, y);
-            if (distanceToWallPoint < smallestDistance) {
-              closestWall = wall;
-              closestWallPoints = points;
-              closestIndex = i;
-              smallestDistance = distanceToWallPoint;
+  private float [][][] getRoomsPoints(List<Room> rooms) {
+    float [][][] roomsPoints = new float [rooms.size()][][];
+    for (int i = 0; i < roomsPoints.length; i++) {
+      roomsPoints [i] = rooms.get(i).getPoints();
+    }
+    return roomsPoints;
+  }
+
+  /**
+   * Returns the data of the given <code>staircases</code> that their area on floor depends on.
+   */
+  private Object [][] getStaircasesCutOuts(List<HomePieceOfFurniture> staircases) {
+    Object [][] staircasesCutOuts = new Object [staircases.size()][];
+    for (int i = 0; i < staircasesCutOuts.length; i++) {
+      HomePieceOfFurniture staircase = staircases.get(i);
+      staircasesCutOuts [i] = new Object [] {staircase.getStaircaseCutOutShape(), 
+          staircase.getX(), staircase.getY(), staircase.getAngle(), 
+          staircase.getWidth(), staircase.getDepth(), staircase.isModelMirrored()};
+    }
+    return staircasesCutOuts;
+  }
+
+  /**
+   * The heights of a room computed from the walls around it, 
+   * searched first among the walls close to the room.
+   */
+  private class RoomHeights {
+    private final Level      roomLevel;
+    private final boolean    heightsFromWalls;
+    private final List<Wall> nearbyWalls;
+    private boolean          allWallsSearched;
+    private Wall             closestWall;
+    private int              closestIndex;
+    private float            xClosestPoint;
+    private float            yClosestPoint;
+
+    /**
+     * Creates room heights computed from the walls of the last level 
+     * if <code>heightsFromWalls</code> is <code>true</code>.
+     */
+    public RoomHeights(Level roomLevel, boolean heightsFromWalls, Rectangle2D roomBounds) {
+      this.roomLevel = roomLevel;
+      this.heightsFromWalls = heightsFromWalls;
+      if (heightsFromWalls) {
+        // Retrieve the walls which have at least one point close to room bounds
+        Rectangle2D nearbyBounds = new Rectangle2D.Double(
+            roomBounds.getX() - NEARBY_WALLS_MARGIN, roomBounds.getY() - NEARBY_WALLS_MARGIN, 
+            roomBounds.getWidth() + 2 * NEARBY_WALLS_MARGIN, roomBounds.getHeight() + 2 * NEARBY_WALLS_MARGIN);
+        this.nearbyWalls = new ArrayList<Wall>();
+        float [] points = null;
+        for (Wall wall : home.getWalls()) {
+          if (wall.isAtLevel(roomLevel)) {
+            points = wall.getPoints(points);
+            for (int i = 0, n = 2 * wall.getPointCount(); i < n; i += 2) {
+              if (nearbyBounds.contains(points [i], points [i + 1])) {
+                this.nearbyWalls.add(wall);
+                break;
+              }
             }
           }
         }
+      } else {
+        this.nearbyWalls = Collections.emptyList();
       }
-      
-      if (closestWall != null) {
-        roomHeight = closestWall.getLevel() == null ? 0 : closestWall.getLevel().getElevation();
-        Float wallHeightAtStart = closestWall.getHeight();
-        if (closestIndex == 0 || closestIndex == closestWallPoints.length - 1) { // Wall start
-          roomHeight += wallHeightAtStart != null 
-              ? wallHeightAtStart 
-              : this.home.getWallHeight();
-        } else { // Wall end
-          if (closestWall.isTrapezoidal()) {
-            Float arcExtent = closestWall.getArcExtent();
-            if (arcExtent == null
-                || closestIndex == closestWallPoints.length / 2 
-                || closestIndex == closestWallPoints.length / 2 - 1) {
-              roomHeight += closestWall.getHeightAtEnd();
+    }
+
+    /**
+     * Returns the data of the nearby walls that room heights depend on.
+     */
+    public Object [] getNearbyWallsHeights() {
+      if (this.heightsFromWalls) {
+        Object [] wallsHeights = new Object [this.nearbyWalls.size() + 1];
+        wallsHeights [0] = home.getWallHeight();
+        for (int i = 0; i < this.nearbyWalls.size(); i++) {
+          Wall wall = this.nearbyWalls.get(i);
+          wallsHeights [i + 1] = new Object [] {wall.getPoints(), 
+              wall.getLevel() == null ? null : wall.getLevel().getElevation(),
+              wall.getHeight(), wall.getHeightAtEnd(), wall.getArcExtent()};
+        }
+        return wallsHeights;
+      } else {
+        return null;
+      }
+    }
+
+    /**
+     * Returns <code>true</code> if walls far from the room were searched to compute some heights.
+     */
+    public boolean isAllWallsSearched() {
+      return this.allWallsSearched;
+    }
+
+    /**
+     * Returns the room height at the given point. 
+     */
+    public float getHeightAt(float x, float y) {
+      float roomElevation = this.roomLevel != null
+          ? this.roomLevel.getElevation()
+          : 0;
+      float roomHeight = roomElevation + 
+          (this.roomLevel == null ? home.getWallHeight() : this.roomLevel.getHeight());
+      if (this.heightsFromWalls) {
+        // Search the closest wall point to x, y at last level
+        this.closestWall = null;
+        double smallestDistance = searchClosestWallPoint(this.nearbyWalls, x, y);
+        if (this.closestWall == null
+            || smallestDistance > NEARBY_WALLS_MARGIN * NEARBY_WALLS_MARGIN) {
+          // A closer point may belong to a wall far from the room
+          this.allWallsSearched = true;
+          searchClosestWallPoint(home.getWalls(), x, y);
+        }
+        
+        Wall closestWall = this.closestWall;
+        if (closestWall != null) {
+          int closestWallPointCount = closestWall.getPointCount();
+          roomHeight = closestWall.getLevel() == null ? 0 : closestWall.getLevel().getElevation();
+          Float wallHeightAtStart = closestWall.getHeight();
+          if (this.closestIndex == 0 || this.closestIndex == closestWallPointCount - 1) { // Wall start
+            roomHeight += wallHeightAtStart != null 
+                ? wallHeightAtStart 
+                : home.getWallHeight();
+          } else { // Wall end
+            if (closestWall.isTrapezoidal()) {
+              Float arcExtent = closestWall.getArcExtent();
+              if (arcExtent == null
+                  || this.closestIndex == closestWallPointCount / 2 
+                  || this.closestIndex == closestWallPointCount / 2 - 1) {
+                roomHeight += closestWall.getHeightAtEnd();
+              } else {
+                // Compute the angle between start point and the current point of the wall
+                // to get the relative height at that point
+                float xArcCircleCenter = closestWall.getXArcCircleCenter();
+                float yArcCircleCenter = closestWall.getYArcCircleCenter();
+                double centerToClosestPointDistance = Point2D.distance(xArcCircleCenter, yArcCircleCenter, this.xClosestPoint, this.yClosestPoint);
+                float xStart = closestWall.getXStart();
+                float yStart = closestWall.getYStart();
+                double centerToStartPointDistance = Point2D.distance(xArcCircleCenter, yArcCircleCenter, xStart, yStart);
+                double scalarProduct = (this.xClosestPoint - xArcCircleCenter) * (xStart - xArcCircleCenter) 
+                    + (this.yClosestPoint - yArcCircleCenter) * (yStart - yArcCircleCenter);
+                scalarProduct /= (centerToClosestPointDistance * centerToStartPointDistance);
+                double arcExtentToClosestWallPoint = Math.acos(scalarProduct) * Math.signum(arcExtent);
+                roomHeight += (float)(wallHeightAtStart 
+                    + (closestWall.getHeightAtEnd() - wallHeightAtStart) * arcExtentToClosestWallPoint / arcExtent);
+              }
             } else {
-              // Compute the angle between start point and the current point of the wall
-              // to get the relative height at that point
-              float xArcCircleCenter = closestWall.getXArcCircleCenter();
-              float yArcCircleCenter = closestWall.getYArcCircleCenter();
-              float xClosestPoint = closestWallPoints [closestIndex][0];
-              float yClosestPoint = closestWallPoints [closestIndex][1];
-              double centerToClosestPointDistance = Point2D.distance(xArcCircleCenter, yArcCircleCenter, xClosestPoint, yClosestPoint);
-              float xStart = closestWall.getXStart();
-              float yStart = closestWall.getYStart();
-              double centerToStartPointDistance = Point2D.distance(xArcCircleCenter, yArcCircleCenter, xStart, yStart);
-              double scalarProduct = (xClosestPoint - xArcCircleCenter) * (xStart - xArcCircleCenter) 
-                  + (yClosestPoint - yArcCircleCenter) * (yStart - yArcCircleCenter);
-              scalarProduct /= (centerToClosestPointDistance * centerToStartPointDistance);
-              double arcExtentToClosestWallPoint = Math.acos(scalarProduct) * Math.signum(arcExtent);
-              roomHeight += (float)(wallHeightAtStart 
-                  + (closestWall.getHeightAtEnd() - wallHeightAtStart) * arcExtentToClosestWallPoint / arcExtent);
+              roomHeight += (wallHeightAtStart != null ? wallHeightAtStart : home.getWallHeight());
             }
-          } else {
-            roomHeight += (wallHeightAtStart != null ? wallHeightAtStart : this.home.getWallHeight());
           }
         }
       }
+      return roomHeight;
+    }
+
+    /**
+     * Searches among <code>walls</code> at room level the closest wall point to (<code>x</code>, <code>y</code>)
+     * and returns the square of its distance.
+     */
+    private double searchClosestWallPoint(Collection<Wall> walls, float x, float y) {
+      double smallestDistance = Float.POSITIVE_INFINITY;
+      float [] points = null;
+      for (Wall wall : walls) {
+        if (wall.isAtLevel(this.roomLevel)) {
+          points = wall.getPoints(points);
+          for (int i = 0, n = wall.getPointCount(); i < n; i++) {
+            double distanceToWallPoint = Point2D.distanceSq(points [2 * i], points [2 * i + 1], x, y);
+            if (distanceToWallPoint < smallestDistance) {
+              this.closestWall = wall;
+              this.closestIndex = i;
+              this.xClosestPoint = points [2 * i];
+              this.yClosestPoint = points [2 * i + 1];
+              smallestDistance = distanceToWallPoint;
+            }
+          }
+        }
+      }
+      return smallestDistance;
     }
-    return roomHeight;
   }
-  
+
+  /**
+   * The data from which the geometries of a room part are computed.
+   */
+  private static class GeometriesKey {
+    private final Object [] data;
+
+    public GeometriesKey(Object [] data) {
+      this.data = data;
+    }
+
+    @Override
+    public boolean equals(Object obj) {
+      return obj instanceof GeometriesKey
+          && Arrays.deepEquals(this.data, ((GeometriesKey)obj).data);
+    }
+
+    @Override
+    public int hashCode() {
+      return Arrays.deepHashCode(this.data);
+    }
+  }
+
   /**
    * Returns <code>true</code> if the given level is the last level in home.
    */
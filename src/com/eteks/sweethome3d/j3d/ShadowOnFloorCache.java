@@ -0,0 +1,366 @@
+/*
+ * ShadowOnFloorCache.java 18 oct. 2026
+ *
+ * Sweet Home 3D, Copyright (c) 2026 Emmanuel PUYBARET / eTeks <info@eteks.com>
+ *
+ * This program is free software; you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation; either version 2 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program; if not, write to the Free Software
+ * Foundation, Inc., 59 Temple Place, Suite 330, Boston, MA  02111-1307  USA
+ */
+package com.eteks.sweethome3d.j3d;
+
+import java.awt.geom.Area;
+import java.awt.geom.PathIterator;
+import java.beans.PropertyChangeEvent;
+import java.beans.PropertyChangeListener;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadFactory;
+
+import javax.media.j3d.Geometry;
+import javax.media.j3d.Node;
+import javax.vecmath.Point3f;
+
+import com.eteks.sweethome3d.model.CollectionEvent;
+import com.eteks.sweethome3d.model.CollectionListener;
+import com.eteks.sweethome3d.model.Home;
+import com.eteks.sweethome3d.model.HomePieceOfFurniture;
+import com.eteks.sweethome3d.model.Level;
+import com.eteks.sweethome3d.model.Light;
+import com.sun.j3d.utils.geometry.GeometryInfo;
+
+/**
+ * A cache of the shadow cast by furniture on the floor of its level. 
+ * The area on floor of each piece is kept until the piece changes, the areas of the pieces 
+ * at a same elevation are merged along a binary tree of unions computed in parallel, 
+ * which nodes are reused when the pieces they depend on didn't change, and the shadow 
+ * is triangulated again only when its area changed. The view that creates a cache is responsible
+ * of calling {@link #removeHomeListeners() removeHomeListeners} once it doesn't need it anymore.
+ * @author Emmanuel Puybaret
+ * @since 4.2
+ */
+public class ShadowOnFloorCache {
+  private static ExecutorService unionsExecutor;
+
+  private final Home                                     home;
+  private final Map<HomePieceOfFurniture, PieceArea>     piecesAreas;
+  private final PropertyChangeListener                   pieceChangeListener;
+  private final CollectionListener<HomePieceOfFurniture> furnitureListener;
+  private Map<Float, List<List<Area>>>                   unionTrees;
+  private Map<Float, ShadowTriangles>                    shadowTriangles;
+
+  /**
+   * Creates a cache of the shadow on floor of the furniture of the given <code>home</code>.
+   */
+  public ShadowOnFloorCache(Home home) {
+    this.home = home;
+    this.piecesAreas = new HashMap<HomePieceOfFurniture, PieceArea>();
+    this.unionTrees = new HashMap<Float, List<List<Area>>>();
+    this.shadowTriangles = new HashMap<Float, ShadowTriangles>();
+    this.pieceChangeListener = new PropertyChangeListener() {
+        public void propertyChange(PropertyChangeEvent ev) {
+          removePieceArea((HomePieceOfFurniture)ev.getSource());
+        }
+      };
+    this.furnitureListener = new CollectionListener<HomePieceOfFurniture>() {
+        public void collectionChanged(CollectionEvent<HomePieceOfFurniture> ev) {
+          if (ev.getType() == CollectionEvent.Type.DELETE) {
+            removePieceArea(ev.getItem());
+          }
+        }
+      };
+    home.addFurnitureListener(this.furnitureListener);
+  }
+
+  /**
+   * Removes the listeners added by this cache to home and its furniture, 
+   * and forgets the areas computed for furniture.
+   */
+  public void removeHomeListeners() {
+    this.home.removeFurnitureListener(this.furnitureListener);
+    synchronized (this.piecesAreas) {
+      for (HomePieceOfFurniture piece : this.piecesAreas.keySet()) {
+        piece.removePropertyChangeListener(this.pieceChangeListener);
+      }
+      this.piecesAreas.clear();
+    }
+  }
+
+  /**
+   * Forgets the area on floor computed for the given <code>piece</code>.
+   */
+  private void removePieceArea(HomePieceOfFurniture piece) {
+    synchronized (this.piecesAreas) {
+      if (this.piecesAreas.remove(piece) != null) {
+        piece.removePropertyChangeListener(this.pieceChangeListener);
+      }
+    }
+  }
+
+  /**
+   * Returns new geometries matching the shadow cast on the floor of their level by the visible pieces 
+   * at ground level that are not lights, doors or windows, or <code>null</code> if current thread 
+   * was interrupted during computation. The area on floor of each piece is computed from 
+   * the 3D node associated to it in <code>pieces3D</code>, and is kept for further calls only 
+   * if <code>modelsLoaded</code> is <code>true</code>.
+   */
+  public synchronized List<Geometry> getShadowGeometries(Map<HomePieceOfFurniture, Node> pieces3D, 
+                                                         boolean modelsLoaded) {
+    Map<Float, List<Area>> areasAtElevation = new TreeMap<Float, List<Area>>();
+    for (Map.Entry<HomePieceOfFurniture, Node> object3DEntry : pieces3D.entrySet()) {
+      HomePieceOfFurniture piece = object3DEntry.getKey();
+      // This operation can be lengthy, so give up if thread is interrupted 
+      if (Thread.currentThread().isInterrupted()) {
+        return null;
+      }
+      if (piece.isVisible()
+          && piece.getElevation() == 0 
+          && !piece.isDoorOrWindow()
+          && !(piece instanceof Light)) {
+        Level level = piece.getLevel();
+        if (level == null
+            || level.isVisible()) {
+          Float elevation = level != null  ? level.getElevation()  : 0f;
+          List<Area> areas = areasAtElevation.get(elevation);
+          if (areas == null) {
+            areas = new ArrayList<Area>();
+            areasAtElevation.put(elevation, areas);
+          }
+          areas.add(getPieceAreaOnFloor(piece, object3DEntry.getValue(), modelsLoaded));
+        }
+      }
+    }
+    
+    Map<Float, List<List<Area>>> unionTrees = new HashMap<Float, List<List<Area>>>();
+    Map<Float, ShadowTriangles> shadowTriangles = new HashMap<Float, ShadowTriangles>();
+    List<Geometry> shadowGeometries = new ArrayList<Geometry>();
+    try {
+      for (Map.Entry<Float, List<Area>> areasEntry : areasAtElevation.entrySet()) {
+        Float elevation = areasEntry.getKey();
+        List<List<Area>> unionTree = getUnionTree(areasEntry.getValue(), this.unionTrees.get(elevation));
+        unionTrees.put(elevation, unionTree);
+        Area area = unionTree.get(unionTree.size() - 1).get(0);
+        ShadowTriangles triangles = this.shadowTriangles.get(elevation);
+        if (triangles == null
+            || triangles.area != area) {
+          triangles = new ShadowTriangles(area, elevation + 0.49f);
+        }
+        shadowTriangles.put(elevation, triangles);
+        if (triangles.coordinates.length > 0) {
+          shadowGeometries.add(triangles.createGeometry());
+        }
+      }
+    } catch (InterruptedException ex) {
+      Thread.currentThread().interrupt();
+      return null;
+    }
+    // Keep only the unions and the triangles used by this computation
+    this.unionTrees = unionTrees;
+    this.shadowTriangles = shadowTriangles;
+    return shadowGeometries;
+  }
+
+  /**
+   * Returns the area on floor of the given <code>piece</code>, computed from <code>piece3D</code>
+   * only if it wasn't computed yet.
+   */
+  private Area getPieceAreaOnFloor(HomePieceOfFurniture piece, Node piece3D, boolean modelLoaded) {
+    PieceArea pieceArea;
+    synchronized (this.piecesAreas) {
+      pieceArea = this.piecesAreas.get(piece);
+      if (pieceArea != null 
+          && pieceArea.area != null) {
+        return pieceArea.area;
+      } else if (pieceArea == null 
+                 && modelLoaded) {
+        // Listen to piece changes from now on to forget its area if it changes during computation 
+        pieceArea = new PieceArea();
+        this.piecesAreas.put(piece, pieceArea);
+        piece.addPropertyChangeListener(this.pieceChangeListener);
+      }
+    }
+    Area area = ModelManager.getInstance().getAreaOnFloor(piece3D);
+    if (pieceArea != null) {
+      synchronized (this.piecesAreas) {
+        if (this.piecesAreas.get(piece) == pieceArea) {
+          pieceArea.area = area;
+        }
+      }
+    }
+    return area;
+  }
+
+  /**
+   * Returns the nodes of a binary tree which leaves are the given <code>areas</code> 
+   * and other nodes the union of their children. The nodes of the <code>previousTree</code> 
+   * are reused when their children didn't change, and other unions are computed in parallel.
+   */
+  private List<List<Area>> getUnionTree(List<Area> areas, 
+                                        List<List<Area>> previousTree) throws InterruptedException {
+    List<List<Area>> tree = new ArrayList<List<Area>>();
+    tree.add(areas);
+    List<Area> nodes = areas;
+    while (nodes.size() > 1) {
+      int depth = tree.size();
+      List<Area> previousChildren = previousTree != null && previousTree.size() > depth
+          ? previousTree.get(depth - 1)
+          : null;
+      List<Area> previousNodes = previousTree != null && previousTree.size() > depth
+          ? previousTree.get(depth)
+          : null;
+      final Area [] parentNodes = new Area [(nodes.size() + 1) / 2];
+      List<Callable<Object>> unions = new ArrayList<Callable<Object>>();
+      for (int i = 0; i < nodes.size(); i += 2) {
+        final int parentIndex = i / 2;
+        if (i + 1 == nodes.size()) {
+          parentNodes [parentIndex] = nodes.get(i);
+        } else if (previousNodes != null
+            && previousChildren.size() == nodes.size()
+            && previousChildren.get(i) == nodes.get(i)
+            && previousChildren.get(i + 1) == nodes.get(i + 1)) {
+          parentNodes [parentIndex] = previousNodes.get(parentIndex);
+        } else {
+          final Area area1 = nodes.get(i);
+          final Area area2 = nodes.get(i + 1);
+          unions.add(new Callable<Object>() {
+              public Object call() {
+                Area union = new Area(area1);
+                union.add(area2);
+                parentNodes [parentIndex] = union;
+                return null;
+              }
+            });
+        }
+      }
+      computeUnions(unions);
+      nodes = Arrays.asList(parentNodes);
+      tree.add(nodes);
+    }
+    return tree;
+  }
+
+  /**
+   * Runs the given <code>unions</code> in parallel if there are more than one.
+   */
+  private void computeUnions(List<Callable<Object>> unions) throws InterruptedException {
+    try {
+      if (unions.size() == 1) {
+        unions.get(0).call();
+      } else if (unions.size() > 1) {
+        for (Future<Object> future : getUnionsExecutor().invokeAll(unions)) {
+          future.get();
+        }
+      }
+    } catch (ExecutionException ex) {
+      if (ex.getCause() instanceof RuntimeException) {
+        throw (RuntimeException)ex.getCause();
+      } else {
+        throw new RuntimeException(ex.getCause());
+      }
+    } catch (InterruptedException ex) {
+      throw ex;
+    } catch (RuntimeException ex) {
+      throw ex;
+    } catch (Exception ex) {
+      // Shouldn't happen since unions don't throw checked exceptions
+      throw new RuntimeException(ex);
+    }
+  }
+
+  /**
+   * Returns the executor shared by caches to compute unions.
+   */
+  private static synchronized ExecutorService getUnionsExecutor() {
+    if (unionsExecutor == null) {
+      unionsExecutor = Executors.newFixedThreadPool(Runtime.getRuntime().availableProcessors(),
+          new ThreadFactory() {
+            public Thread newThread(Runnable runnable) {
+              Thread thread = new Thread(runnable);
+              thread.setDaemon(true);
+              return thread;
+            }
+          });
+    }
+    return unionsExecutor;
+  }
+
+  /**
+   * The area on floor of a piece, equal to <code>null</code> while it's computed. 
+   */
+  private static class PieceArea {
+    private Area area;
+  }
+
+  /**
+   * The triangles matching the shadow area at a given elevation.
+   */
+  private static class ShadowTriangles {
+    private final Area       area;
+    private final Point3f [] coordinates;
+    private final int []     coordinateIndices;
+
+    public ShadowTriangles(Area area, float elevation) {
+      this.area = area;
+      List<Point3f> coords = new ArrayList<Point3f>();
+      List<Integer> stripCounts = new ArrayList<Integer>();
+      int pointsCount = 0;
+      float [] modelPoint = new float[2];
+      for (PathIterator it = area.getPathIterator(null); !it.isDone(); ) {
+        if (it.currentSegment(modelPoint) == PathIterator.SEG_CLOSE) {
+          stripCounts.add(pointsCount);
+          pointsCount = 0;
+        } else {
+          coords.add(new Point3f(modelPoint [0], elevation, modelPoint [1]));
+          pointsCount++;
+        }
+        it.next();
+      }
+      
+      if (coords.size() > 0) {
+        GeometryInfo geometryInfo = new GeometryInfo(GeometryInfo.POLYGON_ARRAY);
+        geometryInfo.setCoordinates (coords.toArray(new Point3f [coords.size()]));
+        int [] stripCountsArray = new int [stripCounts.size()];
+        for (int i = 0; i < stripCountsArray.length; i++) {
+          stripCountsArray [i] = stripCounts.get(i);
+        }
+        geometryInfo.setStripCounts(stripCountsArray);
+        // Triangulate once the shadow area to be able to build its geometry quickly later
+        geometryInfo.convertToIndexedTriangles();
+        this.coordinates = geometryInfo.getCoordinates();
+        this.coordinateIndices = geometryInfo.getCoordinateIndices();
+      } else {
+        this.coordinates = new Point3f [0];
+        this.coordinateIndices = new int [0];
+      }
+    }
+
+    /**
+     * Returns a new geometry built from triangles.
+     */
+    public Geometry createGeometry() {
+      GeometryInfo geometryInfo = new GeometryInfo(GeometryInfo.TRIANGLE_ARRAY);
+      geometryInfo.setCoordinates(this.coordinates);
+      geometryInfo.setCoordinateIndices(this.coordinateIndices);
+      return geometryInfo.getIndexedGeometryArray();
+    }
+  }
+}
@@ -24,11 +24,13 @@ import java.awt.geom.Area;
 import java.awt.geom.Line2D;
 import java.awt.geom.PathIterator;
 import java.awt.geom.Point2D;
+import java.awt.geom.Rectangle2D;
 import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Collections;
 import java.util.Comparator;
 import java.util.List;
+import java.util.concurrent.Callable;
 
 import javax.media.j3d.Appearance;
 import javax.media.j3d.BranchGroup;
@@ -50,6 +52,7 @@ import com.eteks.sweethome3d.model.HomePieceOfFurniture;
 import com.eteks.sweethome3d.model.HomeTexture;
 import com.eteks.sweethome3d.model.Level;
 import com.eteks.sweethome3d.model.Wall;
+import com.eteks.sweethome3d.tools.DoorsAndWindowsIndex;
 import com.sun.j3d.utils.geometry.GeometryInfo;
 import com.sun.j3d.utils.geometry.NormalGenerator;
 
@@ -67,7 +70,9 @@ public class Wall3D extends Object3DBranch {
   private static final int WALL_LEFT_SIDE  = 0;
   private static final int WALL_RIGHT_SIDE = 1;
   
-  private final Home home;
+  private final Home                       home;
+  private final DoorsAndWindowsIndex       doorsAndWindowsIndex;
+  private final List<HomePieceOfFurniture> doorsAndWindows;
 
   /**
    * Creates the 3D wall matching the given home <code>wall</code>.
@@ -81,8 +86,21 @@ public class Wall3D extends Object3DBranch {
    */
   public Wall3D(Wall wall, Home home, boolean ignoreDrawingMode, 
                 boolean waitTextureLoadingEnd) {
+    this(wall, home, null, ignoreDrawingMode, waitTextureLoadingEnd);
+  }
+
+  /**
+   * Creates the 3D wall matching the given home <code>wall</code>, that will search 
+   * the doors and windows that may intersect it in <code>doorsAndWindowsIndex</code>
+   * if it's not <code>null</code>.
+   * @since 4.2
+   */
+  public Wall3D(Wall wall, Home home, DoorsAndWindowsIndex doorsAndWindowsIndex, 
+                boolean ignoreDrawingMode, boolean waitTextureLoadingEnd) {
     setUserData(wall);
     this.home = home;
+    this.doorsAndWindowsIndex = doorsAndWindowsIndex;
+    this.doorsAndWindows = null;
 
     // Allow wall branch to be removed from its parent
     setCapability(BranchGroup.ALLOW_DETACH);
@@ -106,6 +124,17 @@ public class Wall3D extends Object3DBranch {
     updateWallAppearance(waitTextureLoadingEnd);
   }
 
+  /**
+   * Creates a 3D wall with no shape, able only to compute the geometries of the given <code>wall</code>
+   * copied in <code>home</code>, with the given doors and windows that may intersect it.
+   */
+  private Wall3D(Wall wall, Home home, List<HomePieceOfFurniture> doorsAndWindows) {
+    setUserData(wall);
+    this.home = home;
+    this.doorsAndWindowsIndex = null;
+    this.doorsAndWindows = doorsAndWindows;
+  }
+
   /**
    * Returns a new wall part shape with no geometry  
    * and a default appearance with a white material.
@@ -146,7 +175,61 @@ public class Wall3D extends Object3DBranch {
 
   @Override
   public void update() {
-    updateWallGeometry();
+    updateWallGeometry(createGeometries());
+    updateWallAppearance(false);
+  }
+  
+  /**
+   * Returns the geometries of the bottom, main and top shapes of the left side,
+   * then of the right side of this wall.
+   */
+  private Geometry [][] createGeometries() {
+    Wall wall = (Wall)getUserData();
+    Geometry [][] geometries = new Geometry [6][];
+    createWallSideGeometries(geometries, WALL_LEFT_SIDE, wall.getLeftSideTexture());
+    createWallSideGeometries(geometries, WALL_RIGHT_SIDE, wall.getRightSideTexture());
+    return geometries;
+  }
+  
+  /**
+   * Returns a task that computes the geometries of this wall from a copy of the wall, 
+   * the walls joined to it, the levels of home and the doors and windows that may intersect it.
+   * @since 4.2
+   */
+  @Override
+  public Callable<Geometry [][]> createGeometriesBuilder() {
+    Wall wall = (Wall)getUserData();
+    HomeSnapshot snapshot = new HomeSnapshot(this.home);
+    // Copy the wall with the walls joined to it that its points depend on
+    List<Wall> walls = new ArrayList<Wall>(3);
+    walls.add(wall);
+    if (wall.getWallAtStart() != null) {
+      walls.add(wall.getWallAtStart());
+    }
+    if (wall.getWallAtEnd() != null
+        && !walls.contains(wall.getWallAtEnd())) {
+      walls.add(wall.getWallAtEnd());
+    }
+    Wall wallCopy = snapshot.addWalls(walls).get(0);
+    List<HomePieceOfFurniture> doorsAndWindows = new ArrayList<HomePieceOfFurniture>();
+    for (HomePieceOfFurniture piece : getCandidateDoorsAndWindows(getShape(wall.getPoints()).getBounds2D())) {
+      doorsAndWindows.add(snapshot.addPieceOfFurniture(piece));
+    }
+    final Wall3D wall3D = new Wall3D(wallCopy, snapshot.getHome(), doorsAndWindows);
+    return new Callable<Geometry [][]>() {
+        public Geometry [][] call() {
+          return wall3D.createGeometries();
+        }
+      };
+  }
+  
+  /**
+   * Updates this wall with the given <code>geometries</code> and its current appearance.
+   * @since 4.2
+   */
+  @Override
+  public void update(Geometry [][] geometries) {
+    updateWallGeometry(geometries);
     updateWallAppearance(false);
   }
   
@@ -154,51 +237,56 @@ public class Wall3D extends Object3DBranch {
    * Sets the 3D geometry of this wall shapes that matches its 2D geometry.  
    */
   private void updateWallGeometry() {    
-    updateWallSideGeometry(WALL_LEFT_SIDE, ((Wall)getUserData()).getLeftSideTexture());
-    updateWallSideGeometry(WALL_RIGHT_SIDE, ((Wall)getUserData()).getRightSideTexture());
+    updateWallGeometry(createGeometries());
   }
   
-  private void updateWallSideGeometry(int wallSide, HomeTexture texture) {
-    Group [] wallSideGroups = {(Group)getChild(wallSide * 3),      // Bottom group
-                               (Group)getChild(wallSide * 3 + 1),  // Main group
-                               (Group)getChild(wallSide * 3 + 2)}; // Top group
-    Shape3D [] wallFilledShapes = new Shape3D [wallSideGroups.length];
-    Shape3D [] wallOutlineShapes = new Shape3D [wallSideGroups.length];
-    int [] currentGeometriesCounts = new int [3];
-    for (int i = 0; i < wallSideGroups.length; i++) {
-      wallFilledShapes  [i] = (Shape3D)wallSideGroups [i].getChild(0);
-      wallOutlineShapes [i] = wallSideGroups [i].numChildren() > 1 
-          ? (Shape3D)wallSideGroups [i].getChild(1)
+  /**
+   * Replaces the geometries of this wall shapes by the given ones.  
+   */
+  private void updateWallGeometry(Geometry [][] geometries) {    
+    for (int i = 0; i < geometries.length; i++) {
+      Group wallSideGroup = (Group)getChild(i);
+      Shape3D wallFilledShape = (Shape3D)wallSideGroup.getChild(0);
+      Shape3D wallOutlineShape = wallSideGroup.numChildren() > 1 
+          ? (Shape3D)wallSideGroup.getChild(1)
           : null;
-      currentGeometriesCounts [i] = wallFilledShapes [i].numGeometries();
-    }
-    Wall wall = (Wall)getUserData();
-    if (wall.getLevel() == null || wall.getLevel().isVisible()) {
-      List [] wallGeometries = {new ArrayList<Geometry>(), 
-                                new ArrayList<Geometry>(), 
-                                new ArrayList<Geometry>()};
-      createWallGeometries(wallGeometries [0], wallGeometries [1], wallGeometries [2], wallSide, texture);
-      for (int i = 0; i < wallSideGroups.length; i++) {
-        for (Geometry wallGeometry : (List<Geometry>)wallGeometries [i]) {
-          if (wallGeometry != null) {
-            wallFilledShapes [i].addGeometry(wallGeometry);
-            if (wallOutlineShapes [i] != null) {
-              wallOutlineShapes [i].addGeometry(wallGeometry);
-            }
+      int currentGeometriesCount = wallFilledShape.numGeometries();
+      for (Geometry wallGeometry : geometries [i]) {
+        if (wallGeometry != null) {
+          wallFilledShape.addGeometry(wallGeometry);
+          if (wallOutlineShape != null) {
+            wallOutlineShape.addGeometry(wallGeometry);
           }
         }
       }
-    }
-    for (int i = 0; i < wallSideGroups.length; i++) {
-      for (int j = currentGeometriesCounts [i] - 1; j >= 0; j--) {
-        wallFilledShapes [i].removeGeometry(j);
-        if (wallOutlineShapes [i] != null) {
-          wallOutlineShapes [i].removeGeometry(j);
+      for (int j = currentGeometriesCount - 1; j >= 0; j--) {
+        wallFilledShape.removeGeometry(j);
+        if (wallOutlineShape != null) {
+          wallOutlineShape.removeGeometry(j);
         }
       }
     }
   }
   
+  /**
+   * Stores in <code>geometries</code> the geometries of the bottom, main and top shapes
+   * of the given side of this wall.
+   */
+  @SuppressWarnings("unchecked")
+  private void createWallSideGeometries(Geometry [][] geometries, int wallSide, HomeTexture texture) {
+    List [] wallGeometries = {new ArrayList<Geometry>(), 
+                              new ArrayList<Geometry>(), 
+                              new ArrayList<Geometry>()};
+    Wall wall = (Wall)getUserData();
+    if (wall.getLevel() == null || wall.getLevel().isVisible()) {
+      createWallGeometries(wallGeometries [0], wallGeometries [1], wallGeometries [2], wallSide, texture);
+    }
+    for (int i = 0; i < wallGeometries.length; i++) {
+      geometries [wallSide * 3 + i] = 
+          (Geometry [])wallGeometries [i].toArray(new Geometry [wallGeometries [i].size()]);
+    }
+  }
+  
   /**
    * Creates <code>wall</code> geometries computed with windows or doors 
    * that intersect wall.
@@ -238,11 +326,13 @@ public class Wall3D extends Object3DBranch {
     
     // Search which doors or windows intersect with this wall side
     List<DoorOrWindowArea> windowIntersections = new ArrayList<DoorOrWindowArea>();
-    for (HomePieceOfFurniture piece : getVisibleDoorsAndWindows(this.home.getFurniture())) {
+    float [] piecePoints = null;
+    for (HomePieceOfFurniture piece : getVisibleDoorsAndWindows(getCandidateDoorsAndWindows(wallShape.getBounds2D()))) {
       float pieceElevation = piece.getGroundElevation();
       if (pieceElevation + piece.getHeight() > wallElevation
           && pieceElevation < maxWallHeight) {
-        Shape pieceShape = getShape(piece.getPoints());
+        piecePoints = piece.getPoints(piecePoints);
+        Shape pieceShape = getShape(piecePoints, piece.getPointCount());
         Area pieceArea = new Area(pieceShape);
         Area intersectionArea = new Area(wallShape);
         intersectionArea.intersect(pieceArea);
@@ -425,6 +515,19 @@ public class Wall3D extends Object3DBranch {
     }
   }
 
+  /**
+   * Returns the top level pieces that may be doors or windows intersecting the given <code>area</code>.
+   */
+  private List<HomePieceOfFurniture> getCandidateDoorsAndWindows(Rectangle2D area) {
+    if (this.doorsAndWindows != null) {
+      return this.doorsAndWindows;
+    } else if (this.doorsAndWindowsIndex != null) {
+      return this.doorsAndWindowsIndex.getDoorsAndWindows(area);
+    } else {
+      return this.home.getFurniture();
+    }
+  }
+
   /**
    * Returns all the visible doors and windows in the given <code>furniture</code>.  
    */
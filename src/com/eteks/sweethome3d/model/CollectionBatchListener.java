@@ -0,0 +1,39 @@
+/*
+ * CollectionBatchListener.java 18 oct. 2026
+ *
+ * Sweet Home 3D, Copyright (c) 2026 Emmanuel PUYBARET / eTeks <info@eteks.com>
+ *
+ * This program is free software; you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation; either version 2 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program; if not, write to the Free Software
+ * Foundation, Inc., 59 Temple Place, Suite 330, Boston, MA  02111-1307  USA
+ */
+package com.eteks.sweethome3d.model;
+
+import java.util.List;
+
+/**
+ * A collection listener able to process in one pass the items added or removed 
+ * from a collection during a batch. Outside of a batch, this listener is notified 
+ * of each change with {@link #collectionChanged(CollectionEvent) collectionChanged(CollectionEvent)}.
+ * <code>T</code> is the type of item stored in the collection.
+ * @see Home#beginBatch()
+ * @since 4.2
+ * @author Emmanuel Puybaret
+ */
+public interface CollectionBatchListener<T> extends CollectionListener<T> {
+  /**
+   * Called once at the end of a batch with the events of the items added 
+   * or deleted from a collection during that batch, in the order they were fired.
+   */
+  public void collectionChanged(List<CollectionEvent<T>> events);
+}
@@ -20,16 +20,23 @@
 package com.eteks.sweethome3d.model;
 
 import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
 
 /**
  * A helper class for {@link CollectionListener CollectionListener} management.
  * <code>T</code> is the type of item stored in the collection.
+ * During a batch, the events received by {@link CollectionBatchListener batch listeners}
+ * are deferred and notified all at once at the end of the batch.  
  * @author Emmanuel Puybaret
  */
 public class CollectionChangeSupport<T> {
   private final Object                      source;
   private final List<CollectionListener<T>> collectionListeners;
+  private int                               batchDepth;
+  private Map<CollectionBatchListener<T>, List<CollectionEvent<T>>> batchEvents;
   
   /**
    * Creates a collection change support.
@@ -74,7 +81,77 @@ public class CollectionChangeSupport<T> {
       CollectionListener<T> [] listeners = this.collectionListeners.
         toArray(new CollectionListener [this.collectionListeners.size()]);
       for (CollectionListener<T> listener : listeners) {
-        listener.collectionChanged(furnitureEvent);
+        if (this.batchDepth > 0
+            && listener instanceof CollectionBatchListener) {
+          // Keep event for the batch listeners registered when it was fired
+          if (this.batchEvents == null) {
+            this.batchEvents = new LinkedHashMap<CollectionBatchListener<T>, List<CollectionEvent<T>>>();
+          }
+          List<CollectionEvent<T>> listenerEvents = this.batchEvents.get(listener);
+          if (listenerEvents == null) {
+            listenerEvents = new ArrayList<CollectionEvent<T>>();
+            this.batchEvents.put((CollectionBatchListener<T>)listener, listenerEvents);
+          }
+          listenerEvents.add(furnitureEvent);
+        } else {
+          listener.collectionChanged(furnitureEvent);
+        }
+      }
+    }
+  }
+
+  /**
+   * Starts a batch during which the events fired to {@link CollectionBatchListener batch listeners} 
+   * are deferred until the matching call to {@link #endBatch() endBatch}. 
+   * Batches may be nested, other listeners are still notified of each event immediately.
+   * @since 4.2
+   */
+  public void beginBatch() {
+    this.batchDepth++;
+  }
+
+  /**
+   * Returns the count of events deferred since the beginning of the current batch.
+   */
+  int getBatchEventCount() {
+    int eventCount = 0;
+    if (this.batchEvents != null) {
+      for (List<CollectionEvent<T>> events : this.batchEvents.values()) {
+        eventCount += events.size();
+      }
+    }
+    return eventCount;
+  }
+
+  /**
+   * Returns the count of batch listeners that received events since the beginning of the current batch.
+   */
+  int getBatchListenerCount() {
+    return this.batchEvents != null
+        ? this.batchEvents.size()
+        : 0;
+  }
+
+  /**
+   * Ends a batch started with {@link #beginBatch() beginBatch}. At the end of the outermost batch,
+   * each batch listener is notified once of the events deferred for it during the batch,
+   * if it wasn't removed in the mean time.
+   * @throws IllegalStateException if no batch was started.
+   * @since 4.2
+   */
+  public void endBatch() {
+    if (this.batchDepth == 0) {
+      throw new IllegalStateException("No batch started");
+    }
+    if (--this.batchDepth == 0
+        && this.batchEvents != null) {
+      Map<CollectionBatchListener<T>, List<CollectionEvent<T>>> batchEvents = this.batchEvents;
+      this.batchEvents = null;
+      for (Map.Entry<CollectionBatchListener<T>, List<CollectionEvent<T>>> entry : batchEvents.entrySet()) {
+        CollectionBatchListener<T> listener = entry.getKey();
+        if (this.collectionListeners.contains(listener)) {
+          listener.collectionChanged(Collections.unmodifiableList(entry.getValue()));
+        }
       }
     }
   }
@@ -31,6 +31,8 @@ import java.util.Collection;
 import java.util.Collections;
 import java.util.Comparator;
 import java.util.HashMap;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
 
@@ -118,6 +120,16 @@ public class Home implements Serializable, Cloneable {
   // The following field is a temporary copy of furniture containing HomeFurnitureGroup instances
   // created at serialization time for backward compatibility reasons
   private List<HomePieceOfFurniture>                  furnitureWithGroups;
+  private transient LevelItemsCache<HomePieceOfFurniture> furnitureAtLevelCache;
+  private transient LevelItemsCache<Wall>             wallsAtLevelCache;
+  private transient LevelItemsCache<Room>             roomsAtLevelCache;
+  private transient LevelItemsCache<DimensionLine>    dimensionLinesAtLevelCache;
+  private transient LevelItemsCache<Label>            labelsAtLevelCache;
+  private transient int                               batchDepth;
+  private transient Map<PropertyChangeListener, Map<List<Object>, PropertyChangeEvent>> batchPropertyChanges;
+  private transient int                               batchPropertyChangeCount;
+  private transient int                               lastBatchEventCount;
+  private transient int                               lastBatchNotificationCount;
 
   /**
    * Creates a home with no furniture, no walls, 
@@ -164,7 +176,6 @@ public class Home implements Serializable, Cloneable {
   private void readObject(ObjectInputStream in) throws IOException, ClassNotFoundException {
     init(false);
     in.defaultReadObject();
-    addModelListeners();
     
     if (KEEP_BACKWARD_COMPATIBLITY) {
       // Restore furnitureSortedProperty from furnitureSortedPropertyName
@@ -227,6 +238,9 @@ public class Home implements Serializable, Cloneable {
             | ((groundColor & 0xFF) * 3 / 4));
       }
     }
+    
+    // Add listeners once furniture list is restored
+    addModelListeners();
   }
 
   private void init(boolean newHome) {
@@ -278,6 +292,7 @@ public class Home implements Serializable, Cloneable {
    * Adds listeners to model.
    */
   private void addModelListeners() {
+    addLevelItemsListeners();
     // Add listeners to levels to maintain its elevation order
     final PropertyChangeListener levelElevationChangeListener = new PropertyChangeListener() {
         public void propertyChange(PropertyChangeEvent ev) {
@@ -285,6 +300,11 @@ public class Home implements Serializable, Cloneable {
               || Level.Property.HEIGHT.name().equals(ev.getPropertyName())) {
             levels = new ArrayList<Level>(levels);
             Collections.sort(levels, LEVEL_ELEVATION_COMPARATOR);
+            if (Level.Property.ELEVATION.name().equals(ev.getPropertyName())) {
+              // Walls and furniture may be viewed at other levels 
+              furnitureAtLevelCache.clear();
+              wallsAtLevelCache.clear();
+            }
           }
         }
       };
@@ -299,12 +319,100 @@ public class Home implements Serializable, Cloneable {
               break;
             case DELETE :
               ev.getItem().removePropertyChangeListener(levelElevationChangeListener);
+              furnitureAtLevelCache.clear();
+              wallsAtLevelCache.clear();
+              roomsAtLevelCache.clear();
+              dimensionLinesAtLevelCache.clear();
+              labelsAtLevelCache.clear();
               break;
           }
         }
       });
   }
 
+  /**
+   * Creates the caches of the items viewable at each level, 
+   * and adds to items the listeners that keep these caches up to date.
+   */
+  private void addLevelItemsListeners() {
+    this.furnitureAtLevelCache = new LevelItemsCache<HomePieceOfFurniture>(HomePieceOfFurniture.Property.LEVEL.name(), 
+        HomePieceOfFurniture.Property.ELEVATION.name(), HomePieceOfFurniture.Property.HEIGHT.name());
+    for (HomePieceOfFurniture piece : this.furniture) {
+      piece.addPropertyChangeListener(this.furnitureAtLevelCache);
+    }
+    addFurnitureListener(new CollectionListener<HomePieceOfFurniture>() {
+        public void collectionChanged(CollectionEvent<HomePieceOfFurniture> ev) {
+          if (ev.getType() == CollectionEvent.Type.ADD) {
+            ev.getItem().addPropertyChangeListener(furnitureAtLevelCache);
+          } else {
+            ev.getItem().removePropertyChangeListener(furnitureAtLevelCache);
+          }
+          furnitureAtLevelCache.clearItemsViewableFrom(ev.getItem().getLevel());
+        }
+      });
+    
+    this.wallsAtLevelCache = new LevelItemsCache<Wall>(Wall.Property.LEVEL.name(), 
+        Wall.Property.HEIGHT.name(), Wall.Property.HEIGHT_AT_END.name());
+    for (Wall wall : this.walls) {
+      wall.addPropertyChangeListener(this.wallsAtLevelCache);
+    }
+    addWallsListener(new CollectionListener<Wall>() {
+        public void collectionChanged(CollectionEvent<Wall> ev) {
+          if (ev.getType() == CollectionEvent.Type.ADD) {
+            ev.getItem().addPropertyChangeListener(wallsAtLevelCache);
+          } else {
+            ev.getItem().removePropertyChangeListener(wallsAtLevelCache);
+          }
+          wallsAtLevelCache.clearItemsViewableFrom(ev.getItem().getLevel());
+        }
+      });
+
+    this.roomsAtLevelCache = new LevelItemsCache<Room>(Room.Property.LEVEL.name());
+    for (Room room : this.rooms) {
+      room.addPropertyChangeListener(this.roomsAtLevelCache);
+    }
+    addRoomsListener(new CollectionListener<Room>() {
+        public void collectionChanged(CollectionEvent<Room> ev) {
+          if (ev.getType() == CollectionEvent.Type.ADD) {
+            ev.getItem().addPropertyChangeListener(roomsAtLevelCache);
+          } else {
+            ev.getItem().removePropertyChangeListener(roomsAtLevelCache);
+          }
+          roomsAtLevelCache.clearItemsViewableFrom(ev.getItem().getLevel());
+        }
+      });
+
+    this.dimensionLinesAtLevelCache = new LevelItemsCache<DimensionLine>(DimensionLine.Property.LEVEL.name());
+    for (DimensionLine dimensionLine : this.dimensionLines) {
+      dimensionLine.addPropertyChangeListener(this.dimensionLinesAtLevelCache);
+    }
+    addDimensionLinesListener(new CollectionListener<DimensionLine>() {
+        public void collectionChanged(CollectionEvent<DimensionLine> ev) {
+          if (ev.getType() == CollectionEvent.Type.ADD) {
+            ev.getItem().addPropertyChangeListener(dimensionLinesAtLevelCache);
+          } else {
+            ev.getItem().removePropertyChangeListener(dimensionLinesAtLevelCache);
+          }
+          dimensionLinesAtLevelCache.clearItemsViewableFrom(ev.getItem().getLevel());
+        }
+      });
+
+    this.labelsAtLevelCache = new LevelItemsCache<Label>(Label.Property.LEVEL.name());
+    for (Label label : this.labels) {
+      label.addPropertyChangeListener(this.labelsAtLevelCache);
+    }
+    addLabelsListener(new CollectionListener<Label>() {
+        public void collectionChanged(CollectionEvent<Label> ev) {
+          if (ev.getType() == CollectionEvent.Type.ADD) {
+            ev.getItem().addPropertyChangeListener(labelsAtLevelCache);
+          } else {
+            ev.getItem().removePropertyChangeListener(labelsAtLevelCache);
+          }
+          labelsAtLevelCache.clearItemsViewableFrom(ev.getItem().getLevel());
+        }
+      });
+  }
+
   /**
    * Sets the version of this home and writes it to <code>out</code> stream
    * with default writing method. 
@@ -573,6 +681,16 @@ public class Home implements Serializable, Cloneable {
     return Collections.unmodifiableList(this.furniture);
   }
 
+  /**
+   * Returns an unmodifiable list of the furniture of this home 
+   * {@linkplain HomePieceOfFurniture#isAtLevel(Level) viewable at the given level}, 
+   * in the same order as in {@link #getFurniture() getFurniture}.
+   * @since 4.2
+   */
+  public List<HomePieceOfFurniture> getFurnitureAtLevel(Level level) {
+    return this.furnitureAtLevelCache.getItemsAtLevel(this.furniture, level);
+  }
+
   /**
    * Adds the <code>piece</code> in parameter to this home.
    * Once the <code>piece</code> is added, furniture listeners added to this home will receive a
@@ -689,6 +807,15 @@ public class Home implements Serializable, Cloneable {
     return Collections.unmodifiableList(this.rooms);
   }
 
+  /**
+   * Returns an unmodifiable list of the rooms of this home at the given level, 
+   * in the same order as in {@link #getRooms() getRooms}.
+   * @since 4.2
+   */
+  public List<Room> getRoomsAtLevel(Level level) {
+    return this.roomsAtLevelCache.getItemsAtLevel(this.rooms, level);
+  }
+
   /**
    * Adds the given <code>room</code> to the list of rooms of this home.
    * Once the <code>room</code> is added, room listeners added to this home will receive a
@@ -756,6 +883,15 @@ public class Home implements Serializable, Cloneable {
     return Collections.unmodifiableCollection(this.walls);
   }
 
+  /**
+   * Returns an unmodifiable list of the walls of this home 
+   * {@linkplain Wall#isAtLevel(Level) viewable at the given level}.
+   * @since 4.2
+   */
+  public List<Wall> getWallsAtLevel(Level level) {
+    return this.wallsAtLevelCache.getItemsAtLevel(this.walls, level);
+  }
+
   /**
    * Adds the given <code>wall</code> to the set of walls of this home.
    * Once the <code>wall</code> is added, wall listeners added to this home will receive a
@@ -821,6 +957,14 @@ public class Home implements Serializable, Cloneable {
     return Collections.unmodifiableCollection(this.dimensionLines);
   }
 
+  /**
+   * Returns an unmodifiable list of the dimension lines of this home at the given level.
+   * @since 4.2
+   */
+  public List<DimensionLine> getDimensionLinesAtLevel(Level level) {
+    return this.dimensionLinesAtLevelCache.getItemsAtLevel(this.dimensionLines, level);
+  }
+
   /**
    * Adds the given dimension line to the set of dimension lines of this home.
    * Once <code>dimensionLine</code> is added, dimension line listeners added 
@@ -879,6 +1023,14 @@ public class Home implements Serializable, Cloneable {
     return Collections.unmodifiableCollection(this.labels);
   }
 
+  /**
+   * Returns an unmodifiable list of the labels of this home at the given level.
+   * @since 4.2
+   */
+  public List<Label> getLabelsAtLevel(Level level) {
+    return this.labelsAtLevelCache.getItemsAtLevel(this.labels, level);
+  }
+
   /**
    * Adds the given label to the set of labels of this home.
    * Once <code>label</code> is added, label listeners added 
@@ -928,6 +1080,169 @@ public class Home implements Serializable, Cloneable {
         && this.labels.isEmpty();
   }
 
+  /**
+   * Starts a batch of modifications of the items of this home. Until the matching call to 
+   * {@link #endBatch() endBatch}, the additions and deletions of levels, furniture, walls, rooms, 
+   * dimension lines and labels are notified to {@link CollectionBatchListener batch listeners}
+   * only at the end of the batch, in one event list per collection, and the property changes 
+   * of home items are coalesced for the listeners returned by 
+   * {@link #createBatchPropertyChangeListener(PropertyChangeListener) createBatchPropertyChangeListener}. 
+   * Other listeners are notified immediately as usual. Batches may be nested.  
+   * @since 4.2
+   */
+  public void beginBatch() {
+    this.batchDepth++;
+    this.levelsChangeSupport.beginBatch();
+    this.wallsChangeSupport.beginBatch();
+    this.roomsChangeSupport.beginBatch();
+    this.furnitureChangeSupport.beginBatch();
+    this.dimensionLinesChangeSupport.beginBatch();
+    this.labelsChangeSupport.beginBatch();
+  }
+
+  /**
+   * Ends a batch of modifications started with {@link #beginBatch() beginBatch}, 
+   * and notifies batch listeners of the changes deferred during the outermost batch,
+   * item property changes first, then collection changes. 
+   * @throws IllegalStateException if no batch was started.
+   * @since 4.2
+   */
+  public void endBatch() {
+    if (this.batchDepth == 0) {
+      throw new IllegalStateException("No batch started");
+    }
+    CollectionChangeSupport<?> [] collectionChangeSupports = {
+        this.levelsChangeSupport, this.wallsChangeSupport, this.roomsChangeSupport, 
+        this.furnitureChangeSupport, this.dimensionLinesChangeSupport, this.labelsChangeSupport};
+    try {
+      if (--this.batchDepth == 0) {
+        // Count events fired during batch and notifications sent at its end
+        this.lastBatchEventCount = this.batchPropertyChangeCount;
+        this.lastBatchNotificationCount = 0;
+        this.batchPropertyChangeCount = 0;
+        for (CollectionChangeSupport<?> changeSupport : collectionChangeSupports) {
+          this.lastBatchEventCount += changeSupport.getBatchEventCount();
+          this.lastBatchNotificationCount += changeSupport.getBatchListenerCount();
+        }
+        notifyBatchPropertyChanges();
+      }
+    } finally {
+      endCollectionBatches(collectionChangeSupports, 0);
+    }
+  }
+
+  /**
+   * Ends the batch of the collection change supports from the given <code>index</code>, 
+   * even if a listener fails.
+   */
+  private void endCollectionBatches(CollectionChangeSupport<?> [] changeSupports, int index) {
+    if (index < changeSupports.length) {
+      try {
+        changeSupports [index].endBatch();
+      } finally {
+        endCollectionBatches(changeSupports, index + 1);
+      }
+    }
+  }
+
+  /**
+   * Returns a listener to add to the items of this home, that notifies the given <code>listener</code> 
+   * of their property changes. Outside of a batch, each change is notified immediately. 
+   * During a {@link #beginBatch() batch}, the changes received by the returned listener are coalesced 
+   * per item and property, with the old value of their first change and the new value of their last one, 
+   * and notified at the end of the outermost batch if these values are different. 
+   * If <code>listener</code> is a {@link PropertyChangeBatchListener}, these changes are notified 
+   * to it in one list.
+   * @since 4.2
+   */
+  public PropertyChangeListener createBatchPropertyChangeListener(final PropertyChangeListener listener) {
+    return new PropertyChangeListener() {
+        public void propertyChange(PropertyChangeEvent ev) {
+          if (batchDepth > 0) {
+            deferPropertyChange(listener, ev);
+          } else {
+            listener.propertyChange(ev);
+          }
+        }
+      };
+  }
+
+  /**
+   * Keeps the given property change until the end of the current batch, 
+   * merged with the previous change of the same item and property notified to <code>listener</code>.
+   */
+  private void deferPropertyChange(PropertyChangeListener listener, PropertyChangeEvent ev) {
+    this.batchPropertyChangeCount++;
+    if (this.batchPropertyChanges == null) {
+      this.batchPropertyChanges = new LinkedHashMap<PropertyChangeListener, Map<List<Object>, PropertyChangeEvent>>();
+    }
+    Map<List<Object>, PropertyChangeEvent> listenerChanges = this.batchPropertyChanges.get(listener);
+    if (listenerChanges == null) {
+      listenerChanges = new LinkedHashMap<List<Object>, PropertyChangeEvent>();
+      this.batchPropertyChanges.put(listener, listenerChanges);
+    }
+    List<Object> changeKey = Arrays.asList(ev.getSource(), ev.getPropertyName());
+    PropertyChangeEvent firstChange = listenerChanges.get(changeKey);
+    if (firstChange != null) {
+      ev = new PropertyChangeEvent(ev.getSource(), ev.getPropertyName(), 
+          firstChange.getOldValue(), ev.getNewValue());
+    }
+    listenerChanges.put(changeKey, ev);
+  }
+
+  /**
+   * Notifies the property changes coalesced during the batch that just ended.
+   */
+  private void notifyBatchPropertyChanges() {
+    if (this.batchPropertyChanges != null) {
+      Map<PropertyChangeListener, Map<List<Object>, PropertyChangeEvent>> batchPropertyChanges = 
+          this.batchPropertyChanges;
+      this.batchPropertyChanges = null;
+      for (Map.Entry<PropertyChangeListener, Map<List<Object>, PropertyChangeEvent>> entry : batchPropertyChanges.entrySet()) {
+        List<PropertyChangeEvent> events = new ArrayList<PropertyChangeEvent>(entry.getValue().size());
+        for (PropertyChangeEvent ev : entry.getValue().values()) {
+          // Ignore properties that got back their value during batch
+          Object oldValue = ev.getOldValue();
+          if (oldValue == null
+              || !oldValue.equals(ev.getNewValue())) {
+            events.add(ev);
+          }
+        }
+        if (!events.isEmpty()) {
+          PropertyChangeListener listener = entry.getKey();
+          if (listener instanceof PropertyChangeBatchListener) {
+            this.lastBatchNotificationCount++;
+            ((PropertyChangeBatchListener)listener).propertyChange(Collections.unmodifiableList(events));
+          } else {
+            for (PropertyChangeEvent ev : events) {
+              this.lastBatchNotificationCount++;
+              listener.propertyChange(ev);
+            }
+          }
+        }
+      }
+    }
+  }
+
+  /**
+   * Returns the count of collection events and item property changes fired 
+   * to batch listeners during the last outermost batch of this home, 
+   * which helps to measure the events generated by a user action. 
+   * @since 4.2
+   */
+  public int getLastBatchEventCount() {
+    return this.lastBatchEventCount;
+  }
+
+  /**
+   * Returns the count of notifications received by batch listeners at the end 
+   * of the last outermost batch of this home.  
+   * @since 4.2
+   */
+  public int getLastBatchNotificationCount() {
+    return this.lastBatchNotificationCount;
+  }
+
   /**
    * Adds the property change <code>listener</code> in parameter to this home.
    */
@@ -1332,11 +1647,16 @@ public class Home implements Serializable, Cloneable {
      // Create new listeners support
       clone.furnitureChangeSupport = new CollectionChangeSupport<HomePieceOfFurniture>(clone);
       clone.selectionListeners = new ArrayList<SelectionListener>();
+      clone.levelsChangeSupport = new CollectionChangeSupport<Level>(clone);
       clone.wallsChangeSupport = new CollectionChangeSupport<Wall>(clone);
       clone.roomsChangeSupport = new CollectionChangeSupport<Room>(clone);
       clone.dimensionLinesChangeSupport = new CollectionChangeSupport<DimensionLine>(clone);
       clone.labelsChangeSupport = new CollectionChangeSupport<Label>(clone);
       clone.propertyChangeSupport = new PropertyChangeSupport(clone);
+      clone.batchDepth = 0;
+      clone.batchPropertyChanges = null;
+      clone.batchPropertyChangeCount = 0;
+      clone.addModelListeners();
       return clone;
     } catch (CloneNotSupportedException ex) {
       throw new IllegalStateException("Super class isn't cloneable"); 
@@ -1430,4 +1750,76 @@ public class Home implements Serializable, Cloneable {
     }
     return subList;
   }
-}
\ No newline at end of file
+
+  /**
+   * The items of a given type viewable at each level. The items of a level are searched 
+   * only when they're requested, and kept until a modification of an item or of a level 
+   * impacts that level.
+   */
+  private static class LevelItemsCache<T extends Elevatable> implements PropertyChangeListener {
+    private final String              levelPropertyName;
+    private final List<String>        levelSpanPropertyNames;
+    private final Map<Level, List<T>> levelItems;
+
+    /**
+     * Creates a cache for items which level is notified with <code>levelPropertyName</code>, 
+     * and which may be viewed at upper levels according to <code>levelSpanPropertyNames</code> values.
+     */
+    public LevelItemsCache(String levelPropertyName, String ... levelSpanPropertyNames) {
+      this.levelPropertyName = levelPropertyName;
+      this.levelSpanPropertyNames = Arrays.asList(levelSpanPropertyNames);
+      this.levelItems = new HashMap<Level, List<T>>();
+    }
+
+    /**
+     * Returns the items among <code>items</code> viewable at the given <code>level</code>.
+     */
+    public synchronized List<T> getItemsAtLevel(List<T> items, Level level) {
+      List<T> itemsAtLevel = this.levelItems.get(level);
+      if (itemsAtLevel == null) {
+        itemsAtLevel = new ArrayList<T>();
+        for (T item : items) {
+          if (item.isAtLevel(level)) {
+            itemsAtLevel.add(item);
+          }
+        }
+        itemsAtLevel = Collections.unmodifiableList(itemsAtLevel);
+        this.levelItems.put(level, itemsAtLevel);
+      }
+      return itemsAtLevel;
+    }
+
+    /**
+     * Clears the items kept for the levels where an item at <code>itemLevel</code> may be viewed.
+     */
+    public synchronized void clearItemsViewableFrom(Level itemLevel) {
+      if (itemLevel == null || this.levelSpanPropertyNames.isEmpty()) {
+        this.levelItems.remove(itemLevel);
+      } else {
+        for (Iterator<Level> it = this.levelItems.keySet().iterator(); it.hasNext(); ) {
+          Level level = it.next();
+          if (level == itemLevel
+              || level != null && level.getElevation() >= itemLevel.getElevation()) {
+            it.remove();
+          }
+        }
+      }
+    }
+
+    /**
+     * Clears the items kept for all levels.
+     */
+    public synchronized void clear() {
+      this.levelItems.clear();
+    }
+
+    public void propertyChange(PropertyChangeEvent ev) {
+      if (this.levelPropertyName.equals(ev.getPropertyName())) {
+        clearItemsViewableFrom((Level)ev.getOldValue());
+        clearItemsViewableFrom((Level)ev.getNewValue());
+      } else if (this.levelSpanPropertyNames.contains(ev.getPropertyName())) {
+        clearItemsViewableFrom(((Elevatable)ev.getSource()).getLevel());
+      }
+    }
+  }
+}
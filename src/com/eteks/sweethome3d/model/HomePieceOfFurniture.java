@@ -257,6 +257,7 @@ public class HomePieceOfFurniture implements PieceOfFurniture, Serializable, Sel
 
   private transient PropertyChangeSupport propertyChangeSupport = new PropertyChangeSupport(this);
   private transient Shape shapeCache;
+  private transient float [][] pointsCache;
 
 
   /**
@@ -502,6 +503,7 @@ public class HomePieceOfFurniture implements PieceOfFurniture, Serializable, Sel
         float oldDepth = this.depth;
         this.depth = depth;
         this.shapeCache = null;
+        this.pointsCache = null;
         this.propertyChangeSupport.firePropertyChange(Property.DEPTH.name(), oldDepth, depth);
       }
     } else {
@@ -527,6 +529,7 @@ public class HomePieceOfFurniture implements PieceOfFurniture, Serializable, Sel
         float oldHeight = this.height;
         this.height = height;
         this.shapeCache = null;
+        this.pointsCache = null;
         this.propertyChangeSupport.firePropertyChange(Property.HEIGHT.name(), oldHeight, height);
       }
     } else {
@@ -552,6 +555,7 @@ public class HomePieceOfFurniture implements PieceOfFurniture, Serializable, Sel
         float oldWidth = this.width;
         this.width = width;
         this.shapeCache = null;
+        this.pointsCache = null;
         this.propertyChangeSupport.firePropertyChange(Property.WIDTH.name(), oldWidth, width);
       }
     } else {
@@ -876,6 +880,7 @@ public class HomePieceOfFurniture implements PieceOfFurniture, Serializable, Sel
       float oldX = this.x;
       this.x = x;
       this.shapeCache = null;
+      this.pointsCache = null;
       this.propertyChangeSupport.firePropertyChange(Property.X.name(), oldX, x);
     }
   }
@@ -896,6 +901,7 @@ public class HomePieceOfFurniture implements PieceOfFurniture, Serializable, Sel
       float oldY = this.y;
       this.y = y;
       this.shapeCache = null;
+      this.pointsCache = null;
       this.propertyChangeSupport.firePropertyChange(Property.Y.name(), oldY, y);
     }
   }
@@ -918,6 +924,7 @@ public class HomePieceOfFurniture implements PieceOfFurniture, Serializable, Sel
       float oldAngle = this.angle;
       this.angle = angle;
       this.shapeCache = null;
+      this.pointsCache = null;
       this.propertyChangeSupport.firePropertyChange(Property.ANGLE.name(), oldAngle, angle);
     }
   }
@@ -1011,14 +1018,62 @@ public class HomePieceOfFurniture implements PieceOfFurniture, Serializable, Sel
    * @return an array of the 4 (x,y) coordinates of the piece corners.
    */
   public float [][] getPoints() {
-    float [][] piecePoints = new float[4][2];
-    PathIterator it = getShape().getPathIterator(null);
-    for (int i = 0; i < piecePoints.length; i++) {
-      it.currentSegment(piecePoints [i]);
-      it.next();
+    float [][] pointsCache = getPointsCache();
+    float [][] piecePoints = new float [pointsCache.length][];
+    for (int i = 0; i < pointsCache.length; i++) {
+      piecePoints [i] = pointsCache [i].clone();
     }
     return piecePoints;
   }
+
+  /**
+   * Returns the number of points of this piece.
+   * @return 4
+   * @since 4.2
+   */
+  public int getPointCount() {
+    return 4;
+  }
+
+  /**
+   * Copies the points of each corner of this piece in the given array if it's large enough,
+   * or in a new array otherwise. This method avoids the allocation of a new array 
+   * for each point when it's called in loops with the same array.
+   * @param points an array able to contain the coordinates of the points of this piece, or <code>null</code>
+   * @return an array of the 4 alternated x and y coordinates of the piece corners, 
+   *    in the same order as the points returned by {@link #getPoints() getPoints}.
+   *    Only the 8 first values of the returned array are significant. 
+   * @since 4.2
+   */
+  public float [] getPoints(float [] points) {
+    float [][] pointsCache = getPointsCache();
+    if (points == null 
+        || points.length < 2 * pointsCache.length) {
+      points = new float [2 * pointsCache.length];
+    }
+    for (int i = 0, j = 0; i < pointsCache.length; i++) {
+      points [j++] = pointsCache [i][0];
+      points [j++] = pointsCache [i][1];
+    }
+    return points;
+  }
+
+  /**
+   * Returns the cached points of this piece, computed again if necessary. 
+   * The returned array is shared and must not be modified.
+   */
+  private float [][] getPointsCache() {
+    if (this.pointsCache == null) {
+      float [][] piecePoints = new float[4][2];
+      PathIterator it = getShape().getPathIterator(null);
+      for (int i = 0; i < piecePoints.length; i++) {
+        it.currentSegment(piecePoints [i]);
+        it.next();
+      }
+      this.pointsCache = piecePoints;
+    }
+    return this.pointsCache;
+  }
   
   /**
    * Returns <code>true</code> if this piece intersects
@@ -1050,7 +1105,7 @@ public class HomePieceOfFurniture implements PieceOfFurniture, Serializable, Sel
    * the point at (<code>x</code>, <code>y</code>) with a given <code>margin</code>.
    */
   public boolean isPointAt(float x, float y, float margin) {
-    for (float [] point : getPoints()) {
+    for (float [] point : getPointsCache()) {
       if (Math.abs(x - point[0]) <= margin && Math.abs(y - point[1]) <= margin) {
         return true;
       }
@@ -1064,7 +1119,7 @@ public class HomePieceOfFurniture implements PieceOfFurniture, Serializable, Sel
    * and if that point is closer to top left point than to top right and bottom left points.
    */
   public boolean isTopLeftPointAt(float x, float y, float margin) {
-    float [][] points = getPoints();
+    float [][] points = getPointsCache();
     double distanceSquareToTopLeftPoint = Point2D.distanceSq(x, y, points[0][0], points[0][1]);
     return distanceSquareToTopLeftPoint <= margin * margin
         && distanceSquareToTopLeftPoint < Point2D.distanceSq(x, y, points[1][0], points[1][1])
@@ -1077,7 +1132,7 @@ public class HomePieceOfFurniture implements PieceOfFurniture, Serializable, Sel
    * and if that point is closer to top right point than to top left and bottom right points.
    */
   public boolean isTopRightPointAt(float x, float y, float margin) {
-    float [][] points = getPoints();
+    float [][] points = getPointsCache();
     double distanceSquareToTopRightPoint = Point2D.distanceSq(x, y, points[1][0], points[1][1]);
     return distanceSquareToTopRightPoint <= margin * margin
         && distanceSquareToTopRightPoint < Point2D.distanceSq(x, y, points[0][0], points[0][1])
@@ -1090,7 +1145,7 @@ public class HomePieceOfFurniture implements PieceOfFurniture, Serializable, Sel
    * and if that point is closer to bottom left point than to top left and bottom right points.
    */
   public boolean isBottomLeftPointAt(float x, float y, float margin) {
-    float [][] points = getPoints();
+    float [][] points = getPointsCache();
     double distanceSquareToBottomLeftPoint = Point2D.distanceSq(x, y, points[3][0], points[3][1]);
     return distanceSquareToBottomLeftPoint <= margin * margin
         && distanceSquareToBottomLeftPoint < Point2D.distanceSq(x, y, points[0][0], points[0][1])
@@ -1103,7 +1158,7 @@ public class HomePieceOfFurniture implements PieceOfFurniture, Serializable, Sel
    * and if that point is closer to top left point than to top right and bottom left points.
    */
   public boolean isBottomRightPointAt(float x, float y, float margin) {
-    float [][] points = getPoints();
+    float [][] points = getPointsCache();
     double distanceSquareToBottomRightPoint = Point2D.distanceSq(x, y, points[2][0], points[2][1]);
     return distanceSquareToBottomRightPoint <= margin * margin
         && distanceSquareToBottomRightPoint < Point2D.distanceSq(x, y, points[1][0], points[1][1])
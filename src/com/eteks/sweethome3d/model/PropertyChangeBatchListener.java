@@ -0,0 +1,40 @@
+/*
+ * PropertyChangeBatchListener.java 18 oct. 2026
+ *
+ * Sweet Home 3D, Copyright (c) 2026 Emmanuel PUYBARET / eTeks <info@eteks.com>
+ *
+ * This program is free software; you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation; either version 2 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program; if not, write to the Free Software
+ * Foundation, Inc., 59 Temple Place, Suite 330, Boston, MA  02111-1307  USA
+ */
+package com.eteks.sweethome3d.model;
+
+import java.beans.PropertyChangeEvent;
+import java.beans.PropertyChangeListener;
+import java.util.List;
+
+/**
+ * A property change listener able to process in one pass the property changes
+ * of home items coalesced during a batch. Outside of a batch, this listener is notified 
+ * of each change with {@link #propertyChange(PropertyChangeEvent) propertyChange(PropertyChangeEvent)}.
+ * @see Home#createBatchPropertyChangeListener(PropertyChangeListener)
+ * @since 4.2
+ * @author Emmanuel Puybaret
+ */
+public interface PropertyChangeBatchListener extends PropertyChangeListener {
+  /**
+   * Called once at the end of a batch with the property changes received during that batch, 
+   * coalesced per item and property, in the order of their first change.
+   */
+  public void propertyChange(List<PropertyChangeEvent> events);
+}
@@ -231,6 +231,28 @@ public class Room implements Serializable, Selectable, Elevatable {
     return this.points.length;  
   }
 
+  /**
+   * Copies the points of the polygon matching this room in the given array if it's large enough,
+   * or in a new array otherwise. This method avoids the allocation of a new array 
+   * for each point when it's called in loops with the same array.
+   * @param points an array able to contain the coordinates of the points of this room, or <code>null</code>
+   * @return an array of alternated x and y coordinates of the room points. 
+   *    Only the <code>2 * {@link #getPointCount() getPointCount()}</code> first values 
+   *    of the returned array are significant. 
+   * @since 4.2
+   */
+  public float [] getPoints(float [] points) {
+    if (points == null 
+        || points.length < 2 * this.points.length) {
+      points = new float [2 * this.points.length];
+    }
+    for (int i = 0, j = 0; i < this.points.length; i++) {
+      points [j++] = this.points [i][0];
+      points [j++] = this.points [i][1];
+    }
+    return points;
+  }
+
   private float [][] deepCopy(float [][] points) {
     float [][] pointsCopy = new float [points.length][];
     for (int i = 0; i < points.length; i++) {
@@ -662,7 +684,7 @@ public class Room implements Serializable, Selectable, Elevatable {
     if (this.areaCache == null) {
       Area roomArea = new Area(getShape());
       if (roomArea.isSingular()) {
-        this.areaCache = Math.abs(getSignedArea(getPoints()));
+        this.areaCache = Math.abs(getSignedArea(this.points));
       } else {
         // Add the surface of the different polygons of this room
         float area = 0;
@@ -708,7 +730,7 @@ public class Room implements Serializable, Selectable, Elevatable {
    * Returns <code>true</code> if the points of this room are in clockwise order.
    */
   public boolean isClockwise() {
-    return getSignedArea(getPoints()) < 0;
+    return getSignedArea(this.points) < 0;
   }
   
   /**
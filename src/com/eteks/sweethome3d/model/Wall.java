@@ -709,6 +709,51 @@ public class Wall implements Serializable, Selectable, Elevatable {
    *    while the points at index 1 and 2 indicates the end of the wall. 
    */
   public float [][] getPoints() {
+    float [][] pointsCache = getPointsCache();
+    float [][] points = new float [pointsCache.length][];
+    for (int i = 0; i < pointsCache.length; i++) {
+      points [i] = pointsCache [i].clone();
+    }
+    return points;
+  }
+
+  /**
+   * Returns the number of points of this wall.
+   * @since 4.2
+   */
+  public int getPointCount() {
+    return getPointsCache().length;
+  }
+
+  /**
+   * Copies the points of each corner of this wall in the given array if it's large enough,
+   * or in a new array otherwise. This method avoids the allocation of a new array 
+   * for each point when it's called in loops with the same array.
+   * @param points an array able to contain the coordinates of the points of this wall, or <code>null</code>
+   * @return an array of alternated x and y coordinates of the wall corners, 
+   *    in the same order as the points returned by {@link #getPoints() getPoints}. 
+   *    Only the <code>2 * {@link #getPointCount() getPointCount()}</code> first values 
+   *    of the returned array are significant. 
+   * @since 4.2
+   */
+  public float [] getPoints(float [] points) {
+    float [][] pointsCache = getPointsCache();
+    if (points == null 
+        || points.length < 2 * pointsCache.length) {
+      points = new float [2 * pointsCache.length];
+    }
+    for (int i = 0, j = 0; i < pointsCache.length; i++) {
+      points [j++] = pointsCache [i][0];
+      points [j++] = pointsCache [i][1];
+    }
+    return points;
+  }
+
+  /**
+   * Returns the cached points of this wall, computed again if necessary. 
+   * The returned array is shared and must not be modified.
+   */
+  private float [][] getPointsCache() {
     if (this.pointsCache == null) {
       final float epsilon = 0.01f;
       float [][] wallPoints = getUnjoinedShapePoints();
@@ -834,11 +879,7 @@ public class Wall implements Serializable, Selectable, Elevatable {
       // Cache shape
       this.pointsCache = wallPoints;
     }
-    float [][] points = new float [this.pointsCache.length][];
-    for (int i = 0; i < this.pointsCache.length; i++) {
-      points [i] = this.pointsCache [i].clone();
-    }
-    return points;
+    return this.pointsCache;
   }
 
   /**
@@ -982,7 +1023,7 @@ public class Wall implements Serializable, Selectable, Elevatable {
    * with a given <code>margin</code> around the wall start line.
    */
   public boolean containsWallStartAt(float x, float y, float margin) {
-    float [][] wallPoints = getPoints();
+    float [][] wallPoints = getPointsCache();
     Line2D startLine = new Line2D.Float(wallPoints [0][0], wallPoints [0][1], 
         wallPoints [wallPoints.length - 1][0], wallPoints [wallPoints.length - 1][1]);
     return containsShapeAtWithMargin(startLine, x, y, margin);
@@ -994,7 +1035,7 @@ public class Wall implements Serializable, Selectable, Elevatable {
    * with a given <code>margin</code> around the wall end line.
    */
   public boolean containsWallEndAt(float x, float y, float margin) {
-    float [][] wallPoints = getPoints();
+    float [][] wallPoints = getPointsCache();
     Line2D endLine = new Line2D.Float(wallPoints [wallPoints.length / 2 - 1][0], wallPoints [wallPoints.length / 2 - 1][1], 
         wallPoints [wallPoints.length / 2][0], wallPoints [wallPoints.length / 2][1]); 
     return containsShapeAtWithMargin(endLine, x, y, margin);
@@ -1017,7 +1058,7 @@ public class Wall implements Serializable, Selectable, Elevatable {
    * Returns the shape matching this wall.
    */
   private Shape getShape() {
-    float [][] wallPoints = getPoints();
+    float [][] wallPoints = getPointsCache();
     GeneralPath wallPath = new GeneralPath();
     wallPath.moveTo(wallPoints [0][0], wallPoints [0][1]);
     for (int i = 1; i < wallPoints.length; i++) {
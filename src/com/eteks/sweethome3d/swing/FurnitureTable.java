@@ -80,6 +80,7 @@ import javax.swing.tree.TreeCellRenderer;
 import javax.swing.tree.TreeModel;
 import javax.swing.tree.TreePath;
 
+import com.eteks.sweethome3d.model.CollectionBatchListener;
 import com.eteks.sweethome3d.model.CollectionEvent;
 import com.eteks.sweethome3d.model.CollectionListener;
 import com.eteks.sweethome3d.model.Content;
@@ -89,6 +90,7 @@ import com.eteks.sweethome3d.model.HomePieceOfFurniture;
 import com.eteks.sweethome3d.model.HomePieceOfFurniture.SortableProperty;
 import com.eteks.sweethome3d.model.HomeTexture;
 import com.eteks.sweethome3d.model.Level;
+import com.eteks.sweethome3d.model.PropertyChangeBatchListener;
 import com.eteks.sweethome3d.model.Selectable;
 import com.eteks.sweethome3d.model.SelectionEvent;
 import com.eteks.sweethome3d.model.SelectionListener;
@@ -374,19 +376,25 @@ public class FurnitureTable extends JTable implements View, Printable {
     home.addPropertyChangeListener(Home.Property.FURNITURE_SORTED_PROPERTY, sortListener);
     home.addPropertyChangeListener(Home.Property.FURNITURE_DESCENDING_SORTED, sortListener);
     
-    final PropertyChangeListener changeListener = 
-      new PropertyChangeListener () {
+    final PropertyChangeListener changeListener = home.createBatchPropertyChangeListener(
+      new PropertyChangeBatchListener () {
         public void propertyChange(PropertyChangeEvent ev) {
           // As furniture properties values change may alter sort order and filter, update the whole table
           ((FurnitureTreeTableModel)getModel()).filterAndSortFurniture();
           // Update selected rows
           updateTableSelectedFurniture(home);
         }
-      };
+
+        public void propertyChange(List<PropertyChangeEvent> events) {
+          // Update the whole table once for all the changes of a batch
+          ((FurnitureTreeTableModel)getModel()).filterAndSortFurniture();
+          updateTableSelectedFurniture(home);
+        }
+      });
     for (HomePieceOfFurniture piece : home.getFurniture()) {
       piece.addPropertyChangeListener(changeListener);
     }
-    home.addFurnitureListener(new CollectionListener<HomePieceOfFurniture>() {
+    home.addFurnitureListener(new CollectionBatchListener<HomePieceOfFurniture>() {
       public void collectionChanged(CollectionEvent<HomePieceOfFurniture> ev) {
           if (ev.getType() == CollectionEvent.Type.ADD) {
             ev.getItem().addPropertyChangeListener(changeListener);
@@ -394,6 +402,14 @@ public class FurnitureTable extends JTable implements View, Printable {
             ev.getItem().removePropertyChangeListener(changeListener);
           }
         }
+
+        public void collectionChanged(List<CollectionEvent<HomePieceOfFurniture>> events) {
+          for (CollectionEvent<HomePieceOfFurniture> ev : events) {
+            collectionChanged(ev);
+          }
+          // Update selected rows once table model is up to date
+          updateTableSelectedFurniture(home);
+        }
       });
     for (Level level : home.getLevels()) {
       level.addPropertyChangeListener(changeListener);
@@ -1565,7 +1581,12 @@ public class FurnitureTable extends JTable implements View, Printable {
     }
 
     private void addHomeListener(final Home home) {
-      home.addFurnitureListener(new CollectionListener<HomePieceOfFurniture>() {
+      home.addFurnitureListener(new CollectionBatchListener<HomePieceOfFurniture>() {
+          public void collectionChanged(List<CollectionEvent<HomePieceOfFurniture>> events) {
+            // Rebuild the whole list once, as home furniture changed since the first event
+            filterAndSortFurniture();
+          }
+
           public void collectionChanged(CollectionEvent<HomePieceOfFurniture> ev) {
             HomePieceOfFurniture piece = ev.getItem();
             int pieceIndex = ev.getIndex();
@@ -51,7 +51,6 @@ import java.awt.event.MouseWheelEvent;
 import java.awt.event.MouseWheelListener;
 import java.awt.geom.Area;
 import java.awt.geom.GeneralPath;
-import java.awt.geom.PathIterator;
 import java.awt.geom.Rectangle2D;
 import java.awt.image.BufferedImage;
 import java.awt.image.FilteredImageSource;
@@ -65,14 +64,18 @@ import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Collection;
 import java.util.Collections;
-import java.util.Comparator;
 import java.util.Enumeration;
 import java.util.HashMap;
 import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
 import java.util.List;
 import java.util.Map;
-import java.util.TreeMap;
+import java.util.Set;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
 import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
 import java.util.concurrent.ScheduledExecutorService;
 import java.util.concurrent.TimeUnit;
 
@@ -129,14 +132,20 @@ import javax.vecmath.Vector3f;
 import com.eteks.sweethome3d.j3d.Component3DManager;
 import com.eteks.sweethome3d.j3d.Ground3D;
 import com.eteks.sweethome3d.j3d.HomePieceOfFurniture3D;
+import com.eteks.sweethome3d.j3d.LightScopeCache;
 import com.eteks.sweethome3d.j3d.ModelManager;
+import com.eteks.sweethome3d.j3d.ModelStreamingScheduler;
 import com.eteks.sweethome3d.j3d.Object3DBranch;
 import com.eteks.sweethome3d.j3d.Object3DBranchFactory;
+import com.eteks.sweethome3d.j3d.Object3DUpdateScheduler;
+import com.eteks.sweethome3d.j3d.ShadowOnFloorCache;
 import com.eteks.sweethome3d.j3d.TextureManager;
 import com.eteks.sweethome3d.j3d.Wall3D;
 import com.eteks.sweethome3d.model.Camera;
+import com.eteks.sweethome3d.model.CollectionBatchListener;
 import com.eteks.sweethome3d.model.CollectionEvent;
 import com.eteks.sweethome3d.model.CollectionListener;
+import com.eteks.sweethome3d.model.Elevatable;
 import com.eteks.sweethome3d.model.Home;
 import com.eteks.sweethome3d.model.HomeEnvironment;
 import com.eteks.sweethome3d.model.HomeFurnitureGroup;
@@ -144,10 +153,12 @@ import com.eteks.sweethome3d.model.HomeLight;
 import com.eteks.sweethome3d.model.HomePieceOfFurniture;
 import com.eteks.sweethome3d.model.HomeTexture;
 import com.eteks.sweethome3d.model.Level;
+import com.eteks.sweethome3d.model.PropertyChangeBatchListener;
 import com.eteks.sweethome3d.model.Room;
 import com.eteks.sweethome3d.model.Selectable;
 import com.eteks.sweethome3d.model.UserPreferences;
 import com.eteks.sweethome3d.model.Wall;
+import com.eteks.sweethome3d.tools.DoorsAndWindowsIndex;
 import com.eteks.sweethome3d.tools.OperatingSystem;
 import com.eteks.sweethome3d.viewcontroller.HomeController3D;
 import com.eteks.sweethome3d.viewcontroller.Object3DFactory;
@@ -167,13 +178,16 @@ public class HomeComponent3D extends JComponent implements com.eteks.sweethome3d
       ROTATE_CAMERA_PITCH_UP, ROTATE_CAMERA_PITCH_FAST_UP, ROTATE_CAMERA_PITCH_DOWN, ROTATE_CAMERA_PITCH_FAST_DOWN, 
       ELEVATE_CAMERA_UP, ELEVATE_CAMERA_FAST_UP, ELEVATE_CAMERA_DOWN, ELEVATE_CAMERA_FAST_DOWN}
   
+  private static final Object LIGHT_SCOPE_TASK = "LightScope";
+  
   private final Home                               home;
   private final boolean                            displayShadowOnFloor;
   private final Object3DFactory                    object3dFactory;
   private final Map<Selectable, Object3DBranch>    homeObjects = new HashMap<Selectable, Object3DBranch>();
   private Light []                                 defaultLights;
-  private Collection<Selectable>                   homeObjectsToUpdate;
+  private final Object3DUpdateScheduler            updateScheduler = new Object3DUpdateScheduler();
   private Collection<Selectable>                   lightScopeObjectsToUpdate;
+  private volatile ObjectsCulling                  objectsCulling;
   private Component                                component3D;
   private SimpleUniverse                           onscreenUniverse;
   private Camera                                   camera;
@@ -192,19 +206,31 @@ public class HomeComponent3D extends JComponent implements com.eteks.sweethome3d
   private PropertyChangeListener                   wallChangeListener;
   private CollectionListener<HomePieceOfFurniture> furnitureListener;
   private PropertyChangeListener                   furnitureChangeListener;
+  private final Map<HomePieceOfFurniture, Rectangle2D> doorsAndWindowsBounds = 
+      new HashMap<HomePieceOfFurniture, Rectangle2D>();
   private CollectionListener<Room>                 roomListener;
   private PropertyChangeListener                   roomChangeListener;
   // Offscreen printed image cache
   // Creating an offscreen buffer is a quite lengthy operation so we keep the last printed image in this field
   // This image should be set to null each time the 3D view changes
   private BufferedImage                            printedImageCache;
+  private int                                      printedImageVersion;
+  private final Object                             printedImageLock = new Object();
+  private volatile Future<?>                       printedImagePreparation;
   private BoundingBox                              approximateHomeBoundsCache;
   private SimpleUniverse                           offscreenUniverse;
   
   private JComponent                               navigationPanel;
   private ComponentListener                        navigationPanelListener;
   private BufferedImage                            navigationPanelImage;
-  private Area                                     lightScopeOutsideWallsAreaCache;
+  private volatile long                            lastFrameRenderingTime;
+  private final LightScopeCache                    lightScopeCache = new LightScopeCache();
+  private List<float [][]>                         lightScopeWallsPointsCache;
+  private final Map<Selectable, List<Group>>       lightScopeGroups = new HashMap<Selectable, List<Group>>();
+  private Group                                    lightScopeGround;
+  private boolean                                  defaultLightsScoped;
+  private DoorsAndWindowsIndex                     doorsAndWindowsIndex;
+  private ShadowOnFloorCache                       shadowOnFloorCache;
   
   /**
    * Creates a 3D component that displays <code>home</code> walls, rooms and furniture, 
@@ -294,6 +320,17 @@ public class HomeComponent3D extends JComponent implements com.eteks.sweethome3d
     addAncestorListener(preferences, controller, displayShadowOnFloor);
   }
 
+  /**
+   * Creates a component able only to compute off screen images of <code>home</code>.
+   */
+  private HomeComponent3D(Home home,
+                          Object3DFactory  object3DFactory,
+                          boolean displayShadowOnFloor) {
+    this.home = home;
+    this.displayShadowOnFloor = displayShadowOnFloor;
+    this.object3dFactory = object3DFactory;
+  }
+
   /**
    * Adds an ancestor listener to this component to manage the creation of the canvas and its universe 
    * and clean up the universe.  
@@ -366,6 +403,8 @@ public class HomeComponent3D extends JComponent implements com.eteks.sweethome3d
         throw ex2;
       }
     } else {
+      final boolean displayFrameTime = Boolean.valueOf(
+          System.getProperty("com.eteks.sweethome3d.j3d.displayFrameTime", "false"));
       this.component3D = Component3DManager.getInstance().getOnscreenCanvas3D(configuration,
           new Component3DManager.RenderingObserver() {        
               public void canvas3DSwapped(Canvas3D canvas3D) {
@@ -384,6 +423,9 @@ public class HomeComponent3D extends JComponent implements com.eteks.sweethome3d
                   g2D.drawImage(navigationPanelImage, null, 0, 0);
                   g2D.flush(true);
                 }
+                if (displayFrameTime) {
+                  drawFrameTime(canvas3D);
+                }
               }
             });
     }
@@ -438,6 +480,35 @@ public class HomeComponent3D extends JComponent implements com.eteks.sweethome3d
     }
   }
 
+  /**
+   * Draws upon <code>canvas3D</code> the time elapsed since the previous frame 
+   * and the count of culling cells attached to the scene. 
+   */
+  private void drawFrameTime(Canvas3D canvas3D) {
+    long frameRenderingTime = System.nanoTime();
+    long lastFrameRenderingTime = this.lastFrameRenderingTime;
+    this.lastFrameRenderingTime = frameRenderingTime;
+    if (lastFrameRenderingTime != 0) {
+      String text = String.format("%.1f ms", (frameRenderingTime - lastFrameRenderingTime) / 1E6f);
+      ObjectsCulling objectsCulling = this.objectsCulling;
+      if (objectsCulling != null) {
+        text += " - " + objectsCulling.getAttachedCellCount() + "/" + objectsCulling.getCellCount() + " cells";
+      }
+      ModelStreamingScheduler modelStreamingScheduler = ModelStreamingScheduler.getInstance(this.home);
+      int pendingModelCount = modelStreamingScheduler.getPendingModelCount();
+      if (pendingModelCount > 0) {
+        int swappedModelCount = modelStreamingScheduler.getSwappedModelCount();
+        text += " - " + swappedModelCount + "/" + (swappedModelCount + pendingModelCount) + " models";
+      }
+      J3DGraphics2D g2D = canvas3D.getGraphics2D();
+      g2D.setColor(Color.BLACK);
+      g2D.drawString(text, 6, canvas3D.getHeight() - 5);
+      g2D.setColor(Color.WHITE);
+      g2D.drawString(text, 5, canvas3D.getHeight() - 6);
+      g2D.flush(true);
+    }
+  }
+
   /**
    * A <code>JCanvas</code> canvas that displays the navigation panel of a home component 3D upon it.
    */
@@ -780,6 +851,14 @@ public class HomeComponent3D extends JComponent implements com.eteks.sweethome3d
     for (Room room : this.home.getRooms()) {
       room.removePropertyChangeListener(this.roomChangeListener);
     }
+    if (this.doorsAndWindowsIndex != null) {
+      this.doorsAndWindowsIndex.removeHomeListeners();
+      this.doorsAndWindowsIndex = null;
+    }
+    if (this.shadowOnFloorCache != null) {
+      this.shadowOnFloorCache.removeHomeListeners();
+      this.shadowOnFloorCache = null;
+    }
   }
 
   /**
@@ -787,27 +866,23 @@ public class HomeComponent3D extends JComponent implements com.eteks.sweethome3d
    */
   public int print(Graphics g, PageFormat pageFormat, int pageIndex) {
     if (pageIndex == 0) {     
-      // Compute printed image size to render 3D view in 150 dpi
       double printSize = Math.min(pageFormat.getImageableWidth(), 
           pageFormat.getImageableHeight());
-      int printedImageSize = (int)(printSize / 72 * 150);
-      if (this.printedImageCache == null 
-          || this.printedImageCache.getWidth() != printedImageSize) {
-        try {          
-          this.printedImageCache = getOffScreenImage(printedImageSize, printedImageSize);
-        } catch (IllegalRenderingStateException ex) {
-          // If off screen canvas failed, consider that 3D view page doesn't exist
-          return NO_SUCH_PAGE;
-        }
+      BufferedImage printedImage;
+      try {          
+        printedImage = getPrintedImage(getPrintedImageSize(pageFormat));
+      } catch (IllegalRenderingStateException ex) {
+        // If off screen canvas failed, consider that 3D view page doesn't exist
+        return NO_SUCH_PAGE;
       }
   
       Graphics2D g2D = (Graphics2D)g.create();
       // Center the 3D view in component
       g2D.translate(pageFormat.getImageableX() + (pageFormat.getImageableWidth() - printSize) / 2, 
           pageFormat.getImageableY() + (pageFormat.getImageableHeight() - printSize) / 2);
-      double scale = printSize / printedImageSize;
+      double scale = printSize / printedImage.getWidth();
       g2D.scale(scale, scale);
-      g2D.drawImage(this.printedImageCache, 0, 0, this);
+      g2D.drawImage(printedImage, 0, 0, this);
       g2D.dispose();
 
       return PAGE_EXISTS;
@@ -815,6 +890,92 @@ public class HomeComponent3D extends JComponent implements com.eteks.sweethome3d
       return NO_SUCH_PAGE;
     }
   }
+
+  /**
+   * Starts to render in a separate thread the image of this component 
+   * that will be printed in the given page format, then returns immediately.
+   * A later call to {@link #print(Graphics, PageFormat, int) print} with the same page format 
+   * will wait for the end of this rendering and reuse its result.
+   */
+  public void preparePrint(PageFormat pageFormat) {
+    final int printedImageSize = getPrintedImageSize(pageFormat);
+    final int printedImageVersion;
+    synchronized (this.printedImageLock) {
+      BufferedImage printedImage = this.printedImageCache;
+      if (printedImage != null 
+          && Math.abs(printedImage.getWidth() - printedImageSize) <= printedImageSize / 20) {
+        return;
+      }
+      printedImageVersion = this.printedImageVersion;
+    }
+    // Render a clone of home without selection to leave home untouched in the rendering thread
+    Home printedHome = this.home.clone();
+    printedHome.setSelectedItems(Collections.<Selectable>emptyList());
+    final HomeComponent3D printedComponent = 
+        new HomeComponent3D(printedHome, this.object3dFactory, this.displayShadowOnFloor);
+    ExecutorService executor = Executors.newSingleThreadExecutor();
+    this.printedImagePreparation = executor.submit(new Runnable() {
+        public void run() {
+          try {
+            BufferedImage printedImage = printedComponent.getOffScreenImage(printedImageSize, printedImageSize);
+            synchronized (printedImageLock) {
+              // Keep image only if 3D view didn't change during rendering
+              if (printedImageVersion == HomeComponent3D.this.printedImageVersion) {
+                printedImageCache = printedImage;
+              }
+            }
+          } catch (IllegalRenderingStateException ex) {
+            // Ignore failure, print method will try again
+          }
+        }
+      });
+    executor.shutdown();
+  }
+
+  /**
+   * Returns the size of the image printed in <code>pageFormat</code> to render 3D view in 150 dpi.
+   */
+  private int getPrintedImageSize(PageFormat pageFormat) {
+    double printSize = Math.min(pageFormat.getImageableWidth(), 
+        pageFormat.getImageableHeight());
+    return (int)(printSize / 72 * 150);
+  }
+
+  /**
+   * Returns the image printed at the given size, reusing the cached image 
+   * if its size is close enough to the requested one (header and footer heights 
+   * may differ slightly between preview and print).
+   */
+  private BufferedImage getPrintedImage(int printedImageSize) {
+    Future<?> printedImagePreparation = this.printedImagePreparation;
+    if (printedImagePreparation != null) {
+      // Wait for the end of the rendering started by preparePrint
+      try {
+        printedImagePreparation.get();
+      } catch (InterruptedException ex) {
+        Thread.currentThread().interrupt();
+      } catch (ExecutionException ex) {
+        // Image will be rendered again below
+      }
+      this.printedImagePreparation = null;
+    }
+    int printedImageVersion;
+    synchronized (this.printedImageLock) {
+      BufferedImage printedImage = this.printedImageCache;
+      if (printedImage != null 
+          && Math.abs(printedImage.getWidth() - printedImageSize) <= printedImageSize / 20) {
+        return printedImage;
+      }
+      printedImageVersion = this.printedImageVersion;
+    }
+    BufferedImage printedImage = getOffScreenImage(printedImageSize, printedImageSize);
+    synchronized (this.printedImageLock) {
+      if (printedImageVersion == this.printedImageVersion) {
+        this.printedImageCache = printedImage;
+      }
+    }
+    return printedImage;
+  }
   
   /**
    * Optimizes this component for the creation of a sequence of multiple off screen images. 
@@ -921,6 +1082,9 @@ public class HomeComponent3D extends JComponent implements com.eteks.sweethome3d
             public void run() {
               updateView(view, home.getCamera(), home.getTopCamera() == home.getCamera());
               updateViewPlatformTransform(viewPlatformTransform, home.getCamera(), true);
+              if (objectsCulling != null) {
+                objectsCulling.updateCellsVisibility();
+              }
             }
           });
         }
@@ -930,6 +1094,9 @@ public class HomeComponent3D extends JComponent implements com.eteks.sweethome3d
         public void propertyChange(PropertyChangeEvent ev) {
           updateView(view, home.getCamera(), home.getTopCamera() == home.getCamera());
           updateViewPlatformTransform(viewPlatformTransform, home.getCamera(), false);
+          if (objectsCulling != null) {
+            objectsCulling.updateCellsVisibility();
+          }
           // Add camera change listener to new active camera
           ((Camera)ev.getOldValue()).removePropertyChangeListener(cameraChangeListener);
           home.getCamera().addPropertyChangeListener(cameraChangeListener);
@@ -1023,7 +1190,10 @@ public class HomeComponent3D extends JComponent implements com.eteks.sweethome3d
    * Frees printed image kept in cache.
    */
   private void clearPrintedImageCache() {
-    this.printedImageCache = null;
+    synchronized (this.printedImageLock) {
+      this.printedImageCache = null;
+      this.printedImageVersion++;
+    }
   }
   
   /**
@@ -1621,17 +1791,9 @@ public class HomeComponent3D extends JComponent implements com.eteks.sweethome3d
     if (listenToHomeUpdates) {
       // Add a listener on ground color and texture properties change 
       this.groundChangeListener = new PropertyChangeListener() {
-          private Runnable updater;
           public void propertyChange(PropertyChangeEvent ev) {
-            if (this.updater == null) {
-              // Group updates
-              EventQueue.invokeLater(this.updater = new Runnable () {
-                public void run() {
-                  ground3D.update();
-                  updater = null;
-                }
-              });
-            }
+            // Group updates and compute ground geometry in a worker thread
+            updateScheduler.scheduleUpdate(ground3D, true);
             clearPrintedImageCache();
           }
         };
@@ -1685,6 +1847,7 @@ public class HomeComponent3D extends JComponent implements com.eteks.sweethome3d
           HomeEnvironment.Property.LIGHT_COLOR, this.lightColorListener);
       
       // Add a listener on subpart size property change to home
+      this.lightScopeGround = (Group)groundNode;
       this.subpartSizeListener = new PropertyChangeListener() {
           public void propertyChange(PropertyChangeEvent ev) {
             Collection<Selectable> homeItems = new ArrayList<Selectable>(home.getWalls());
@@ -1692,62 +1855,8 @@ public class HomeComponent3D extends JComponent implements com.eteks.sweethome3d
             homeItems.addAll(Home.getSubList(home.getFurniture(), HomeLight.class));
             updateObjects(homeItems);
             clearPrintedImageCache();
-            
             // Update default lights scope
-            List<Group> scope = null;
-            if (home.getEnvironment().getSubpartSizeUnderLight() > 0) {
-              Area lightScopeOutsideWallsArea = getLightScopeOutsideWallsArea();
-              scope = new ArrayList<Group>();
-              for (Wall wall : home.getWalls()) {
-                Object3DBranch wall3D = homeObjects.get(wall);
-                if (wall3D instanceof Wall3D) {
-                  // Add left and/or right side of the wall to scope
-                  float [][] points = wall.getPoints();
-                  if (!lightScopeOutsideWallsArea.contains(points [0][0], points [0][1])) {
-                    scope.add((Group)wall3D.getChild(1));
-                  } 
-                  if (!lightScopeOutsideWallsArea.contains(points [points.length - 1][0], points [points.length - 1][1])) {
-                    scope.add((Group)wall3D.getChild(4));
-                  }
-                }
-                // Add wall top and bottom groups to scope 
-                scope.add((Group)wall3D.getChild(0));
-                scope.add((Group)wall3D.getChild(2));
-                scope.add((Group)wall3D.getChild(3));
-                scope.add((Group)wall3D.getChild(5));
-              }
-              List<Selectable> otherItems = new ArrayList<Selectable>(home.getFurniture());
-              otherItems.addAll(home.getRooms());
-              for (Selectable item : otherItems) {
-                // Add item to scope if one of its points don't belong to lightScopeWallsArea
-                for (float [] point : item.getPoints()) {
-                  if (!lightScopeOutsideWallsArea.contains(point [0], point [1])) {
-                    Group object3D = homeObjects.get(item);
-                    if (object3D instanceof HomePieceOfFurniture3D) {
-                      // Add the direct parent of the shape that will be added once loaded
-                      // otherwise scope won't be updated automatically
-                      object3D = (Group)object3D.getChild(0);
-                    }
-                    scope.add(object3D);
-                    break;
-                  }
-                }
-              }
-            } else {
-              lightScopeOutsideWallsAreaCache = null;
-            }
-            
-            for (Light light : lights) {
-              if (light instanceof DirectionalLight) {
-                light.removeAllScopes();
-                if (scope != null) {
-                  light.addScope((Group)groundNode);
-                  for (Group group : scope) {
-                    light.addScope(group);
-                  }
-                } 
-              }
-            }
+            updateObjectsLightScope(null);
           }
         };
       this.home.getEnvironment().addPropertyChangeListener(
@@ -1770,43 +1879,6 @@ public class HomeComponent3D extends JComponent implements com.eteks.sweethome3d
     clearPrintedImageCache();
   }
 
-  /**
-   * Returns walls area used for light scope outside.
-   */
-  private Area getLightScopeOutsideWallsArea() {
-    if (this.lightScopeOutsideWallsAreaCache == null) {
-      // Compute a smaller area surrounding all walls at all levels
-      Area wallsPath = new Area();
-      for (Wall wall : home.getWalls()) {
-        Wall thinnerWall = wall.clone();
-        thinnerWall.setThickness(Math.max(thinnerWall.getThickness() - 0.1f, 0.08f));
-        wallsPath.add(new Area(getShape(thinnerWall.getPoints())));
-      }
-      Area lightScopeOutsideWallsArea = new Area();
-      List<float []> points = new ArrayList<float[]>();
-      for (PathIterator it = wallsPath.getPathIterator(null, 1); !it.isDone(); it.next()) {
-        float [] point = new float[2];
-        switch (it.currentSegment(point)) {
-          case PathIterator.SEG_MOVETO : 
-          case PathIterator.SEG_LINETO : 
-            points.add(point);
-            break;
-          case PathIterator.SEG_CLOSE :
-            if (points.size() > 2) {
-              float [][] pointsArray = points.toArray(new float [points.size()][]);
-              if (new Room(pointsArray).isClockwise()) {
-                lightScopeOutsideWallsArea.add(new Area(getShape(pointsArray)));
-              }               
-            }
-            points.clear();
-            break;
-        }
-      }
-      this.lightScopeOutsideWallsAreaCache = lightScopeOutsideWallsArea;
-    }
-    return this.lightScopeOutsideWallsAreaCache;
-  }
-
   /**
    * Returns a <code>home</code> new tree node, with branches for each wall 
    * and piece of furniture of <code>home</code>. 
@@ -1815,6 +1887,9 @@ public class HomeComponent3D extends JComponent implements com.eteks.sweethome3d
                               boolean listenToHomeUpdates, 
                               boolean waitForLoading) {
     Group homeRoot = createHomeRoot();
+    if (listenToHomeUpdates) {
+      this.objectsCulling = new ObjectsCulling(homeRoot);
+    }
     // Add walls, pieces and rooms already available 
     for (Room room : this.home.getRooms()) {
       addObject(homeRoot, room, listenToHomeUpdates, waitForLoading);
@@ -1822,13 +1897,13 @@ public class HomeComponent3D extends JComponent implements com.eteks.sweethome3d
     for (Wall wall : this.home.getWalls()) {
       addObject(homeRoot, wall, listenToHomeUpdates, waitForLoading);
     }
-    Map<HomePieceOfFurniture, Node> pieces3D = new HashMap<HomePieceOfFurniture, Node>();
+    Map<HomePieceOfFurniture, Node> pieces3D = new LinkedHashMap<HomePieceOfFurniture, Node>();
     for (HomePieceOfFurniture piece : this.home.getFurniture()) {
       pieces3D.put(piece, addObject(homeRoot, piece, listenToHomeUpdates, waitForLoading));
     }
     
     if (displayShadowOnFloor) {
-      addShadowOnFloor(homeRoot, pieces3D);
+      addShadowOnFloor(homeRoot, pieces3D, waitForLoading);
     }
     
     if (listenToHomeUpdates) {
@@ -1903,49 +1978,81 @@ public class HomeComponent3D extends JComponent implements com.eteks.sweethome3d
    * <code>group</code>, each time a wall is added, updated or deleted. 
    */
   private void addWallListener(final Group group) {
-    this.wallChangeListener = new PropertyChangeListener() {
+    this.wallChangeListener = this.home.createBatchPropertyChangeListener(
+      new PropertyChangeBatchListener() {
         public void propertyChange(PropertyChangeEvent ev) {
-          String propertyName = ev.getPropertyName();
-          if (!Wall.Property.PATTERN.name().equals(propertyName)) {
-            Wall updatedWall = (Wall)ev.getSource();
-            updateWall(updatedWall);          
-            updateObjects(home.getRooms());
-            if (updatedWall.getLevel() != null && updatedWall.getLevel().getElevation() < 0) {
-              groundChangeListener.propertyChange(null);
-            }
-            if (home.getEnvironment().getSubpartSizeUnderLight() > 0) {
-              if (Wall.Property.X_START.name().equals(propertyName)
+          propertyChange(Collections.singletonList(ev));
+        }
+
+        public void propertyChange(List<PropertyChangeEvent> events) {
+          // Update once the walls joined to modified walls and the objects that depend on them
+          Set<Wall> updatedWalls = new LinkedHashSet<Wall>();
+          boolean undergroundWallsChanged = false;
+          boolean wallsGeometryChanged = false;
+          for (PropertyChangeEvent ev : events) {
+            String propertyName = ev.getPropertyName();
+            if (!Wall.Property.PATTERN.name().equals(propertyName)) {
+              Wall updatedWall = (Wall)ev.getSource();
+              updatedWalls.add(updatedWall);
+              if (updatedWall.getWallAtStart() != null) {
+                updatedWalls.add(updatedWall.getWallAtStart());                
+              }
+              if (updatedWall.getWallAtEnd() != null) {
+                updatedWalls.add(updatedWall.getWallAtEnd());                
+              }
+              undergroundWallsChanged |= isUnderground(updatedWall.getLevel());
+              wallsGeometryChanged |= Wall.Property.X_START.name().equals(propertyName)
                   || Wall.Property.Y_START.name().equals(propertyName)
                   || Wall.Property.X_END.name().equals(propertyName)
                   || Wall.Property.Y_END.name().equals(propertyName)
                   || Wall.Property.ARC_EXTENT.name().equals(propertyName)
-                  || Wall.Property.THICKNESS.name().equals(propertyName)) {
-                lightScopeOutsideWallsAreaCache = null;
-                updateObjectsLightScope(null);
-              }
+                  || Wall.Property.THICKNESS.name().equals(propertyName);
+            }
+          }
+          if (!updatedWalls.isEmpty()) {
+            updateObjects(updatedWalls);          
+            updateObjects(home.getRooms());
+            if (undergroundWallsChanged) {
+              groundChangeListener.propertyChange(null);
+            }
+            if (wallsGeometryChanged
+                && home.getEnvironment().getSubpartSizeUnderLight() > 0) {
+              lightScopeWallsPointsCache = null;
+              updateObjectsLightScope(null);
             }
           }
         }
-      };
+      });
     for (Wall wall : this.home.getWalls()) {
       wall.addPropertyChangeListener(this.wallChangeListener);
     }      
-    this.wallListener = new CollectionListener<Wall>() {
+    this.wallListener = new CollectionBatchListener<Wall>() {
         public void collectionChanged(CollectionEvent<Wall> ev) {
-          Wall wall = ev.getItem();
-          switch (ev.getType()) {
-            case ADD :
-              addObject(group, wall, true, false);
-              wall.addPropertyChangeListener(wallChangeListener);
-              break;
-            case DELETE :
-              deleteObject(wall);
-              wall.removePropertyChangeListener(wallChangeListener);
-              break;
+          collectionChanged(Collections.singletonList(ev));
+        }
+
+        public void collectionChanged(List<CollectionEvent<Wall>> events) {
+          boolean undergroundWallsChanged = false;
+          for (CollectionEvent<Wall> ev : events) {
+            Wall wall = ev.getItem();
+            undergroundWallsChanged |= isUnderground(wall.getLevel());
+            switch (ev.getType()) {
+              case ADD :
+                addObject(group, wall, true, false);
+                wall.addPropertyChangeListener(wallChangeListener);
+                break;
+              case DELETE :
+                deleteObject(wall);
+                wall.removePropertyChangeListener(wallChangeListener);
+                break;
+            }
           }
-          lightScopeOutsideWallsAreaCache = null;
+          // Update other objects once for all the walls
+          lightScopeWallsPointsCache = null;
           updateObjects(home.getRooms());
-          groundChangeListener.propertyChange(null);
+          if (undergroundWallsChanged) {
+            groundChangeListener.propertyChange(null);
+          }
           updateObjectsLightScope(null);
         }
       };
@@ -1957,75 +2064,176 @@ public class HomeComponent3D extends JComponent implements com.eteks.sweethome3d
    * each time a piece of furniture is added, updated or deleted. 
    */
   private void addFurnitureListener(final Group group) {
-    this.furnitureChangeListener = new PropertyChangeListener() {
+    this.furnitureChangeListener = this.home.createBatchPropertyChangeListener(
+      new PropertyChangeBatchListener() {
         public void propertyChange(PropertyChangeEvent ev) {
-          HomePieceOfFurniture updatedPiece = (HomePieceOfFurniture)ev.getSource();
-          String propertyName = ev.getPropertyName();
-          if (HomePieceOfFurniture.Property.X.name().equals(propertyName)
-              || HomePieceOfFurniture.Property.Y.name().equals(propertyName)
-              || HomePieceOfFurniture.Property.ANGLE.name().equals(propertyName)
-              || HomePieceOfFurniture.Property.WIDTH.name().equals(propertyName)
-              || HomePieceOfFurniture.Property.DEPTH.name().equals(propertyName)) {
-            updatePieceOfFurnitureGeometry(updatedPiece);
-            updateObjectsLightScope(Arrays.asList(new HomePieceOfFurniture [] {updatedPiece}));
-          } else if (HomePieceOfFurniture.Property.HEIGHT.name().equals(propertyName)
-              || HomePieceOfFurniture.Property.ELEVATION.name().equals(propertyName)
-              || HomePieceOfFurniture.Property.MODEL_MIRRORED.name().equals(propertyName)
-              || HomePieceOfFurniture.Property.VISIBLE.name().equals(propertyName)
-              || HomePieceOfFurniture.Property.LEVEL.name().equals(propertyName)) {
-            updatePieceOfFurnitureGeometry(updatedPiece);
-          } else if (HomePieceOfFurniture.Property.COLOR.name().equals(propertyName)
-              || HomePieceOfFurniture.Property.TEXTURE.name().equals(propertyName)
-              || HomePieceOfFurniture.Property.MODEL_MATERIALS.name().equals(propertyName)
-              || HomePieceOfFurniture.Property.SHININESS.name().equals(propertyName)
-              || (HomeLight.Property.POWER.name().equals(propertyName)
-                  && home.getEnvironment().getSubpartSizeUnderLight() > 0)) {
-            updateObjects(Arrays.asList(new HomePieceOfFurniture [] {updatedPiece}));
+          propertyChange(Collections.singletonList(ev));
+        }
+
+        public void propertyChange(List<PropertyChangeEvent> events) {
+          // Update once the modified pieces and the objects that depend on them
+          Set<HomePieceOfFurniture> updatedPieces = new LinkedHashSet<HomePieceOfFurniture>();
+          Set<HomePieceOfFurniture> geometryUpdatedPieces = new LinkedHashSet<HomePieceOfFurniture>();
+          Set<HomePieceOfFurniture> movedPieces = new LinkedHashSet<HomePieceOfFurniture>();
+          for (PropertyChangeEvent ev : events) {
+            HomePieceOfFurniture updatedPiece = (HomePieceOfFurniture)ev.getSource();
+            String propertyName = ev.getPropertyName();
+            if (HomePieceOfFurniture.Property.X.name().equals(propertyName)
+                || HomePieceOfFurniture.Property.Y.name().equals(propertyName)
+                || HomePieceOfFurniture.Property.ANGLE.name().equals(propertyName)
+                || HomePieceOfFurniture.Property.WIDTH.name().equals(propertyName)
+                || HomePieceOfFurniture.Property.DEPTH.name().equals(propertyName)) {
+              geometryUpdatedPieces.add(updatedPiece);
+              movedPieces.add(updatedPiece);
+            } else if (HomePieceOfFurniture.Property.HEIGHT.name().equals(propertyName)
+                || HomePieceOfFurniture.Property.ELEVATION.name().equals(propertyName)
+                || HomePieceOfFurniture.Property.MODEL_MIRRORED.name().equals(propertyName)
+                || HomePieceOfFurniture.Property.VISIBLE.name().equals(propertyName)
+                || HomePieceOfFurniture.Property.LEVEL.name().equals(propertyName)) {
+              geometryUpdatedPieces.add(updatedPiece);
+            } else if (HomePieceOfFurniture.Property.COLOR.name().equals(propertyName)
+                || HomePieceOfFurniture.Property.TEXTURE.name().equals(propertyName)
+                || HomePieceOfFurniture.Property.MODEL_MATERIALS.name().equals(propertyName)
+                || HomePieceOfFurniture.Property.SHININESS.name().equals(propertyName)
+                || (HomeLight.Property.POWER.name().equals(propertyName)
+                    && home.getEnvironment().getSubpartSizeUnderLight() > 0)) {
+              updatedPieces.add(updatedPiece);
+            }
+          }
+          updatedPieces.addAll(geometryUpdatedPieces);
+          if (!updatedPieces.isEmpty()) {
+            updateObjects(updatedPieces);
+          }
+          if (!geometryUpdatedPieces.isEmpty()) {
+            updateFurnitureGeometryDependencies(geometryUpdatedPieces);
+          }
+          if (!movedPieces.isEmpty()) {
+            updateObjectsLightScope(movedPieces);
           }
         }
 
-        private void updatePieceOfFurnitureGeometry(HomePieceOfFurniture piece) {
-          updateObjects(Arrays.asList(new HomePieceOfFurniture [] {piece}));
-          // If piece is or contains a door or a window, update walls that intersect with piece
-          if (containsDoorsAndWindows(piece)) {
-            updateObjects(home.getWalls());
-          } else if (containsStaircases(piece)) {
+        private void updateFurnitureGeometryDependencies(Set<HomePieceOfFurniture> pieces) {
+          List<Rectangle2D> doorsOrWindowsChangedAreas = new ArrayList<Rectangle2D>();
+          boolean staircasesChanged = false;
+          boolean undergroundFurnitureChanged = false;
+          for (HomePieceOfFurniture piece : pieces) {
+            // If piece is or contains a door or a window, update walls that intersect with piece
+            if (containsDoorsAndWindows(piece)) {
+              Rectangle2D oldBounds = doorsAndWindowsBounds.get(piece);
+              if (oldBounds != null) {
+                doorsOrWindowsChangedAreas.add(oldBounds);
+              }
+              Rectangle2D newBounds = DoorsAndWindowsIndex.getBounds(piece);
+              doorsAndWindowsBounds.put(piece, newBounds);
+              doorsOrWindowsChangedAreas.add(newBounds);
+            } else {
+              staircasesChanged |= containsStaircases(piece);
+            }
+            undergroundFurnitureChanged |= isUnderground(piece.getLevel());
+          }
+          if (!doorsOrWindowsChangedAreas.isEmpty()) {
+            updateWallsIntersectingAreas(doorsOrWindowsChangedAreas);
+          }
+          if (staircasesChanged) {
             updateObjects(home.getRooms());
           }
-          if (piece.getLevel() != null && piece.getLevel().getElevation() < 0) {
+          if (undergroundFurnitureChanged) {
             groundChangeListener.propertyChange(null);
           }
         }
-      };
+      });
     for (HomePieceOfFurniture piece : this.home.getFurniture()) {
       piece.addPropertyChangeListener(this.furnitureChangeListener);
+      if (containsDoorsAndWindows(piece)) {
+        this.doorsAndWindowsBounds.put(piece, DoorsAndWindowsIndex.getBounds(piece));
+      }
     }      
-    this.furnitureListener = new CollectionListener<HomePieceOfFurniture>() {
+    this.furnitureListener = new CollectionBatchListener<HomePieceOfFurniture>() {
         public void collectionChanged(CollectionEvent<HomePieceOfFurniture> ev) {
-          HomePieceOfFurniture piece = (HomePieceOfFurniture)ev.getItem();
-          switch (ev.getType()) {
-            case ADD :
-              addObject(group, piece, true, false);
-              piece.addPropertyChangeListener(furnitureChangeListener);
-              break;
-            case DELETE :
-              deleteObject(piece);
-              piece.removePropertyChangeListener(furnitureChangeListener);
-              break;
+          collectionChanged(Collections.singletonList(ev));
+        }
+
+        public void collectionChanged(List<CollectionEvent<HomePieceOfFurniture>> events) {
+          List<Rectangle2D> doorsOrWindowsChangedAreas = new ArrayList<Rectangle2D>();
+          boolean staircasesChanged = false;
+          boolean undergroundFurnitureChanged = false;
+          List<HomePieceOfFurniture> changedFurniture = new ArrayList<HomePieceOfFurniture>(events.size());
+          for (CollectionEvent<HomePieceOfFurniture> ev : events) {
+            HomePieceOfFurniture piece = (HomePieceOfFurniture)ev.getItem();
+            switch (ev.getType()) {
+              case ADD :
+                addObject(group, piece, true, false);
+                piece.addPropertyChangeListener(furnitureChangeListener);
+                break;
+              case DELETE :
+                deleteObject(piece);
+                piece.removePropertyChangeListener(furnitureChangeListener);
+                break;
+            }
+            changedFurniture.add(piece);
+            undergroundFurnitureChanged |= isUnderground(piece.getLevel());
+            if (containsDoorsAndWindows(piece)) {
+              Rectangle2D bounds = ev.getType() == CollectionEvent.Type.ADD
+                  ? DoorsAndWindowsIndex.getBounds(piece)
+                  : doorsAndWindowsBounds.get(piece);
+              if (ev.getType() == CollectionEvent.Type.ADD) {
+                doorsAndWindowsBounds.put(piece, bounds);
+              } else {
+                doorsAndWindowsBounds.remove(piece);
+              }
+              if (bounds != null) {
+                doorsOrWindowsChangedAreas.add(bounds);
+              }
+            }
+            staircasesChanged |= containsStaircases(piece);
           }
-          // If piece is or contains a door or a window, update walls that intersect with piece
-          if (containsDoorsAndWindows(piece)) {
-            updateObjects(home.getWalls());
-          } else if (containsStaircases(piece)) {
+          // If pieces are or contain doors or windows, update walls that intersect with them
+          if (!doorsOrWindowsChangedAreas.isEmpty()) {
+            updateWallsIntersectingAreas(doorsOrWindowsChangedAreas);
+          } 
+          if (staircasesChanged) {
             updateObjects(home.getRooms());
           }
-          groundChangeListener.propertyChange(null);
-          updateObjectsLightScope(Arrays.asList(new HomePieceOfFurniture [] {piece}));
+          if (undergroundFurnitureChanged) {
+            // Only furniture at levels below zero may dig the ground
+            groundChangeListener.propertyChange(null);
+          }
+          updateObjectsLightScope(changedFurniture);
         }
       };
     this.home.addFurnitureListener(this.furnitureListener);
   }
 
+  /**
+   * Updates the walls which bounds intersect one of the given <code>areas</code>. 
+   */
+  private void updateWallsIntersectingAreas(List<Rectangle2D> areas) {
+    List<Wall> intersectingWalls = new ArrayList<Wall>();
+    float [] wallPoints = null;
+    for (Wall wall : this.home.getWalls()) {
+      wallPoints = wall.getPoints(wallPoints);
+      float xMin = wallPoints [0];
+      float yMin = wallPoints [1];
+      float xMax = xMin;
+      float yMax = yMin;
+      for (int i = 2, n = 2 * wall.getPointCount(); i < n; i += 2) {
+        xMin = Math.min(xMin, wallPoints [i]);
+        yMin = Math.min(yMin, wallPoints [i + 1]);
+        xMax = Math.max(xMax, wallPoints [i]);
+        yMax = Math.max(yMax, wallPoints [i + 1]);
+      }
+      for (Rectangle2D area : areas) {
+        if (area.intersects(xMin, yMin, xMax - xMin, yMax - yMin)) {
+          intersectingWalls.add(wall);
+          break;
+        }
+      }
+    }
+    if (!intersectingWalls.isEmpty()) {
+      updateObjects(intersectingWalls);
+    }
+  }
+
   /**
    * Returns <code>true</code> if the given <code>piece</code> is or contains a door or window.  
    */
@@ -2064,16 +2272,19 @@ public class HomeComponent3D extends JComponent implements com.eteks.sweethome3d
    * <code>group</code>, each time a room is added, updated or deleted. 
    */
   private void addRoomListener(final Group group) {
-    this.roomChangeListener = new PropertyChangeListener() {
+    this.roomChangeListener = this.home.createBatchPropertyChangeListener(
+      new PropertyChangeListener() {
         public void propertyChange(PropertyChangeEvent ev) {
           Room updatedRoom = (Room)ev.getSource();
           String propertyName = ev.getPropertyName();
           if (Room.Property.FLOOR_COLOR.name().equals(propertyName)
-              || Room.Property.FLOOR_TEXTURE.name().equals(propertyName)
               || Room.Property.FLOOR_SHININESS.name().equals(propertyName)
               || Room.Property.CEILING_COLOR.name().equals(propertyName)
-              || Room.Property.CEILING_TEXTURE.name().equals(propertyName)
               || Room.Property.CEILING_SHININESS.name().equals(propertyName)) {
+            updateObjectAppearance(updatedRoom);
+          } else if (Room.Property.FLOOR_TEXTURE.name().equals(propertyName)
+              || Room.Property.CEILING_TEXTURE.name().equals(propertyName)) {
+            // Texture coordinates depend on texture size
             updateObjects(Arrays.asList(new Room [] {updatedRoom}));
           } else if (Room.Property.FLOOR_VISIBLE.name().equals(propertyName)
               || Room.Property.CEILING_VISIBLE.name().equals(propertyName)
@@ -2081,7 +2292,7 @@ public class HomeComponent3D extends JComponent implements com.eteks.sweethome3d
             updateObjects(home.getRooms());
             groundChangeListener.propertyChange(null);
           } else if (Room.Property.POINTS.name().equals(propertyName)) {   
-            if (homeObjectsToUpdate != null) {
+            if (updateScheduler.isUpdatePending()) {
               // Don't try to optimize if more than one room to update
               updateObjects(home.getRooms());
             } else {
@@ -2116,28 +2327,36 @@ public class HomeComponent3D extends JComponent implements com.eteks.sweethome3d
             updateObjectsLightScope(Home.getSubList(home.getFurniture(), HomeLight.class));
           }            
         }
-      };
+      });
     for (Room room : this.home.getRooms()) {
       room.addPropertyChangeListener(this.roomChangeListener);
     }      
-    this.roomListener = new CollectionListener<Room>() {
+    this.roomListener = new CollectionBatchListener<Room>() {
         public void collectionChanged(CollectionEvent<Room> ev) {
-          Room room = ev.getItem();
-          switch (ev.getType()) {
-            case ADD :
-              // Add room to its group at the index indicated by the event 
-              // to ensure the 3D rooms are drawn in the same order as in the plan  
-              addObject(group, room, ev.getIndex(), true, false);
-              room.addPropertyChangeListener(roomChangeListener);
-              break;
-            case DELETE :
-              deleteObject(room);
-              room.removePropertyChangeListener(roomChangeListener);
-              break;
+          collectionChanged(Collections.singletonList(ev));
+        }
+
+        public void collectionChanged(List<CollectionEvent<Room>> events) {
+          List<Room> changedRooms = new ArrayList<Room>(events.size());
+          for (CollectionEvent<Room> ev : events) {
+            Room room = ev.getItem();
+            switch (ev.getType()) {
+              case ADD :
+                // Add room to its group at the index indicated by the event 
+                // to ensure the 3D rooms are drawn in the same order as in the plan  
+                addObject(group, room, ev.getIndex(), true, false);
+                room.addPropertyChangeListener(roomChangeListener);
+                break;
+              case DELETE :
+                deleteObject(room);
+                room.removePropertyChangeListener(roomChangeListener);
+                break;
+            }
+            changedRooms.add(room);
           }
           updateObjects(home.getRooms());
           groundChangeListener.propertyChange(null);
-          updateObjectsLightScope(Arrays.asList(new Room [] {room}));
+          updateObjectsLightScope(changedRooms);
           updateObjectsLightScope(Home.getSubList(home.getFurniture(), HomeLight.class));
         }
       };
@@ -2197,7 +2416,13 @@ public class HomeComponent3D extends JComponent implements com.eteks.sweethome3d
     if (listenToHomeUpdates) {
       this.homeObjects.put(homeObject, object3D);
     }
-    if (index == -1) {
+    if (listenToHomeUpdates
+        && !(homeObject instanceof HomeLight)
+        && !(homeObject instanceof Room)) {
+      // Lights are kept out of culling cells to light objects even when they're not in field of view,
+      // and rooms to keep them at the beginning of group in the same order as in the plan
+      this.objectsCulling.addObject(homeObject, object3D);
+    } else if (index == -1) {
       group.addChild(object3D);
     } else {
       group.insertChild(object3D, index);
@@ -2214,71 +2439,91 @@ public class HomeComponent3D extends JComponent implements com.eteks.sweethome3d
    */
   private Object3DBranch createObject3D(Selectable homeObject,
                                         boolean waitForLoading) {
-    return (Object3DBranch)this.object3dFactory.createObject3D(this.home, homeObject, waitForLoading);
+    if (homeObject instanceof Wall
+        && this.object3dFactory.getClass() == Object3DBranchFactory.class) {
+      // Let default 3D walls search their doors and windows in the index owned by this component
+      return new Wall3D((Wall)homeObject, this.home, getDoorsAndWindowsIndex(), true, waitForLoading);
+    } else {
+      return (Object3DBranch)this.object3dFactory.createObject3D(this.home, homeObject, waitForLoading);
+    }
+  }
+
+  /**
+   * Returns the index of the doors and windows of home, created once needed.
+   */
+  private DoorsAndWindowsIndex getDoorsAndWindowsIndex() {
+    if (this.doorsAndWindowsIndex == null) {
+      this.doorsAndWindowsIndex = new DoorsAndWindowsIndex(this.home);
+    }
+    return this.doorsAndWindowsIndex;
   }
 
   /**
    * Detaches from the scene the branch matching <code>homeObject</code>.
    */
   private void deleteObject(Selectable homeObject) {
-    this.homeObjects.get(homeObject).detach();
-    this.homeObjects.remove(homeObject);
+    Object3DBranch objectBranch = this.homeObjects.remove(homeObject);
+    objectBranch.detach();
+    this.objectsCulling.deleteObject(homeObject);
+    this.updateScheduler.cancelUpdate(objectBranch);
     clearPrintedImageCache();
   }
 
   /**
-   * Updates <code>objects</code> later. Should be invoked from Event Dispatch Thread.
+   * Updates <code>objects</code> at next frame. Should be invoked from Event Dispatch Thread.
+   * The geometries of walls and rooms are computed in worker threads.
    */
   private void updateObjects(Collection<? extends Selectable> objects) {
-    if (this.homeObjectsToUpdate != null) {
-      this.homeObjectsToUpdate.addAll(objects);
-    } else {
-      this.homeObjectsToUpdate = new HashSet<Selectable>(objects);
-      // Invoke later the update of objects of homeObjectsToUpdate
-      EventQueue.invokeLater(new Runnable () {
-        public void run() {
-          for (Selectable object : homeObjectsToUpdate) {
-            Object3DBranch objectBranch = homeObjects.get(object);
-            // Check object wasn't deleted since updateObjects call
-            if (objectBranch != null) { 
-              homeObjects.get(object).update();
-            }
-          }
-          homeObjectsToUpdate = null;
+    for (Selectable object : objects) {
+      Object3DBranch objectBranch = this.homeObjects.get(object);
+      if (objectBranch != null) { 
+        this.updateScheduler.scheduleUpdate(objectBranch, 
+            object instanceof Wall || object instanceof Room);
+        if (this.objectsCulling != null) {
+          this.objectsCulling.updateObject(object);
         }
-      });
+      }
     }
     clearPrintedImageCache();
     this.approximateHomeBoundsCache = null;
   }
   
   /**
-   * Updates <code>wall</code> geometry, 
-   * and the walls at its end or start.
+   * Updates the appearance of <code>object</code> at next frame, without computing its geometries again. 
+   * Should be invoked from Event Dispatch Thread.
    */
-  private void updateWall(Wall wall) {
-    Collection<Wall> wallsToUpdate = new ArrayList<Wall>(3);
-    wallsToUpdate.add(wall);
-    if (wall.getWallAtStart() != null) {
-      wallsToUpdate.add(wall.getWallAtStart());                
-    }
-    if (wall.getWallAtEnd() != null) {
-      wallsToUpdate.add(wall.getWallAtEnd());                
+  private void updateObjectAppearance(Selectable object) {
+    final Object3DBranch objectBranch = this.homeObjects.get(object);
+    if (objectBranch != null) { 
+      this.updateScheduler.scheduleTask(objectBranch, new Runnable() {
+          public void run() {
+            objectBranch.updateAppearance();
+          }
+        });
     }
-    updateObjects(wallsToUpdate);
+    clearPrintedImageCache();
+  }
+  
+  /**
+   * Returns <code>true</code> if the given <code>level</code> is below the ground.
+   */
+  private boolean isUnderground(Level level) {
+    return level != null 
+        && level.getElevation() < 0;
   }
 
   /**
    * Updates the <code>object</code> scope under light later. Should be invoked from Event Dispatch Thread.
    */
   private void updateObjectsLightScope(Collection<? extends Selectable> objects) {
-    if (home.getEnvironment().getSubpartSizeUnderLight() > 0) {
+    if (home.getEnvironment().getSubpartSizeUnderLight() > 0
+        || this.defaultLightsScoped) {
       if (this.lightScopeObjectsToUpdate != null) {
         if (objects == null) {
           this.lightScopeObjectsToUpdate.clear();
           this.lightScopeObjectsToUpdate.add(null);
         } else if (!this.lightScopeObjectsToUpdate.contains(null)) {
-          this.homeObjectsToUpdate.addAll(objects);
+          this.lightScopeObjectsToUpdate.addAll(objects);
         }
       } else {
         this.lightScopeObjectsToUpdate = new HashSet<Selectable>();
@@ -2287,43 +2532,14 @@ public class HomeComponent3D extends JComponent implements com.eteks.sweethome3d
         } else {
           this.lightScopeObjectsToUpdate.addAll(objects);
         }
-        // Invoke later the update of objects of lightScopeObjectsToUpdate
-        EventQueue.invokeLater(new Runnable () {
+        // Update at next frame the scope of objects of lightScopeObjectsToUpdate
+        this.updateScheduler.scheduleTask(LIGHT_SCOPE_TASK, new Runnable () {
           public void run() {
-            if (lightScopeObjectsToUpdate.contains(null)) {
-              subpartSizeListener.propertyChange(null);
-            } else if (home.getEnvironment().getSubpartSizeUnderLight() > 0) {
-              Area lightScopeOutsideWallsArea = getLightScopeOutsideWallsArea();
-              for (Selectable object : lightScopeObjectsToUpdate) {
-                Group object3D = homeObjects.get(object);
-                if (object3D instanceof HomePieceOfFurniture3D) {
-                  // Add the direct parent of the shape that will be added once loaded
-                  // otherwise scope won't be updated automatically
-                  object3D = (Group)object3D.getChild(0);
-                }
-                // Check object wasn't deleted since updateObjects call
-                if (object3D != null) { 
-                  // Add item to scope if one of its points don't belong to lightScopeOutsideWallsArea
-                  boolean objectInOutsideLightScope = false;
-                  for (float [] point : object.getPoints()) {
-                    if (!lightScopeOutsideWallsArea.contains(point [0], point [1])) {
-                      objectInOutsideLightScope = true;
-                      break;
-                    }
-                  }
-                  for (Light light : defaultLights) {
-                    if (light instanceof DirectionalLight) {
-                      if (objectInOutsideLightScope && light.indexOfScope(object3D) == -1) {
-                        light.addScope(object3D);
-                      } else if (!objectInOutsideLightScope && light.indexOfScope(object3D) != -1) {
-                        light.removeScope(object3D);
-                      }
-                    }
-                  }
-                }
-              }
-            }
+            Collection<Selectable> objects = lightScopeObjectsToUpdate.contains(null)
+                ? null
+                : lightScopeObjectsToUpdate;
             lightScopeObjectsToUpdate = null;
+            computeObjectsLightScope(objects);
           }
         });
       }
@@ -2331,71 +2547,158 @@ public class HomeComponent3D extends JComponent implements com.eteks.sweethome3d
   }
   
   /**
-   * Adds to <code>homeRoot</code> shapes matching the shadow of furniture at their level.
+   * Computes in a worker thread which <code>objects</code> are outside walls, 
+   * then updates the scope of default lights with the result.
+   * If <code>objects</code> is <code>null</code>, the scope of all home objects is computed.
    */
-  private void addShadowOnFloor(Group homeRoot, Map<HomePieceOfFurniture, Node> pieces3D) {
-    Comparator<Level> levelComparator = new Comparator<Level>() {
-        public int compare(Level level1, Level level2) {
-          return Float.compare(level1.getElevation(), level2.getElevation());
+  private void computeObjectsLightScope(Collection<Selectable> objects) {
+    if (this.home.getEnvironment().getSubpartSizeUnderLight() > 0) {
+      if (this.lightScopeWallsPointsCache == null) {
+        this.lightScopeWallsPointsCache = LightScopeCache.getThinnerWallsPoints(this.home.getWalls());
+      }
+      final boolean allObjects = objects == null;
+      if (allObjects) {
+        objects = new ArrayList<Selectable>(this.home.getWalls());
+        objects.addAll(this.home.getFurniture());
+        objects.addAll(this.home.getRooms());
+      }
+      Map<Selectable, float [][]> objectsPoints = new LinkedHashMap<Selectable, float[][]>();
+      for (Selectable object : objects) {
+        // Ignore objects deleted since their update request
+        if (this.homeObjects.containsKey(object)) {
+          objectsPoints.put(object, object.getPoints());
         }
-      };
-    Map<Level, Area> areasOnLevel = new TreeMap<Level, Area>(levelComparator);
-    // Compute union of the areas of pieces at ground level that are not lights, doors or windows
-    for (Map.Entry<HomePieceOfFurniture, Node> object3DEntry : pieces3D.entrySet()) {
-      if (object3DEntry.getKey() instanceof HomePieceOfFurniture) {
-        HomePieceOfFurniture piece = object3DEntry.getKey();
-        // This operation can be lengthy, so give up if thread is interrupted 
-        if (Thread.currentThread().isInterrupted()) {
-          return;
-        }
-        if (piece.getElevation() == 0 
-            && !piece.isDoorOrWindow()
-            && !(piece instanceof com.eteks.sweethome3d.model.Light)) {
-          Area pieceAreaOnFloor = ModelManager.getInstance().getAreaOnFloor(object3DEntry.getValue());
-          Level level = piece.getLevel();
-          if (piece.getLevel() == null) {
-            level = new Level("Dummy", 0, 0, 0);
+      }
+      final Collection<Selectable> updatedObjects = objects;
+      this.lightScopeCache.computeItemsOutsideWalls(this.lightScopeWallsPointsCache, objectsPoints, 
+          new LightScopeCache.ScopeObserver() {
+            public void scopeComputed(Map<Selectable, boolean []> objectsOutsideWalls) {
+              updateDefaultLightsScope(updatedObjects, objectsOutsideWalls, allObjects);
+            }
+          });
+    } else if (this.defaultLightsScoped) {
+      for (Light light : this.defaultLights) {
+        if (light instanceof DirectionalLight) {
+          light.removeAllScopes();
+        }
+      }
+      this.lightScopeGroups.clear();
+      this.lightScopeWallsPointsCache = null;
+      this.defaultLightsScoped = false;
+      clearPrintedImageCache();
+    }
+  }
+
+  /**
+   * Updates the scope of default lights for the given <code>objects</code>, 
+   * adding or removing only the groups of objects which changed of side.
+   */
+  private void updateDefaultLightsScope(Collection<Selectable> objects, 
+                                        Map<Selectable, boolean []> objectsOutsideWalls,
+                                        boolean allObjects) {
+    // Ignore results computed before subparts were disabled
+    if (this.home.getEnvironment().getSubpartSizeUnderLight() > 0) {
+      if (!this.defaultLightsScoped) {
+        for (Light light : this.defaultLights) {
+          if (light instanceof DirectionalLight) {
+            light.removeAllScopes();
+            light.addScope(this.lightScopeGround);
+          }
+        }
+        this.defaultLightsScoped = true;
+      }
+      if (allObjects) {
+        // Remove from scope the objects deleted meanwhile
+        for (Selectable object : new ArrayList<Selectable>(this.lightScopeGroups.keySet())) {
+          if (!objectsOutsideWalls.containsKey(object)) {
+            updateObjectLightScope(object, Collections.<Group>emptyList());
+          }
+        }
+      }
+      for (Selectable object : objects) {
+        Object3DBranch object3D = this.homeObjects.get(object);
+        boolean [] outsideWalls = objectsOutsideWalls.get(object);
+        List<Group> scope = new ArrayList<Group>();
+        if (object3D != null && outsideWalls != null) {
+          if (object3D instanceof Wall3D) {
+            // Add left and/or right side of the wall to scope
+            if (outsideWalls [0]) {
+              scope.add((Group)object3D.getChild(1));
+            } 
+            if (outsideWalls [1]) {
+              scope.add((Group)object3D.getChild(4));
+            }
+            // Add wall top and bottom groups to scope 
+            scope.add((Group)object3D.getChild(0));
+            scope.add((Group)object3D.getChild(2));
+            scope.add((Group)object3D.getChild(3));
+            scope.add((Group)object3D.getChild(5));
+          } else if (outsideWalls [0]) {
+            if (object3D instanceof HomePieceOfFurniture3D) {
+              // Add the direct parent of the shape that will be added once loaded
+              // otherwise scope won't be updated automatically
+              scope.add((Group)object3D.getChild(0));
+            } else {
+              scope.add(object3D);
+            }
           }
-          if (level.isVisible()) {
-            Area areaOnLevel = areasOnLevel.get(level);
-            if (areaOnLevel == null) {
-              areaOnLevel = new Area();
-              areasOnLevel.put(level, areaOnLevel);
+        }
+        updateObjectLightScope(object, scope);
+      }
+    }
+  }
+
+  /**
+   * Replaces the groups of <code>object</code> in the scope of default lights by the given ones.
+   */
+  private void updateObjectLightScope(Selectable object, List<Group> scope) {
+    List<Group> previousScope = this.lightScopeGroups.get(object);
+    if (previousScope == null) {
+      previousScope = Collections.emptyList();
+    }
+    if (!scope.equals(previousScope)) {
+      for (Light light : this.defaultLights) {
+        if (light instanceof DirectionalLight) {
+          for (Group group : previousScope) {
+            if (!scope.contains(group)) {
+              light.removeScope(group);
+            }
+          }
+          for (Group group : scope) {
+            if (!previousScope.contains(group)) {
+              light.addScope(group);
             }
-            areaOnLevel.add(pieceAreaOnFloor);
           }
         }
       }
+      if (scope.isEmpty()) {
+        this.lightScopeGroups.remove(object);
+      } else {
+        this.lightScopeGroups.put(object, scope);
+      }
+      clearPrintedImageCache();
+    }
+  }
+  
+  /**
+   * Adds to <code>homeRoot</code> shapes matching the shadow of furniture at their level.
+   */
+  private void addShadowOnFloor(Group homeRoot, Map<HomePieceOfFurniture, Node> pieces3D, boolean waitForLoading) {
+    // Get the shadow from the cache of this component, 
+    // which computes only the parts that changed since a previous call
+    if (this.shadowOnFloorCache == null) {
+      this.shadowOnFloorCache = new ShadowOnFloorCache(this.home);
+    }
+    List<Geometry> shadowGeometries = this.shadowOnFloorCache.getShadowGeometries(pieces3D, waitForLoading);
+    if (shadowGeometries == null) {
+      // Thread was interrupted
+      return;
     }
     
     // Create the 3D shape matching computed areas
     Shape3D shadow = new Shape3D();
-    for (Map.Entry<Level, Area> levelArea : areasOnLevel.entrySet()) {
-      List<Point3f> coords = new ArrayList<Point3f>();
-      List<Integer> stripCounts = new ArrayList<Integer>();
-      int pointsCount = 0;
-      float [] modelPoint = new float[2];
-      for (PathIterator it = levelArea.getValue().getPathIterator(null); !it.isDone(); ) {
-        if (it.currentSegment(modelPoint) == PathIterator.SEG_CLOSE) {
-          stripCounts.add(pointsCount);
-          pointsCount = 0;
-        } else {
-          coords.add(new Point3f(modelPoint [0], levelArea.getKey().getElevation() + 0.49f, modelPoint [1]));
-          pointsCount++;
-        }
-        it.next();
-      }
-  
-      if (coords.size() > 0) {
-        GeometryInfo geometryInfo = new GeometryInfo(GeometryInfo.POLYGON_ARRAY);
-        geometryInfo.setCoordinates (coords.toArray(new Point3f [coords.size()]));
-        int [] stripCountsArray = new int [stripCounts.size()];
-        for (int i = 0; i < stripCountsArray.length; i++) {
-          stripCountsArray [i] = stripCounts.get(i);
-        }
-        geometryInfo.setStripCounts(stripCountsArray);
-        shadow.addGeometry(geometryInfo.getIndexedGeometryArray());
-      }
+    for (Geometry shadowGeometry : shadowGeometries) {
+      shadow.addGeometry(shadowGeometry);
     }
     
     Appearance shadowAppearance = new Appearance();
@@ -2404,4 +2707,318 @@ public class HomeComponent3D extends JComponent implements com.eteks.sweethome3d
     shadow.setAppearance(shadowAppearance);    
     homeRoot.addChild(shadow);
   }
+
+  /**
+   * Cells gathering the 3D walls and furniture of a home per level and per square area, 
+   * that attach to home root only the cells at visible levels which may be seen 
+   * by the displayed or the current camera. Cells are updated incrementally 
+   * when the camera or the objects change.
+   */
+  private class ObjectsCulling {
+    private static final float CELL_SIZE = 1000;
+    private static final float FIELD_OF_VIEW_MARGIN = 0.1f;
+
+    private final Group                   homeRoot;
+    private final Map<List<Object>, CullingCell> cells;
+    private final Map<Selectable, CullingCell>   objectCells;
+    private final Timer                   visibilityTimer;
+    private volatile int                  cellCount;
+    private volatile int                  attachedCellCount;
+
+    public ObjectsCulling(Group homeRoot) {
+      this.homeRoot = homeRoot;
+      this.cells = new HashMap<List<Object>, CullingCell>();
+      this.objectCells = new HashMap<Selectable, CullingCell>();
+      // Check again cells once camera moves stopped, because only initial and final cameras 
+      // are taken into account during a camera animation
+      this.visibilityTimer = new Timer(200, new ActionListener() {
+          public void actionPerformed(ActionEvent ev) {
+            updateCellsVisibility(false);
+          }
+        });
+      this.visibilityTimer.setRepeats(false);
+    }
+
+    /**
+     * Adds <code>branch</code> matching <code>homeObject</code> to its cell.
+     */
+    public void addObject(Selectable homeObject, Object3DBranch branch) {
+      CullingCell cell = getCell(homeObject);
+      cell.addObject(homeObject, branch);
+      this.objectCells.put(homeObject, cell);
+      updateCellVisibility(cell);
+    }
+
+    /**
+     * Moves the branch of <code>homeObject</code> to another cell if needed 
+     * and updates the visibility of its cell.
+     */
+    public void updateObject(Selectable homeObject) {
+      CullingCell cell = this.objectCells.get(homeObject);
+      if (cell != null) {
+        CullingCell newCell = getCell(homeObject);
+        if (newCell != cell) {
+          Object3DBranch branch = homeObjects.get(homeObject);
+          removeObject(cell, homeObject, branch);
+          newCell.addObject(homeObject, branch);
+          this.objectCells.put(homeObject, newCell);
+          updateCellVisibility(newCell);
+        } else {
+          cell.bounds = null;
+          updateCellVisibility(cell);
+        }
+      }
+    }
+
+    /**
+     * Removes <code>homeObject</code> from its cell, once its branch was detached.
+     */
+    public void deleteObject(Selectable homeObject) {
+      CullingCell cell = this.objectCells.remove(homeObject);
+      if (cell != null) {
+        removeObject(cell, homeObject, null);
+      }
+    }
+
+    private void removeObject(CullingCell cell, Selectable homeObject, Object3DBranch branch) {
+      cell.removeObject(homeObject, branch);
+      if (cell.objects.isEmpty()) {
+        if (cell.attached) {
+          cell.branch.detach();
+          this.attachedCellCount--;
+        }
+        this.cells.remove(cell.key);
+        this.cellCount = this.cells.size();
+      }
+    }
+
+    /**
+     * Returns the cell matching the level and the center of <code>homeObject</code>, 
+     * after creating it if it doesn't exist.
+     */
+    private CullingCell getCell(Selectable homeObject) {
+      float [][] points = homeObject.getPoints();
+      float xCenter = 0;
+      float yCenter = 0;
+      if (points.length > 0) {
+        float xMin = Float.POSITIVE_INFINITY;
+        float yMin = Float.POSITIVE_INFINITY;
+        float xMax = Float.NEGATIVE_INFINITY;
+        float yMax = Float.NEGATIVE_INFINITY;
+        for (float [] point : points) {
+          xMin = Math.min(xMin, point [0]);
+          yMin = Math.min(yMin, point [1]);
+          xMax = Math.max(xMax, point [0]);
+          yMax = Math.max(yMax, point [1]);
+        }
+        xCenter = (xMin + xMax) / 2;
+        yCenter = (yMin + yMax) / 2;
+      }
+      Level level = homeObject instanceof Elevatable
+          ? ((Elevatable)homeObject).getLevel()
+          : null;
+      List<Object> key = Arrays.asList(new Object [] {level, 
+          (int)Math.floor(xCenter / CELL_SIZE), (int)Math.floor(yCenter / CELL_SIZE)});
+      CullingCell cell = this.cells.get(key);
+      if (cell == null) {
+        cell = new CullingCell(key, level);
+        this.cells.put(key, cell);
+        this.cellCount = this.cells.size();
+      }
+      return cell;
+    }
+
+    /**
+     * Attaches cells which may be seen by the camera, and detaches the other ones.
+     * Should be invoked from Event Dispatch Thread each time the camera changes.
+     */
+    public void updateCellsVisibility() {
+      updateCellsVisibility(true);
+    }
+
+    private void updateCellsVisibility(boolean cameraMoving) {
+      for (CullingCell cell : this.cells.values()) {
+        updateCellVisibility(cell);
+      }
+      if (cameraMoving) {
+        this.visibilityTimer.restart();
+      }
+    }
+
+    private void updateCellVisibility(CullingCell cell) {
+      boolean visible = isCellVisible(cell);
+      if (visible != cell.attached) {
+        if (visible) {
+          this.homeRoot.addChild(cell.branch);
+          this.attachedCellCount++;
+        } else {
+          cell.branch.detach();
+          this.attachedCellCount--;
+        }
+        cell.attached = visible;
+        clearPrintedImageCache();
+      }
+    }
+
+    /**
+     * Returns <code>true</code> if the given <code>cell</code> is at a visible level
+     * and in the field of view of the displayed camera or of the current home camera.
+     */
+    private boolean isCellVisible(CullingCell cell) {
+      if (cell.level != null
+          && !cell.level.isVisible()) {
+        return false;
+      } 
+      if (cell.bounds == null) {
+        cell.bounds = computeBounds(cell.objects);
+      }
+      Camera homeCamera = home.getCamera();
+      Camera displayedCamera = camera;
+      return isInFieldOfView(cell.bounds, homeCamera, homeCamera.getFieldOfView())
+          || displayedCamera != null 
+             && isInFieldOfView(cell.bounds, displayedCamera, homeCamera.getFieldOfView());
+    }
+
+    /**
+     * Returns the bounding sphere of the given <code>objects</code> 
+     * as an array containing its center and its radius.
+     */
+    private float [] computeBounds(Collection<Selectable> objects) {
+      float xMin = Float.POSITIVE_INFINITY;
+      float yMin = Float.POSITIVE_INFINITY;
+      float zMin = Float.POSITIVE_INFINITY;
+      float xMax = Float.NEGATIVE_INFINITY;
+      float yMax = Float.NEGATIVE_INFINITY;
+      float zMax = Float.NEGATIVE_INFINITY;
+      for (Selectable object : objects) {
+        for (float [] point : object.getPoints()) {
+          xMin = Math.min(xMin, point [0]);
+          yMin = Math.min(yMin, point [1]);
+          xMax = Math.max(xMax, point [0]);
+          yMax = Math.max(yMax, point [1]);
+        }
+        float [] elevationRange = getElevationRange(object);
+        zMin = Math.min(zMin, elevationRange [0]);
+        zMax = Math.max(zMax, elevationRange [1]);
+      }
+      if (xMin > xMax) {
+        return new float [] {0, 0, 0, 0};
+      }
+      float xSize = xMax - xMin;
+      float ySize = yMax - yMin;
+      float zSize = zMax - zMin;
+      return new float [] {(xMin + xMax) / 2, (yMin + yMax) / 2, (zMin + zMax) / 2,
+          (float)Math.sqrt(xSize * xSize + ySize * ySize + zSize * zSize) / 2};
+    }
+
+    /**
+     * Returns the minimum and maximum elevations of the given home <code>object</code>.
+     */
+    private float [] getElevationRange(Selectable object) {
+      Level level = object instanceof Elevatable
+          ? ((Elevatable)object).getLevel()
+          : null;
+      float levelElevation = level != null  ? level.getElevation()  : 0;
+      if (object instanceof HomePieceOfFurniture) {
+        HomePieceOfFurniture piece = (HomePieceOfFurniture)object;
+        return new float [] {piece.getGroundElevation(), piece.getGroundElevation() + piece.getHeight()};
+      } else if (object instanceof Wall) {
+        Wall wall = (Wall)object;
+        float height = wall.getHeight() != null  ? wall.getHeight()  : home.getWallHeight();
+        if (wall.getHeightAtEnd() != null) {
+          height = Math.max(height, wall.getHeightAtEnd());
+        }
+        return new float [] {levelElevation, levelElevation + height};
+      } else if (level != null) {
+        return new float [] {levelElevation - level.getFloorThickness(), levelElevation + level.getHeight()};
+      } else {
+        return new float [] {0, home.getWallHeight()};
+      }
+    }
+
+    /**
+     * Returns <code>true</code> if the sphere described by <code>bounds</code> 
+     * intersects the cone matching the field of view of the given <code>camera</code>.
+     */
+    private boolean isInFieldOfView(float [] bounds, Camera camera, float fieldOfView) {
+      double dx = bounds [0] - camera.getX();
+      double dy = bounds [1] - camera.getY();
+      double dz = bounds [2] - camera.getZ();
+      double distance = Math.sqrt(dx * dx + dy * dy + dz * dz);
+      float radius = bounds [3];
+      if (distance <= radius) {
+        return true;
+      }
+      // Compute the half angle of the cone containing the view pyramid, 
+      // knowing that field of view is horizontal in Java 3D
+      double aspectRatio = component3D != null && component3D.getHeight() > 0
+          ? (double)component3D.getWidth() / component3D.getHeight()
+          : 1;
+      double tanHalfFieldOfView = Math.tan(fieldOfView / 2);
+      double halfDiagonalAngle = Math.atan(tanHalfFieldOfView * Math.sqrt(1 + 1 / (aspectRatio * aspectRatio)));
+      // Compute the angle between camera direction and the direction of sphere center
+      double cosPitch = Math.cos(camera.getPitch());
+      double xDirection = -Math.sin(camera.getYaw()) * cosPitch;
+      double yDirection = Math.cos(camera.getYaw()) * cosPitch;
+      double zDirection = -Math.sin(camera.getPitch());
+      double cosAngle = (dx * xDirection + dy * yDirection + dz * zDirection) / distance;
+      double angle = Math.acos(Math.max(-1, Math.min(1, cosAngle)));
+      return angle <= halfDiagonalAngle + Math.asin(radius / distance) + FIELD_OF_VIEW_MARGIN;
+    }
+
+    /**
+     * Returns the count of cells.
+     */
+    public int getCellCount() {
+      return this.cellCount;
+    }
+
+    /**
+     * Returns the count of cells attached to home root.
+     */
+    public int getAttachedCellCount() {
+      return this.attachedCellCount;
+    }
+  }
+
+  /**
+   * A cell gathering the 3D objects of a level located in a square area.
+   */
+  private static class CullingCell {
+    private final List<Object>    key;
+    private final Level           level;
+    private final BranchGroup     branch;
+    private final Set<Selectable> objects;
+    private float []              bounds;
+    private boolean               attached;
+
+    public CullingCell(List<Object> key, Level level) {
+      this.key = key;
+      this.level = level;
+      this.branch = new BranchGroup();
+      this.branch.setCapability(BranchGroup.ALLOW_DETACH);
+      this.branch.setCapability(Group.ALLOW_CHILDREN_READ);
+      this.branch.setCapability(Group.ALLOW_CHILDREN_WRITE);
+      this.branch.setCapability(Group.ALLOW_CHILDREN_EXTEND);
+      this.objects = new HashSet<Selectable>();
+    }
+
+    public void addObject(Selectable homeObject, Object3DBranch objectBranch) {
+      this.objects.add(homeObject);
+      this.branch.addChild(objectBranch);
+      this.bounds = null;
+    }
+
+    /**
+     * Removes <code>homeObject</code> from this cell and detaches <code>objectBranch</code> 
+     * if it's not <code>null</code>.
+     */
+    public void removeObject(Selectable homeObject, Object3DBranch objectBranch) {
+      this.objects.remove(homeObject);
+      if (objectBranch != null) {
+        objectBranch.detach();
+      }
+      this.bounds = null;
+    }
+  }
 }
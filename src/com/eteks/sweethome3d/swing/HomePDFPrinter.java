@@ -102,6 +102,8 @@ public class HomePDFPrinter {
         
         pdfContent.addTemplate(pdfTemplate, 0, 0);
         g.dispose();
+        // Write page content as soon as possible to keep memory usage independent of page count
+        pdfWriter.releaseTemplate(pdfTemplate);
         
         if (page != pageCount - 1) {
           pdfDocument.newPage();
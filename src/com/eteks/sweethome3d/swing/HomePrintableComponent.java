@@ -46,6 +46,7 @@ import java.util.Set;
 import javax.swing.JComponent;
 import javax.swing.JLabel;
 
+import com.eteks.sweethome3d.j3d.Component3DManager;
 import com.eteks.sweethome3d.model.Home;
 import com.eteks.sweethome3d.model.HomePieceOfFurniture;
 import com.eteks.sweethome3d.model.HomePrint;
@@ -125,6 +126,7 @@ public class HomePrintableComponent extends JComponent implements Printable {
   private Set<Integer>         printablePages = new HashSet<Integer>();
   private int                  furniturePageCount;
   private int                  planPageCount;
+  private boolean              countingPages;
   private Date                 printDate;
   private JLabel               fixedHeaderLabel;
   private JLabel               fixedFooterLabel;
@@ -372,7 +374,19 @@ public class HomePrintableComponent extends JComponent implements Printable {
     if (pageExists == NO_SUCH_PAGE
         && view3D != null
         && (homePrint == null || homePrint.isView3DPrinted())) {
-      pageExists = ((Printable)view3D).print(g2D, pageFormat, page - this.planPageCount - this.furniturePageCount);
+      int view3DPage = page - this.planPageCount - this.furniturePageCount;
+      if (this.countingPages 
+          && view3D instanceof HomeComponent3D
+          && Component3DManager.getInstance().isOffScreenImageSupported()) {
+        // Don't wait for the 3D view while counting pages: its single page is rendered
+        // in a separate thread, in parallel with the printing of the other pages
+        if (view3DPage == 0) {
+          ((HomeComponent3D)view3D).preparePrint(pageFormat);
+          pageExists = PAGE_EXISTS;
+        }
+      } else {
+        pageExists = ((Printable)view3D).print(g2D, pageFormat, view3DPage);
+      }
       if (pageExists == PAGE_EXISTS
           && !this.printablePages.contains(page)) {
         this.printablePages.add(page);
@@ -465,6 +479,7 @@ public class HomePrintableComponent extends JComponent implements Printable {
       Graphics dummyGraphics = dummyImage.getGraphics();
       // Count pages by printing in a dummy image
       this.pageCount = 0; 
+      this.countingPages = true;
       try {
         while (print(dummyGraphics, pageFormat, this.pageCount) == Printable.PAGE_EXISTS) {
           this.pageCount++;
@@ -472,6 +487,8 @@ public class HomePrintableComponent extends JComponent implements Printable {
       } catch (PrinterException ex) {
         // There should be no reason that print fails if print is done on a dummy image
         throw new RuntimeException(ex);
+      } finally {
+        this.countingPages = false;
       }
       dummyGraphics.dispose();
     }
@@ -34,6 +34,7 @@ import java.awt.Font;
 import java.awt.FontMetrics;
 import java.awt.Graphics;
 import java.awt.Graphics2D;
+import java.awt.GraphicsConfiguration;
 import java.awt.GridBagConstraints;
 import java.awt.GridBagLayout;
 import java.awt.Insets;
@@ -46,10 +47,10 @@ import java.awt.RenderingHints;
 import java.awt.Shape;
 import java.awt.Stroke;
 import java.awt.TexturePaint;
-import java.awt.Toolkit;
 import java.awt.Window;
 import java.awt.dnd.DragSource;
 import java.awt.event.ActionEvent;
+import java.awt.event.ActionListener;
 import java.awt.event.FocusAdapter;
 import java.awt.event.FocusEvent;
 import java.awt.event.KeyEvent;
@@ -70,19 +71,26 @@ import java.awt.geom.Point2D;
 import java.awt.geom.Rectangle2D;
 import java.awt.image.BufferedImage;
 import java.awt.image.FilteredImageSource;
-import java.awt.image.MemoryImageSource;
 import java.awt.image.RGBImageFilter;
+import java.awt.image.RenderedImage;
 import java.awt.print.PageFormat;
 import java.awt.print.Printable;
 import java.beans.PropertyChangeEvent;
 import java.beans.PropertyChangeListener;
+import java.io.File;
 import java.io.IOException;
 import java.io.InputStream;
 import java.io.InterruptedIOException;
 import java.io.OutputStream;
+import java.io.PrintWriter;
+import java.io.Writer;
+import java.lang.ref.SoftReference;
 import java.lang.ref.WeakReference;
+import java.math.BigInteger;
 import java.net.URL;
 import java.security.AccessControlException;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
 import java.text.Format;
 import java.text.NumberFormat;
 import java.text.ParseException;
@@ -93,14 +101,24 @@ import java.util.Collections;
 import java.util.Comparator;
 import java.util.Enumeration;
 import java.util.HashMap;
+import java.util.HashSet;
+import java.util.IdentityHashMap;
+import java.util.Iterator;
 import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
 import java.util.List;
 import java.util.Locale;
 import java.util.Map;
 import java.util.Set;
 import java.util.WeakHashMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CountDownLatch;
 import java.util.concurrent.ExecutorService;
 import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.PriorityBlockingQueue;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.atomic.AtomicLong;
 
 import javax.imageio.ImageIO;
 import javax.media.j3d.AmbientLight;
@@ -138,6 +156,7 @@ import javax.swing.KeyStroke;
 import javax.swing.Scrollable;
 import javax.swing.SwingConstants;
 import javax.swing.SwingUtilities;
+import javax.swing.Timer;
 import javax.swing.UIManager;
 import javax.swing.border.Border;
 import javax.swing.event.AncestorEvent;
@@ -167,6 +186,7 @@ import com.eteks.sweethome3d.j3d.ModelManager;
 import com.eteks.sweethome3d.j3d.TextureManager;
 import com.eteks.sweethome3d.model.BackgroundImage;
 import com.eteks.sweethome3d.model.Camera;
+import com.eteks.sweethome3d.model.CollectionBatchListener;
 import com.eteks.sweethome3d.model.CollectionEvent;
 import com.eteks.sweethome3d.model.CollectionListener;
 import com.eteks.sweethome3d.model.Compass;
@@ -177,12 +197,14 @@ import com.eteks.sweethome3d.model.Home;
 import com.eteks.sweethome3d.model.HomeDoorOrWindow;
 import com.eteks.sweethome3d.model.HomeFurnitureGroup;
 import com.eteks.sweethome3d.model.HomeLight;
+import com.eteks.sweethome3d.model.HomeMaterial;
 import com.eteks.sweethome3d.model.HomePieceOfFurniture;
 import com.eteks.sweethome3d.model.HomeTexture;
 import com.eteks.sweethome3d.model.Label;
 import com.eteks.sweethome3d.model.LengthUnit;
 import com.eteks.sweethome3d.model.Level;
 import com.eteks.sweethome3d.model.ObserverCamera;
+import com.eteks.sweethome3d.model.PropertyChangeBatchListener;
 import com.eteks.sweethome3d.model.Room;
 import com.eteks.sweethome3d.model.Sash;
 import com.eteks.sweethome3d.model.Selectable;
@@ -193,6 +215,8 @@ import com.eteks.sweethome3d.model.TextureImage;
 import com.eteks.sweethome3d.model.UserPreferences;
 import com.eteks.sweethome3d.model.Wall;
 import com.eteks.sweethome3d.tools.OperatingSystem;
+import com.eteks.sweethome3d.tools.SpatialIndex;
+import com.eteks.sweethome3d.tools.WallAreaCache;
 import com.eteks.sweethome3d.viewcontroller.PlanController;
 import com.eteks.sweethome3d.viewcontroller.PlanView;
 import com.eteks.sweethome3d.viewcontroller.View;
@@ -219,6 +243,15 @@ public class PlanComponent extends JComponent implements PlanView, Scrollable, P
       ACTIVATE_EDITIION, DEACTIVATE_EDITIION}
   
   private static final float    MARGIN = 40;
+  private static final float    INDEX_CELL_SIZE = 250;
+  private static final int      TILE_SIZE = 256;
+  // Margin in pixels around modified items that covers their selection outline and indicators
+  private static final int      REPAINT_PIXEL_MARGIN = 30;
+  private static final int      MAX_CACHED_TEXTS = 1000;
+  private static final int      MAX_CACHED_PATTERNS = 16;
+  private static final int      MAX_CACHED_GRID_TILES = 4;
+  // Maximum size in pixels of a grid tile, beyond which grid lines are drawn directly
+  private static final int      MAX_GRID_TILE_SIZE = 512;
 
   private final Home            home;
   private final UserPreferences preferences;
@@ -258,19 +291,53 @@ public class PlanComponent extends JComponent implements PlanView, Scrollable, P
   
   private List<HomePieceOfFurniture>        sortedLevelFurniture;
   private List<Room>                        sortedLevelRooms;
+  private SpatialIndex<HomePieceOfFurniture> sortedLevelFurnitureIndex;
+  private SpatialIndex<Room>                sortedLevelRoomsIndex;
+  private SpatialIndex<DimensionLine>       levelDimensionLinesIndex;
+  private SpatialIndex<Label>               levelLabelsIndex;
+  private Map<Point, BufferedImage>         tilesCache;
+  private List<Object>                      tilesCacheKey;
+  private int                               tilesCacheMaxSize;
+  private Boolean                           tilesCacheSupported;
+  private List<Selectable>                  tilesIgnoredItems;
+  private boolean                           paintedTileIncomplete;
+  private boolean                           asynchronousRendering;
+  private Map<Point, BufferedImage>         staleTilesCache;
+  private Map<Wall, Rectangle2D>            wallsBoundsCache;
+  private WallAreaCache                     wallAreaCache;
+  private boolean                           repaintDebugged;
+  private Timer                             repaintDebugTimer;
+  private int                               repaintDebugCount;
+  private long                              repaintedPixelCount;
+  private long                              repaintedPixelCountTime;
+  private long                              repaintedPixelsPerSecond;
+  private PlanComponent                     tilesRenderer;
+  private Map<Level, Level>                 tilesRendererLevels;
+  private Map<Selectable, Selectable>       tilesRendererItems;
+  private Set<Selectable>                   tilesRendererUpdatedItems;
+  private ExecutorService                   tilesRenderingExecutor;
+  private List<Future<?>>                   tilesRenderingTasks;
+  private Map<Point, Integer>               renderingTiles;
+  private int                               tilesRenderingStamp;
+  private Map<HomePieceOfFurniture, HomePieceOfFurniture> snapshotOriginalFurniture;
+  private boolean                           snapshotRenderer;
   private Map<TextStyle, Font>              fonts;
   private Map<TextStyle, FontMetrics>       fontsMetrics;
+  private Map<TextKey, Rectangle2D>         textBoundsCache;
+  private Map<TextKey, TextLayout>          textLayoutsCache;
+  private Map<Float, String>                formattedLengthsCache;
+  private Map<Float, String>                formattedAreasCache;
   
   private Rectangle2D                       planBoundsCache;  
   private boolean                           planBoundsCacheValid = false;  
   private BufferedImage                     backgroundImageCache;
-  private Map<TextureImage, BufferedImage>  patternImagesCache;
+  private Map<List<Object>, BufferedImage> patternImagesCache;
+  private Map<List<Object>, TexturePaint>  wallPaintsCache;
+  private Map<List<Object>, BufferedImage> gridTilesCache;
   private List<Wall>                        otherLevelWallsCache;
   private Area                              otherLevelWallAreaCache;
   private List<Room>                        otherLevelRoomsCache;
   private Area                              otherLevelRoomAreaCache;
-  private Color                             wallsPatternBackgroundCache;
-  private Color                             wallsPatternForegroundCache;
   private Map<Collection<Wall>, Area>       wallAreasCache;
   private Map<Content, BufferedImage>       floorTextureImagesCache;
   private Map<HomePieceOfFurniture, PieceOfFurnitureTopViewIcon> furnitureTopViewIconsCache;
@@ -556,6 +623,7 @@ public class PlanComponent extends JComponent implements PlanView, Scrollable, P
     setOpaque(true);
     // Add listeners
     addModelListeners(home, preferences, controller);
+    addUserPreferencesListeners(preferences);
     createToolTipTextFields(preferences, controller);
     if (controller != null) {
       addMouseListeners(controller);
@@ -580,12 +648,47 @@ public class PlanComponent extends JComponent implements PlanView, Scrollable, P
     this.panningCursor = createCustomCursor("resources/cursors/panning16x16.png",
         "resources/cursors/panning32x32.png", "Panning cursor", Cursor.HAND_CURSOR);
     this.duplicationCursor = DragSource.DefaultCopyDrop;
-    this.patternImagesCache = new HashMap<TextureImage, BufferedImage>();
+    this.patternImagesCache = createCache(MAX_CACHED_PATTERNS);
+    this.wallPaintsCache = createCache(MAX_CACHED_PATTERNS);
+    this.gridTilesCache = createCache(MAX_CACHED_GRID_TILES);
+    try {
+      this.asynchronousRendering = Boolean.getBoolean("com.eteks.sweethome3d.asynchronousPlanRendering");
+      this.repaintDebugged = Boolean.getBoolean("com.eteks.sweethome3d.planRepaintDebug");
+    } catch (AccessControlException ex) {
+      // Unsigned applet
+    }
     // Install default colors using same colors as a text field
     super.setForeground(UIManager.getColor("TextField.foreground"));
     super.setBackground(UIManager.getColor("TextField.background"));
   }
 
+  /**
+   * Creates a plan able to render in a background thread the tiles of <code>snapshot</code>,
+   * a partial copy of the home displayed by <code>planComponent</code>. 
+   * This plan doesn't listen to preferences and doesn't support any user interaction.
+   */
+  private PlanComponent(PlanComponent planComponent, Home snapshot) {
+    this.home = snapshot;
+    this.preferences = planComponent.preferences;
+    this.snapshotRenderer = true;
+    setOpaque(true);
+    addModelListeners(snapshot, this.preferences, null);
+    this.rotationCursor = null;
+    this.elevationCursor = null;
+    this.heightCursor = null;
+    this.powerCursor = null;
+    this.resizeCursor = null;
+    this.moveCursor = null;
+    this.panningCursor = null;
+    this.duplicationCursor = null;
+    this.patternImagesCache = createCache(MAX_CACHED_PATTERNS);
+    this.wallPaintsCache = createCache(MAX_CACHED_PATTERNS);
+    this.gridTilesCache = createCache(MAX_CACHED_GRID_TILES);
+    setFont(planComponent.getFont());
+    setForeground(planComponent.getForeground());
+    setBackground(planComponent.getBackground());
+  }
+
   /**
    * Adds home items and selection listeners on this component to receive  
    * changes notifications from home. 
@@ -593,8 +696,35 @@ public class PlanComponent extends JComponent implements PlanView, Scrollable, P
   private void addModelListeners(Home home, final UserPreferences preferences, 
                                  final PlanController controller) {
     // Add listener to update plan when furniture changes
-    final PropertyChangeListener furnitureChangeListener = new PropertyChangeListener() {
+    final PropertyChangeListener furnitureChangeListener = home.createBatchPropertyChangeListener(
+      new PropertyChangeBatchListener() {
         public void propertyChange(PropertyChangeEvent ev) {
+          revalidatePlanArea(updateFurniture(ev));
+        }
+
+        public void propertyChange(List<PropertyChangeEvent> events) {
+          // Revalidate once the area of all the modified pieces
+          Rectangle2D area = null;
+          boolean planRevalidated = false;
+          for (PropertyChangeEvent ev : events) {
+            Rectangle2D pieceArea = updateFurniture(ev);
+            if (pieceArea == null) {
+              planRevalidated = true;
+            } else if (area == null) {
+              area = pieceArea;
+            } else {
+              area.add(pieceArea);
+            }
+          }
+          revalidatePlanArea(planRevalidated ? null : area);
+        }
+
+        /**
+         * Updates the caches that depend on the piece modified by <code>ev</code>, 
+         * and returns the area to revalidate or <code>null</code> if the whole plan should be revalidated.
+         */
+        private Rectangle2D updateFurniture(PropertyChangeEvent ev) {
+          updateTilesRendererItem((HomePieceOfFurniture)ev.getSource());
           if (furnitureTopViewIconsCache != null
               && (HomePieceOfFurniture.Property.COLOR.name().equals(ev.getPropertyName())
                   || HomePieceOfFurniture.Property.TEXTURE.name().equals(ev.getPropertyName())
@@ -607,35 +737,47 @@ public class PlanComponent extends JComponent implements PlanView, Scrollable, P
             for (HomePieceOfFurniture piece : getFurnitureWithoutGroups((HomePieceOfFurniture)ev.getSource())) {
               furnitureTopViewIconsCache.remove(piece);
             }
-            repaint();
+            return updateIndexedItemBounds(sortedLevelFurnitureIndex, (HomePieceOfFurniture)ev.getSource());
           } else if (HomePieceOfFurniture.Property.ELEVATION.name().equals(ev.getPropertyName())
                      || HomePieceOfFurniture.Property.LEVEL.name().equals(ev.getPropertyName())
                      || HomePieceOfFurniture.Property.HEIGHT.name().equals(ev.getPropertyName())) {
+            // Furniture order changes only where the piece is displayed 
             sortedLevelFurniture = null;
-            repaint();
+            sortedLevelFurnitureIndex = null;
+            return getIndexedItemBounds((HomePieceOfFurniture)ev.getSource());
           } else {
-            revalidate();
+            return updateIndexedItemBounds(sortedLevelFurnitureIndex, (HomePieceOfFurniture)ev.getSource());
           }
         }
-      };
+      });
     for (HomePieceOfFurniture piece : home.getFurniture()) {
       piece.addPropertyChangeListener(furnitureChangeListener);
     }
-    home.addFurnitureListener(new CollectionListener<HomePieceOfFurniture>() {
+    home.addFurnitureListener(new CollectionBatchListener<HomePieceOfFurniture>() {
         public void collectionChanged(CollectionEvent<HomePieceOfFurniture> ev) {
-          if (ev.getType() == CollectionEvent.Type.ADD) {
-            ev.getItem().addPropertyChangeListener(furnitureChangeListener);
-          } else if (ev.getType() == CollectionEvent.Type.DELETE) {
-            ev.getItem().removePropertyChangeListener(furnitureChangeListener);
+          collectionChanged(Collections.singletonList(ev));
+        }
+
+        public void collectionChanged(List<CollectionEvent<HomePieceOfFurniture>> events) {
+          for (CollectionEvent<HomePieceOfFurniture> ev : events) {
+            if (ev.getType() == CollectionEvent.Type.ADD) {
+              ev.getItem().addPropertyChangeListener(furnitureChangeListener);
+            } else if (ev.getType() == CollectionEvent.Type.DELETE) {
+              ev.getItem().removePropertyChangeListener(furnitureChangeListener);
+            }
+            updateTilesRendererItem(ev.getItem());
           }
           sortedLevelFurniture = null;
-          revalidate();
+          sortedLevelFurnitureIndex = null;
+          revalidatePlanArea(getIndexedItemsBounds(events));
         }
       });
     
     // Add listener to update plan when walls change
-    final PropertyChangeListener wallChangeListener = new PropertyChangeListener() {
+    final PropertyChangeListener wallChangeListener = home.createBatchPropertyChangeListener(
+      new PropertyChangeListener() {
         public void propertyChange(PropertyChangeEvent ev) {
+          updateTilesRendererItem((Wall)ev.getSource());
           String propertyName = ev.getPropertyName();
           if (Wall.Property.X_START.name().equals(propertyName)
               || Wall.Property.X_END.name().equals(propertyName) 
@@ -646,38 +788,88 @@ public class PlanComponent extends JComponent implements PlanView, Scrollable, P
               || Wall.Property.THICKNESS.name().equals(propertyName)
               || Wall.Property.ARC_EXTENT.name().equals(propertyName)
               || Wall.Property.PATTERN.name().equals(propertyName)) {
+            Wall wall = (Wall)ev.getSource();
             wallAreasCache = null;
-            revalidate();
+            if (otherLevelWallsCache != null
+                && otherLevelWallsCache.contains(wall)) {
+              otherLevelWallAreaCache = null;
+              otherLevelWallsCache = null;
+              updateWallsBounds();
+              invalidateTiles();
+              revalidate();
+            } else if (Wall.Property.WALL_AT_START.name().equals(propertyName)
+                       || Wall.Property.WALL_AT_END.name().equals(propertyName)) {
+              // Update also the shape of the wall previously joined to the modified wall
+              revalidatePlanArea(updateWallsBounds(wall, wall.getWallAtStart(), wall.getWallAtEnd(), 
+                  (Wall)ev.getOldValue()));
+            } else {
+              revalidatePlanArea(updateWallsBounds(wall, wall.getWallAtStart(), wall.getWallAtEnd()));
+            }
           } else if (Wall.Property.LEVEL.name().equals(propertyName)
               || Wall.Property.HEIGHT.name().equals(propertyName)
               || Wall.Property.HEIGHT_AT_END.name().equals(propertyName)) {
             otherLevelWallAreaCache = null;
             otherLevelWallsCache = null;
             wallAreasCache = null;
+            updateWallsBounds();
+            invalidateTiles();
             repaint();
           }
         }
-      };
+      });
     for (Wall wall : home.getWalls()) {
       wall.addPropertyChangeListener(wallChangeListener);
     }
-    home.addWallsListener(new CollectionListener<Wall> () {
+    home.addWallsListener(new CollectionBatchListener<Wall> () {
+        public void collectionChanged(List<CollectionEvent<Wall>> events) {
+          for (CollectionEvent<Wall> ev : events) {
+            if (ev.getType() == CollectionEvent.Type.ADD) {
+              ev.getItem().addPropertyChangeListener(wallChangeListener);
+            } else if (ev.getType() == CollectionEvent.Type.DELETE) {
+              ev.getItem().removePropertyChangeListener(wallChangeListener);
+            }
+            updateTilesRendererItem(ev.getItem());
+          }
+          // Update all walls at once
+          wallAreasCache = null;
+          otherLevelWallAreaCache = null;
+          otherLevelWallsCache = null;
+          updateWallsBounds();
+          invalidateTiles();
+          revalidate();
+        }
+
         public void collectionChanged(CollectionEvent<Wall> ev) {
           if (ev.getType() == CollectionEvent.Type.ADD) {
             ev.getItem().addPropertyChangeListener(wallChangeListener);
           } else if (ev.getType() == CollectionEvent.Type.DELETE) {
             ev.getItem().removePropertyChangeListener(wallChangeListener);
           }
-          otherLevelWallAreaCache = null;
-          otherLevelWallsCache = null;
+          Wall wall = ev.getItem();
+          updateTilesRendererItem(wall);
           wallAreasCache = null;
-          revalidate();
+          if (isViewableAtSelectedLevel(wall)) {
+            Rectangle2D area = updateWallsBounds(wall, wall.getWallAtStart(), wall.getWallAtEnd());
+            if (ev.getType() == CollectionEvent.Type.DELETE
+                && wallsBoundsCache != null) {
+              wallsBoundsCache.remove(wall);
+            }
+            revalidatePlanArea(area);
+          } else {
+            otherLevelWallAreaCache = null;
+            otherLevelWallsCache = null;
+            updateWallsBounds();
+            invalidateTiles();
+            revalidate();
+          }
         }
       });
     
     // Add listener to update plan when rooms change
-    final PropertyChangeListener roomChangeListener = new PropertyChangeListener() {
+    final PropertyChangeListener roomChangeListener = home.createBatchPropertyChangeListener(
+      new PropertyChangeListener() {
         public void propertyChange(PropertyChangeEvent ev) {
+          updateTilesRendererItem((Room)ev.getSource());
           String propertyName = ev.getPropertyName();
           if (Room.Property.POINTS.name().equals(propertyName)
               || Room.Property.NAME.name().equals(propertyName)
@@ -689,82 +881,137 @@ public class PlanComponent extends JComponent implements PlanView, Scrollable, P
               || Room.Property.AREA_X_OFFSET.name().equals(propertyName)
               || Room.Property.AREA_Y_OFFSET.name().equals(propertyName)
               || Room.Property.AREA_STYLE.name().equals(propertyName)
-              || Room.Property.AREA_ANGLE.name().equals(propertyName)) {
-            sortedLevelRooms = null;
-            otherLevelRoomsCache = null;
-            otherLevelRoomAreaCache = null;
-            revalidate();
+              || Room.Property.AREA_ANGLE.name().equals(propertyName)
+              || Room.Property.LEVEL.name().equals(propertyName)) {
+            Room room = (Room)ev.getSource();
+            if (!Room.Property.LEVEL.name().equals(propertyName)
+                && sortedLevelRoomsIndex != null
+                && sortedLevelRoomsIndex.contains(room)
+                && (otherLevelRoomsCache == null
+                    || !otherLevelRoomsCache.contains(room))) {
+              // Room order doesn't depend on its points and texts 
+              revalidatePlanArea(updateIndexedItemBounds(sortedLevelRoomsIndex, room));
+            } else {
+              sortedLevelRooms = null;
+              sortedLevelRoomsIndex = null;
+              otherLevelRoomsCache = null;
+              otherLevelRoomAreaCache = null;
+              invalidateTiles();
+              revalidate();
+            }
           } else if (preferences.isRoomFloorColoredOrTextured()
                      && (Room.Property.FLOOR_COLOR.name().equals(propertyName)
                          || Room.Property.FLOOR_TEXTURE.name().equals(propertyName)
                          || Room.Property.FLOOR_VISIBLE.name().equals(propertyName))) {
-            repaint(); 
+            Rectangle2D roomBounds = getIndexedItemBounds((Room)ev.getSource());
+            invalidateTiles(roomBounds);
+            repaintPlanArea(roomBounds); 
           }
         }
-      };
+      });
     for (Room room : home.getRooms()) {
       room.addPropertyChangeListener(roomChangeListener);
     }
-    home.addRoomsListener(new CollectionListener<Room> () {
+    home.addRoomsListener(new CollectionBatchListener<Room> () {
         public void collectionChanged(CollectionEvent<Room> ev) {
-          if (ev.getType() == CollectionEvent.Type.ADD) {
-            ev.getItem().addPropertyChangeListener(roomChangeListener);
-          } else if (ev.getType() == CollectionEvent.Type.DELETE) {
-            ev.getItem().removePropertyChangeListener(roomChangeListener);
+          collectionChanged(Collections.singletonList(ev));
+        }
+
+        public void collectionChanged(List<CollectionEvent<Room>> events) {
+          for (CollectionEvent<Room> ev : events) {
+            if (ev.getType() == CollectionEvent.Type.ADD) {
+              ev.getItem().addPropertyChangeListener(roomChangeListener);
+            } else if (ev.getType() == CollectionEvent.Type.DELETE) {
+              ev.getItem().removePropertyChangeListener(roomChangeListener);
+            }
+            updateTilesRendererItem(ev.getItem());
           }
           sortedLevelRooms = null;
+          sortedLevelRoomsIndex = null;
           otherLevelRoomsCache = null;
           otherLevelRoomAreaCache = null;
-          revalidate();
+          revalidatePlanArea(getIndexedItemsBounds(events));
         }
       });
 
     // Add listener to update plan when dimension lines change
-    final PropertyChangeListener dimensionLineChangeListener = new PropertyChangeListener() {
+    final PropertyChangeListener dimensionLineChangeListener = home.createBatchPropertyChangeListener(
+      new PropertyChangeListener() {
         public void propertyChange(PropertyChangeEvent ev) {
-          revalidate();
+          updateTilesRendererItem((DimensionLine)ev.getSource());
+          if (DimensionLine.Property.LEVEL.name().equals(ev.getPropertyName())) {
+            levelDimensionLinesIndex = null;
+            revalidatePlanArea(getIndexedItemBounds((DimensionLine)ev.getSource()));
+          } else {
+            revalidatePlanArea(updateIndexedItemBounds(levelDimensionLinesIndex, (DimensionLine)ev.getSource()));
+          }
         }
-      };
+      });
     for (DimensionLine dimensionLine : home.getDimensionLines()) {
       dimensionLine.addPropertyChangeListener(dimensionLineChangeListener);
     }
-    home.addDimensionLinesListener(new CollectionListener<DimensionLine> () {
+    home.addDimensionLinesListener(new CollectionBatchListener<DimensionLine> () {
         public void collectionChanged(CollectionEvent<DimensionLine> ev) {
-          if (ev.getType() == CollectionEvent.Type.ADD) {
-            ev.getItem().addPropertyChangeListener(dimensionLineChangeListener);
-          } else if (ev.getType() == CollectionEvent.Type.DELETE) {
-            ev.getItem().removePropertyChangeListener(dimensionLineChangeListener);
+          collectionChanged(Collections.singletonList(ev));
+        }
+
+        public void collectionChanged(List<CollectionEvent<DimensionLine>> events) {
+          for (CollectionEvent<DimensionLine> ev : events) {
+            if (ev.getType() == CollectionEvent.Type.ADD) {
+              ev.getItem().addPropertyChangeListener(dimensionLineChangeListener);
+            } else if (ev.getType() == CollectionEvent.Type.DELETE) {
+              ev.getItem().removePropertyChangeListener(dimensionLineChangeListener);
+            }
+            updateTilesRendererItem(ev.getItem());
           }
-          revalidate();
+          levelDimensionLinesIndex = null;
+          revalidatePlanArea(getIndexedItemsBounds(events));
         }
       });
 
     // Add listener to update plan when labels change
-    final PropertyChangeListener labelChangeListener = new PropertyChangeListener() {
+    final PropertyChangeListener labelChangeListener = home.createBatchPropertyChangeListener(
+      new PropertyChangeListener() {
         public void propertyChange(PropertyChangeEvent ev) {
-          revalidate();
+          updateTilesRendererItem((Label)ev.getSource());
+          if (Label.Property.LEVEL.name().equals(ev.getPropertyName())) {
+            levelLabelsIndex = null;
+            revalidatePlanArea(getIndexedItemBounds((Label)ev.getSource()));
+          } else {
+            revalidatePlanArea(updateIndexedItemBounds(levelLabelsIndex, (Label)ev.getSource()));
+          }
         }
-      };
+      });
     for (Label label : home.getLabels()) {
       label.addPropertyChangeListener(labelChangeListener);
     }
-    home.addLabelsListener(new CollectionListener<Label> () {
+    home.addLabelsListener(new CollectionBatchListener<Label> () {
         public void collectionChanged(CollectionEvent<Label> ev) {
-          if (ev.getType() == CollectionEvent.Type.ADD) {
-            ev.getItem().addPropertyChangeListener(labelChangeListener);
-          } else if (ev.getType() == CollectionEvent.Type.DELETE) {
-            ev.getItem().removePropertyChangeListener(labelChangeListener);
+          collectionChanged(Collections.singletonList(ev));
+        }
+
+        public void collectionChanged(List<CollectionEvent<Label>> events) {
+          for (CollectionEvent<Label> ev : events) {
+            if (ev.getType() == CollectionEvent.Type.ADD) {
+              ev.getItem().addPropertyChangeListener(labelChangeListener);
+            } else if (ev.getType() == CollectionEvent.Type.DELETE) {
+              ev.getItem().removePropertyChangeListener(labelChangeListener);
+            }
+            updateTilesRendererItem(ev.getItem());
           }
-          revalidate();
+          levelLabelsIndex = null;
+          revalidatePlanArea(getIndexedItemsBounds(events));
         }
       });
 
     // Add listener to update plan when levels change
     final PropertyChangeListener levelChangeListener = new PropertyChangeListener() {
         public void propertyChange(PropertyChangeEvent ev) {
+          discardTilesRenderer();
           String propertyName = ev.getPropertyName();
           if (Level.Property.BACKGROUND_IMAGE.name().equals(propertyName)) {
             backgroundImageCache = null;
+            invalidateTiles();
             revalidate();
           } else if (Level.Property.ELEVATION.name().equals(propertyName)) {
             otherLevelWallAreaCache = null;
@@ -773,6 +1020,9 @@ public class PlanComponent extends JComponent implements PlanView, Scrollable, P
             otherLevelRoomAreaCache = null;
             wallAreasCache = null;
             sortedLevelFurniture = null;
+            invalidateLevelItemsIndices();
+            updateWallsBounds();
+            invalidateTiles();
             repaint();
           }
         }
@@ -788,6 +1038,8 @@ public class PlanComponent extends JComponent implements PlanView, Scrollable, P
           } else if (ev.getType() == CollectionEvent.Type.DELETE) {
             level.removePropertyChangeListener(levelChangeListener);
           }
+          discardTilesRenderer();
+          invalidateTiles();
           revalidate();
         }
       });
@@ -819,6 +1071,8 @@ public class PlanComponent extends JComponent implements PlanView, Scrollable, P
               || Compass.Property.NORTH_DIRECTION.name().equals(propertyName)
               || Compass.Property.DIAMETER.name().equals(propertyName)
               || Compass.Property.VISIBLE.name().equals(propertyName)) {
+            discardTilesRenderer();
+            invalidateTiles();
             revalidate();
           }
         }
@@ -832,12 +1086,15 @@ public class PlanComponent extends JComponent implements PlanView, Scrollable, P
       new PropertyChangeListener() {
         public void propertyChange(PropertyChangeEvent ev) {
           backgroundImageCache = null;
+          discardTilesRenderer();
+          invalidateTiles();
           repaint();
         }
       });
     home.addPropertyChangeListener(Home.Property.SELECTED_LEVEL, new PropertyChangeListener() {
         public void propertyChange(PropertyChangeEvent ev) {
           backgroundImageCache = null;
+          discardTilesRenderer();
           otherLevelWallAreaCache = null;
           otherLevelWallsCache = null;
           otherLevelRoomsCache = null;
@@ -845,9 +1102,18 @@ public class PlanComponent extends JComponent implements PlanView, Scrollable, P
           wallAreasCache = null;
           sortedLevelRooms = null;
           sortedLevelFurniture = null;
+          invalidateLevelItemsIndices();
+          updateWallsBounds();
+          invalidateTiles();
           repaint();
         }
       });
+  }
+
+  /**
+   * Adds to preferences the listeners that update this component.
+   */
+  private void addUserPreferencesListeners(UserPreferences preferences) {
     preferences.addPropertyChangeListener(UserPreferences.Property.UNIT, 
         new UserPreferencesChangeListener(this));
     preferences.addPropertyChangeListener(UserPreferences.Property.LANGUAGE, 
@@ -862,6 +1128,106 @@ public class PlanComponent extends JComponent implements PlanView, Scrollable, P
         new UserPreferencesChangeListener(this));
   }
 
+  /**
+   * Invalidates the spatial indices of the items viewed at the selected level.
+   */
+  private void invalidateLevelItemsIndices() {
+    this.sortedLevelFurnitureIndex = null;
+    this.sortedLevelRoomsIndex = null;
+    this.levelDimensionLinesIndex = null;
+    this.levelLabelsIndex = null;
+  }
+
+  /**
+   * Updates the bounds of <code>item</code> in the given <code>index</code> if it's indexed
+   * and returns the area covering its previous and new location, or <code>null</code>
+   * if its previous location is unknown.
+   */
+  private <T extends Selectable> Rectangle2D updateIndexedItemBounds(SpatialIndex<T> index, T item) {
+    if (index == null) {
+      return null;
+    } else {
+      Rectangle2D itemBounds = getIndexedItemBounds(item);
+      if (index.contains(item)) {
+        Rectangle2D area = index.getBounds(item);
+        index.update(item, itemBounds);
+        area.add(itemBounds);
+        return area;
+      } else {
+        return itemBounds;
+      }
+    }
+  }
+
+  /**
+   * Updates the bounds stored for the given <code>walls</code> and returns the area covering 
+   * their previous and new location, or <code>null</code> if their previous location is unknown. 
+   * If no wall is given, stored bounds are cleared.
+   */
+  private Rectangle2D updateWallsBounds(Wall ... walls) {
+    if (walls.length == 0) {
+      this.wallsBoundsCache = null;
+      return null;
+    } else if (this.wallsBoundsCache == null) {
+      // Store current bounds of walls for next changes
+      this.wallsBoundsCache = new WeakHashMap<Wall, Rectangle2D>();
+      for (Wall wall : this.home.getWalls()) {
+        this.wallsBoundsCache.put(wall, getIndexedItemBounds(wall));
+      }
+      return null;
+    } else {
+      Rectangle2D area = null;
+      for (Wall wall : walls) {
+        if (wall != null) {
+          Rectangle2D wallBounds = getIndexedItemBounds(wall);
+          Rectangle2D previousWallBounds = this.wallsBoundsCache.put(wall, wallBounds);
+          if (area == null) {
+            area = wallBounds;
+          } else {
+            area.add(wallBounds);
+          }
+          if (previousWallBounds != null) {
+            area.add(previousWallBounds);
+          }
+        }
+      }
+      return area;
+    }
+  }
+
+  /**
+   * Invalidates the tiles that intersect the given plan <code>area</code> and repaints it, 
+   * or revalidates all this component if <code>area</code> is <code>null</code> 
+   * or if plan bounds may change.
+   */
+  private void revalidatePlanArea(Rectangle2D area) {
+    if (area == null) {
+      invalidateTiles();
+      revalidate();
+    } else {
+      invalidateTiles(area);
+      // As plan bounds are only enlarged in a scroll pane, they don't change if they contain area
+      if (this.planBoundsCacheValid
+          && getParent() instanceof JViewport
+          && this.planBoundsCache.contains(area)) {
+        repaintPlanArea(area);
+      } else {
+        revalidate();
+      }
+    }
+  }
+
+  /**
+   * Repaints the part of this component that displays the given plan <code>area</code>.
+   */
+  private void repaintPlanArea(Rectangle2D area) {
+    int xMin = convertXModelToPixel((float)area.getMinX()) - REPAINT_PIXEL_MARGIN;
+    int yMin = convertYModelToPixel((float)area.getMinY()) - REPAINT_PIXEL_MARGIN;
+    int xMax = convertXModelToPixel((float)area.getMaxX()) + REPAINT_PIXEL_MARGIN;
+    int yMax = convertYModelToPixel((float)area.getMaxY()) + REPAINT_PIXEL_MARGIN;
+    repaint(xMin, yMin, xMax - xMin, yMax - yMin);
+  }
+
   /**
    * Returns all the pieces depending on the given <code>piece</code> that are not groups.  
    */
@@ -899,6 +1265,10 @@ public class PlanComponent extends JComponent implements PlanView, Scrollable, P
         switch (property) {
           case LANGUAGE :
           case UNIT :
+            // Text of room area and dimension lines may have changed
+            planComponent.formattedLengthsCache = null;
+            planComponent.formattedAreasCache = null;
+            planComponent.invalidateLevelItemsIndices();
             // Update format of tool tip text fields
             for (Map.Entry<PlanController.EditableProperty, JFormattedTextField> toolTipTextFieldEntry : 
               planComponent.toolTipEditableTextFields.entrySet()) {
@@ -922,6 +1292,8 @@ public class PlanComponent extends JComponent implements PlanView, Scrollable, P
             }
             break;
         }
+        planComponent.discardTilesRenderer();
+        planComponent.invalidateTiles();
         planComponent.repaint();
       }
     }
@@ -1563,7 +1935,7 @@ public class PlanComponent extends JComponent implements PlanView, Scrollable, P
       if (room.isAreaVisible()) {
         float area = room.getArea();
         if (area > 0.01f) {
-          String areaText = this.preferences.getLengthUnit().getAreaFormatWithUnit().format(area);
+          String areaText = getFormattedArea(area);
           addTextBounds(room.getClass(), 
               areaText, room.getAreaStyle(), 
               xRoomCenter + room.getAreaXOffset(), 
@@ -1595,13 +1967,13 @@ public class PlanComponent extends JComponent implements PlanView, Scrollable, P
       // Add to bounds the text bounds of the dimension line length 
       DimensionLine dimensionLine = (DimensionLine)item;
       float dimensionLineLength = dimensionLine.getLength();
-      String lengthText = this.preferences.getLengthUnit().getFormat().format(dimensionLineLength);
+      String lengthText = getFormattedLength(dimensionLineLength);
       TextStyle lengthStyle = dimensionLine.getLengthStyle();
       if (lengthStyle == null) {
         lengthStyle = this.preferences.getDefaultTextStyle(dimensionLine.getClass());
       }          
       FontMetrics lengthFontMetrics = getFontMetrics(componentFont, lengthStyle);
-      Rectangle2D lengthTextBounds = lengthFontMetrics.getStringBounds(lengthText, g);
+      Rectangle2D lengthTextBounds = getStringBounds(lengthText, lengthFontMetrics, g);
       // Transform length text bounding rectangle corners to their real location
       double angle = Math.atan2(dimensionLine.getYEnd() - dimensionLine.getYStart(), 
           dimensionLine.getXEnd() - dimensionLine.getXStart());
@@ -1677,7 +2049,7 @@ public class PlanComponent extends JComponent implements PlanView, Scrollable, P
   public float [][] getTextBounds(String text, TextStyle style, 
                                   float x, float y, float angle) {
     FontMetrics fontMetrics = getFontMetrics(getFont(), style);
-    Rectangle2D textBounds = fontMetrics.getStringBounds(text, null);
+    Rectangle2D textBounds = getStringBounds(text, fontMetrics, null);
     float halfTextLength = (float)textBounds.getWidth() / 2;
     if (angle == 0) {
       float minY = (float)(y + textBounds.getY());
@@ -1750,6 +2122,138 @@ public class PlanComponent extends JComponent implements PlanView, Scrollable, P
     return fontMetrics;
   }
 
+  /**
+   * Returns the bounds of the given <code>text</code> displayed with <code>fontMetrics</code>
+   * in the graphics <code>g</code>, computed again only if this text wasn't already measured
+   * with the same font and graphics scale. The returned rectangle is shared and must not be modified.
+   */
+  private Rectangle2D getStringBounds(String text, FontMetrics fontMetrics, Graphics g) {
+    if (this.textBoundsCache == null) {
+      this.textBoundsCache = createCache(MAX_CACHED_TEXTS);
+    }
+    FontRenderContext fontRenderContext = g instanceof Graphics2D
+        ? getScaleFontRenderContext((Graphics2D)g)
+        : fontMetrics.getFontRenderContext();
+    TextKey textKey = new TextKey(text, fontMetrics.getFont(), fontRenderContext);
+    Rectangle2D textBounds = this.textBoundsCache.get(textKey);
+    if (textBounds == null) {
+      textBounds = fontMetrics.getFont().getStringBounds(text, fontRenderContext);
+      this.textBoundsCache.put(textKey, textBounds);
+    }
+    return textBounds;
+  }
+
+  /**
+   * Returns the layout of the given <code>text</code> displayed with <code>font</code>
+   * in the graphics <code>g2D</code>, computed again only if this text wasn't already laid out
+   * with the same font and graphics scale.
+   */
+  private TextLayout getTextLayout(String text, Font font, Graphics2D g2D) {
+    if (this.textLayoutsCache == null) {
+      this.textLayoutsCache = createCache(MAX_CACHED_TEXTS);
+    }
+    FontRenderContext fontRenderContext = getScaleFontRenderContext(g2D);
+    TextKey textKey = new TextKey(text, font, fontRenderContext);
+    TextLayout textLayout = this.textLayoutsCache.get(textKey);
+    if (textLayout == null) {
+      textLayout = new TextLayout(text, font, fontRenderContext);
+      this.textLayoutsCache.put(textKey, textLayout);
+    }
+    return textLayout;
+  }
+
+  /**
+   * Returns the font render context of <code>g2D</code> without the translation
+   * of its transform, to share measured texts among the graphics of a same scale.
+   */
+  private FontRenderContext getScaleFontRenderContext(Graphics2D g2D) {
+    FontRenderContext fontRenderContext = g2D.getFontRenderContext();
+    AffineTransform transform = fontRenderContext.getTransform();
+    if (transform.getTranslateX() != 0 || transform.getTranslateY() != 0) {
+      transform = new AffineTransform(transform.getScaleX(), transform.getShearY(), 
+          transform.getShearX(), transform.getScaleY(), 0, 0);
+      fontRenderContext = new FontRenderContext(transform, 
+          fontRenderContext.isAntiAliased(), fontRenderContext.usesFractionalMetrics());
+    }
+    return fontRenderContext;
+  }
+
+  /**
+   * Returns a map keeping at most <code>maxEntries</code> entries, 
+   * the least recently used ones being removed first.
+   */
+  private static <K, V> Map<K, V> createCache(final int maxEntries) {
+    return new LinkedHashMap<K, V>(16, 0.75f, true) {
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<K, V> eldest) {
+          return size() > maxEntries;
+        }
+      };
+  }
+
+  /**
+   * Returns the given <code>length</code> formatted in the current length unit.
+   */
+  private String getFormattedLength(float length) {
+    if (this.formattedLengthsCache == null) {
+      this.formattedLengthsCache = createCache(MAX_CACHED_TEXTS);
+    }
+    String lengthText = this.formattedLengthsCache.get(length);
+    if (lengthText == null) {
+      lengthText = this.preferences.getLengthUnit().getFormat().format(length);
+      this.formattedLengthsCache.put(length, lengthText);
+    }
+    return lengthText;
+  }
+
+  /**
+   * Returns the given <code>area</code> formatted with its unit in the current length unit.
+   */
+  private String getFormattedArea(float area) {
+    if (this.formattedAreasCache == null) {
+      this.formattedAreasCache = createCache(MAX_CACHED_TEXTS);
+    }
+    String areaText = this.formattedAreasCache.get(area);
+    if (areaText == null) {
+      areaText = this.preferences.getLengthUnit().getAreaFormatWithUnit().format(area);
+      this.formattedAreasCache.put(area, areaText);
+    }
+    return areaText;
+  }
+
+  /**
+   * The key of a text measured or laid out with a given font and font render context.
+   */
+  private static class TextKey {
+    private final String            text;
+    private final Font              font;
+    private final FontRenderContext fontRenderContext;
+    private final int               hashCode;
+
+    public TextKey(String text, Font font, FontRenderContext fontRenderContext) {
+      this.text = text;
+      this.font = font;
+      this.fontRenderContext = fontRenderContext;
+      this.hashCode = text.hashCode() + 31 * font.hashCode() + 961 * fontRenderContext.hashCode();
+    }
+
+    @Override
+    public boolean equals(Object obj) {
+      if (obj instanceof TextKey) {
+        TextKey textKey = (TextKey)obj;
+        return this.text.equals(textKey.text)
+            && this.font.equals(textKey.font)
+            && this.fontRenderContext.equals(textKey.fontRenderContext);
+      }
+      return false;
+    }
+
+    @Override
+    public int hashCode() {
+      return this.hashCode;
+    }
+  }
+
   /**
    * Sets whether plan's background should be painted or not.
    * Background may include grid and an image.   
@@ -1757,6 +2261,7 @@ public class PlanComponent extends JComponent implements PlanView, Scrollable, P
   public void setBackgroundPainted(boolean backgroundPainted) {
     if (this.backgroundPainted != backgroundPainted) {
       this.backgroundPainted = backgroundPainted;
+      invalidateTiles();
       repaint();
     }
   }
@@ -1791,7 +2296,8 @@ public class PlanComponent extends JComponent implements PlanView, Scrollable, P
   @Override
   protected void paintComponent(Graphics g) {
     Graphics2D g2D = (Graphics2D)g.create();
-    if (this.backgroundPainted) {
+    boolean tilesPainted = paintTiles(g2D);
+    if (!tilesPainted && this.backgroundPainted) {
       paintBackground(g2D, getBackgroundColor(PaintMode.PAINT));
     }
     Insets insets = getInsets();
@@ -1807,53 +2313,787 @@ public class PlanComponent extends JComponent implements PlanView, Scrollable, P
     g2D.scale(paintScale, paintScale);
     setRenderingHints(g2D);
     try {
-      paintContent(g2D, paintScale, PaintMode.PAINT);
+      if (tilesPainted) {
+        // Paint only selected items and feedback above tiles
+        Color backgroundColor = getBackgroundColor(PaintMode.PAINT);
+        Color foregroundColor = getForegroundColor(PaintMode.PAINT);
+        paintSelectedItems(g2D, paintScale, backgroundColor, foregroundColor);
+        paintFeedback(g2D, paintScale, backgroundColor, foregroundColor);
+      } else {
+        paintContent(g2D, paintScale, PaintMode.PAINT);
+      }
     } catch (InterruptedIOException ex) {
       // Ignore exception because it may happen only in EXPORT paint mode 
     }   
     g2D.dispose();
+    if (this.repaintDebugged) {
+      paintRepaintDebugOverlay(g);
+    }
   }
 
   /**
-   * Returns the print preferred scale of the plan drawn in this component
-   * to make it fill <code>pageFormat</code> imageable size.
+   * Paints the repainted area with a different color at each call and the count of pixels 
+   * repainted during the last second, to check which parts of this component are repainted. 
    */
-  public float getPrintPreferredScale(Graphics g, PageFormat pageFormat) {
-    List<Selectable> printedItems = getPaintedItems(); 
-    Rectangle2D printedItemBounds = getItemsBounds(g, printedItems);
-    if (printedItemBounds != null) {
-      float imageableWidthCm = LengthUnit.inchToCentimeter((float)pageFormat.getImageableWidth() / 72);
-      float imageableHeightCm = LengthUnit.inchToCentimeter((float)pageFormat.getImageableHeight() / 72);
-      float extraMargin = getStrokeWidthExtraMargin(printedItems, PaintMode.PRINT);
-      // Compute the largest integer scale possible
-      int scaleInverse = (int)Math.ceil(Math.max(
-          (printedItemBounds.getWidth() + 2 * extraMargin) / imageableWidthCm,
-          (printedItemBounds.getHeight() + 2 * extraMargin) / imageableHeightCm));
-      return 1f / scaleInverse;
-    } else {
-      return 0;
+  private void paintRepaintDebugOverlay(Graphics g) {
+    Rectangle clipBounds = g.getClipBounds();
+    if (clipBounds == null) {
+      clipBounds = new Rectangle(0, 0, getWidth(), getHeight());
+    }
+    long time = System.currentTimeMillis();
+    this.repaintedPixelCount += (long)clipBounds.width * clipBounds.height;
+    if (time - this.repaintedPixelCountTime >= 1000) {
+      this.repaintedPixelsPerSecond = this.repaintedPixelCount * 1000 / (time - this.repaintedPixelCountTime);
+      this.repaintedPixelCount = 0;
+      this.repaintedPixelCountTime = time;
+    }
+    
+    Graphics2D g2D = (Graphics2D)g.create();
+    Color color = Color.getHSBColor((this.repaintDebugCount++ % 12) / 12f, 1, 1);
+    g2D.setColor(new Color(color.getRed(), color.getGreen(), color.getBlue(), 40));
+    g2D.fill(clipBounds);
+    g2D.setColor(color);
+    g2D.drawRect(clipBounds.x, clipBounds.y, clipBounds.width - 1, clipBounds.height - 1);
+    g2D.setColor(getForeground());
+    g2D.setFont(getFont());
+    Rectangle visibleRectangle = getVisibleRect();
+    g2D.drawString(NumberFormat.getIntegerInstance().format(this.repaintedPixelsPerSecond) + " pixels/s", 
+        visibleRectangle.x + 5, visibleRectangle.y + 5 + g2D.getFontMetrics().getAscent());
+    g2D.dispose();
+    
+    if (this.repaintDebugTimer == null) {
+      // Refresh counter every second 
+      this.repaintDebugTimer = new Timer(1000, new ActionListener() {
+          public void actionPerformed(ActionEvent ev) {
+            if (isShowing()) {
+              Rectangle visibleRectangle = getVisibleRect();
+              repaint(visibleRectangle.x, visibleRectangle.y, 200, 30);
+            } else {
+              repaintDebugTimer.stop();
+              repaintDebugTimer = null;
+            }
+          }
+        });
+      this.repaintDebugTimer.start();
     }
   }
-  
+
   /**
-   * Returns the margin that should be added around home items bounds to ensure their
-   * line stroke width is always fully visible.
+   * Paints the background, the grid and the unselected state of home items 
+   * with the images of the tiles stored in cache, and returns <code>false</code> 
+   * if tiles can't be used with the given graphics. 
+   * Tiles are <code>TILE_SIZE</code> pixels wide squares of this component 
+   * rendered once and painted again as long as their content doesn't change.
    */
-  private float getStrokeWidthExtraMargin(List<Selectable> items, PaintMode paintMode) {
-    float extraMargin = BORDER_STROKE_WIDTH;
-    if (Home.getFurnitureSubList(items).size() > 0) {
-      extraMargin = Math.max(extraMargin, getStrokeWidth(HomePieceOfFurniture.class, paintMode));
-    } 
-    if (Home.getWallsSubList(items).size() > 0) {
-      extraMargin = Math.max(extraMargin, getStrokeWidth(Wall.class, paintMode));
+  private boolean paintTiles(Graphics2D g2D) {
+    AffineTransform transform = g2D.getTransform();
+    if (!this.backgroundPainted
+        || !isOpaque()
+        || !isTilesCacheSupported()
+        || (transform.getType() & ~AffineTransform.TYPE_TRANSLATION) != 0
+        || transform.getTranslateX() != Math.floor(transform.getTranslateX())
+        || transform.getTranslateY() != Math.floor(transform.getTranslateY())) {
+      return false;
+    }
+    
+    Insets insets = getInsets();
+    Rectangle2D planBounds = getPlanBounds();    
+    float paintScale = getScale();
+    double xOrigin = insets.left + (MARGIN - planBounds.getMinX()) * paintScale;
+    double yOrigin = insets.top + (MARGIN - planBounds.getMinY()) * paintScale;
+    Color backgroundColor = getBackgroundColor(PaintMode.PAINT);
+    Color foregroundColor = getForegroundColor(PaintMode.PAINT);
+    List<Object> tilesKey = Arrays.asList(new Object [] {paintScale, xOrigin, yOrigin, 
+        insets, getWidth(), getHeight(), this.home.getSelectedLevel(), backgroundColor, foregroundColor});
+    if (this.tilesCache == null) {
+      this.tilesCache = new LinkedHashMap<Point, BufferedImage>(16, 0.75f, true) {
+          @Override
+          protected boolean removeEldestEntry(Map.Entry<Point, BufferedImage> eldest) {
+            return size() > tilesCacheMaxSize;
+          }
+        };
     } 
-    if (Home.getRoomsSubList(items).size() > 0) {
-      extraMargin = Math.max(extraMargin, getStrokeWidth(Room.class, paintMode));
+    if (!tilesKey.equals(this.tilesCacheKey)) {
+      this.tilesCache.clear();
+      this.tilesCacheKey = tilesKey;
+      this.staleTilesCache = null;
+      resetTilesRenderer();
+    }
+    // Selected dimension lines and labels are painted with their selection above tiles
+    List<Selectable> ignoredItems = getSelectedDimensionLinesAndLabels();
+    if (!ignoredItems.equals(this.tilesIgnoredItems)) {
+      if (this.tilesIgnoredItems != null) {
+        for (Selectable item : this.tilesIgnoredItems) {
+          if (!ignoredItems.contains(item)) {
+            invalidateTiles(getIndexedItemBounds(item));
+          }
+        }
+      }
+      for (Selectable item : ignoredItems) {
+        if (this.tilesIgnoredItems == null 
+            || !this.tilesIgnoredItems.contains(item)) {
+          invalidateTiles(getIndexedItemBounds(item));
+        }
+      }
+      this.tilesIgnoredItems = ignoredItems;
     }
-    if (Home.getDimensionLinesSubList(items).size() > 0) {
-      extraMargin = Math.max(extraMargin, getStrokeWidth(DimensionLine.class, paintMode));
+    
+    Rectangle visibleRectangle = getVisibleRect();
+    // Keep in cache at least the tiles of two visible areas
+    this.tilesCacheMaxSize = Math.max(32, 2 * (visibleRectangle.width / TILE_SIZE + 2) 
+        * (visibleRectangle.height / TILE_SIZE + 2));
+    Rectangle clipBounds = new Rectangle(0, 0, getWidth(), getHeight());
+    if (g2D.getClipBounds() != null) {
+      clipBounds = clipBounds.intersection(g2D.getClipBounds());
+    }
+    if (clipBounds.isEmpty()) {
+      return true;
     }
-    return extraMargin / 2;
+    int minColumn = clipBounds.x / TILE_SIZE;
+    int maxColumn = (clipBounds.x + clipBounds.width - 1) / TILE_SIZE;
+    int minRow = clipBounds.y / TILE_SIZE;
+    int maxRow = (clipBounds.y + clipBounds.height - 1) / TILE_SIZE;
+    Rectangle paintedArea = new Rectangle(insets.left, insets.top, 
+        getWidth() - insets.left - insets.right, getHeight() - insets.top - insets.bottom);
+    List<Point> missingTiles = new ArrayList<Point>();
+    for (int row = minRow; row <= maxRow; row++) {
+      for (int column = minColumn; column <= maxColumn; column++) {
+        Point tileKey = new Point(column, row);
+        BufferedImage tile = this.tilesCache.get(tileKey);
+        if (tile == null) {
+          if (this.asynchronousRendering) {
+            // Paint the previous image of the tile if it exists, while a new one is rendered
+            missingTiles.add(tileKey);
+            if (this.staleTilesCache != null) {
+              tile = this.staleTilesCache.get(tileKey);
+            }
+            if (tile == null) {
+              g2D.setColor(backgroundColor);
+              g2D.fillRect(column * TILE_SIZE, row * TILE_SIZE, TILE_SIZE, TILE_SIZE);
+              continue;
+            }
+          } else {
+            try {
+              tile = createTile(column, row, xOrigin, yOrigin, paintScale, backgroundColor, foregroundColor, 
+                  paintedArea, getFont(), this.tilesIgnoredItems);
+            } catch (InterruptedIOException ex) {
+              // Ignore exception because it may happen only in a snapshot renderer
+            }   
+            if (!this.paintedTileIncomplete) {
+              this.tilesCache.put(tileKey, tile);
+            }
+          }
+        }
+        g2D.drawImage(tile, column * TILE_SIZE, row * TILE_SIZE, null);
+      }
+    }
+    if (!missingTiles.isEmpty()) {
+      renderTiles(missingTiles, xOrigin, yOrigin, paintScale, backgroundColor, foregroundColor, paintedArea);
+    }
+    return true;
+  }
+
+  /**
+   * Renders the given <code>tiles</code> in a background thread with a renderer 
+   * working on a snapshot of home, then stores them in cache and repaints them once 
+   * they're available.
+   */
+  private void renderTiles(List<Point> tiles, final double xOrigin, final double yOrigin, final float paintScale, 
+                           final Color backgroundColor, final Color foregroundColor, 
+                           final Rectangle paintedArea) {
+    if (this.tilesRenderer != null
+        && (!getFont().equals(this.tilesRenderer.getFont())
+            || !foregroundColor.equals(this.tilesRenderer.getForeground()))) {
+      discardTilesRenderer();
+    }
+    if (this.tilesRenderingExecutor == null) {
+      this.tilesRenderingExecutor = Executors.newSingleThreadExecutor(new ThreadFactory() {
+          public Thread newThread(Runnable runnable) {
+            Thread thread = new Thread(runnable);
+            thread.setDaemon(true);
+            return thread;
+          }
+        });
+    }
+    if (this.tilesRenderer == null) {
+      createTilesRenderer();
+    } else if (!this.tilesRendererUpdatedItems.isEmpty()) {
+      updateTilesRenderer();
+    }
+    final List<Point> renderedTiles = new ArrayList<Point>(tiles);
+    renderedTiles.removeAll(this.renderingTiles.keySet());
+    if (!renderedTiles.isEmpty()) {
+      // Stamp rendered tiles to be able to invalidate them one by one
+      final Integer renderingStamp = ++this.tilesRenderingStamp;
+      for (Point tile : renderedTiles) {
+        this.renderingTiles.put(tile, renderingStamp);
+      }
+      final PlanComponent renderer = this.tilesRenderer;
+      final Map<Point, Integer> renderingTiles = this.renderingTiles;
+      final Font font = getFont();
+      // Ignore the clones of the items ignored in tiles
+      final List<Selectable> ignoredItems = new ArrayList<Selectable>();
+      for (Selectable item : this.tilesIgnoredItems) {
+        Selectable clone = this.tilesRendererItems.get(item);
+        if (clone != null) {
+          ignoredItems.add(clone);
+        }
+      }
+      // Forget finished tasks that aren't cancelled anymore by a reset
+      for (Iterator<Future<?>> it = this.tilesRenderingTasks.iterator(); it.hasNext(); ) {
+        if (it.next().isDone()) {
+          it.remove();
+        }
+      }
+      this.tilesRenderingTasks.add(this.tilesRenderingExecutor.submit(new Runnable() {
+          public void run() {
+            for (final Point tile : renderedTiles) {
+              if (!renderingStamp.equals(renderingTiles.get(tile))) {
+                // Skip tile invalidated in the mean time
+                continue;
+              }
+              try {
+                final BufferedImage tileImage = renderer.createTile(tile.x, tile.y, 
+                    xOrigin, yOrigin, paintScale, backgroundColor, foregroundColor, 
+                    paintedArea, font, ignoredItems);
+                EventQueue.invokeLater(new Runnable() {
+                    public void run() {
+                      // Keep tile only if it wasn't invalidated in the mean time 
+                      if (renderer == tilesRenderer
+                          && renderingStamp.equals(renderingTiles.get(tile))) {
+                        tilesCache.put(tile, tileImage);
+                        renderingTiles.remove(tile);
+                        if (staleTilesCache != null) {
+                          staleTilesCache.remove(tile);
+                        }
+                        repaint(tile.x * TILE_SIZE, tile.y * TILE_SIZE, TILE_SIZE, TILE_SIZE);
+                      }
+                    }
+                  });
+              } catch (InterruptedIOException ex) {
+                // Stop rendering tiles invalidated in the mean time
+                return;
+              }
+            }
+          }
+        }));
+    }
+  }
+
+  /**
+   * Creates the component able to paint in a background thread the tiles of a snapshot of home. 
+   * This snapshot contains only the clones of the items displayed at the selected level, 
+   * and is then updated with the items modified in home.
+   */
+  private void createTilesRenderer() {
+    Home snapshot = new Home(this.home.getWallHeight());
+    snapshot.setBackgroundImage(this.home.getBackgroundImage());
+    Compass compass = this.home.getCompass();
+    Compass snapshotCompass = snapshot.getCompass();
+    snapshotCompass.setX(compass.getX());
+    snapshotCompass.setY(compass.getY());
+    snapshotCompass.setDiameter(compass.getDiameter());
+    snapshotCompass.setNorthDirection(compass.getNorthDirection());
+    snapshotCompass.setVisible(compass.isVisible());
+    this.tilesRendererLevels = new HashMap<Level, Level>();
+    for (Level level : this.home.getLevels()) {
+      Level levelClone = level.clone();
+      this.tilesRendererLevels.put(level, levelClone);
+      snapshot.addLevel(levelClone);
+    }
+    snapshot.setSelectedLevel(this.tilesRendererLevels.get(this.home.getSelectedLevel()));
+    
+    this.tilesRendererItems = new HashMap<Selectable, Selectable>();
+    this.tilesRendererUpdatedItems = new LinkedHashSet<Selectable>();
+    Map<HomePieceOfFurniture, HomePieceOfFurniture> originalFurniture = 
+        new WeakHashMap<HomePieceOfFurniture, HomePieceOfFurniture>();
+    Level otherLevel = getOtherPaintedLevel();
+    List<Selectable> items = new ArrayList<Selectable>(this.home.getFurniture());
+    items.addAll(this.home.getRooms());
+    items.addAll(this.home.getDimensionLines());
+    items.addAll(this.home.getLabels());
+    for (Selectable item : items) {
+      if (isInTilesRendererScope((Elevatable)item, otherLevel)) {
+        replaceSnapshotItem(snapshot, null, cloneTilesRendererItem(item, originalFurniture));
+      }
+    }
+    for (Selectable wallClone : cloneTilesRendererWalls(otherLevel)) {
+      replaceSnapshotItem(snapshot, null, wallClone);
+    }
+    
+    this.tilesRenderer = new PlanComponent(this, snapshot);
+    if (this.backgroundImageCache != null) {
+      this.tilesRenderer.backgroundImageCache = this.backgroundImageCache;
+    }
+    // Share top view icons of furniture between this component and its renderer  
+    if (this.furnitureTopViewIconsCache == null) {
+      this.furnitureTopViewIconsCache = Collections.synchronizedMap(
+          new WeakHashMap<HomePieceOfFurniture, PieceOfFurnitureTopViewIcon>());
+    }
+    this.tilesRenderer.furnitureTopViewIconsCache = this.furnitureTopViewIconsCache;
+    this.tilesRenderer.snapshotOriginalFurniture = originalFurniture;
+    this.renderingTiles = new ConcurrentHashMap<Point, Integer>();
+    this.tilesRenderingTasks = new ArrayList<Future<?>>();
+  }
+
+  /**
+   * Updates in the rendering thread the snapshot of the tiles renderer 
+   * with clones of the items modified in home since last update.
+   */
+  private void updateTilesRenderer() {
+    final List<Selectable []> replacedItems = new ArrayList<Selectable []>();
+    final Map<HomePieceOfFurniture, HomePieceOfFurniture> originalFurniture = 
+        new HashMap<HomePieceOfFurniture, HomePieceOfFurniture>();
+    Level otherLevel = getOtherPaintedLevel();
+    boolean wallsUpdated = false;
+    for (Selectable item : this.tilesRendererUpdatedItems) {
+      if (item instanceof Wall) {
+        wallsUpdated = true;
+      } else {
+        Selectable oldClone = this.tilesRendererItems.remove(item);
+        Selectable newClone = null;
+        if (isInTilesRendererScope((Elevatable)item, otherLevel)
+            && (item instanceof HomePieceOfFurniture && this.home.getFurniture().contains(item)
+                || item instanceof Room && this.home.getRooms().contains(item)
+                || item instanceof DimensionLine && this.home.getDimensionLines().contains(item)
+                || item instanceof Label && this.home.getLabels().contains(item))) {
+          newClone = cloneTilesRendererItem(item, originalFurniture);
+        }
+        if (oldClone != null || newClone != null) {
+          replacedItems.add(new Selectable [] {oldClone, newClone});
+        }
+      }
+    }
+    if (wallsUpdated) {
+      // Replace all walls to keep walls joined together
+      for (Iterator<Map.Entry<Selectable, Selectable>> it = this.tilesRendererItems.entrySet().iterator(); it.hasNext(); ) {
+        Map.Entry<Selectable, Selectable> itemEntry = it.next();
+        if (itemEntry.getKey() instanceof Wall) {
+          replacedItems.add(new Selectable [] {itemEntry.getValue(), null});
+          it.remove();
+        }
+      }
+      for (Wall wallClone : cloneTilesRendererWalls(otherLevel)) {
+        replacedItems.add(new Selectable [] {null, wallClone});
+      }
+    }
+    this.tilesRendererUpdatedItems.clear();
+    
+    final PlanComponent renderer = this.tilesRenderer;
+    this.tilesRenderingExecutor.execute(new Runnable() {
+        public void run() {
+          for (Selectable [] items : replacedItems) {
+            replaceSnapshotItem(renderer.home, items [0], items [1]);
+          }
+          renderer.snapshotOriginalFurniture.putAll(originalFurniture);
+        }
+      });
+  }
+
+  /**
+   * Returns the level which walls and rooms are painted in gray under or above the selected level.
+   */
+  private Level getOtherPaintedLevel() {
+    List<Level> levels = this.home.getLevels();
+    Level selectedLevel = this.home.getSelectedLevel();
+    if (levels.size() > 1 
+        && selectedLevel != null) {
+      int selectedLevelIndex = levels.indexOf(selectedLevel);
+      boolean level0 = levels.get(0) == selectedLevel 
+          || levels.get(selectedLevelIndex - 1).getElevation() == selectedLevel.getElevation();
+      return levels.get(level0 && selectedLevelIndex < levels.size() - 1 
+          ? selectedLevelIndex + 1 
+          : selectedLevelIndex  - 1);
+    } else {
+      return null;
+    }
+  }
+
+  /**
+   * Returns <code>true</code> if the given <code>item</code> should be painted 
+   * by the tiles renderer.
+   */
+  private boolean isInTilesRendererScope(Elevatable item, Level otherLevel) {
+    return isViewableAtSelectedLevel(item)
+        || otherLevel != null
+           && item.getLevel() == otherLevel
+           && (item instanceof Wall || item instanceof Room);
+  }
+
+  /**
+   * Returns a clone of the given <code>item</code> placed at the clone of its level, 
+   * and stores the clones of furniture in <code>originalFurniture</code>.
+   */
+  private Selectable cloneTilesRendererItem(Selectable item, 
+                                            Map<HomePieceOfFurniture, HomePieceOfFurniture> originalFurniture) {
+    Selectable clone = item.clone();
+    Level levelClone = this.tilesRendererLevels.get(((Elevatable)item).getLevel());
+    if (clone instanceof HomePieceOfFurniture) {
+      ((HomePieceOfFurniture)clone).setLevel(levelClone);
+      mapOriginalFurniture(Arrays.asList(new HomePieceOfFurniture [] {(HomePieceOfFurniture)item}), 
+          Arrays.asList(new HomePieceOfFurniture [] {(HomePieceOfFurniture)clone}), originalFurniture);
+    } else if (clone instanceof Room) {
+      ((Room)clone).setLevel(levelClone);
+    } else if (clone instanceof DimensionLine) {
+      ((DimensionLine)clone).setLevel(levelClone);
+    } else if (clone instanceof Label) {
+      ((Label)clone).setLevel(levelClone);
+    }
+    this.tilesRendererItems.put(item, clone);
+    return clone;
+  }
+
+  /**
+   * Returns the clones of the walls painted by the tiles renderer.
+   */
+  private List<Wall> cloneTilesRendererWalls(Level otherLevel) {
+    Set<Wall> walls = new LinkedHashSet<Wall>();
+    for (Wall wall : this.home.getWalls()) {
+      if (isInTilesRendererScope(wall, otherLevel)) {
+        walls.add(wall);
+      }
+    }
+    // Add walls joined to painted walls to compute their shape 
+    for (Wall wall : walls.toArray(new Wall [walls.size()])) {
+      if (wall.getWallAtStart() != null) {
+        walls.add(wall.getWallAtStart());
+      }
+      if (wall.getWallAtEnd() != null) {
+        walls.add(wall.getWallAtEnd());
+      }
+    }
+    List<Wall> paintedWalls = new ArrayList<Wall>(walls);
+    List<Wall> wallClones = Wall.clone(paintedWalls);
+    for (int i = 0; i < paintedWalls.size(); i++) {
+      Wall wall = paintedWalls.get(i);
+      Wall wallClone = wallClones.get(i);
+      wallClone.setLevel(this.tilesRendererLevels.get(wall.getLevel()));
+      this.tilesRendererItems.put(wall, wallClone);
+    }
+    return wallClones;
+  }
+
+  /**
+   * Replaces <code>oldItem</code> by <code>newItem</code> in the given home snapshot, 
+   * keeping the level of <code>newItem</code> and the order of furniture and rooms. 
+   */
+  private static void replaceSnapshotItem(Home snapshot, Selectable oldItem, Selectable newItem) {
+    Level level = newItem != null 
+        ? ((Elevatable)newItem).getLevel()
+        : null;
+    if (oldItem instanceof HomePieceOfFurniture || newItem instanceof HomePieceOfFurniture) {
+      int index = snapshot.getFurniture().indexOf(oldItem);
+      if (index != -1) {
+        snapshot.deletePieceOfFurniture((HomePieceOfFurniture)oldItem);
+      }
+      if (newItem != null) {
+        snapshot.addPieceOfFurniture((HomePieceOfFurniture)newItem, 
+            index != -1 ? index : snapshot.getFurniture().size());
+        ((HomePieceOfFurniture)newItem).setLevel(level);
+      }
+    } else if (oldItem instanceof Room || newItem instanceof Room) {
+      int index = snapshot.getRooms().indexOf(oldItem);
+      if (index != -1) {
+        snapshot.deleteRoom((Room)oldItem);
+      }
+      if (newItem != null) {
+        snapshot.addRoom((Room)newItem, index != -1 ? index : snapshot.getRooms().size());
+        ((Room)newItem).setLevel(level);
+      }
+    } else if (oldItem instanceof Wall || newItem instanceof Wall) {
+      if (oldItem != null) {
+        snapshot.deleteWall((Wall)oldItem);
+      }
+      if (newItem != null) {
+        snapshot.addWall((Wall)newItem);
+        ((Wall)newItem).setLevel(level);
+      }
+    } else if (oldItem instanceof DimensionLine || newItem instanceof DimensionLine) {
+      if (oldItem != null) {
+        snapshot.deleteDimensionLine((DimensionLine)oldItem);
+      }
+      if (newItem != null) {
+        snapshot.addDimensionLine((DimensionLine)newItem);
+        ((DimensionLine)newItem).setLevel(level);
+      }
+    } else if (oldItem instanceof Label || newItem instanceof Label) {
+      if (oldItem != null) {
+        snapshot.deleteLabel((Label)oldItem);
+      }
+      if (newItem != null) {
+        snapshot.addLabel((Label)newItem);
+        ((Label)newItem).setLevel(level);
+      }
+    }
+  }
+
+  /**
+   * Stores in <code>originalFurniture</code> the pieces of <code>furniture</code> 
+   * associated with their clone in <code>clonedFurniture</code>.
+   */
+  private void mapOriginalFurniture(List<HomePieceOfFurniture> furniture, 
+                                    List<HomePieceOfFurniture> clonedFurniture,
+                                    Map<HomePieceOfFurniture, HomePieceOfFurniture> originalFurniture) {
+    for (int i = 0; i < furniture.size(); i++) {
+      HomePieceOfFurniture piece = furniture.get(i);
+      HomePieceOfFurniture clonedPiece = clonedFurniture.get(i);
+      originalFurniture.put(clonedPiece, piece);
+      if (piece instanceof HomeFurnitureGroup) {
+        mapOriginalFurniture(((HomeFurnitureGroup)piece).getFurniture(), 
+            ((HomeFurnitureGroup)clonedPiece).getFurniture(), originalFurniture);
+      }
+    }
+  }
+
+  /**
+   * Records that the given <code>item</code> was modified, added or deleted in home, 
+   * to update the snapshot of the tiles renderer before next rendering.
+   */
+  private void updateTilesRendererItem(Selectable item) {
+    if (this.tilesRenderer != null) {
+      this.tilesRendererUpdatedItems.add(item);
+    }
+  }
+
+  /**
+   * Cancels all the tiles rendered in background.
+   */
+  private void resetTilesRenderer() {
+    if (this.tilesRenderer != null) {
+      for (Future<?> task : this.tilesRenderingTasks) {
+        task.cancel(true);
+      }
+      this.tilesRenderingTasks.clear();
+      this.renderingTiles.clear();
+    }
+  }
+
+  /**
+   * Discards the tiles renderer and its home snapshot which will be entirely rebuilt 
+   * at next rendering.
+   */
+  private void discardTilesRenderer() {
+    if (this.tilesRenderer != null) {
+      resetTilesRenderer();
+      this.tilesRenderer = null;
+      this.tilesRendererLevels = null;
+      this.tilesRendererItems = null;
+      this.tilesRendererUpdatedItems = null;
+    }
+  }
+
+  /**
+   * Discards the tiles renderer and stops the thread rendering tiles.
+   */
+  private void shutdownTilesRenderer() {
+    discardTilesRenderer();
+    if (this.tilesRenderingExecutor != null) {
+      this.tilesRenderingExecutor.shutdownNow();
+      this.tilesRenderingExecutor = null;
+    }
+  }
+
+  /**
+   * Stops the thread rendering tiles when this component is removed from its parent.
+   */
+  @Override
+  public void removeNotify() {
+    super.removeNotify();
+    shutdownTilesRenderer();
+  }
+
+  /**
+   * Sets whether the content of this component should be rendered in a background thread. 
+   * In that mode, home items are painted in tiles from a snapshot of home, 
+   * and the last rendered tiles are displayed until new ones are available. 
+   */
+  public void setAsynchronousRendering(boolean asynchronousRendering) {
+    if (this.asynchronousRendering != asynchronousRendering) {
+      this.asynchronousRendering = asynchronousRendering;
+      shutdownTilesRenderer();
+      this.staleTilesCache = null;
+      repaint();
+    }
+  }
+
+  /**
+   * Returns <code>true</code> if the content of this component is rendered in a background thread.
+   */
+  public boolean isAsynchronousRendering() {
+    return this.asynchronousRendering;
+  }
+
+  /**
+   * Returns an image of the tile at the given <code>column</code> and <code>row</code>
+   * containing background, grid and home items viewed without selection.
+   */
+  private BufferedImage createTile(int column, int row, double xOrigin, double yOrigin, float paintScale, 
+                                   Color backgroundColor, Color foregroundColor, Rectangle paintedArea, 
+                                   Font font, List<Selectable> ignoredItems) throws InterruptedIOException {
+    GraphicsConfiguration graphicsConfiguration = getGraphicsConfiguration();
+    BufferedImage tile = graphicsConfiguration != null 
+        ? graphicsConfiguration.createCompatibleImage(TILE_SIZE, TILE_SIZE)
+        : new BufferedImage(TILE_SIZE, TILE_SIZE, BufferedImage.TYPE_INT_RGB);
+    Graphics2D tileGraphics = (Graphics2D)tile.getGraphics();
+    tileGraphics.setColor(backgroundColor);
+    tileGraphics.fillRect(0, 0, TILE_SIZE, TILE_SIZE);
+    tileGraphics.setFont(font);
+    tileGraphics.translate(-column * TILE_SIZE, -row * TILE_SIZE);
+    tileGraphics.clipRect(column * TILE_SIZE, row * TILE_SIZE, TILE_SIZE, TILE_SIZE);
+    tileGraphics.clip(paintedArea);
+    tileGraphics.translate(xOrigin, yOrigin);
+    tileGraphics.scale(paintScale, paintScale);
+    setRenderingHints(tileGraphics);
+    this.paintedTileIncomplete = false;
+    try {
+      paintBackgroundLayers(tileGraphics, paintScale, backgroundColor, foregroundColor, PaintMode.PAINT);
+      List<Selectable> emptySelection = Collections.emptyList();
+      paintHomeItems(tileGraphics, emptySelection, ignoredItems, 
+          paintScale, backgroundColor, foregroundColor, PaintMode.PAINT);
+    } finally {
+      tileGraphics.dispose();
+    }
+    return tile;
+  }
+
+  /**
+   * Returns the selected dimension lines and labels.
+   */
+  private List<Selectable> getSelectedDimensionLinesAndLabels() {
+    List<Selectable> selectedItems = this.home.getSelectedItems();
+    List<Selectable> items = new ArrayList<Selectable>(Home.getDimensionLinesSubList(selectedItems));
+    items.addAll(Home.getLabelsSubList(selectedItems));
+    return items;
+  }
+
+  /**
+   * Returns <code>true</code> if the content of this component may be cached in tiles.
+   * Tiles aren't used if <code>paintHomeItems</code> method is overridden, because a subclass 
+   * may paint other items than the ones managed by this component.
+   */
+  private boolean isTilesCacheSupported() {
+    if (this.tilesCacheSupported == null) {
+      boolean paintHomeItemsOverridden = false;
+      try {
+        for (Class<?> componentClass = getClass(); 
+             componentClass != PlanComponent.class && !paintHomeItemsOverridden; 
+             componentClass = componentClass.getSuperclass()) {
+          try {
+            componentClass.getDeclaredMethod("paintHomeItems", 
+                Graphics.class, float.class, Color.class, Color.class, PaintMode.class);
+            paintHomeItemsOverridden = true;
+          } catch (NoSuchMethodException ex) {
+            // Search in super class
+          }
+        }
+      } catch (SecurityException ex) {
+        paintHomeItemsOverridden = true;
+      }
+      this.tilesCacheSupported = !paintHomeItemsOverridden;
+    }
+    return this.tilesCacheSupported;
+  }
+
+  /**
+   * Invalidates all the tiles of this component.
+   */
+  private void invalidateTiles() {
+    if (this.tilesCache != null) {
+      if (this.asynchronousRendering) {
+        // Keep invalidated tiles to display them until they're rendered again
+        if (this.staleTilesCache == null) {
+          this.staleTilesCache = new HashMap<Point, BufferedImage>();
+        }
+        this.staleTilesCache.putAll(this.tilesCache);
+      }
+      this.tilesCache.clear();
+    }
+    resetTilesRenderer();
+  }
+
+  /**
+   * Invalidates the tiles that intersect the given plan <code>area</code>.
+   */
+  private void invalidateTiles(Rectangle2D area) {
+    boolean tilesRendering = this.tilesRenderer != null 
+        && !this.renderingTiles.isEmpty(); 
+    if (this.tilesCache != null 
+            && !this.tilesCache.isEmpty()
+        || tilesRendering) {
+      // Enlarge area with stroke and antialiasing margins
+      int margin = (int)Math.ceil(Math.max(WALL_STROKE_WIDTH, BORDER_STROKE_WIDTH)) + 2;
+      Rectangle pixelArea = new Rectangle(convertXModelToPixel((float)area.getMinX()) - margin, 
+          convertYModelToPixel((float)area.getMinY()) - margin, 0, 0);
+      pixelArea.add(convertXModelToPixel((float)area.getMaxX()) + margin + 1, 
+          convertYModelToPixel((float)area.getMaxY()) + margin + 1);
+      if (this.tilesCache != null) {
+        for (Iterator<Map.Entry<Point, BufferedImage>> it = this.tilesCache.entrySet().iterator(); it.hasNext(); ) {
+          Map.Entry<Point, BufferedImage> tileEntry = it.next();
+          Point tile = tileEntry.getKey();
+          if (pixelArea.intersects(tile.x * TILE_SIZE, tile.y * TILE_SIZE, TILE_SIZE, TILE_SIZE)) {
+            if (this.asynchronousRendering) {
+              if (this.staleTilesCache == null) {
+                this.staleTilesCache = new HashMap<Point, BufferedImage>();
+              }
+              this.staleTilesCache.put(tile, tileEntry.getValue());
+            }
+            it.remove();
+          }
+        }
+      }
+      if (tilesRendering) {
+        // Unstamp only the tiles in rendering that intersect area, 
+        // to skip them or ignore their image once rendered and render them again at next paint
+        for (Iterator<Point> it = this.renderingTiles.keySet().iterator(); it.hasNext(); ) {
+          Point tile = it.next();
+          if (pixelArea.intersects(tile.x * TILE_SIZE, tile.y * TILE_SIZE, TILE_SIZE, TILE_SIZE)) {
+            it.remove();
+          }
+        }
+      }
+    }
+  }
+
+  /**
+   * Returns the print preferred scale of the plan drawn in this component
+   * to make it fill <code>pageFormat</code> imageable size.
+   */
+  public float getPrintPreferredScale(Graphics g, PageFormat pageFormat) {
+    List<Selectable> printedItems = getPaintedItems(); 
+    Rectangle2D printedItemBounds = getItemsBounds(g, printedItems);
+    if (printedItemBounds != null) {
+      float imageableWidthCm = LengthUnit.inchToCentimeter((float)pageFormat.getImageableWidth() / 72);
+      float imageableHeightCm = LengthUnit.inchToCentimeter((float)pageFormat.getImageableHeight() / 72);
+      float extraMargin = getStrokeWidthExtraMargin(printedItems, PaintMode.PRINT);
+      // Compute the largest integer scale possible
+      int scaleInverse = (int)Math.ceil(Math.max(
+          (printedItemBounds.getWidth() + 2 * extraMargin) / imageableWidthCm,
+          (printedItemBounds.getHeight() + 2 * extraMargin) / imageableHeightCm));
+      return 1f / scaleInverse;
+    } else {
+      return 0;
+    }
+  }
+  
+  /**
+   * Returns the margin that should be added around home items bounds to ensure their
+   * line stroke width is always fully visible.
+   */
+  private float getStrokeWidthExtraMargin(List<Selectable> items, PaintMode paintMode) {
+    float extraMargin = BORDER_STROKE_WIDTH;
+    if (Home.getFurnitureSubList(items).size() > 0) {
+      extraMargin = Math.max(extraMargin, getStrokeWidth(HomePieceOfFurniture.class, paintMode));
+    } 
+    if (Home.getWallsSubList(items).size() > 0) {
+      extraMargin = Math.max(extraMargin, getStrokeWidth(Wall.class, paintMode));
+    } 
+    if (Home.getRoomsSubList(items).size() > 0) {
+      extraMargin = Math.max(extraMargin, getStrokeWidth(Room.class, paintMode));
+    }
+    if (Home.getDimensionLinesSubList(items).size() > 0) {
+      extraMargin = Math.max(extraMargin, getStrokeWidth(DimensionLine.class, paintMode));
+    }
+    return extraMargin / 2;
   }
   
   /**
@@ -1987,6 +3227,33 @@ public class PlanComponent extends JComponent implements PlanView, Scrollable, P
     SVGSupport.exportToSVG(outputStream, this);   
   }
   
+  /**
+   * Starts a group of drawn items if <code>g2D</code> is able to gather items in groups.
+   */
+  private void startGroup(Graphics2D g2D, String groupType, String title) {
+    if (g2D instanceof GroupingGraphics) {
+      ((GroupingGraphics)g2D).startGroup(groupType, title);
+    }
+  }
+
+  /**
+   * Ends the last group started with {@link #startGroup(Graphics2D, String, String) startGroup}.
+   */
+  private void endGroup(Graphics2D g2D) {
+    if (g2D instanceof GroupingGraphics) {
+      ((GroupingGraphics)g2D).endGroup();
+    }
+  }
+
+  /**
+   * Graphics able to gather the items they draw in named groups.
+   */
+  private static interface GroupingGraphics {
+    public void startGroup(String groupType, String title);
+
+    public void endGroup();
+  }
+
   /**
    * Separated static class to be able to exclude FreeHEP library from classpath
    * in case the application doesn't use export to SVG format. 
@@ -2005,16 +3272,7 @@ public class PlanComponent extends JComponent implements PlanView, Scrollable, P
       Dimension imageSize = new Dimension((int)Math.ceil(svgItemBounds.getWidth() * svgScale + 2 * extraMargin), 
           (int)Math.ceil(svgItemBounds.getHeight() * svgScale + 2 * extraMargin));
       
-      SVGGraphics2D exportG2D = new SVGGraphics2D(outputStream, imageSize) {
-          @Override
-          public void writeHeader() throws IOException {
-            // Use English locale to avoid wrong encoding when localized dates contain accentuated letters 
-            Locale defaultLocale = Locale.getDefault();
-            Locale.setDefault(Locale.ENGLISH);
-            super.writeHeader();
-            Locale.setDefault(defaultLocale);
-          }
-        };
+      SVGGraphics2D exportG2D = new PlanSVGGraphics2D(outputStream, imageSize);
       UserProperties properties = new UserProperties();
       properties.setProperty(SVGGraphics2D.STYLABLE, true);
       properties.setProperty(SVGGraphics2D.WRITE_IMAGES_AS, ImageConstants.PNG);
@@ -2033,13 +3291,274 @@ public class PlanComponent extends JComponent implements PlanView, Scrollable, P
       exportG2D.endExport();
     }
   }
-  
+
+  /**
+   * A SVG graphics that writes each item in its own group, and that defines only once
+   * the images and the patterns it draws to reuse them with <code>use</code> elements.
+   * Texture paints are written as SVG patterns rather than as images of filled shapes,
+   * and definitions are searched in caches of limited size, to keep memory usage
+   * independent of plan size.
+   */
+  private static class PlanSVGGraphics2D extends SVGGraphics2D implements GroupingGraphics {
+    private static final int MAX_CACHED_DEFINITIONS = 256;
+
+    private final Map<String, String>        imageIds;
+    private final Map<BufferedImage, String> imageInstanceIds;
+    private final Map<String, String>        patternIds;
+    private final Map<String, String>        clipIds;
+    private final Map<String, Integer>       groupCounts;
+    private int                              definitionCount;
+
+    public PlanSVGGraphics2D(OutputStream outputStream, Dimension size) {
+      super(outputStream, size);
+      this.imageIds = createDefinitionsCache();
+      this.imageInstanceIds = new IdentityHashMap<BufferedImage, String>();
+      this.patternIds = createDefinitionsCache();
+      this.clipIds = createDefinitionsCache();
+      this.groupCounts = new HashMap<String, Integer>();
+    }
+
+    private static Map<String, String> createDefinitionsCache() {
+      return new LinkedHashMap<String, String>(16, 0.75f, true) {
+          @Override
+          protected boolean removeEldestEntry(Map.Entry<String, String> eldest) {
+            return size() > MAX_CACHED_DEFINITIONS;
+          }
+        };
+    }
+
+    @Override
+    public void writeHeader() throws IOException {
+      // Use English locale to avoid wrong encoding when localized dates contain accentuated letters
+      Locale defaultLocale = Locale.getDefault();
+      Locale.setDefault(Locale.ENGLISH);
+      super.writeHeader();
+      Locale.setDefault(defaultLocale);
+    }
+
+    public void startGroup(String groupType, String title) {
+      Integer count = this.groupCounts.get(groupType);
+      count = count == null ? 1 : count + 1;
+      this.groupCounts.put(groupType, count);
+      PrintWriter out = getOutputStream();
+      out.println("<g id=\"" + groupType + "-" + count + "\">");
+      if (title != null && title.length() > 0) {
+        out.println("<title>" + escapeXML(title) + "</title>");
+      }
+    }
+
+    public void endGroup() {
+      getOutputStream().println("</g>");
+    }
+
+    @Override
+    public void fill(Shape shape) {
+      if (getPaint() instanceof TexturePaint) {
+        try {
+          String patternId = getPatternId((TexturePaint)getPaint());
+          PathIterator it = shape.getPathIterator(null);
+          String fillRule = it.getWindingRule() == PathIterator.WIND_EVEN_ODD
+              ? "evenodd"
+              : "nonzero";
+          writeElement("<path fill=\"url(#" + patternId + ")\" fill-rule=\"" + fillRule
+              + "\" stroke=\"none\" " + getPathContent(it) + "/>", null);
+        } catch (IOException ex) {
+          handleException(ex);
+        }
+      } else {
+        super.fill(shape);
+      }
+    }
+
+    @Override
+    protected void writeImage(RenderedImage image, AffineTransform transform, Color background) throws IOException {
+      if (image instanceof BufferedImage) {
+        String imageId = getImageId((BufferedImage)image);
+        writeElement("<use xlink:href=\"#" + imageId + "\"/>", transform);
+      } else {
+        super.writeImage(image, transform, background);
+      }
+    }
+
+    /**
+     * Returns the id of the pattern matching the given <code>paint</code>,
+     * after writing its definition if it wasn't written yet.
+     */
+    private String getPatternId(TexturePaint paint) throws IOException {
+      BufferedImage image = paint.getImage();
+      String imageId = getImageId(image);
+      Rectangle2D anchor = paint.getAnchorRect();
+      String patternKey = imageId + " " + anchor;
+      String patternId = this.patternIds.get(patternKey);
+      if (patternId == null) {
+        patternId = "pattern-def-" + ++this.definitionCount;
+        PrintWriter out = getOutputStream();
+        out.println("<defs><pattern id=\"" + patternId + "\" patternUnits=\"userSpaceOnUse\""
+            + " x=\"" + fixedPrecision(anchor.getX()) + "\" y=\"" + fixedPrecision(anchor.getY()) + "\""
+            + " width=\"" + fixedPrecision(anchor.getWidth()) + "\" height=\"" + fixedPrecision(anchor.getHeight()) + "\">");
+        out.println("<use xlink:href=\"#" + imageId + "\" transform=\"scale("
+            + fixedPrecision(anchor.getWidth() / image.getWidth()) + ","
+            + fixedPrecision(anchor.getHeight() / image.getHeight()) + ")\"/>");
+        out.println("</pattern></defs>");
+        this.patternIds.put(patternKey, patternId);
+      }
+      return patternId;
+    }
+
+    /**
+     * Returns the id of the definition of an image with the same pixels as <code>image</code>,
+     * after writing it if it wasn't written yet.
+     */
+    private String getImageId(BufferedImage image) throws IOException {
+      // Search first the id of an image instance already drawn to avoid computing its pixels digest again
+      String imageInstanceId = this.imageInstanceIds.get(image);
+      if (imageInstanceId != null) {
+        return imageInstanceId;
+      }
+      int [] pixels = image.getRGB(0, 0, image.getWidth(), image.getHeight(), null, 0, image.getWidth());
+      String imageKey = image.getWidth() + "x" + image.getHeight() + " " + getPixelsDigest(pixels);
+      String imageId = this.imageIds.get(imageKey);
+      if (imageId == null) {
+        imageId = "image-def-" + ++this.definitionCount;
+        PrintWriter out = getOutputStream();
+        out.print("<defs><image id=\"" + imageId + "\" x=\"0\" y=\"0\" width=\"" + image.getWidth()
+            + "\" height=\"" + image.getHeight() + "\" xlink:href=\"data:image/png;base64,");
+        // Write image data directly to the output stream
+        Base64OutputStream base64Out = new Base64OutputStream(out);
+        ImageIO.write(image, "png", base64Out);
+        base64Out.finish();
+        out.println("\"/></defs>");
+        this.imageIds.put(imageKey, imageId);
+      }
+      if (this.imageInstanceIds.size() >= MAX_CACHED_DEFINITIONS) {
+        this.imageInstanceIds.clear();
+      }
+      this.imageInstanceIds.put(image, imageId);
+      return imageId;
+    }
+
+    private String getPixelsDigest(int [] pixels) throws IOException {
+      try {
+        MessageDigest messageDigest = MessageDigest.getInstance("SHA-1");
+        byte [] buffer = new byte [4096];
+        for (int i = 0; i < pixels.length; ) {
+          int j = 0;
+          for ( ; j < buffer.length && i < pixels.length; i++) {
+            int pixel = pixels [i];
+            buffer [j++] = (byte)(pixel >> 24);
+            buffer [j++] = (byte)(pixel >> 16);
+            buffer [j++] = (byte)(pixel >> 8);
+            buffer [j++] = (byte)pixel;
+          }
+          messageDigest.update(buffer, 0, j);
+        }
+        return new BigInteger(1, messageDigest.digest()).toString(16);
+      } catch (NoSuchAlgorithmException ex) {
+        throw new IOException(ex.getMessage());
+      }
+    }
+
+    /**
+     * Writes the given SVG <code>element</code> with the current transform and clip
+     * of this graphics, and the additional <code>elementTransform</code>.
+     */
+    private void writeElement(String element, AffineTransform elementTransform) throws IOException {
+      PrintWriter out = getOutputStream();
+      int closedGroups = 0;
+      AffineTransform transform = getTransform();
+      if (!transform.isIdentity()) {
+        out.println("<g transform=\"" + getMatrix(transform) + "\">");
+        closedGroups++;
+      }
+      Shape clip = getClip();
+      if (clip != null) {
+        String clipPath = getPathContent(clip.getPathIterator(null));
+        String clipId = this.clipIds.get(clipPath);
+        if (clipId == null) {
+          clipId = "clip-def-" + ++this.definitionCount;
+          out.println("<defs><clipPath id=\"" + clipId + "\"><path " + clipPath + "/></clipPath></defs>");
+          this.clipIds.put(clipPath, clipId);
+        }
+        out.println("<g clip-path=\"url(#" + clipId + ")\">");
+        closedGroups++;
+      }
+      if (elementTransform != null && !elementTransform.isIdentity()) {
+        out.println("<g transform=\"" + getMatrix(elementTransform) + "\">");
+        closedGroups++;
+      }
+      out.println(element);
+      for (int i = 0; i < closedGroups; i++) {
+        out.println("</g>");
+      }
+    }
+
+    private String getMatrix(AffineTransform transform) {
+      return "matrix(" + fixedPrecision(transform.getScaleX()) + "," + fixedPrecision(transform.getShearY())
+          + "," + fixedPrecision(transform.getShearX()) + "," + fixedPrecision(transform.getScaleY())
+          + "," + fixedPrecision(transform.getTranslateX()) + "," + fixedPrecision(transform.getTranslateY()) + ")";
+    }
+
+    private String escapeXML(String text) {
+      return text.replace("&", "&amp;").replace("<", "&lt;").replace(">", "&gt;").replace("\"", "&quot;");
+    }
+  }
+
+  /**
+   * An output stream that writes the bytes it receives encoded in base64 to a writer.
+   */
+  private static class Base64OutputStream extends OutputStream {
+    private static final char [] BASE64_DIGITS = 
+        "ABCDEFGHIJKLMNOPQRSTUVWXYZabcdefghijklmnopqrstuvwxyz0123456789+/".toCharArray();
+    
+    private final Writer writer;
+    private final int [] buffer;
+    private int          bufferLength;
+
+    public Base64OutputStream(Writer writer) {
+      this.writer = writer;
+      this.buffer = new int [3];
+    }
+
+    @Override
+    public void write(int b) throws IOException {
+      this.buffer [this.bufferLength++] = b & 0xFF;
+      if (this.bufferLength == this.buffer.length) {
+        writeBuffer();
+      }
+    }
+
+    /**
+     * Writes the 4 base64 digits matching the bytes in buffer.
+     */
+    private void writeBuffer() throws IOException {
+      int bits = (this.buffer [0] << 16)
+          | (this.bufferLength > 1 ? this.buffer [1] << 8 : 0)
+          | (this.bufferLength > 2 ? this.buffer [2] : 0);
+      this.writer.write(BASE64_DIGITS [(bits >> 18) & 0x3F]);
+      this.writer.write(BASE64_DIGITS [(bits >> 12) & 0x3F]);
+      this.writer.write(this.bufferLength > 1 ? BASE64_DIGITS [(bits >> 6) & 0x3F] : '=');
+      this.writer.write(this.bufferLength > 2 ? BASE64_DIGITS [bits & 0x3F] : '=');
+      this.bufferLength = 0;
+    }
+
+    /**
+     * Writes the remaining bytes with padding, without closing the writer.
+     */
+    public void finish() throws IOException {
+      if (this.bufferLength > 0) {
+        writeBuffer();
+      }
+      this.writer.flush();
+    }
+  }
+
   /**
    * Throws an <code>InterruptedRecorderException</code> exception if current thread 
-   * is interrupted and <code>paintMode</code> is equal to <code>PaintMode.EXPORT</code>.  
+   * is interrupted and <code>paintMode</code> is equal to <code>PaintMode.EXPORT</code>
+   * or this component renders tiles of a home snapshot.  
    */
   private void checkCurrentThreadIsntInterrupted(PaintMode paintMode) throws InterruptedIOException {
-    if (paintMode == PaintMode.EXPORT
+    if ((paintMode == PaintMode.EXPORT || this.snapshotRenderer)
         && Thread.interrupted()) {
       throw new InterruptedIOException("Current thread interrupted");
     }
@@ -2069,11 +3588,13 @@ public class PlanComponent extends JComponent implements PlanView, Scrollable, P
    * Paints background image and returns <code>true</code> if an image is painted.
    */
   private boolean paintBackgroundImage(Graphics2D g2D, PaintMode paintMode) {
-    final BackgroundImage backgroundImage = this.home.getSelectedLevel() == null 
-        ? this.home.getBackgroundImage()
-        : this.home.getSelectedLevel().getBackgroundImage();
+    final BackgroundImage backgroundImage = getPaintedBackgroundImage();
     if (backgroundImage != null && backgroundImage.isVisible()) {
-      if (this.backgroundImageCache == null && paintMode == PaintMode.PAINT) {
+      if (this.backgroundImageCache == null && paintMode == PaintMode.PAINT && this.snapshotRenderer) {
+        this.backgroundImageCache = readImage(backgroundImage.getImage());
+      }
+      if (this.backgroundImageCache == null && isImageLoadedAsynchronously(paintMode)) {
+        this.paintedTileIncomplete = true;
         // Load background image in an executor
         Executors.newSingleThreadExecutor().execute(new Runnable() {
             public void run() {
@@ -2099,6 +3620,23 @@ public class PlanComponent extends JComponent implements PlanView, Scrollable, P
     }
   }
 
+  /**
+   * Returns the background image of the selected level or of home.
+   */
+  private BackgroundImage getPaintedBackgroundImage() {
+    return this.home.getSelectedLevel() == null 
+        ? this.home.getBackgroundImage()
+        : this.home.getSelectedLevel().getBackgroundImage();
+  }
+
+  /**
+   * Returns <code>true</code> if the images required to paint in the given mode  
+   * may be loaded asynchronously, i.e. in <code>PAINT</code> mode out of a snapshot renderer.
+   */
+  private boolean isImageLoadedAsynchronously(PaintMode paintMode) {
+    return paintMode == PaintMode.PAINT && !this.snapshotRenderer;
+  }
+
   /**
    * Returns the foreground color used to draw content. 
    */
@@ -2159,10 +3697,9 @@ public class PlanComponent extends JComponent implements PlanView, Scrollable, P
             ? selectedLevelIndex + 1 
             : selectedLevelIndex  - 1);
         List<Room> otherLevelRooms = new ArrayList<Room>();
-        for (Room room : this.home.getRooms()) {
-          if (room.isAtLevel(otherLevel)
-              && (level0 && room.isFloorVisible()
-                  || !level0 && room.isCeilingVisible())) {
+        for (Room room : this.home.getRoomsAtLevel(otherLevel)) {
+          if (level0 && room.isFloorVisible()
+              || !level0 && room.isCeilingVisible()) {
             otherLevelRooms.add(room);
           }
         }
@@ -2185,14 +3722,13 @@ public class PlanComponent extends JComponent implements PlanView, Scrollable, P
             ? selectedLevelIndex + 1 
             : selectedLevelIndex  - 1);
         List<Wall> otherLevelwalls = new ArrayList<Wall>();
-        for (Wall wall : this.home.getWalls()) {
-          if (!isViewableAtSelectedLevel(wall)
-              && wall.isAtLevel(otherLevel)) {
+        for (Wall wall : this.home.getWallsAtLevel(otherLevel)) {
+          if (!isViewableAtSelectedLevel(wall)) {
             otherLevelwalls.add(wall);
           }
         }
         if (otherLevelwalls.size() > 0) {
-          this.otherLevelWallAreaCache = getItemsArea(otherLevelwalls);
+          this.otherLevelWallAreaCache = getWallsArea(otherLevelwalls);
           this.otherLevelWallsCache = otherLevelwalls;
         }
       }
@@ -2233,7 +3769,15 @@ public class PlanComponent extends JComponent implements PlanView, Scrollable, P
     float xMax;
     float yMax;
     Rectangle2D planBounds = getPlanBounds();    
-    if (getParent() instanceof JViewport) {
+    Shape clip = g2D.getClip();
+    if (clip != null) {
+      // Paint grid in the clip only, which may be larger than the viewport for a tile
+      Rectangle2D clipBounds = clip.getBounds2D();
+      xMin = (float)clipBounds.getMinX() - 1 / gridScale;
+      yMin = (float)clipBounds.getMinY() - 1 / gridScale;
+      xMax = (float)clipBounds.getMaxX() + 1 / gridScale;
+      yMax = (float)clipBounds.getMaxY() + 1 / gridScale;
+    } else if (getParent() instanceof JViewport) {
       Rectangle viewRectangle = ((JViewport)getParent()).getViewRect();
       xMin = convertXPixelToModel(viewRectangle.x - 1);
       yMin = convertYPixelToModel(viewRectangle.y - 1);
@@ -2245,33 +3789,45 @@ public class PlanComponent extends JComponent implements PlanView, Scrollable, P
       xMax = convertXPixelToModel(getWidth());
       yMax = convertYPixelToModel(getHeight());
     }
-    boolean useGridImage = false;
-    try {
-      useGridImage = OperatingSystem.isMacOSX()
-          && System.getProperty("apple.awt.graphics.UseQuartz", "false").equals("false");
-    } catch (AccessControlException ex) {
-      // Unsigned applet
-    }
-    if (useGridImage) {
-      // Draw grid with an image texture under Mac OS X, because default 2D rendering engine 
-      // is too slow and can't be replaced by Quartz engine in applet environment 
-      int imageWidth = Math.round(mainGridSize * gridScale);
-      BufferedImage gridImage = new BufferedImage(imageWidth, imageWidth, BufferedImage.TYPE_INT_ARGB);
-      Graphics2D imageGraphics = (Graphics2D)gridImage.getGraphics();
-      setRenderingHints(imageGraphics);
-      imageGraphics.scale(gridScale, gridScale);
-      
-      paintGridLines(imageGraphics, gridScale, 0, mainGridSize, 0, mainGridSize, gridSize, mainGridSize);    
-      imageGraphics.dispose();
-      
-      g2D.setPaint(new TexturePaint(gridImage, new Rectangle2D.Float(0, 0, mainGridSize, mainGridSize)));
-      
+    // Fill grid with a tile image of the size of main grid in device space, 
+    // to avoid drawing each line of the grid at each repaint
+    AffineTransform transform = g2D.getTransform();
+    int tileSize = (int)Math.round(mainGridSize * Math.abs(transform.getScaleX()));
+    if (transform.getShearX() == 0 
+        && transform.getShearY() == 0
+        && Math.abs(transform.getScaleX()) == Math.abs(transform.getScaleY())
+        && tileSize > 0
+        && tileSize <= MAX_GRID_TILE_SIZE) {
+      BufferedImage gridTile = getGridTile(tileSize, gridScale, gridSize, mainGridSize);
+      g2D.setPaint(new TexturePaint(gridTile, new Rectangle2D.Float(0, 0, mainGridSize, mainGridSize)));
       g2D.fill(new Rectangle2D.Float(xMin, yMin, xMax - xMin, yMax - yMin));
     } else {
       paintGridLines(g2D, gridScale, xMin, xMax, yMin, yMax, gridSize, mainGridSize);          
     }
   }
 
+  /**
+   * Returns an image of <code>tileSize</code> pixels wide that contains the lines 
+   * of a square of the grid as large as <code>mainGridSize</code>.
+   */
+  private BufferedImage getGridTile(int tileSize, float gridScale, float gridSize, float mainGridSize) {
+    Color gridColor = UIManager.getColor("controlShadow");
+    List<Object> tileKey = Arrays.asList(new Object [] {tileSize, gridScale, gridSize, mainGridSize, gridColor});
+    BufferedImage gridTile = this.gridTilesCache.get(tileKey);
+    if (gridTile == null) {
+      gridTile = new BufferedImage(tileSize, tileSize, BufferedImage.TYPE_INT_ARGB_PRE);
+      Graphics2D tileGraphics = (Graphics2D)gridTile.getGraphics();
+      setRenderingHints(tileGraphics);
+      tileGraphics.scale(tileSize / mainGridSize, tileSize / mainGridSize);
+      // Paint lines around the tile too, to get their parts that overlap its borders 
+      paintGridLines(tileGraphics, gridScale, -gridSize, mainGridSize + gridSize, 
+          -gridSize, mainGridSize + gridSize, gridSize, mainGridSize);    
+      tileGraphics.dispose();
+      this.gridTilesCache.put(tileKey, gridTile);
+    }
+    return gridTile;
+  }
+
   /**
    * Paints background grid lines from <code>xMin</code> to <code>xMax</code> 
    * and <code>yMin</code> to <code>yMax</code>.
@@ -2360,6 +3916,20 @@ public class PlanComponent extends JComponent implements PlanView, Scrollable, P
   private void paintContent(Graphics2D g2D, float planScale, PaintMode paintMode) throws InterruptedIOException {
     Color backgroundColor = getBackgroundColor(paintMode);
     Color foregroundColor = getForegroundColor(paintMode);
+    paintBackgroundLayers(g2D, planScale, backgroundColor, foregroundColor, paintMode);
+    
+    paintHomeItems(g2D, planScale, backgroundColor, foregroundColor, paintMode);
+        
+    if (paintMode == PaintMode.PAINT) {
+      paintFeedback(g2D, planScale, backgroundColor, foregroundColor);
+    }
+  }
+  
+  /**
+   * Paints background image, other levels and grid under plan items. 
+   */
+  private void paintBackgroundLayers(Graphics2D g2D, float planScale, 
+                                     Color backgroundColor, Color foregroundColor, PaintMode paintMode) {
     if (this.backgroundPainted) {
       paintBackgroundImage(g2D, paintMode);
       if (paintMode == PaintMode.PAINT) {
@@ -2369,14 +3939,206 @@ public class PlanComponent extends JComponent implements PlanView, Scrollable, P
         }
       }
     }
+  }
+  
+  /**
+   * Paints camera, alignment, dragged items and rectangle feedback in <code>PAINT</code> mode. 
+   */
+  private void paintFeedback(Graphics2D g2D, float planScale, 
+                             Color backgroundColor, Color foregroundColor) {
+    List<Selectable> selectedItems = this.home.getSelectedItems();
     
-    paintHomeItems(g2D, planScale, backgroundColor, foregroundColor, paintMode);
-        
-    if (paintMode == PaintMode.PAINT) {
-      List<Selectable> selectedItems = this.home.getSelectedItems();
-      
+    Color selectionColor = getSelectionColor(); 
+    Color furnitureOutlineColor = getFurnitureOutlineColor();
+    Paint selectionOutlinePaint = new Color(selectionColor.getRed(), selectionColor.getGreen(), 
+        selectionColor.getBlue(), 128);
+    Stroke selectionOutlineStroke = new BasicStroke(6 / planScale, 
+        BasicStroke.CAP_ROUND, BasicStroke.JOIN_ROUND); 
+    Stroke dimensionLinesSelectionOutlineStroke = new BasicStroke(4 / planScale, 
+        BasicStroke.CAP_ROUND, BasicStroke.JOIN_ROUND); 
+    Stroke locationFeedbackStroke = new BasicStroke(
+        1 / planScale, BasicStroke.CAP_SQUARE, BasicStroke.JOIN_BEVEL, 0, 
+        new float [] {20 / planScale, 5 / planScale, 5 / planScale, 5 / planScale}, 4 / planScale);
+    
+    paintCamera(g2D, selectedItems, selectionOutlinePaint, selectionOutlineStroke, selectionColor, 
+        planScale, backgroundColor, foregroundColor);
+    
+    // Paint alignment feedback depending on aligned object class
+    if (this.alignedObjectClass != null) {
+      if (Wall.class.isAssignableFrom(this.alignedObjectClass)) {
+        paintWallAlignmentFeedback(g2D, (Wall)this.alignedObjectFeedback, this.locationFeeback, this.showPointFeedback, 
+            selectionColor, locationFeedbackStroke, planScale,
+            selectionOutlinePaint, selectionOutlineStroke);
+      } else if (Room.class.isAssignableFrom(this.alignedObjectClass)) {
+        paintRoomAlignmentFeedback(g2D, (Room)this.alignedObjectFeedback, this.locationFeeback, this.showPointFeedback,
+            selectionColor, locationFeedbackStroke, planScale,
+            selectionOutlinePaint, selectionOutlineStroke);
+      } else if (DimensionLine.class.isAssignableFrom(this.alignedObjectClass)) {
+        paintDimensionLineAlignmentFeedback(g2D, (DimensionLine)this.alignedObjectFeedback, this.locationFeeback, this.showPointFeedback,               
+            selectionColor, locationFeedbackStroke, planScale,
+            selectionOutlinePaint, selectionOutlineStroke);
+      }
+    }
+    if (this.centerAngleFeedback != null) {
+     paintAngleFeedback(g2D, this.centerAngleFeedback, this.point1AngleFeedback, this.point2AngleFeedback, 
+         planScale, selectionColor); 
+    }
+    if (this.dimensionLinesFeedback != null) {
+      List<Selectable> emptySelection = Collections.emptyList();        
+      paintDimensionLines(g2D, this.dimensionLinesFeedback, emptySelection, 
+          null, null, null, locationFeedbackStroke, planScale, 
+          backgroundColor, selectionColor, PaintMode.PAINT, true);
+    }
+    
+    if (this.draggedItemsFeedback != null) {
+      paintDimensionLines(g2D, Home.getDimensionLinesSubList(this.draggedItemsFeedback), this.draggedItemsFeedback, 
+          selectionOutlinePaint, dimensionLinesSelectionOutlineStroke, null, 
+          locationFeedbackStroke, planScale, backgroundColor, foregroundColor, PaintMode.PAINT, false);
+      paintLabels(g2D, Home.getLabelsSubList(this.draggedItemsFeedback), this.draggedItemsFeedback, 
+          selectionOutlinePaint, dimensionLinesSelectionOutlineStroke, null,
+          planScale, foregroundColor, PaintMode.PAINT);
+      paintRoomsOutline(g2D, this.draggedItemsFeedback, selectionOutlinePaint, selectionOutlineStroke, null, 
+          planScale, foregroundColor);
+      paintWallsOutline(g2D, this.draggedItemsFeedback, selectionOutlinePaint, selectionOutlineStroke, null, 
+          planScale, foregroundColor);
+      paintFurniture(g2D, Home.getFurnitureSubList(this.draggedItemsFeedback), selectedItems, planScale, null, 
+          foregroundColor, furnitureOutlineColor, PaintMode.PAINT, false);
+      paintFurnitureOutline(g2D, this.draggedItemsFeedback, selectionOutlinePaint, selectionOutlineStroke, null, 
+          planScale, foregroundColor);
+    }
+    
+    paintRectangleFeedback(g2D, selectionColor, planScale);
+  }
+  
+  /**
+   * Paints home items at the given scale, and with background and foreground colors.
+   * Outline around selected items will be painted only under <code>PAINT</code> mode. 
+   */
+  protected void paintHomeItems(Graphics g, float planScale, 
+                                Color backgroundColor, Color foregroundColor, PaintMode paintMode) throws InterruptedIOException {
+    List<Selectable> ignoredItems = Collections.emptyList();
+    paintHomeItems((Graphics2D)g, this.home.getSelectedItems(), ignoredItems, 
+        planScale, backgroundColor, foregroundColor, paintMode);
+  }
+
+  /**
+   * Paints home items except <code>ignoredItems</code>, considering the given 
+   * <code>selectedItems</code> are selected.
+   */
+  private void paintHomeItems(Graphics2D g2D, List<Selectable> selectedItems, List<Selectable> ignoredItems, 
+                              float planScale, Color backgroundColor, Color foregroundColor, 
+                              PaintMode paintMode) throws InterruptedIOException {
+    List<HomePieceOfFurniture> paintedFurniture = getSortedLevelFurniture();
+    List<Room> paintedRooms = getSortedLevelRooms();
+    Collection<DimensionLine> paintedDimensionLines = getViewableDimensionLines();
+    Collection<Label> paintedLabels = getViewableLabels();
+    Rectangle2D paintedArea = getPaintedArea(g2D, planScale, paintMode);
+    if (paintedArea != null) {
+      // Keep only the items that intersect painted area
+      if (this.sortedLevelFurnitureIndex == null) {
+        this.sortedLevelFurnitureIndex = createItemsIndex(paintedFurniture);
+      }
+      paintedFurniture = this.sortedLevelFurnitureIndex.getItems(paintedArea);
+      if (this.sortedLevelRoomsIndex == null) {
+        this.sortedLevelRoomsIndex = createItemsIndex(paintedRooms);
+      }
+      paintedRooms = this.sortedLevelRoomsIndex.getItems(paintedArea);
+      if (this.levelDimensionLinesIndex == null) {
+        this.levelDimensionLinesIndex = createItemsIndex(paintedDimensionLines);
+      }
+      paintedDimensionLines = this.levelDimensionLinesIndex.getItems(paintedArea);
+      if (this.levelLabelsIndex == null) {
+        this.levelLabelsIndex = createItemsIndex(paintedLabels);
+      }
+      paintedLabels = this.levelLabelsIndex.getItems(paintedArea);
+    }
+    if (!ignoredItems.isEmpty()) {
+      paintedDimensionLines = new ArrayList<DimensionLine>(paintedDimensionLines);
+      paintedDimensionLines.removeAll(ignoredItems);
+      paintedLabels = new ArrayList<Label>(paintedLabels);
+      paintedLabels.removeAll(ignoredItems);
+    }
+    
+    Color selectionColor = getSelectionColor(); 
+    Paint selectionOutlinePaint = new Color(selectionColor.getRed(), selectionColor.getGreen(), 
+        selectionColor.getBlue(), 128);
+    Stroke selectionOutlineStroke = new BasicStroke(6 / planScale, 
+        BasicStroke.CAP_ROUND, BasicStroke.JOIN_ROUND); 
+    Stroke dimensionLinesSelectionOutlineStroke = new BasicStroke(4 / planScale, 
+        BasicStroke.CAP_ROUND, BasicStroke.JOIN_ROUND); 
+    Stroke locationFeedbackStroke = new BasicStroke(
+        1 / planScale, BasicStroke.CAP_SQUARE, BasicStroke.JOIN_BEVEL, 0, 
+        new float [] {20 / planScale, 5 / planScale, 5 / planScale, 5 / planScale}, 4 / planScale);
+
+    Level selectedLevel = this.home.getSelectedLevel();
+    startGroup(g2D, "level", selectedLevel != null ? selectedLevel.getName() : null);
+    startGroup(g2D, "compass", null);
+    paintCompass(g2D, selectedItems, planScale, foregroundColor, paintMode);
+    endGroup(g2D);
+
+    checkCurrentThreadIsntInterrupted(paintMode);
+    startGroup(g2D, "rooms", null);
+    paintRooms(g2D, paintedRooms, selectedItems, planScale, foregroundColor, paintMode);
+    endGroup(g2D);
+
+    checkCurrentThreadIsntInterrupted(paintMode);
+    startGroup(g2D, "walls", null);
+    paintWalls(g2D, selectedItems, paintedArea, planScale, backgroundColor, foregroundColor, paintMode);
+    endGroup(g2D);
+    
+    checkCurrentThreadIsntInterrupted(paintMode);
+    startGroup(g2D, "furniture", null);
+    paintFurniture(g2D, paintedFurniture, selectedItems, 
+        planScale, backgroundColor, foregroundColor, getFurnitureOutlineColor(), paintMode, true);
+    endGroup(g2D);
+    
+    checkCurrentThreadIsntInterrupted(paintMode);
+    startGroup(g2D, "dimensionLines", null);
+    paintDimensionLines(g2D, paintedDimensionLines, selectedItems, 
+        selectionOutlinePaint, dimensionLinesSelectionOutlineStroke, selectionColor, 
+        locationFeedbackStroke, planScale, backgroundColor, foregroundColor, paintMode, false);
+    endGroup(g2D);
+    
+    // Paint rooms text, furniture name and labels last to ensure they are not hidden
+    checkCurrentThreadIsntInterrupted(paintMode);
+    startGroup(g2D, "roomsNameAndArea", null);
+    paintRoomsNameAndArea(g2D, paintedRooms, selectedItems, planScale, foregroundColor, paintMode);
+    endGroup(g2D);
+
+    checkCurrentThreadIsntInterrupted(paintMode);
+    startGroup(g2D, "furnitureName", null);
+    paintFurnitureName(g2D, paintedFurniture, selectedItems, planScale, foregroundColor, paintMode);
+    endGroup(g2D);
+
+    checkCurrentThreadIsntInterrupted(paintMode);
+    startGroup(g2D, "labels", null);
+    paintLabels(g2D, paintedLabels, selectedItems, selectionOutlinePaint, dimensionLinesSelectionOutlineStroke, 
+        selectionColor, planScale, foregroundColor, paintMode);
+    endGroup(g2D);
+    endGroup(g2D);
+    
+    if (paintMode == PaintMode.PAINT
+        && this.selectedItemsOutlinePainted) {
+      paintCompassOutline(g2D, selectedItems, selectionOutlinePaint, selectionOutlineStroke, selectionColor, 
+          planScale, foregroundColor);
+      paintRoomsOutline(g2D, selectedItems, selectionOutlinePaint, selectionOutlineStroke, selectionColor, 
+          planScale, foregroundColor);
+      paintWallsOutline(g2D, selectedItems, selectionOutlinePaint, selectionOutlineStroke, selectionColor, 
+          planScale, foregroundColor);
+      paintFurnitureOutline(g2D, selectedItems, selectionOutlinePaint, selectionOutlineStroke, selectionColor, 
+          planScale, foregroundColor);
+    }
+  }
+
+  /**
+   * Paints selected dimension lines and labels and the outline of selected items 
+   * above the tiles where other items were painted without selection.
+   */
+  private void paintSelectedItems(Graphics2D g2D, float planScale, 
+                                  Color backgroundColor, Color foregroundColor) {
+    List<Selectable> selectedItems = this.home.getSelectedItems();
+    if (!selectedItems.isEmpty()) {
       Color selectionColor = getSelectionColor(); 
-      Color furnitureOutlineColor = getFurnitureOutlineColor();
       Paint selectionOutlinePaint = new Color(selectionColor.getRed(), selectionColor.getGreen(), 
           selectionColor.getBlue(), 128);
       Stroke selectionOutlineStroke = new BasicStroke(6 / planScale, 
@@ -2387,73 +4149,32 @@ public class PlanComponent extends JComponent implements PlanView, Scrollable, P
           1 / planScale, BasicStroke.CAP_SQUARE, BasicStroke.JOIN_BEVEL, 0, 
           new float [] {20 / planScale, 5 / planScale, 5 / planScale, 5 / planScale}, 4 / planScale);
       
-      paintCamera(g2D, selectedItems, selectionOutlinePaint, selectionOutlineStroke, selectionColor, 
-          planScale, backgroundColor, foregroundColor);
-      
-      // Paint alignment feedback depending on aligned object class
-      if (this.alignedObjectClass != null) {
-        if (Wall.class.isAssignableFrom(this.alignedObjectClass)) {
-          paintWallAlignmentFeedback(g2D, (Wall)this.alignedObjectFeedback, this.locationFeeback, this.showPointFeedback, 
-              selectionColor, locationFeedbackStroke, planScale,
-              selectionOutlinePaint, selectionOutlineStroke);
-        } else if (Room.class.isAssignableFrom(this.alignedObjectClass)) {
-          paintRoomAlignmentFeedback(g2D, (Room)this.alignedObjectFeedback, this.locationFeeback, this.showPointFeedback,
-              selectionColor, locationFeedbackStroke, planScale,
-              selectionOutlinePaint, selectionOutlineStroke);
-        } else if (DimensionLine.class.isAssignableFrom(this.alignedObjectClass)) {
-          paintDimensionLineAlignmentFeedback(g2D, (DimensionLine)this.alignedObjectFeedback, this.locationFeeback, this.showPointFeedback,               
-              selectionColor, locationFeedbackStroke, planScale,
-              selectionOutlinePaint, selectionOutlineStroke);
-        }
-      }
-      if (this.centerAngleFeedback != null) {
-       paintAngleFeedback(g2D, this.centerAngleFeedback, this.point1AngleFeedback, this.point2AngleFeedback, 
-           planScale, selectionColor); 
-      }
-      if (this.dimensionLinesFeedback != null) {
-        List<Selectable> emptySelection = Collections.emptyList();        
-        paintDimensionLines(g2D, this.dimensionLinesFeedback, emptySelection, 
-            null, null, null, locationFeedbackStroke, planScale, 
-            backgroundColor, selectionColor, paintMode, true);
-      }
-      
-      if (this.draggedItemsFeedback != null) {
-        paintDimensionLines(g2D, Home.getDimensionLinesSubList(this.draggedItemsFeedback), this.draggedItemsFeedback, 
-            selectionOutlinePaint, dimensionLinesSelectionOutlineStroke, null, 
-            locationFeedbackStroke, planScale, backgroundColor, foregroundColor, paintMode, false);
-        paintLabels(g2D, Home.getLabelsSubList(this.draggedItemsFeedback), this.draggedItemsFeedback, 
-            selectionOutlinePaint, dimensionLinesSelectionOutlineStroke, null,
-            planScale, foregroundColor, paintMode);
-        paintRoomsOutline(g2D, this.draggedItemsFeedback, selectionOutlinePaint, selectionOutlineStroke, null, 
+      paintDimensionLines(g2D, Home.getDimensionLinesSubList(selectedItems), selectedItems, 
+          selectionOutlinePaint, dimensionLinesSelectionOutlineStroke, selectionColor, 
+          locationFeedbackStroke, planScale, backgroundColor, foregroundColor, PaintMode.PAINT, false);
+      paintLabels(g2D, Home.getLabelsSubList(selectedItems), selectedItems, 
+          selectionOutlinePaint, dimensionLinesSelectionOutlineStroke, 
+          selectionColor, planScale, foregroundColor, PaintMode.PAINT);
+      if (this.selectedItemsOutlinePainted) {
+        paintCompassOutline(g2D, selectedItems, selectionOutlinePaint, selectionOutlineStroke, selectionColor, 
             planScale, foregroundColor);
-        paintWallsOutline(g2D, this.draggedItemsFeedback, selectionOutlinePaint, selectionOutlineStroke, null, 
+        paintRoomsOutline(g2D, selectedItems, selectionOutlinePaint, selectionOutlineStroke, selectionColor, 
             planScale, foregroundColor);
-        paintFurniture(g2D, Home.getFurnitureSubList(this.draggedItemsFeedback), selectedItems, planScale, null, 
-            foregroundColor, furnitureOutlineColor, paintMode, false);
-        paintFurnitureOutline(g2D, this.draggedItemsFeedback, selectionOutlinePaint, selectionOutlineStroke, null, 
+        paintWallsOutline(g2D, selectedItems, selectionOutlinePaint, selectionOutlineStroke, selectionColor, 
+            planScale, foregroundColor);
+        paintFurnitureOutline(g2D, selectedItems, selectionOutlinePaint, selectionOutlineStroke, selectionColor, 
             planScale, foregroundColor);
       }
-      
-      paintRectangleFeedback(g2D, selectionColor, planScale);
     }
   }
-  
+
   /**
-   * Paints home items at the given scale, and with background and foreground colors.
-   * Outline around selected items will be painted only under <code>PAINT</code> mode. 
+   * Returns the furniture viewed at the selected level sorted in elevation order.
    */
-  protected void paintHomeItems(Graphics g, float planScale, 
-                                Color backgroundColor, Color foregroundColor, PaintMode paintMode) throws InterruptedIOException {
-    Graphics2D g2D = (Graphics2D)g;
-    List<Selectable> selectedItems = this.home.getSelectedItems();
+  private List<HomePieceOfFurniture> getSortedLevelFurniture() {
     if (this.sortedLevelFurniture == null) {
       // Sort home furniture in elevation order
-      this.sortedLevelFurniture = new ArrayList<HomePieceOfFurniture>();
-      for (HomePieceOfFurniture piece : this.home.getFurniture()) {
-        if (isViewableAtSelectedLevel(piece)) {
-          this.sortedLevelFurniture.add(piece);
-        }
-      }
+      this.sortedLevelFurniture = new ArrayList<HomePieceOfFurniture>(getViewableFurniture());
       Collections.sort(this.sortedLevelFurniture,
           new Comparator<HomePieceOfFurniture>() {
             public int compare(HomePieceOfFurniture piece1, HomePieceOfFurniture piece2) {
@@ -2468,57 +4189,94 @@ public class PlanComponent extends JComponent implements PlanView, Scrollable, P
             }
           });
     }    
-    
-    Color selectionColor = getSelectionColor(); 
-    Paint selectionOutlinePaint = new Color(selectionColor.getRed(), selectionColor.getGreen(), 
-        selectionColor.getBlue(), 128);
-    Stroke selectionOutlineStroke = new BasicStroke(6 / planScale, 
-        BasicStroke.CAP_ROUND, BasicStroke.JOIN_ROUND); 
-    Stroke dimensionLinesSelectionOutlineStroke = new BasicStroke(4 / planScale, 
-        BasicStroke.CAP_ROUND, BasicStroke.JOIN_ROUND); 
-    Stroke locationFeedbackStroke = new BasicStroke(
-        1 / planScale, BasicStroke.CAP_SQUARE, BasicStroke.JOIN_BEVEL, 0, 
-        new float [] {20 / planScale, 5 / planScale, 5 / planScale, 5 / planScale}, 4 / planScale);
+    return this.sortedLevelFurniture;
+  }
 
-    paintCompass(g2D, selectedItems, planScale, foregroundColor, paintMode);
+  /**
+   * Returns the rooms viewed at the selected level sorted in floor / floor-ceiling / ceiling order.
+   */
+  private List<Room> getSortedLevelRooms() {
+    if (this.sortedLevelRooms == null) {
+      // Sort home rooms in floor / floor-ceiling / ceiling order
+      this.sortedLevelRooms = new ArrayList<Room>(getViewableRooms());
+      Collections.sort(this.sortedLevelRooms,
+          new Comparator<Room>() {
+            public int compare(Room room1, Room room2) {
+              if (room1.isFloorVisible() == room2.isFloorVisible()
+                  && room1.isCeilingVisible() == room2.isCeilingVisible()) {
+                return 0; // Keep default order if the rooms have the same visibility
+              } else if (!room2.isFloorVisible()
+                         || room2.isCeilingVisible()) {
+                return 1;
+              } else {
+                return -1;
+              }
+            }
+          });
+    }
+    return this.sortedLevelRooms;
+  }
 
-    checkCurrentThreadIsntInterrupted(paintMode);
-    paintRooms(g2D, selectedItems, planScale, foregroundColor, paintMode);
+  /**
+   * Returns the area of the plan where items should be painted with <code>g2D</code> 
+   * or <code>null</code> if all the items should be painted. 
+   * In <code>PAINT</code> mode, this area matches the clip of <code>g2D</code> enlarged 
+   * with stroke and antialiasing margins. 
+   */
+  private Rectangle2D getPaintedArea(Graphics2D g2D, float planScale, PaintMode paintMode) {
+    Shape clip = g2D.getClip();
+    if (paintMode == PaintMode.PAINT
+        && clip != null) {
+      Rectangle2D clipBounds = clip.getBounds2D();
+      float margin = (Math.max(WALL_STROKE_WIDTH, BORDER_STROKE_WIDTH) + 2) / planScale;
+      clipBounds.setRect(clipBounds.getX() - margin, clipBounds.getY() - margin, 
+          clipBounds.getWidth() + 2 * margin, clipBounds.getHeight() + 2 * margin);
+      return clipBounds;
+    } else {
+      return null;
+    }
+  }
 
-    checkCurrentThreadIsntInterrupted(paintMode);
-    paintWalls(g2D, selectedItems, planScale, backgroundColor, foregroundColor, paintMode);
-    
-    checkCurrentThreadIsntInterrupted(paintMode);
-    paintFurniture(g2D, this.sortedLevelFurniture, selectedItems, 
-        planScale, backgroundColor, foregroundColor, getFurnitureOutlineColor(), paintMode, true);
-    
-    checkCurrentThreadIsntInterrupted(paintMode);
-    paintDimensionLines(g2D, this.home.getDimensionLines(), selectedItems, 
-        selectionOutlinePaint, dimensionLinesSelectionOutlineStroke, selectionColor, 
-        locationFeedbackStroke, planScale, backgroundColor, foregroundColor, paintMode, false);
-    
-    // Paint rooms text, furniture name and labels last to ensure they are not hidden
-    checkCurrentThreadIsntInterrupted(paintMode);
-    paintRoomsNameAndArea(g2D, selectedItems, planScale, foregroundColor, paintMode);
+  /**
+   * Returns a spatial index of the given <code>items</code> 
+   * which keeps their order.
+   */
+  private <T extends Selectable> SpatialIndex<T> createItemsIndex(Collection<T> items) {
+    SpatialIndex<T> index = new SpatialIndex<T>(INDEX_CELL_SIZE);
+    for (T item : items) {
+      index.add(item, getIndexedItemBounds(item));
+    }
+    return index;
+  }
 
-    checkCurrentThreadIsntInterrupted(paintMode);
-    paintFurnitureName(g2D, this.sortedLevelFurniture, selectedItems, planScale, foregroundColor, paintMode);
+  /**
+   * Returns the union of the indexed bounds of the items of collection <code>events</code>.
+   */
+  private Rectangle2D getIndexedItemsBounds(List<? extends CollectionEvent<? extends Selectable>> events) {
+    Rectangle2D itemsBounds = null;
+    for (CollectionEvent<? extends Selectable> ev : events) {
+      Rectangle2D itemBounds = getIndexedItemBounds(ev.getItem());
+      if (itemsBounds == null) {
+        itemsBounds = itemBounds;
+      } else {
+        itemsBounds.add(itemBounds);
+      }
+    }
+    return itemsBounds;
+  }
 
-    checkCurrentThreadIsntInterrupted(paintMode);
-    paintLabels(g2D, this.home.getLabels(), selectedItems, selectionOutlinePaint, dimensionLinesSelectionOutlineStroke, 
-        selectionColor, planScale, foregroundColor, paintMode);
-    
-    if (paintMode == PaintMode.PAINT
-        && this.selectedItemsOutlinePainted) {
-      paintCompassOutline(g2D, selectedItems, selectionOutlinePaint, selectionOutlineStroke, selectionColor, 
-          planScale, foregroundColor);
-      paintRoomsOutline(g2D, selectedItems, selectionOutlinePaint, selectionOutlineStroke, selectionColor, 
-          planScale, foregroundColor);
-      paintWallsOutline(g2D, selectedItems, selectionOutlinePaint, selectionOutlineStroke, selectionColor, 
-          planScale, foregroundColor);
-      paintFurnitureOutline(g2D, selectedItems, selectionOutlinePaint, selectionOutlineStroke, selectionColor, 
-          planScale, foregroundColor);
+  /**
+   * Returns the bounds of <code>item</code> stored in a spatial index, 
+   * including its texts and the extension lines of dimension lines. 
+   */
+  private Rectangle2D getIndexedItemBounds(Selectable item) {
+    Rectangle2D itemBounds = getItemBounds(null, item);
+    if (item instanceof DimensionLine) {
+      // Extension lines may go 5 cm beyond dimension line points
+      itemBounds.setRect(itemBounds.getX() - 5, itemBounds.getY() - 5, 
+          itemBounds.getWidth() + 10, itemBounds.getHeight() + 10);
     }
+    return itemBounds;
   }
 
   /**
@@ -2555,38 +4313,15 @@ public class PlanComponent extends JComponent implements PlanView, Scrollable, P
   /**
    * Paints rooms. 
    */
-  private void paintRooms(Graphics2D g2D, List<Selectable> selectedItems, float planScale, 
+  private void paintRooms(Graphics2D g2D, List<Room> rooms, List<Selectable> selectedItems, float planScale, 
                           Color foregroundColor, PaintMode paintMode) {
-    if (this.sortedLevelRooms == null) {
-      // Sort home rooms in floor / floor-ceiling / ceiling order
-      this.sortedLevelRooms = new ArrayList<Room>();
-      for (Room room : this.home.getRooms()) {
-        if (isViewableAtSelectedLevel(room)) {
-          this.sortedLevelRooms.add(room);
-        }
-      }
-      Collections.sort(this.sortedLevelRooms,
-          new Comparator<Room>() {
-            public int compare(Room room1, Room room2) {
-              if (room1.isFloorVisible() == room2.isFloorVisible()
-                  && room1.isCeilingVisible() == room2.isCeilingVisible()) {
-                return 0; // Keep default order if the rooms have the same visibility
-              } else if (!room2.isFloorVisible()
-                         || room2.isCeilingVisible()) {
-                return 1;
-              } else {
-                return -1;
-              }
-            }
-          });
-    }
-    
     Color defaultFillPaint = paintMode == PaintMode.PRINT 
         ? Color.WHITE
         : Color.GRAY;
     // Draw rooms area
     g2D.setStroke(new BasicStroke(getStrokeWidth(Room.class, paintMode) / planScale));
-    for (Room room : this.sortedLevelRooms) { 
+    float [] roomPoints = null;
+    for (Room room : rooms) { 
       boolean selectedRoom = selectedItems.contains(room);
       // In clipboard paint mode, paint room only if it is selected
       if (paintMode != PaintMode.CLIPBOARD
@@ -2606,19 +4341,25 @@ public class PlanComponent extends JComponent implements PlanView, Scrollable, P
               BufferedImage textureImage = this.floorTextureImagesCache.get(floorTexture.getImage());
               if (textureImage == null
                   || textureImage == WAIT_TEXTURE_IMAGE) {
-                final boolean waitForTexture = paintMode != PaintMode.PAINT;
+                final boolean waitForTexture = !isImageLoadedAsynchronously(paintMode);
                 if (isTextureManagerAvailable()) {
                   // Prefer to share textures images with texture manager if it's available
+                  final boolean [] textureLoading = {true};
                   TextureManager.getInstance().loadTexture(floorTexture.getImage(), waitForTexture,
                       new TextureManager.TextureObserver() {
                         public void textureUpdated(Texture texture) {
                           floorTextureImagesCache.put(floorTexture.getImage(), 
                               ((ImageComponent2D)texture.getImage(0)).getImage());
                           if (!waitForTexture) {
+                            if (!textureLoading [0]) {
+                              // Tiles may have been painted with wait texture
+                              invalidateTiles();
+                            }
                             repaint();
                           }
                         }
                       });
+                  textureLoading [0] = false;
                 } else {
                   // Use icon manager if texture manager should be ignored
                   Icon textureIcon = IconManager.getInstance().getIcon(floorTexture.getImage(), 
@@ -2638,6 +4379,9 @@ public class PlanComponent extends JComponent implements PlanView, Scrollable, P
                 }
                 textureImage = this.floorTextureImagesCache.get(floorTexture.getImage());
               }
+              if (textureImage == WAIT_TEXTURE_IMAGE) {
+                this.paintedTileIncomplete = true;
+              }
               
               g2D.setPaint(new TexturePaint(textureImage, 
                   new Rectangle2D.Float(0, 0, floorTexture.getWidth(), floorTexture.getHeight())));
@@ -2645,12 +4389,14 @@ public class PlanComponent extends JComponent implements PlanView, Scrollable, P
           }          
         }
         
+        roomPoints = room.getPoints(roomPoints);
+        Shape roomShape = getShape(roomPoints, room.getPointCount());
         Composite oldComposite = setTransparency(g2D, 0.75f);
-        g2D.fill(getShape(room.getPoints()));
+        g2D.fill(roomShape);
         g2D.setComposite(oldComposite);
 
         g2D.setPaint(foregroundColor);
-        g2D.draw(getShape(room.getPoints()));
+        g2D.draw(roomShape);
       }
     }
   }
@@ -2672,11 +4418,11 @@ public class PlanComponent extends JComponent implements PlanView, Scrollable, P
   /**
    * Paints rooms name and area. 
    */
-  private void paintRoomsNameAndArea(Graphics2D g2D, List<Selectable> selectedItems, float planScale, 
-                                     Color foregroundColor, PaintMode paintMode) {
+  private void paintRoomsNameAndArea(Graphics2D g2D, List<Room> rooms, List<Selectable> selectedItems, 
+                                     float planScale, Color foregroundColor, PaintMode paintMode) {
     g2D.setPaint(foregroundColor);
     Font previousFont = g2D.getFont();
-    for (Room room : this.sortedLevelRooms) { 
+    for (Room room : rooms) { 
       boolean selectedRoom = selectedItems.contains(room);
       // In clipboard paint mode, paint room only if it is selected
       if (paintMode != PaintMode.CLIPBOARD
@@ -2697,7 +4443,7 @@ public class PlanComponent extends JComponent implements PlanView, Scrollable, P
           float area = room.getArea();
           if (area > 0.01f) {
             // Draw room area 
-            String areaText = this.preferences.getLengthUnit().getAreaFormatWithUnit().format(area);            
+            String areaText = getFormattedArea(area);            
             paintText(g2D, room.getClass(), areaText, room.getAreaStyle(), 
                 xRoomCenter + room.getAreaXOffset(),
                 yRoomCenter + room.getAreaYOffset(),
@@ -2722,7 +4468,7 @@ public class PlanComponent extends JComponent implements PlanView, Scrollable, P
       style = this.preferences.getDefaultTextStyle(selectableClass);
     }              
     FontMetrics fontMetrics = getFontMetrics(defaultFont, style);
-    Rectangle2D textBounds = fontMetrics.getStringBounds(text, g2D);
+    Rectangle2D textBounds = getStringBounds(text, fontMetrics, g2D);
     // Draw room name
     g2D.setFont(getFont(defaultFont, style));
     g2D.translate(x, y);
@@ -2741,18 +4487,21 @@ public class PlanComponent extends JComponent implements PlanView, Scrollable, P
     Collection<Room> rooms = Home.getRoomsSubList(items);
     AffineTransform previousTransform = g2D.getTransform();
     float scaleInverse = 1 / planScale;
+    float [] roomPoints = null;
     // Draw selection border
     for (Room room : rooms) {
       if (isViewableAtSelectedLevel(room)) {
+        roomPoints = room.getPoints(roomPoints);
+        int roomPointCount = room.getPointCount();
         g2D.setPaint(selectionOutlinePaint);
         g2D.setStroke(selectionOutlineStroke);
-        g2D.draw(getShape(room.getPoints()));
+        g2D.draw(getShape(roomPoints, roomPointCount));
   
         if (indicatorPaint != null) {
           g2D.setPaint(indicatorPaint);         
           // Draw points of the room
-          for (float [] point : room.getPoints()) {
-            g2D.translate(point [0], point [1]);
+          for (int i = 0; i < 2 * roomPointCount; i += 2) {
+            g2D.translate(roomPoints [i], roomPoints [i + 1]);
             g2D.scale(scaleInverse, scaleInverse);
             g2D.setStroke(POINT_STROKE);
             g2D.fill(WALL_POINT);
@@ -2767,7 +4516,8 @@ public class PlanComponent extends JComponent implements PlanView, Scrollable, P
     g2D.setStroke(new BasicStroke(getStrokeWidth(Room.class, PaintMode.PAINT) / planScale));
     for (Room room : rooms) { 
       if (isViewableAtSelectedLevel(room)) {
-        g2D.draw(getShape(room.getPoints()));
+        roomPoints = room.getPoints(roomPoints);
+        g2D.draw(getShape(roomPoints, room.getPointCount()));
       }
     }
 
@@ -2899,8 +4649,8 @@ public class PlanComponent extends JComponent implements PlanView, Scrollable, P
   /**
    * Paints walls. 
    */
-  private void paintWalls(Graphics2D g2D, List<Selectable> selectedItems, float planScale, 
-                          Color backgroundColor, Color foregroundColor, PaintMode paintMode) {
+  private void paintWalls(Graphics2D g2D, List<Selectable> selectedItems, Rectangle2D paintedArea, 
+                          float planScale, Color backgroundColor, Color foregroundColor, PaintMode paintMode) {
     Collection<Wall> paintedWalls;
     Map<Collection<Wall>, Area> wallAreas;
     if (paintMode != PaintMode.CLIPBOARD) {
@@ -2914,6 +4664,11 @@ public class PlanComponent extends JComponent implements PlanView, Scrollable, P
         ? planScale / 72 * 150 // Adjust scale to 150 dpi for print
         : planScale;
     for (Map.Entry<Collection<Wall>, Area> areaEntry : wallAreas.entrySet()) {
+      if (paintedArea != null
+          && !areaEntry.getValue().getBounds2D().intersects(paintedArea)) {
+        // Ignore walls out of painted area
+        continue;
+      }
       TextureImage wallPattern = areaEntry.getKey().iterator().next().getPattern();
       fillAndDrawWallsArea(g2D, areaEntry.getValue(), planScale, 
           getWallPaint(wallPaintScale, backgroundColor, foregroundColor, 
@@ -2945,12 +4700,14 @@ public class PlanComponent extends JComponent implements PlanView, Scrollable, P
     float scaleInverse = 1 / planScale;
     Collection<Wall> walls = Home.getWallsSubList(items);
     AffineTransform previousTransform = g2D.getTransform();
+    float [] wallPoints = null;
     for (Wall wall : walls) {
       if (isViewableAtSelectedLevel(wall)) {
         // Draw selection border
         g2D.setPaint(selectionOutlinePaint);
         g2D.setStroke(selectionOutlineStroke);
-        g2D.draw(getShape(wall.getPoints()));
+        wallPoints = wall.getPoints(wallPoints);
+        g2D.draw(getShape(wallPoints, wall.getPointCount()));
         
         if (indicatorPaint != null) {
           // Draw start point of the wall
@@ -3040,6 +4797,61 @@ public class PlanComponent extends JComponent implements PlanView, Scrollable, P
     }
   }
 
+  /**
+   * Returns the furniture that can be viewed in the plan at the selected level. 
+   */
+  private List<HomePieceOfFurniture> getViewableFurniture() {
+    return getViewableItems(this.home.getFurnitureAtLevel(this.home.getSelectedLevel()), 
+        this.home.getFurnitureAtLevel(null));
+  }
+
+  /**
+   * Returns the walls that can be viewed in the plan at the selected level. 
+   */
+  private List<Wall> getViewableWalls() {
+    return getViewableItems(this.home.getWallsAtLevel(this.home.getSelectedLevel()), 
+        this.home.getWallsAtLevel(null));
+  }
+
+  /**
+   * Returns the rooms that can be viewed in the plan at the selected level. 
+   */
+  private List<Room> getViewableRooms() {
+    return getViewableItems(this.home.getRoomsAtLevel(this.home.getSelectedLevel()), 
+        this.home.getRoomsAtLevel(null));
+  }
+
+  /**
+   * Returns the dimension lines that can be viewed in the plan at the selected level. 
+   */
+  private List<DimensionLine> getViewableDimensionLines() {
+    return getViewableItems(this.home.getDimensionLinesAtLevel(this.home.getSelectedLevel()), 
+        this.home.getDimensionLinesAtLevel(null));
+  }
+
+  /**
+   * Returns the labels that can be viewed in the plan at the selected level. 
+   */
+  private List<Label> getViewableLabels() {
+    return getViewableItems(this.home.getLabelsAtLevel(this.home.getSelectedLevel()), 
+        this.home.getLabelsAtLevel(null));
+  }
+
+  /**
+   * Returns <code>selectedLevelItems</code> completed by <code>noLevelItems</code>,
+   * since items without level are viewable at any level.
+   */
+  private <T> List<T> getViewableItems(List<T> selectedLevelItems, List<T> noLevelItems) {
+    if (this.home.getSelectedLevel() == null
+        || noLevelItems.isEmpty()) {
+      return selectedLevelItems;
+    } else {
+      List<T> viewableItems = new ArrayList<T>(selectedLevelItems);
+      viewableItems.addAll(noLevelItems);
+      return viewableItems;
+    }
+  }
+
   /**
    * Returns <code>true</code> if the given item can be viewed in the plan at the selected level. 
    */
@@ -3100,7 +4912,7 @@ public class PlanComponent extends JComponent implements PlanView, Scrollable, P
    */
   private Map<Collection<Wall>, Area> getWallAreas() {
     if (this.wallAreasCache == null) {
-      this.wallAreasCache = getWallAreas(getDrawableWallsInSelectedLevel(this.home.getWalls()));
+      this.wallAreasCache = getWallAreas(getViewableWalls());
     }
     return this.wallAreasCache;
   }
@@ -3136,7 +4948,7 @@ public class PlanComponent extends JComponent implements PlanView, Scrollable, P
     }
     Map<Collection<Wall>, Area> wallAreas = new LinkedHashMap<Collection<Wall>, Area>();
     if (samePattern) {
-      wallAreas.put(walls, getItemsArea(walls));
+      wallAreas.put(walls, getWallsArea(walls));
     } else {
       // Create walls sublists by pattern
       Map<TextureImage, Collection<Wall>> sortedWalls = new LinkedHashMap<TextureImage, Collection<Wall>>();
@@ -3153,12 +4965,24 @@ public class PlanComponent extends JComponent implements PlanView, Scrollable, P
         patternWalls.add(wall);
       }
       for (Collection<Wall> patternWalls : sortedWalls.values()) {
-        wallAreas.put(patternWalls, getItemsArea(patternWalls));
+        wallAreas.put(patternWalls, getWallsArea(patternWalls));
       }
     }
     return wallAreas;
   }
   
+  /**
+   * Returns an area matching the union of all <code>walls</code> shapes, 
+   * computed incrementally by the walls area cache of this component. 
+   * The returned area must not be modified. 
+   */
+  private Area getWallsArea(Collection<Wall> walls) {
+    if (this.wallAreaCache == null) {
+      this.wallAreaCache = new WallAreaCache();
+    }
+    return this.wallAreaCache.getArea(walls);
+  }
+
   /**
    * Returns an area matching the union of all <code>items</code> shapes. 
    */
@@ -3174,17 +4998,20 @@ public class PlanComponent extends JComponent implements PlanView, Scrollable, P
    * Returns the <code>Paint</code> object used to fill walls.
    */
   private Paint getWallPaint(float planScale, Color backgroundColor, Color foregroundColor, TextureImage wallPattern) {
-    BufferedImage patternImage = this.patternImagesCache.get(wallPattern);
-    if (patternImage == null
-        || !backgroundColor.equals(this.wallsPatternBackgroundCache)
-        || !foregroundColor.equals(this.wallsPatternForegroundCache)) {
-      patternImage = SwingTools.getPatternImage(wallPattern, backgroundColor, foregroundColor);
-      this.patternImagesCache.put(wallPattern, patternImage);
-      this.wallsPatternBackgroundCache = backgroundColor;
-      this.wallsPatternForegroundCache = foregroundColor;
-    }
-    return new TexturePaint(patternImage, 
-        new Rectangle2D.Float(0, 0, 10 / planScale, 10 / planScale));
+    List<Object> paintKey = Arrays.asList(new Object [] {wallPattern, backgroundColor, foregroundColor, planScale});
+    TexturePaint wallPaint = this.wallPaintsCache.get(paintKey);
+    if (wallPaint == null) {
+      List<Object> patternKey = paintKey.subList(0, 3);
+      BufferedImage patternImage = this.patternImagesCache.get(patternKey);
+      if (patternImage == null) {
+        patternImage = SwingTools.getPatternImage(wallPattern, backgroundColor, foregroundColor);
+        this.patternImagesCache.put(patternKey, patternImage);
+      }
+      wallPaint = new TexturePaint(patternImage, 
+          new Rectangle2D.Float(0, 0, 10 / planScale, 10 / planScale));
+      this.wallPaintsCache.put(paintKey, wallPaint);
+    }
+    return wallPaint;
   }
   
   /**
@@ -3198,9 +5025,11 @@ public class PlanComponent extends JComponent implements PlanView, Scrollable, P
     if (!furniture.isEmpty()) {
       BasicStroke pieceBorderStroke = new BasicStroke(getStrokeWidth(HomePieceOfFurniture.class, paintMode) / planScale);
       Boolean allFurnitureViewedFromTop = null;
+      float [] piecePoints = null;
       // Draw furniture
       for (HomePieceOfFurniture piece : furniture) {
         if (piece.isVisible()) {
+          startGroup(g2D, piece instanceof HomeFurnitureGroup ? "furnitureGroup" : "piece", piece.getName());
           boolean selectedPiece = selectedItems.contains(piece);
           if (piece instanceof HomeFurnitureGroup) {
             List<HomePieceOfFurniture> groupFurniture = ((HomeFurnitureGroup)piece).getFurniture();
@@ -3214,7 +5043,8 @@ public class PlanComponent extends JComponent implements PlanView, Scrollable, P
           } else if (paintMode != PaintMode.CLIPBOARD
                     || selectedPiece) {
             // In clipboard paint mode, paint piece only if it is selected
-            Shape pieceShape = getShape(piece.getPoints());
+            piecePoints = piece.getPoints(piecePoints);
+            Shape pieceShape = getShape(piecePoints, piece.getPointCount());
             Shape pieceShape2D;
             if (piece instanceof HomeDoorOrWindow) {
               HomeDoorOrWindow doorOrWindow = (HomeDoorOrWindow)piece;
@@ -3283,6 +5113,7 @@ public class PlanComponent extends JComponent implements PlanView, Scrollable, P
               } 
             }
           }
+          endGroup(g2D);
         }
       }
     }
@@ -3433,7 +5264,10 @@ public class PlanComponent extends JComponent implements PlanView, Scrollable, P
                                          Color backgroundColor, PaintMode paintMode) {
     // Get piece icon
     Icon icon = IconManager.getInstance().getIcon(piece.getIcon(), 128, 
-        paintMode == PaintMode.PAINT ? this : null);
+        isImageLoadedAsynchronously(paintMode) ? this : null);
+    if (IconManager.getInstance().isWaitIcon(icon)) {
+      this.paintedTileIncomplete = true;
+    }
     paintPieceOfFurnitureIcon(g2D, piece, icon, pieceShape2D, planScale, backgroundColor);
   }
 
@@ -3482,23 +5316,38 @@ public class PlanComponent extends JComponent implements PlanView, Scrollable, P
                                         Color backgroundColor, Color foregroundColor, 
                                         PaintMode paintMode) {
     if (this.furnitureTopViewIconsCache == null) {
-      this.furnitureTopViewIconsCache = new WeakHashMap<HomePieceOfFurniture, PieceOfFurnitureTopViewIcon>();
-    }
-    PieceOfFurnitureTopViewIcon icon = this.furnitureTopViewIconsCache.get(piece);
+      // Synchronized map shared with the renderer of tiles in asynchronous mode
+      this.furnitureTopViewIconsCache = Collections.synchronizedMap(
+          new WeakHashMap<HomePieceOfFurniture, PieceOfFurnitureTopViewIcon>());
+    }
+    // Search icon of the original piece if this component renders a snapshot 
+    HomePieceOfFurniture iconPiece = this.snapshotOriginalFurniture != null
+        && this.snapshotOriginalFurniture.containsKey(piece)
+          ? this.snapshotOriginalFurniture.get(piece)
+          : piece;
+    PieceOfFurnitureTopViewIcon icon = this.furnitureTopViewIconsCache.get(iconPiece);
     if (icon == null
         || icon.isWaitIcon()
-           && paintMode != PaintMode.PAINT) {
-      PlanComponent waitingComponent = paintMode == PaintMode.PAINT ? this : null;
+           && !isImageLoadedAsynchronously(paintMode)) {
+      PlanComponent waitingComponent = isImageLoadedAsynchronously(paintMode) ? this : null;
       // Prefer use plan icon if it exists
       if (piece.getPlanIcon() != null) {
         icon = new PieceOfFurniturePlanIcon(piece, waitingComponent);
       } else {
-        icon = new PieceOfFurnitureModelIcon(piece, waitingComponent);
+        Rectangle2D pieceBounds = pieceShape2D.getBounds2D();
+        boolean visiblePiece = waitingComponent != null
+            && getVisibleRect().intersects(convertXModelToPixel((float)pieceBounds.getMinX()), 
+                  convertYModelToPixel((float)pieceBounds.getMinY()), 
+                  pieceBounds.getWidth() * getScale(), pieceBounds.getHeight() * getScale());
+        icon = new PieceOfFurnitureModelIcon(piece, waitingComponent, visiblePiece);
       }
-      this.furnitureTopViewIconsCache.put(piece, icon);
+      this.furnitureTopViewIconsCache.put(iconPiece, icon);
     }
     
     if (icon.isWaitIcon() || icon.isErrorIcon()) {
+      if (icon.isWaitIcon()) {
+        this.paintedTileIncomplete = true;
+      }
       paintPieceOfFurnitureIcon(g2D, piece, icon, pieceShape2D, planScale, backgroundColor);
       g2D.setPaint(foregroundColor);
       g2D.setStroke(pieceBorderStroke);
@@ -3661,7 +5510,7 @@ public class PlanComponent extends JComponent implements PlanView, Scrollable, P
         float displayedValue = feedback
             ? this.preferences.getLengthUnit().getMagnetizedLength(dimensionLineLength, getPixelLength())
             : dimensionLineLength;
-        String lengthText = this.preferences.getLengthUnit().getFormat().format(displayedValue);
+        String lengthText = getFormattedLength(displayedValue);
         TextStyle lengthStyle = dimensionLine.getLengthStyle();
         if (lengthStyle == null) {
           lengthStyle = this.preferences.getDefaultTextStyle(dimensionLine.getClass());
@@ -3672,7 +5521,7 @@ public class PlanComponent extends JComponent implements PlanView, Scrollable, P
         }
         Font font = getFont(previousFont, lengthStyle);
         FontMetrics lengthFontMetrics = getFontMetrics(font, lengthStyle);
-        Rectangle2D lengthTextBounds = lengthFontMetrics.getStringBounds(lengthText, g2D);
+        Rectangle2D lengthTextBounds = getStringBounds(lengthText, lengthFontMetrics, g2D);
         int fontAscent = lengthFontMetrics.getAscent();
         g2D.translate((dimensionLineLength - (float)lengthTextBounds.getWidth()) / 2, 
             dimensionLine.getOffset() <= 0 
@@ -3683,9 +5532,8 @@ public class PlanComponent extends JComponent implements PlanView, Scrollable, P
           g2D.setPaint(backgroundColor);
           Composite oldComposite = setTransparency(g2D, 0.7f);
           g2D.setStroke(new BasicStroke(3 / planScale));
-          FontRenderContext fontRenderContext = g2D.getFontRenderContext();
-          TextLayout textLayout = new TextLayout(lengthText, font, fontRenderContext);
-          g2D.draw(textLayout.getOutline(new AffineTransform()));
+          TextLayout textLayout = getTextLayout(lengthText, font, g2D);
+          g2D.draw(textLayout.getOutline(null));
           g2D.setComposite(oldComposite);
           g2D.setPaint(foregroundColor);
         }
@@ -3892,7 +5740,7 @@ public class PlanComponent extends JComponent implements PlanView, Scrollable, P
       float y = (float)locationFeedback.getY();
       float deltaXToClosestWall = Float.POSITIVE_INFINITY;
       float deltaYToClosestWall = Float.POSITIVE_INFINITY;
-      for (Wall wall : getViewedItems(this.home.getWalls(), this.otherLevelWallsCache)) {
+      for (Wall wall : getViewedItems(getViewableWalls(), this.otherLevelWallsCache)) {
         if (wall != alignedWall) {
           if (Math.abs(x - wall.getXStart()) < margin
               && (alignedWall == null
@@ -3976,19 +5824,17 @@ public class PlanComponent extends JComponent implements PlanView, Scrollable, P
   }
 
   /**
-   * Returns the items viewed in the plan at the selected level.
+   * Returns the items viewed in the plan at the selected level, 
+   * completed with <code>otherLevelItems</code> if not <code>null</code>.
    */
-  private <T extends Elevatable> Collection<T> getViewedItems(Collection<T> homeItems, List<T> otherLevelItems) {
-    List<T> viewedWalls = new ArrayList<T>();
-    if (otherLevelItems != null) {
-      viewedWalls.addAll(otherLevelItems);
-    }
-    for (T wall : homeItems) {
-      if (isViewableAtSelectedLevel(wall)) {
-        viewedWalls.add(wall);
-      }
+  private <T> Collection<T> getViewedItems(List<T> viewableItems, List<T> otherLevelItems) {
+    if (otherLevelItems == null) {
+      return viewableItems;
+    } else {
+      List<T> viewedItems = new ArrayList<T>(otherLevelItems);
+      viewedItems.addAll(viewableItems);
+      return viewedItems;
     }
-    return viewedWalls;
   }
 
   /**
@@ -4039,7 +5885,7 @@ public class PlanComponent extends JComponent implements PlanView, Scrollable, P
       float y = (float)locationFeedback.getY();
       float deltaXToClosestObject = Float.POSITIVE_INFINITY;
       float deltaYToClosestObject = Float.POSITIVE_INFINITY;
-      for (Room room : getViewedItems(this.home.getRooms(), this.otherLevelRoomsCache)) {
+      for (Room room : getViewedItems(getViewableRooms(), this.otherLevelRoomsCache)) {
         float [][] roomPoints = room.getPoints();
         int editedPointIndex = -1;
         if (room == alignedRoom) {
@@ -4065,7 +5911,7 @@ public class PlanComponent extends JComponent implements PlanView, Scrollable, P
         }
       }
       // Search which wall points are at locationFeedback abscissa or ordinate
-      for (Wall wall : getViewedItems(this.home.getWalls(), this.otherLevelWallsCache)) {
+      for (Wall wall : getViewedItems(getViewableWalls(), this.otherLevelWallsCache)) {
         float [][] wallPoints = wall.getPoints();
         // Take into account only points at start and end of the wall
         wallPoints = new float [][] {wallPoints [0], wallPoints [wallPoints.length / 2 - 1], 
@@ -4128,7 +5974,7 @@ public class PlanComponent extends JComponent implements PlanView, Scrollable, P
       float y = (float)locationFeedback.getY();
       float deltaXToClosestObject = Float.POSITIVE_INFINITY;
       float deltaYToClosestObject = Float.POSITIVE_INFINITY;
-      for (Room room : getViewedItems(this.home.getRooms(), this.otherLevelRoomsCache)) {
+      for (Room room : getViewedItems(getViewableRooms(), this.otherLevelRoomsCache)) {
         float [][] roomPoints = room.getPoints();
         for (int i = 0; i < roomPoints.length; i++) {
           if (Math.abs(x - roomPoints [i][0]) < margin
@@ -4143,9 +5989,8 @@ public class PlanComponent extends JComponent implements PlanView, Scrollable, P
       }
       // Search which dimension line start or end point is at locationFeedback abscissa or ordinate
       // ignoring the start and end point of alignedDimensionLine
-      for (DimensionLine dimensionLine : this.home.getDimensionLines()) {
-        if (isViewableAtSelectedLevel(dimensionLine) 
-            && dimensionLine != alignedDimensionLine) {
+      for (DimensionLine dimensionLine : getViewableDimensionLines()) {
+        if (dimensionLine != alignedDimensionLine) {
           if (Math.abs(x - dimensionLine.getXStart()) < margin
               && (alignedDimensionLine == null
                   || !equalsDimensionLinePoint(dimensionLine.getXStart(), dimensionLine.getYStart(), 
@@ -4179,7 +6024,7 @@ public class PlanComponent extends JComponent implements PlanView, Scrollable, P
         }
       }
       // Search which wall points are at locationFeedback abscissa or ordinate
-      for (Wall wall : getViewedItems(this.home.getWalls(), this.otherLevelWallsCache)) {
+      for (Wall wall : getViewedItems(getViewableWalls(), this.otherLevelWallsCache)) {
         float [][] wallPoints = wall.getPoints();
         // Take into account only points at start and end of the wall
         wallPoints = new float [][] {wallPoints [0], wallPoints [wallPoints.length / 2 - 1], 
@@ -4196,9 +6041,8 @@ public class PlanComponent extends JComponent implements PlanView, Scrollable, P
         }
       }
       // Search which piece of furniture points are at locationFeedback abscissa or ordinate
-      for (HomePieceOfFurniture piece : this.home.getFurniture()) {
-        if (piece.isVisible()
-            && isViewableAtSelectedLevel(piece)) {
+      for (HomePieceOfFurniture piece : getViewableFurniture()) {
+        if (piece.isVisible()) {
           float [][] piecePoints = piece.getPoints();
           for (int i = 0; i < piecePoints.length; i++) {
             if (Math.abs(x - piecePoints [i][0]) < margin
@@ -4418,6 +6262,20 @@ public class PlanComponent extends JComponent implements PlanView, Scrollable, P
     return path;
   }
 
+  /**
+   * Returns the shape matching the <code>pointCount</code> first points 
+   * stored as alternated x and y coordinates in <code>points</code> array.
+   */
+  private Shape getShape(float [] points, int pointCount) {
+    GeneralPath path = new GeneralPath(GeneralPath.WIND_NON_ZERO, pointCount + 1);
+    path.moveTo(points [0], points [1]);
+    for (int i = 2; i < 2 * pointCount; i += 2) {
+      path.lineTo(points [i], points [i + 1]);
+    }
+    path.closePath();
+    return path;
+  }
+
   /**
    * Sets rectangle selection feedback coordinates. 
    */
@@ -4938,8 +6796,24 @@ public class PlanComponent extends JComponent implements PlanView, Scrollable, P
    * Sets the given dimension lines to be drawn as feedback.
    */
   public void setDimensionLinesFeedback(List<DimensionLine> dimensionLines) {
+    // Repaint only the area of previous and new feedback
+    Rectangle2D area = null;
+    for (List<DimensionLine> feedback : Arrays.asList(this.dimensionLinesFeedback, dimensionLines)) {
+      if (feedback != null) {
+        for (DimensionLine dimensionLine : feedback) {
+          Rectangle2D dimensionLineBounds = getIndexedItemBounds(dimensionLine);
+          if (area == null) {
+            area = dimensionLineBounds;
+          } else {
+            area.add(dimensionLineBounds);
+          }
+        }
+      }
+    }
     this.dimensionLinesFeedback = dimensionLines;
-    repaint();
+    if (area != null) {
+      repaintPlanArea(area);
+    }
   }
 
   /**
@@ -5444,190 +7318,520 @@ public class PlanComponent extends JComponent implements PlanView, Scrollable, P
   
   /**
    * A proxy for the furniture top view icon generated from its 3D model. 
-   */
-  private static class PieceOfFurnitureModelIcon extends PieceOfFurnitureTopViewIcon {
-    private static Canvas3D        canvas3D;
-    private static BranchGroup     sceneRoot;
-    private static ExecutorService iconsCreationExecutor;
+   * Icons are rendered in batches by a few threads using each their own off-screen canvas,
+   * starting with the last requested icons of visible pieces. Rendered icons are stored 
+   * in a disk cache keyed by the content of the model and the attributes of the piece 
+   * that change its top view, to be reused by other pieces and in later sessions.
+   */
+  private static class PieceOfFurnitureModelIcon extends PieceOfFurnitureTopViewIcon 
+                                                 implements Comparable<PieceOfFurnitureModelIcon> {
+    private static final int    ICON_SIZE = 128;
+    private static final int    MAX_BATCH_SIZE = 8;
+    private static final String ICONS_CACHE_SUB_FOLDER = "furnitureTopViewIcons";
+    private static final long   MAX_ICONS_CACHE_SIZE = 64 * 1024 * 1024;
+    private static final int    ICONS_CACHE_CHECK_PERIOD = 100;
     
-    static {
-      // Create the universe used to compute top view icons 
-      canvas3D = Component3DManager.getInstance().getOffScreenCanvas3D(128, 128);
-      SimpleUniverse universe = new SimpleUniverse(canvas3D);
-      ViewingPlatform viewingPlatform = universe.getViewingPlatform();
-      // View model from top
-      TransformGroup viewPlatformTransform = viewingPlatform.getViewPlatformTransform();
-      Transform3D rotation = new Transform3D();
-      rotation.rotX(-Math.PI / 2);
-      Transform3D transform = new Transform3D();
-      transform.setTranslation(new Vector3f(0, 5, 0));
-      transform.mul(rotation);
-      viewPlatformTransform.setTransform(transform);
-      // Use parallel projection
-      Viewer viewer = viewingPlatform.getViewers() [0];      
-      javax.media.j3d.View view = viewer.getView();
-      view.setProjectionPolicy(javax.media.j3d.View.PARALLEL_PROJECTION);
-      sceneRoot = new BranchGroup();
-      // Prepare scene root
-      sceneRoot.setCapability(BranchGroup.ALLOW_CHILDREN_READ);
-      sceneRoot.setCapability(BranchGroup.ALLOW_CHILDREN_WRITE);
-      sceneRoot.setCapability(BranchGroup.ALLOW_CHILDREN_EXTEND);
-      Background background = new Background(1.1f, 1.1f, 1.1f);
-      background.setCapability(Background.ALLOW_COLOR_WRITE);
-      background.setApplicationBounds(new BoundingBox(new Point3d(-1.1, -1.1, -1.1), new Point3d(1.1, 1.1, 1.1)));
-      sceneRoot.addChild(background);
-      Light [] lights = {new DirectionalLight(new Color3f(0.6f, 0.6f, 0.6f), new Vector3f(1.5f, -0.8f, -1)),         
-                         new DirectionalLight(new Color3f(0.6f, 0.6f, 0.6f), new Vector3f(-1.5f, -0.8f, -1)), 
-                         new DirectionalLight(new Color3f(0.6f, 0.6f, 0.6f), new Vector3f(0, -0.8f, 1)), 
-                         new AmbientLight(new Color3f(0.2f, 0.2f, 0.2f))};
-      for (Light light : lights) {
-        light.setInfluencingBounds(new BoundingBox(new Point3d(-1.1, -1.1, -1.1), new Point3d(1.1, 1.1, 1.1)));
-        sceneRoot.addChild(light);
-      }
-      universe.addBranchGraph(sceneRoot);
-      iconsCreationExecutor = Executors.newSingleThreadExecutor();
-    }
+    private static final PriorityBlockingQueue<PieceOfFurnitureModelIcon> pendingIcons = 
+        new PriorityBlockingQueue<PieceOfFurnitureModelIcon>();
+    private static final AtomicLong requestCount = new AtomicLong();
+    private static final Map<String, SoftReference<BufferedImage>> iconImagesCache = 
+        Collections.synchronizedMap(new HashMap<String, SoftReference<BufferedImage>>());
+    private static final Map<Content, String> contentDigests = 
+        Collections.synchronizedMap(new WeakHashMap<Content, String>());
+    private static boolean renderersStarted;
+    private static File    iconsCacheFolder;
+    private static boolean iconsCacheFolderChecked;
+    private static int     writtenIconCount;
     
+    private final HomePieceOfFurniture normalizedPiece;
+    private final Component            waitingComponent;
+    private final boolean              visible;
+    private final long                 requestIndex;
+    private final CountDownLatch       iconComputed;
+
     /**
      * Creates a top view icon proxy for a <code>piece</code> of furniture.
      * @param piece an object containing a 3D content
      * @param waitingComponent a waiting component. If <code>null</code>, the returned icon will
-     *            be read immediately in the current thread.
+     *            be computed before this constructor returns.
+     * @param visible if <code>true</code>, the icon of the piece will be computed before 
+     *            the icons of pieces out of the visible part of <code>waitingComponent</code>
      */
-    public PieceOfFurnitureModelIcon(final HomePieceOfFurniture piece, 
-                                     final Component waitingComponent) {
+    public PieceOfFurnitureModelIcon(HomePieceOfFurniture piece, 
+                                     Component waitingComponent,
+                                     boolean visible) {
       super(IconManager.getInstance().getWaitIcon());
-      ModelManager.getInstance().loadModel(piece.getModel(), waitingComponent == null,
-          new ModelManager.ModelObserver() {
-            public void modelUpdated(final BranchGroup modelNode) {
-              // Now that it's sure that 3D model exists
-              // work on a clone of the piece centered at the origin
-              // with the same size to get a correct texture mapping
-              final HomePieceOfFurniture normalizedPiece = piece.clone();
-              if (normalizedPiece.isResizable()) {
-                normalizedPiece.setModelMirrored(false);
-              }
-              normalizedPiece.setX(0);
-              normalizedPiece.setY(0);
-              normalizedPiece.setElevation(-normalizedPiece.getHeight() / 2);
-              normalizedPiece.setAngle(0);
-              final float pieceWidth = normalizedPiece.getWidth();
-              final float pieceDepth = normalizedPiece.getDepth();
-              final float pieceHeight = normalizedPiece.getHeight();
-              if (waitingComponent != null) {
-                // Generate icons in an other thread to avoid blocking EDT during offscreen rendering
-                iconsCreationExecutor.execute(new Runnable() {
-                    public void run() {
-                      setIcon(createIcon(new HomePieceOfFurniture3D(normalizedPiece, null, true, true),
-                          pieceWidth, pieceDepth, pieceHeight));
+      // Work on a clone of the piece centered at the origin
+      // with the same size to get a correct texture mapping
+      this.normalizedPiece = piece.clone();
+      if (this.normalizedPiece.isResizable()) {
+        this.normalizedPiece.setModelMirrored(false);
+      }
+      this.normalizedPiece.setX(0);
+      this.normalizedPiece.setY(0);
+      this.normalizedPiece.setElevation(-this.normalizedPiece.getHeight() / 2);
+      this.normalizedPiece.setAngle(0);
+      this.waitingComponent = waitingComponent;
+      this.visible = visible;
+      this.requestIndex = requestCount.incrementAndGet();
+      this.iconComputed = new CountDownLatch(1);
+      
+      startRenderers();
+      pendingIcons.add(this);
+      if (waitingComponent == null) {
+        try {
+          this.iconComputed.await();
+        } catch (InterruptedException ex) {
+          // Keep wait icon
+          Thread.currentThread().interrupt();
+        }
+      }
+    }
+    
+    /**
+     * Orders icons to compute first icons waited synchronously, 
+     * then the icons of visible pieces, and then the most recently requested icons.
+     */
+    public int compareTo(PieceOfFurnitureModelIcon icon) {
+      if ((this.waitingComponent == null) != (icon.waitingComponent == null)) {
+        return this.waitingComponent == null ? -1 : 1;
+      } else if (this.visible != icon.visible) {
+        return this.visible ? -1 : 1;
+      } else {
+        return this.requestIndex > icon.requestIndex ? -1 : (this.requestIndex == icon.requestIndex ? 0 : 1);
+      }
+    }
+    
+    /**
+     * Starts the threads that render pending icons, each with its own off-screen canvas.
+     */
+    private static synchronized void startRenderers() {
+      if (!renderersStarted) {
+        int rendererCount = Math.max(1, Math.min(3, Runtime.getRuntime().availableProcessors() - 1));
+        for (int i = 0; i < rendererCount; i++) {
+          Thread rendererThread = new Thread(new Runnable() {
+              public void run() {
+                TopViewRenderer renderer = null;
+                try {
+                  renderer = new TopViewRenderer();
+                } catch (RuntimeException ex) {
+                  // Icons not found in cache will be replaced by error icon
+                }
+                List<PieceOfFurnitureModelIcon> batch = new ArrayList<PieceOfFurnitureModelIcon>(MAX_BATCH_SIZE);
+                Set<Component> waitingComponents = new HashSet<Component>();
+                try {
+                  while (true) {
+                    batch.add(pendingIcons.take());
+                    pendingIcons.drainTo(batch, MAX_BATCH_SIZE - 1);
+                    for (PieceOfFurnitureModelIcon icon : batch) {
+                      try {
+                        icon.computeIcon(renderer);
+                      } catch (RuntimeException ex) {
+                        // Continue with next icons
+                      }
+                      if (icon.waitingComponent != null) {
+                        waitingComponents.add(icon.waitingComponent);
+                      }
+                    }
+                    // Repaint once waiting components for the whole batch
+                    for (Component waitingComponent : waitingComponents) {
                       waitingComponent.repaint();
                     }
-                  });
-              } else {
-                setIcon(createIcon(new HomePieceOfFurniture3D(normalizedPiece, null, true, true),
-                    pieceWidth, pieceDepth, pieceHeight));
-              }
-            }
-        
-            public void modelError(Exception ex) {
-              // Too bad, we'll use errorIcon
-              setIcon(IconManager.getInstance().getErrorIcon());                
-              if (waitingComponent != null) {
-                waitingComponent.repaint();
+                    batch.clear();
+                    waitingComponents.clear();
+                  }
+                } catch (InterruptedException ex) {
+                  // Stop rendering
+                }
               }
-            }
-          });
+            }, "Furniture top view icons renderer " + i);
+          rendererThread.setDaemon(true);
+          rendererThread.start();
+        }
+        renderersStarted = true;
+      }
     }
     
     /**
-     * Returns an icon created and scaled from piece model content.
+     * Computes the icon of the piece, read from cache or rendered with the given <code>renderer</code>.
      */
-    private Icon createIcon(BranchGroup modelNode,  
-                            float pieceWidth, float pieceDepth, float pieceHeight) {
-      // Add piece model scene to a normalized transform group
-      Transform3D scaleTransform = new Transform3D();
-      scaleTransform.setScale(new Vector3d(2 / pieceWidth, 2 / pieceHeight, 2 / pieceDepth));
-      TransformGroup modelTransformGroup = new TransformGroup();
-      modelTransformGroup.setTransform(scaleTransform);
-      modelTransformGroup.addChild(modelNode);
-      // Replace model textures by clones because Java 3D doesn't accept all the time 
-      // to share textures between offscreen and onscreen environments 
-      cloneTexture(modelNode, new HashMap<Texture, Texture>());
-
-      BranchGroup model = new BranchGroup();
-      model.setCapability(BranchGroup.ALLOW_DETACH);
-      model.addChild(modelTransformGroup);
-      sceneRoot.addChild(model);
-      
-      // Render scene with a white background
-      Background background = (Background)sceneRoot.getChild(0);        
-      background.setColor(1, 1, 1);
-      canvas3D.renderOffScreenBuffer();
-      canvas3D.waitForOffScreenRendering();          
-      BufferedImage imageWithWhiteBackgound = canvas3D.getOffScreenBuffer().getImage();
-      int [] imageWithWhiteBackgoundPixels = getImagePixels(imageWithWhiteBackgound);
-      
-      // Render scene with a black background
-      background.setColor(0, 0, 0);
-      canvas3D.renderOffScreenBuffer();
-      canvas3D.waitForOffScreenRendering();          
-      BufferedImage imageWithBlackBackgound = canvas3D.getOffScreenBuffer().getImage();
-      int [] imageWithBlackBackgoundPixels = getImagePixels(imageWithBlackBackgound);
-      
-      // Create an image with transparent pixels where model isn't drawn
-      for (int i = 0; i < imageWithBlackBackgoundPixels.length; i++) {
-        if (imageWithBlackBackgoundPixels [i] != imageWithWhiteBackgoundPixels [i]
-            && imageWithBlackBackgoundPixels [i] == 0xFF000000
-            && imageWithWhiteBackgoundPixels [i] == 0xFFFFFFFF) {
-          imageWithWhiteBackgoundPixels [i] = 0;
-        }           
+    private void computeIcon(final TopViewRenderer renderer) {
+      try {
+        final String iconKey = getIconKey(this.normalizedPiece);
+        BufferedImage iconImage = readIconImage(iconKey);
+        if (iconImage != null) {
+          setIcon(new ImageIcon(iconImage));
+        } else if (renderer == null) {
+          setIcon(IconManager.getInstance().getErrorIcon());
+        } else {
+          ModelManager.getInstance().loadModel(this.normalizedPiece.getModel(), true,
+              new ModelManager.ModelObserver() {
+                public void modelUpdated(BranchGroup modelNode) {
+                  // Now that it's sure that 3D model exists, render the piece
+                  BufferedImage iconImage = renderer.createIconImage(
+                      new HomePieceOfFurniture3D(normalizedPiece, null, true, true),
+                      normalizedPiece.getWidth(), normalizedPiece.getDepth(), normalizedPiece.getHeight());
+                  writeIconImage(iconKey, iconImage);
+                  setIcon(new ImageIcon(iconImage));
+                }
+            
+                public void modelError(Exception ex) {
+                  // Too bad, we'll use errorIcon
+                  setIcon(IconManager.getInstance().getErrorIcon());                
+                }
+              });
+        }
+      } catch (IOException ex) {
+        setIcon(IconManager.getInstance().getErrorIcon());                
+      } catch (RuntimeException ex) {
+        // Don't let an unexpected problem in 3D rendering stop the renderer thread
+        setIcon(IconManager.getInstance().getErrorIcon());                
+      } finally {
+        this.iconComputed.countDown();
+      }
+    }
+
+    /**
+     * Returns a key built from the content of the model of the given normalized <code>piece</code> 
+     * and the attributes that change its top view.
+     */
+    private static String getIconKey(HomePieceOfFurniture piece) throws IOException {
+      StringBuilder key = new StringBuilder(getContentDigest(piece.getModel()));
+      key.append(Arrays.deepToString(piece.getModelRotation()));
+      key.append(' ').append(piece.isModelMirrored());
+      key.append(' ').append(piece.isBackFaceShown());
+      key.append(' ').append(piece.getWidth());
+      key.append(' ').append(piece.getDepth());
+      key.append(' ').append(piece.getHeight());
+      key.append(' ').append(piece.getColor());
+      appendTextureKey(key, piece.getTexture());
+      key.append(' ').append(piece.getShininess());
+      HomeMaterial [] materials = piece.getModelMaterials();
+      if (materials != null) {
+        for (HomeMaterial material : materials) {
+          if (material != null) {
+            key.append(' ').append(material.getName());
+            key.append(' ').append(material.getColor());
+            appendTextureKey(key, material.getTexture());
+            key.append(' ').append(material.getShininess());
+          } else {
+            key.append(" null");
+          }
+        }
+      }
+      return getDigest(key.toString().getBytes("UTF-8"));
+    }
+    
+    private static void appendTextureKey(StringBuilder key, HomeTexture texture) throws IOException {
+      if (texture != null) {
+        key.append(' ').append(getContentDigest(texture.getImage()));
+        key.append(' ').append(texture.getWidth());
+        key.append(' ').append(texture.getHeight());
+        key.append(' ').append(texture.isLeftToRightOriented());
+      } else {
+        key.append(" null");
+      }
+    }
+
+    /**
+     * Returns the digest of the given <code>content</code>, computed only once for a content.
+     */
+    private static String getContentDigest(Content content) throws IOException {
+      String digest = contentDigests.get(content);
+      if (digest == null) {
+        MessageDigest messageDigest = getMessageDigest();
+        InputStream in = null;
+        try {
+          in = content.openStream();
+          byte [] buffer = new byte [8192];
+          int size; 
+          while ((size = in.read(buffer)) != -1) {
+            messageDigest.update(buffer, 0, size);
+          }
+        } finally {
+          if (in != null) {
+            in.close();
+          }
+        }
+        digest = toHexadecimal(messageDigest.digest());
+        contentDigests.put(content, digest);
+      }
+      return digest;
+    }
+
+    private static String getDigest(byte [] bytes) throws IOException {
+      return toHexadecimal(getMessageDigest().digest(bytes));
+    }
+    
+    private static MessageDigest getMessageDigest() throws IOException {
+      try {
+        return MessageDigest.getInstance("SHA-1");
+      } catch (NoSuchAlgorithmException ex) {
+        throw new IOException(ex.getMessage());
       }
-      
-      sceneRoot.removeChild(model);
-      return new ImageIcon(Toolkit.getDefaultToolkit().createImage(new MemoryImageSource(
-          imageWithWhiteBackgound.getWidth(), imageWithWhiteBackgound.getHeight(), 
-          imageWithWhiteBackgoundPixels, 0, imageWithWhiteBackgound.getWidth())));
+    }
+    
+    private static String toHexadecimal(byte [] bytes) {
+      StringBuilder hexadecimal = new StringBuilder(bytes.length * 2);
+      for (byte b : bytes) {
+        hexadecimal.append(Character.forDigit((b >> 4) & 0xF, 16));
+        hexadecimal.append(Character.forDigit(b & 0xF, 16));
+      }
+      return hexadecimal.toString();
     }
 
     /**
-     * Replace the textures set on node shapes by clones. 
+     * Returns the folder where icons are stored or <code>null</code> if it's not available. 
+     */
+    private static synchronized File getIconsCacheFolder() {
+      if (!iconsCacheFolderChecked) {
+        iconsCacheFolderChecked = true;
+        try {
+          File folder = new File(OperatingSystem.getDefaultApplicationFolder(), ICONS_CACHE_SUB_FOLDER);
+          if (folder.isDirectory() || folder.mkdirs()) {
+            iconsCacheFolder = folder;
+            trimIconsCacheFolder();
+          }
+        } catch (IOException ex) {
+          // No disk cache
+        } catch (SecurityException ex) {
+          // No disk cache
+        }
+      }
+      return iconsCacheFolder;
+    }
+    
+    /**
+     * Returns the icon image matching <code>iconKey</code> in memory or disk cache, 
+     * or <code>null</code> if it doesn't exist.
      */
-    private void cloneTexture(Node node, Map<Texture, Texture> replacedTextures) {
-      if (node instanceof Group) {
-        // Enumerate children
-        Enumeration<?> enumeration = ((Group)node).getAllChildren(); 
-        while (enumeration.hasMoreElements()) {
-          cloneTexture((Node)enumeration.nextElement(), replacedTextures);
-        }
-      } else if (node instanceof Link) {
-        cloneTexture(((Link)node).getSharedGroup(), replacedTextures);
-      } else if (node instanceof Shape3D) {
-        Appearance appearance = ((Shape3D)node).getAppearance();
-        if (appearance != null) {
-          Texture texture = appearance.getTexture();
-          if (texture != null) {
-            Texture replacedTexture = replacedTextures.get(texture);
-            if (replacedTexture == null) {
-              replacedTexture = (Texture)texture.cloneNodeComponent(false);
-              replacedTextures.put(texture, replacedTexture);
+    private static BufferedImage readIconImage(String iconKey) {
+      SoftReference<BufferedImage> imageReference = iconImagesCache.get(iconKey);
+      BufferedImage image = imageReference != null
+          ? imageReference.get()
+          : null;
+      File cacheFolder = getIconsCacheFolder();
+      if (image == null && cacheFolder != null) {
+        File iconFile = new File(cacheFolder, iconKey + ".png");
+        try {
+          if (iconFile.exists()) {
+            image = ImageIO.read(iconFile);
+            if (image != null) {
+              iconImagesCache.put(iconKey, new SoftReference<BufferedImage>(image));
+              // Mark file as recently used to keep it in cache 
+              iconFile.setLastModified(System.currentTimeMillis());
             }
-            appearance.setTexture(replacedTexture);
           }
+        } catch (IOException ex) {
+          // Ignore corrupted file that will be replaced
+        } catch (SecurityException ex) {
+          // Ignore cache
         }
-      } 
+      }
+      return image;
     }
 
     /**
-     * Returns the pixels of the given <code>image</code>.
+     * Stores the given icon <code>image</code> in memory and disk cache.
      */
-    private int [] getImagePixels(BufferedImage image) {
-      if (image.getType() == BufferedImage.TYPE_INT_RGB
-          || image.getType() == BufferedImage.TYPE_INT_ARGB) {
-        // Use a faster way to get pixels 
-        return (int [])image.getRaster().getDataElements(0, 0, image.getWidth(), image.getHeight(), null);
-      } else {
-        return image.getRGB(0, 0, image.getWidth(), image.getHeight(), null,
-            0, image.getWidth());
+    private static void writeIconImage(String iconKey, BufferedImage image) {
+      iconImagesCache.put(iconKey, new SoftReference<BufferedImage>(image));
+      File cacheFolder = getIconsCacheFolder();
+      if (cacheFolder != null) {
+        try {
+          // Write image in a temporary file renamed once completed 
+          // to avoid other processes read partially written files
+          File temporaryFile = File.createTempFile("icon", ".tmp", cacheFolder);
+          ImageIO.write(image, "png", temporaryFile);
+          File iconFile = new File(cacheFolder, iconKey + ".png");
+          if (!temporaryFile.renameTo(iconFile)) {
+            temporaryFile.delete();
+          }
+        } catch (IOException ex) {
+          // Icon won't be cached on disk
+        } catch (SecurityException ex) {
+          // Icon won't be cached on disk
+        }
+        synchronized (PieceOfFurnitureModelIcon.class) {
+          if (++writtenIconCount % ICONS_CACHE_CHECK_PERIOD == 0) {
+            trimIconsCacheFolder();
+          }
+        }
+      }
+    }
+
+    /**
+     * Deletes the least recently used icon files of the disk cache 
+     * if their total size is larger than <code>MAX_ICONS_CACHE_SIZE</code>.
+     */
+    private static synchronized void trimIconsCacheFolder() {
+      try {
+        File [] iconFiles = iconsCacheFolder.listFiles();
+        if (iconFiles != null) {
+          long cacheSize = 0;
+          for (File iconFile : iconFiles) {
+            cacheSize += iconFile.length();
+          }
+          if (cacheSize > MAX_ICONS_CACHE_SIZE) {
+            final Map<File, Long> lastModifiedDates = new HashMap<File, Long>();
+            for (File iconFile : iconFiles) {
+              lastModifiedDates.put(iconFile, iconFile.lastModified());
+            }
+            Arrays.sort(iconFiles, new Comparator<File>() {
+                public int compare(File file1, File file2) {
+                  return lastModifiedDates.get(file1).compareTo(lastModifiedDates.get(file2));
+                }
+              });
+            // Delete oldest files until cache is reduced to 3/4 of its maximum size
+            for (int i = 0; i < iconFiles.length && cacheSize > MAX_ICONS_CACHE_SIZE * 3 / 4; i++) {
+              long fileSize = iconFiles [i].length();
+              if (iconFiles [i].delete()) {
+                cacheSize -= fileSize;
+              }
+            }
+          }
+        }
+      } catch (SecurityException ex) {
+        // Ignore cache size
+      }
+    }
+
+    /**
+     * An off-screen universe able to render the top view of furniture.
+     */
+    private static class TopViewRenderer {
+      private final Canvas3D    canvas3D;
+      private final BranchGroup sceneRoot;
+      private final Background  background;
+      
+      public TopViewRenderer() {
+        // Create the universe used to compute top view icons 
+        this.canvas3D = Component3DManager.getInstance().getOffScreenCanvas3D(ICON_SIZE, ICON_SIZE);
+        SimpleUniverse universe = new SimpleUniverse(this.canvas3D);
+        ViewingPlatform viewingPlatform = universe.getViewingPlatform();
+        // View model from top
+        TransformGroup viewPlatformTransform = viewingPlatform.getViewPlatformTransform();
+        Transform3D rotation = new Transform3D();
+        rotation.rotX(-Math.PI / 2);
+        Transform3D transform = new Transform3D();
+        transform.setTranslation(new Vector3f(0, 5, 0));
+        transform.mul(rotation);
+        viewPlatformTransform.setTransform(transform);
+        // Use parallel projection
+        Viewer viewer = viewingPlatform.getViewers() [0];      
+        javax.media.j3d.View view = viewer.getView();
+        view.setProjectionPolicy(javax.media.j3d.View.PARALLEL_PROJECTION);
+        this.sceneRoot = new BranchGroup();
+        // Prepare scene root
+        this.sceneRoot.setCapability(BranchGroup.ALLOW_CHILDREN_READ);
+        this.sceneRoot.setCapability(BranchGroup.ALLOW_CHILDREN_WRITE);
+        this.sceneRoot.setCapability(BranchGroup.ALLOW_CHILDREN_EXTEND);
+        this.background = new Background(1.1f, 1.1f, 1.1f);
+        this.background.setCapability(Background.ALLOW_COLOR_WRITE);
+        this.background.setApplicationBounds(new BoundingBox(new Point3d(-1.1, -1.1, -1.1), new Point3d(1.1, 1.1, 1.1)));
+        this.sceneRoot.addChild(this.background);
+        Light [] lights = {new DirectionalLight(new Color3f(0.6f, 0.6f, 0.6f), new Vector3f(1.5f, -0.8f, -1)),         
+                           new DirectionalLight(new Color3f(0.6f, 0.6f, 0.6f), new Vector3f(-1.5f, -0.8f, -1)), 
+                           new DirectionalLight(new Color3f(0.6f, 0.6f, 0.6f), new Vector3f(0, -0.8f, 1)), 
+                           new AmbientLight(new Color3f(0.2f, 0.2f, 0.2f))};
+        for (Light light : lights) {
+          light.setInfluencingBounds(new BoundingBox(new Point3d(-1.1, -1.1, -1.1), new Point3d(1.1, 1.1, 1.1)));
+          this.sceneRoot.addChild(light);
+        }
+        universe.addBranchGraph(this.sceneRoot);
+      }
+      
+      /**
+       * Returns an icon image created and scaled from piece model content.
+       */
+      public BufferedImage createIconImage(BranchGroup modelNode,  
+                                           float pieceWidth, float pieceDepth, float pieceHeight) {
+        // Add piece model scene to a normalized transform group
+        Transform3D scaleTransform = new Transform3D();
+        scaleTransform.setScale(new Vector3d(2 / pieceWidth, 2 / pieceHeight, 2 / pieceDepth));
+        TransformGroup modelTransformGroup = new TransformGroup();
+        modelTransformGroup.setTransform(scaleTransform);
+        modelTransformGroup.addChild(modelNode);
+        // Replace model textures by clones because Java 3D doesn't accept all the time 
+        // to share textures between offscreen and onscreen environments 
+        cloneTexture(modelNode, new HashMap<Texture, Texture>());
+  
+        BranchGroup model = new BranchGroup();
+        model.setCapability(BranchGroup.ALLOW_DETACH);
+        model.addChild(modelTransformGroup);
+        this.sceneRoot.addChild(model);
+        
+        // Render scene with a white background
+        this.background.setColor(1, 1, 1);
+        this.canvas3D.renderOffScreenBuffer();
+        this.canvas3D.waitForOffScreenRendering();          
+        BufferedImage imageWithWhiteBackgound = this.canvas3D.getOffScreenBuffer().getImage();
+        int [] imageWithWhiteBackgoundPixels = getImagePixels(imageWithWhiteBackgound);
+        
+        // Render scene with a black background
+        this.background.setColor(0, 0, 0);
+        this.canvas3D.renderOffScreenBuffer();
+        this.canvas3D.waitForOffScreenRendering();          
+        BufferedImage imageWithBlackBackgound = this.canvas3D.getOffScreenBuffer().getImage();
+        int [] imageWithBlackBackgoundPixels = getImagePixels(imageWithBlackBackgound);
+        
+        // Create an image with transparent pixels where model isn't drawn
+        for (int i = 0; i < imageWithBlackBackgoundPixels.length; i++) {
+          if (imageWithBlackBackgoundPixels [i] != imageWithWhiteBackgoundPixels [i]
+              && imageWithBlackBackgoundPixels [i] == 0xFF000000
+              && imageWithWhiteBackgoundPixels [i] == 0xFFFFFFFF) {
+            imageWithWhiteBackgoundPixels [i] = 0;
+          }           
+        }
+        
+        this.sceneRoot.removeChild(model);
+        BufferedImage iconImage = new BufferedImage(imageWithWhiteBackgound.getWidth(), 
+            imageWithWhiteBackgound.getHeight(), BufferedImage.TYPE_INT_ARGB);
+        iconImage.setRGB(0, 0, iconImage.getWidth(), iconImage.getHeight(), 
+            imageWithWhiteBackgoundPixels, 0, iconImage.getWidth());
+        return iconImage;
+      }
+
+      /**
+       * Replace the textures set on node shapes by clones. 
+       */
+      private void cloneTexture(Node node, Map<Texture, Texture> replacedTextures) {
+        if (node instanceof Group) {
+          // Enumerate children
+          Enumeration<?> enumeration = ((Group)node).getAllChildren(); 
+          while (enumeration.hasMoreElements()) {
+            cloneTexture((Node)enumeration.nextElement(), replacedTextures);
+          }
+        } else if (node instanceof Link) {
+          cloneTexture(((Link)node).getSharedGroup(), replacedTextures);
+        } else if (node instanceof Shape3D) {
+          Appearance appearance = ((Shape3D)node).getAppearance();
+          if (appearance != null) {
+            Texture texture = appearance.getTexture();
+            if (texture != null) {
+              Texture replacedTexture = replacedTextures.get(texture);
+              if (replacedTexture == null) {
+                replacedTexture = (Texture)texture.cloneNodeComponent(false);
+                replacedTextures.put(texture, replacedTexture);
+              }
+              appearance.setTexture(replacedTexture);
+            }
+          }
+        } 
+      }
+
+      /**
+       * Returns the pixels of the given <code>image</code>.
+       */
+      private int [] getImagePixels(BufferedImage image) {
+        if (image.getType() == BufferedImage.TYPE_INT_RGB
+            || image.getType() == BufferedImage.TYPE_INT_ARGB) {
+          // Use a faster way to get pixels 
+          return (int [])image.getRaster().getDataElements(0, 0, image.getWidth(), image.getHeight(), null);
+        } else {
+          return image.getRGB(0, 0, image.getWidth(), image.getHeight(), null,
+              0, image.getWidth());
+        }
       }
     }
   }
@@ -0,0 +1,146 @@
+/*
+ * DoorsAndWindowsIndex.java 18 oct. 2026
+ *
+ * Sweet Home 3D, Copyright (c) 2026 Emmanuel PUYBARET / eTeks <info@eteks.com>
+ *
+ * This program is free software; you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation; either version 2 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program; if not, write to the Free Software
+ * Foundation, Inc., 59 Temple Place, Suite 330, Boston, MA  02111-1307  USA
+ */
+package com.eteks.sweethome3d.tools;
+
+import java.awt.geom.Rectangle2D;
+import java.beans.PropertyChangeEvent;
+import java.beans.PropertyChangeListener;
+import java.util.List;
+
+import com.eteks.sweethome3d.model.CollectionEvent;
+import com.eteks.sweethome3d.model.CollectionListener;
+import com.eteks.sweethome3d.model.Home;
+import com.eteks.sweethome3d.model.HomeFurnitureGroup;
+import com.eteks.sweethome3d.model.HomePieceOfFurniture;
+
+/**
+ * An index of the doors and windows of a home, able to return quickly the pieces
+ * that may intersect a given area. The index stores top level pieces of the home
+ * that are doors or windows, or groups that contain doors or windows, and is kept up to date
+ * with listeners added to home and its furniture. The view that creates an index is responsible
+ * of calling {@link #removeHomeListeners() removeHomeListeners} once it doesn't need it anymore.
+ * @author Emmanuel Puybaret
+ */
+public class DoorsAndWindowsIndex {
+  private static final float INDEX_CELL_SIZE = 250;
+
+  private final Home                                     home;
+  private final SpatialIndex<HomePieceOfFurniture>       index;
+  private final PropertyChangeListener                   pieceChangeListener;
+  private final CollectionListener<HomePieceOfFurniture> furnitureListener;
+
+  /**
+   * Creates an index of the doors and windows of the given <code>home</code>.
+   */
+  public DoorsAndWindowsIndex(Home home) {
+    this.home = home;
+    this.index = new SpatialIndex<HomePieceOfFurniture>(INDEX_CELL_SIZE);
+    this.pieceChangeListener = new PropertyChangeListener() {
+        public void propertyChange(PropertyChangeEvent ev) {
+          String propertyName = ev.getPropertyName();
+          if (HomePieceOfFurniture.Property.X.name().equals(propertyName)
+              || HomePieceOfFurniture.Property.Y.name().equals(propertyName)
+              || HomePieceOfFurniture.Property.ANGLE.name().equals(propertyName)
+              || HomePieceOfFurniture.Property.WIDTH.name().equals(propertyName)
+              || HomePieceOfFurniture.Property.DEPTH.name().equals(propertyName)) {
+            HomePieceOfFurniture piece = (HomePieceOfFurniture)ev.getSource();
+            index.update(piece, getBounds(piece));
+          }
+        }
+      };
+    for (HomePieceOfFurniture piece : home.getFurniture()) {
+      addPiece(piece);
+    }
+    this.furnitureListener = new CollectionListener<HomePieceOfFurniture>() {
+        public void collectionChanged(CollectionEvent<HomePieceOfFurniture> ev) {
+          switch (ev.getType()) {
+            case ADD :
+              addPiece(ev.getItem());
+              break;
+            case DELETE :
+              deletePiece(ev.getItem());
+              break;
+          }
+        }
+      };
+    home.addFurnitureListener(this.furnitureListener);
+  }
+
+  /**
+   * Removes the listeners added by this index to home and its furniture.
+   */
+  public void removeHomeListeners() {
+    this.home.removeFurnitureListener(this.furnitureListener);
+    for (HomePieceOfFurniture piece : this.home.getFurniture()) {
+      deletePiece(piece);
+    }
+  }
+
+  private void addPiece(HomePieceOfFurniture piece) {
+    if (containsDoorOrWindow(piece)) {
+      this.index.add(piece, getBounds(piece));
+      piece.addPropertyChangeListener(this.pieceChangeListener);
+    }
+  }
+
+  private void deletePiece(HomePieceOfFurniture piece) {
+    if (this.index.remove(piece)) {
+      piece.removePropertyChangeListener(this.pieceChangeListener);
+    }
+  }
+
+  /**
+   * Returns <code>true</code> if the given <code>piece</code> is a door or a window,
+   * or a group containing a door or a window.
+   */
+  private static boolean containsDoorOrWindow(HomePieceOfFurniture piece) {
+    if (piece instanceof HomeFurnitureGroup) {
+      for (HomePieceOfFurniture childPiece : ((HomeFurnitureGroup)piece).getFurniture()) {
+        if (containsDoorOrWindow(childPiece)) {
+          return true;
+        }
+      }
+      return false;
+    } else {
+      return piece.isDoorOrWindow();
+    }
+  }
+
+  /**
+   * Returns the bounds of the points of the given <code>piece</code>.
+   */
+  public static Rectangle2D getBounds(HomePieceOfFurniture piece) {
+    float [] points = piece.getPoints(null);
+    Rectangle2D bounds = new Rectangle2D.Float(points [0], points [1], 0, 0);
+    for (int i = 2, n = 2 * piece.getPointCount(); i < n; i += 2) {
+      bounds.add(points [i], points [i + 1]);
+    }
+    return bounds;
+  }
+
+  /**
+   * Returns the top level pieces of home that are doors or windows, or groups containing
+   * doors or windows, and which bounds intersect the given <code>area</code>.
+   * Visibility and elevation of the returned pieces aren't checked.
+   */
+  public List<HomePieceOfFurniture> getDoorsAndWindows(Rectangle2D area) {
+    return this.index.getItems(area);
+  }
+}
@@ -0,0 +1,635 @@
+/*
+ * RoomDetector.java 18 oct. 2026
+ *
+ * Sweet Home 3D, Copyright (c) 2026 Emmanuel PUYBARET / eTeks <info@eteks.com>
+ *
+ * This program is free software; you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation; either version 2 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program; if not, write to the Free Software
+ * Foundation, Inc., 59 Temple Place, Suite 330, Boston, MA  02111-1307  USA
+ */
+package com.eteks.sweethome3d.tools;
+
+import java.awt.geom.GeneralPath;
+import java.awt.geom.Line2D;
+import java.awt.geom.Rectangle2D;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.IdentityHashMap;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import com.eteks.sweethome3d.model.Home;
+import com.eteks.sweethome3d.model.Level;
+import com.eteks.sweethome3d.model.Wall;
+
+/**
+ * An engine able to detect the closed paths drawn by the sides of the walls of a home,
+ * that may be used to create rooms. The sides of walls are stored in a planar graph
+ * where each side is split at its intersections with the sides of other walls,
+ * and only the parts that don't belong to another wall are kept. Closed paths are the faces
+ * of this graph, that are extracted by following its edges around each vertex.
+ * The graph of each level is cached, and when walls change, only the sides
+ * of the walls around the modified ones are computed again.
+ * @author Emmanuel Puybaret
+ * @since 4.2
+ */
+public class RoomDetector {
+  private static final float TOLERANCE        = 5E-2f;
+  private static final float VERTEX_TOLERANCE = 2E-1f;
+  private static final float INDEX_CELL_SIZE  = 200;
+  private static final int   MAX_LEVEL_GRAPHS = 4;
+
+  private final Map<Level, LevelGraph>  levelGraphs;
+
+  /**
+   * Creates a detector of the paths drawn by walls.
+   */
+  public RoomDetector() {
+    this.levelGraphs = new LinkedHashMap<Level, LevelGraph>(MAX_LEVEL_GRAPHS, 0.75f, true) {
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<Level, LevelGraph> eldest) {
+          return size() > MAX_LEVEL_GRAPHS;
+        }
+      };
+  }
+
+  /**
+   * Returns the closed paths drawn by the sides of the walls of <code>home</code> at the given <code>level</code>,
+   * sorted in the increasing order of their surface, so that the first path containing
+   * a point is the smallest one. The returned list contains the inner paths of walls
+   * and their outer paths which surround all the walls connected together.
+   * The returned paths are shared and must not be modified.
+   */
+  public synchronized List<GeneralPath> getRoomPaths(Home home, Level level) {
+    LevelGraph levelGraph = this.levelGraphs.get(level);
+    if (levelGraph == null) {
+      levelGraph = new LevelGraph();
+      this.levelGraphs.put(level, levelGraph);
+    }
+    return levelGraph.getRoomPaths(home.getWallsAtLevel(level));
+  }
+
+  /**
+   * The sides of the walls at a level and the closed paths they draw.
+   */
+  private static class LevelGraph {
+    private final Map<Wall, WallSides> wallSides;
+    private final SpatialIndex<Wall>   wallsIndex;
+    private List<GeneralPath>          roomPaths;
+
+    public LevelGraph() {
+      this.wallSides = new LinkedHashMap<Wall, WallSides>();
+      this.wallsIndex = new SpatialIndex<Wall>(INDEX_CELL_SIZE);
+    }
+
+    /**
+     * Updates the sides of the walls that changed or that intersect walls which changed,
+     * then returns the faces of the graph built from wall sides.
+     */
+    public List<GeneralPath> getRoomPaths(Collection<Wall> walls) {
+      List<Rectangle2D> modifiedAreas = new ArrayList<Rectangle2D>();
+      Set<Wall> levelWalls = new LinkedHashSet<Wall>(walls);
+      for (Iterator<Map.Entry<Wall, WallSides>> it = this.wallSides.entrySet().iterator(); it.hasNext(); ) {
+        Map.Entry<Wall, WallSides> entry = it.next();
+        if (!levelWalls.contains(entry.getKey())) {
+          // Remove walls which don't belong to level anymore
+          it.remove();
+          this.wallsIndex.remove(entry.getKey());
+          modifiedAreas.add(entry.getValue().bounds);
+        }
+      }
+      List<WallSides> modifiedWallSides = new ArrayList<WallSides>();
+      for (Wall wall : levelWalls) {
+        float [][] points = wall.getPoints();
+        WallSides sides = this.wallSides.get(wall);
+        if (sides == null
+            || !Arrays.deepEquals(sides.points, points)) {
+          if (sides != null) {
+            modifiedAreas.add(sides.bounds);
+          }
+          sides = new WallSides(points);
+          this.wallSides.put(wall, sides);
+          this.wallsIndex.add(wall, sides.bounds);
+          modifiedAreas.add(sides.bounds);
+          modifiedWallSides.add(sides);
+        }
+      }
+
+      if (!modifiedAreas.isEmpty()) {
+        // Compute again the sides of the walls close to modified walls
+        Set<WallSides> invalidWallSides = new HashSet<WallSides>(modifiedWallSides);
+        for (Rectangle2D area : modifiedAreas) {
+          for (Wall wall : this.wallsIndex.getItems(getEnlargedBounds(area))) {
+            invalidWallSides.add(this.wallSides.get(wall));
+          }
+        }
+        for (WallSides sides : invalidWallSides) {
+          sides.computeSides(getNeighbours(sides));
+        }
+        this.roomPaths = null;
+      }
+
+      if (this.roomPaths == null) {
+        List<float []> sides = new ArrayList<float[]>();
+        for (WallSides wallSides : this.wallSides.values()) {
+          sides.addAll(wallSides.sides);
+        }
+        this.roomPaths = Collections.unmodifiableList(getFaces(sides));
+      }
+      return this.roomPaths;
+    }
+
+    /**
+     * Returns the sides of the walls which bounds intersect the ones of the given wall.
+     */
+    private List<WallSides> getNeighbours(WallSides sides) {
+      List<WallSides> neighbours = new ArrayList<WallSides>();
+      for (Wall wall : this.wallsIndex.getItems(getEnlargedBounds(sides.bounds))) {
+        WallSides neighbour = this.wallSides.get(wall);
+        if (neighbour != sides) {
+          neighbours.add(neighbour);
+        }
+      }
+      return neighbours;
+    }
+
+    private static Rectangle2D getEnlargedBounds(Rectangle2D bounds) {
+      return new Rectangle2D.Double(bounds.getX() - TOLERANCE, bounds.getY() - TOLERANCE,
+          bounds.getWidth() + 2 * TOLERANCE, bounds.getHeight() + 2 * TOLERANCE);
+    }
+  }
+
+  /**
+   * The outline of a wall and the parts of its sides that don't belong to other walls.
+   * Sides are oriented in the same direction, with the wall on their left.
+   */
+  private static class WallSides {
+    private final float [][]  points;
+    private final float [][]  outline;
+    private final Rectangle2D bounds;
+    private List<float []>    sides;
+
+    public WallSides(float [][] points) {
+      this.points = points;
+      // Orient outline counter clockwise
+      if (getSignedArea(points) < 0) {
+        this.outline = new float [points.length][];
+        for (int i = 0; i < points.length; i++) {
+          this.outline [i] = points [points.length - 1 - i];
+        }
+      } else {
+        this.outline = points;
+      }
+      this.bounds = new Rectangle2D.Float(points [0][0], points [0][1], 0, 0);
+      for (int i = 1; i < points.length; i++) {
+        this.bounds.add(points [i][0], points [i][1]);
+      }
+      this.sides = Collections.emptyList();
+    }
+
+    /**
+     * Computes the parts of the sides of this wall that don't belong to its <code>neighbours</code>.
+     */
+    public void computeSides(List<WallSides> neighbours) {
+      this.sides = new ArrayList<float[]>();
+      if (Math.abs(getSignedArea(this.outline)) < TOLERANCE * TOLERANCE) {
+        return;
+      }
+      for (int i = 0; i < this.outline.length; i++) {
+        float [] start = this.outline [i];
+        float [] end = this.outline [(i + 1) % this.outline.length];
+        double deltaX = end [0] - start [0];
+        double deltaY = end [1] - start [1];
+        double length = Math.sqrt(deltaX * deltaX + deltaY * deltaY);
+        if (length < TOLERANCE) {
+          continue;
+        }
+        // Search where the side crosses the outline of neighbours
+        List<Double> splits = new ArrayList<Double>();
+        splits.add(0.);
+        splits.add(1.);
+        double minX = Math.min(start [0], end [0]) - TOLERANCE;
+        double maxX = Math.max(start [0], end [0]) + TOLERANCE;
+        double minY = Math.min(start [1], end [1]) - TOLERANCE;
+        double maxY = Math.max(start [1], end [1]) + TOLERANCE;
+        for (WallSides neighbour : neighbours) {
+          if (neighbour.bounds.intersects(minX, minY, maxX - minX, maxY - minY)) {
+            float [][] neighbourOutline = neighbour.outline;
+            for (int j = 0; j < neighbourOutline.length; j++) {
+              addSplits(splits, start, end, length,
+                  neighbourOutline [j], neighbourOutline [(j + 1) % neighbourOutline.length]);
+            }
+          }
+        }
+        Collections.sort(splits);
+
+        // Keep the parts of the side that don't belong to a neighbour
+        for (int j = 1; j < splits.size(); j++) {
+          double t0 = splits.get(j - 1);
+          double t1 = splits.get(j);
+          if ((t1 - t0) * length > TOLERANCE) {
+            float [] side = {
+                (float)(start [0] + deltaX * t0), (float)(start [1] + deltaY * t0),
+                (float)(start [0] + deltaX * t1), (float)(start [1] + deltaY * t1)};
+            boolean outside = true;
+            for (int k = 0; outside && k < neighbours.size(); k++) {
+              outside = !neighbours.get(k).containsSide(side);
+            }
+            if (outside) {
+              this.sides.add(side);
+            }
+          }
+        }
+      }
+    }
+
+    /**
+     * Returns <code>true</code> if the given part of a side of another wall
+     * is inside this wall or along one of its sides with this wall at its right.
+     */
+    private boolean containsSide(float [] side) {
+      double middleX = (side [0] + side [2]) / 2;
+      double middleY = (side [1] + side [3]) / 2;
+      if (middleX < this.bounds.getMinX() - TOLERANCE
+          || middleX > this.bounds.getMaxX() + TOLERANCE
+          || middleY < this.bounds.getMinY() - TOLERANCE
+          || middleY > this.bounds.getMaxY() + TOLERANCE) {
+        return false;
+      }
+      // Test the point of the side the farthest from the outline of this wall
+      double farthestDistance = -1;
+      double farthestX = middleX;
+      double farthestY = middleY;
+      for (double location : new double [] {0.5, 0.25, 0.75}) {
+        double x = side [0] + (side [2] - side [0]) * location;
+        double y = side [1] + (side [3] - side [1]) * location;
+        double distance = getDistanceToOutline(x, y);
+        if (distance > farthestDistance) {
+          farthestDistance = distance;
+          farthestX = x;
+          farthestY = y;
+        }
+      }
+      if (farthestDistance >= TOLERANCE) {
+        return contains(this.outline, farthestX, farthestY);
+      } else {
+        int closestSideIndex = 0;
+        double smallestDistance = Double.MAX_VALUE;
+        for (int i = 0; i < this.outline.length; i++) {
+          float [] point = this.outline [i];
+          float [] nextPoint = this.outline [(i + 1) % this.outline.length];
+          double distance = Line2D.ptSegDistSq(point [0], point [1], nextPoint [0], nextPoint [1], middleX, middleY);
+          if (distance < smallestDistance) {
+            smallestDistance = distance;
+            closestSideIndex = i;
+          }
+        }
+        float [] point = this.outline [closestSideIndex];
+        float [] nextPoint = this.outline [(closestSideIndex + 1) % this.outline.length];
+        double sideDeltaX = side [2] - side [0];
+        double sideDeltaY = side [3] - side [1];
+        double closestSideDeltaX = nextPoint [0] - point [0];
+        double closestSideDeltaY = nextPoint [1] - point [1];
+        double lengths = Math.sqrt((sideDeltaX * sideDeltaX + sideDeltaY * sideDeltaY)
+            * (closestSideDeltaX * closestSideDeltaX + closestSideDeltaY * closestSideDeltaY));
+        if (Math.abs(sideDeltaX * closestSideDeltaY - sideDeltaY * closestSideDeltaX) > 1E-2 * lengths) {
+          // Side is close to this wall but not parallel to its sides
+          return contains(this.outline, middleX, middleY);
+        } else {
+          // Side is along a side of this wall: it's inside if the closest side of this wall
+          // has an opposite direction, i.e. this wall is at the right of the given side
+          return sideDeltaX * closestSideDeltaX + sideDeltaY * closestSideDeltaY < 0;
+        }
+      }
+    }
+
+    /**
+     * Returns the distance between the given point and the outline of this wall.
+     */
+    private double getDistanceToOutline(double x, double y) {
+      double smallestDistance = Double.MAX_VALUE;
+      for (int i = 0; i < this.outline.length; i++) {
+        float [] point = this.outline [i];
+        float [] nextPoint = this.outline [(i + 1) % this.outline.length];
+        smallestDistance = Math.min(smallestDistance,
+            Line2D.ptSegDistSq(point [0], point [1], nextPoint [0], nextPoint [1], x, y));
+      }
+      return Math.sqrt(smallestDistance);
+    }
+
+    /**
+     * Adds to <code>splits</code> the locations along the side (<code>start</code>, <code>end</code>)
+     * where it intersects the segment (<code>point1</code>, <code>point2</code>).
+     * Intersections are computed in the same way whatever the order of the two segments,
+     * to ensure both sides are split at the same points.
+     */
+    private static void addSplits(List<Double> splits, float [] start, float [] end, double length,
+                                  float [] point1, float [] point2) {
+      double deltaX = end [0] - start [0];
+      double deltaY = end [1] - start [1];
+      boolean point1OnSide = Line2D.ptSegDist(start [0], start [1], end [0], end [1], point1 [0], point1 [1]) < TOLERANCE;
+      boolean point2OnSide = Line2D.ptSegDist(start [0], start [1], end [0], end [1], point2 [0], point2 [1]) < TOLERANCE;
+      if (point1OnSide) {
+        addSplit(splits, ((point1 [0] - start [0]) * deltaX + (point1 [1] - start [1]) * deltaY) / (length * length), length);
+      }
+      if (point2OnSide) {
+        addSplit(splits, ((point2 [0] - start [0]) * deltaX + (point2 [1] - start [1]) * deltaY) / (length * length), length);
+      }
+      if (!point1OnSide
+          && !point2OnSide
+          && Line2D.ptSegDist(point1 [0], point1 [1], point2 [0], point2 [1], start [0], start [1]) >= TOLERANCE
+          && Line2D.ptSegDist(point1 [0], point1 [1], point2 [0], point2 [1], end [0], end [1]) >= TOLERANCE) {
+        // Search the intersection point of segments when none of their points is on the other segment
+        double segmentDeltaX = point2 [0] - point1 [0];
+        double segmentDeltaY = point2 [1] - point1 [1];
+        double denominator = deltaX * segmentDeltaY - deltaY * segmentDeltaX;
+        if (denominator != 0) {
+          double t = ((point1 [0] - start [0]) * segmentDeltaY - (point1 [1] - start [1]) * segmentDeltaX) / denominator;
+          double u = ((point1 [0] - start [0]) * deltaY - (point1 [1] - start [1]) * deltaX) / denominator;
+          if (u >= 0 && u <= 1) {
+            addSplit(splits, t, length);
+          }
+        }
+      }
+    }
+
+    private static void addSplit(List<Double> splits, double t, double length) {
+      if (t * length > TOLERANCE
+          && (1 - t) * length > TOLERANCE) {
+        splits.add(t);
+      }
+    }
+  }
+
+  /**
+   * Returns the faces of the graph built with the given oriented <code>sides</code>,
+   * sorted in the increasing order of their surface.
+   */
+  private static List<GeneralPath> getFaces(List<float []> sides) {
+    // Build graph vertices merging close points
+    Map<Long, List<Vertex>> verticesGrid = new HashMap<Long, List<Vertex>>();
+    Set<Edge> edges = new LinkedHashSet<Edge>();
+    for (float [] side : sides) {
+      Vertex start = getVertex(verticesGrid, side [0], side [1]);
+      Vertex end = getVertex(verticesGrid, side [2], side [3]);
+      if (start != end) {
+        Edge edge = new Edge(start, end);
+        if (edges.add(edge)) {
+          start.outgoingEdges.add(edge);
+          end.incomingEdges.add(edge);
+        }
+      }
+    }
+
+    // Remove dead ends that may remain around tiny gaps between walls
+    List<Edge> deadEndEdges = new ArrayList<Edge>();
+    for (Edge edge : edges) {
+      if (edge.start.incomingEdges.isEmpty()
+          || edge.end.outgoingEdges.isEmpty()) {
+        deadEndEdges.add(edge);
+      }
+    }
+    while (!deadEndEdges.isEmpty()) {
+      Edge edge = deadEndEdges.remove(deadEndEdges.size() - 1);
+      if (edges.remove(edge)) {
+        edge.start.outgoingEdges.remove(edge);
+        edge.end.incomingEdges.remove(edge);
+        if (edge.start.outgoingEdges.isEmpty()) {
+          deadEndEdges.addAll(edge.start.incomingEdges);
+        }
+        if (edge.end.incomingEdges.isEmpty()) {
+          deadEndEdges.addAll(edge.end.outgoingEdges);
+        }
+      }
+    }
+
+    // Follow edges keeping free space on their right, turning around each vertex
+    // to the first outgoing edge met counter clockwise from the incoming edge
+    final Map<GeneralPath, Double> pathAreas = new IdentityHashMap<GeneralPath, Double>();
+    Set<Edge> visitedEdges = new HashSet<Edge>();
+    for (Edge firstEdge : edges) {
+      if (visitedEdges.contains(firstEdge)) {
+        continue;
+      }
+      List<Vertex> faceVertices = new ArrayList<Vertex>();
+      Edge edge = firstEdge;
+      while (edge != null
+          && visitedEdges.add(edge)) {
+        faceVertices.add(edge.start);
+        edge = getNextEdge(edge);
+      }
+      if (edge == firstEdge) {
+        float [][] facePoints = getFacePoints(faceVertices);
+        double area = Math.abs(getSignedArea(facePoints));
+        if (facePoints.length > 2
+            && area > TOLERANCE * TOLERANCE) {
+          GeneralPath path = new GeneralPath();
+          path.moveTo(facePoints [0][0], facePoints [0][1]);
+          for (int i = 1; i < facePoints.length; i++) {
+            path.lineTo(facePoints [i][0], facePoints [i][1]);
+          }
+          path.closePath();
+          pathAreas.put(path, area);
+        }
+      }
+    }
+
+    List<GeneralPath> paths = new ArrayList<GeneralPath>(pathAreas.keySet());
+    Collections.sort(paths, new Comparator<GeneralPath>() {
+        public int compare(GeneralPath path1, GeneralPath path2) {
+          return Double.compare(pathAreas.get(path1), pathAreas.get(path2));
+        }
+      });
+    return paths;
+  }
+
+  /**
+   * Returns the edge following the given one in the face at its right.
+   */
+  private static Edge getNextEdge(Edge edge) {
+    List<Edge> outgoingEdges = edge.end.outgoingEdges;
+    if (outgoingEdges.size() == 1) {
+      return outgoingEdges.get(0);
+    } else {
+      double backwardAngle = Math.atan2(edge.start.y - edge.end.y, edge.start.x - edge.end.x);
+      Edge nextEdge = null;
+      double smallestAngle = Double.MAX_VALUE;
+      for (Edge outgoingEdge : outgoingEdges) {
+        double angle = Math.atan2(outgoingEdge.end.y - outgoingEdge.start.y,
+            outgoingEdge.end.x - outgoingEdge.start.x) - backwardAngle;
+        while (angle <= 0) {
+          angle += 2 * Math.PI;
+        }
+        while (angle > 2 * Math.PI) {
+          angle -= 2 * Math.PI;
+        }
+        if (angle < smallestAngle) {
+          smallestAngle = angle;
+          nextEdge = outgoingEdge;
+        }
+      }
+      return nextEdge;
+    }
+  }
+
+  /**
+   * Returns the points of the given vertices without the ones aligned with their neighbours.
+   * Points are returned in the reverse order of vertices, starting at the top point followed
+   * by a point below it, to match the order of the paths built by <code>java.awt.geom.Area</code>.
+   */
+  private static float [][] getFacePoints(List<Vertex> vertices) {
+    List<float []> points = new ArrayList<float[]>(vertices.size());
+    int count = vertices.size();
+    float [] previousPoint = {vertices.get(0).x, vertices.get(0).y};
+    for (int i = count - 1; i >= 0; i--) {
+      Vertex vertex = vertices.get(i);
+      Vertex next = vertices.get((i + count - 1) % count);
+      if (Line2D.ptSegDistSq(previousPoint [0], previousPoint [1], next.x, next.y, vertex.x, vertex.y) >= 0.0001) {
+        previousPoint = new float [] {vertex.x, vertex.y};
+        points.add(previousPoint);
+      }
+    }
+
+    int startIndex = 0;
+    for (int i = 1; i < points.size(); i++) {
+      float [] point = points.get(i);
+      float [] startPoint = points.get(startIndex);
+      if (point [1] < startPoint [1]
+          || point [1] == startPoint [1]
+              && points.get((startIndex + 1) % points.size()) [1] <= startPoint [1]
+              && points.get((i + 1) % points.size()) [1] > point [1]) {
+        startIndex = i;
+      }
+    }
+    Collections.rotate(points, -startIndex);
+    return points.toArray(new float [points.size()][]);
+  }
+
+  /**
+   * Returns the vertex at the given coordinates, reusing an existing vertex if it's close enough.
+   */
+  private static Vertex getVertex(Map<Long, List<Vertex>> verticesGrid, float x, float y) {
+    long column = (long)Math.floor(x / VERTEX_TOLERANCE);
+    long row = (long)Math.floor(y / VERTEX_TOLERANCE);
+    for (long i = column - 1; i <= column + 1; i++) {
+      for (long j = row - 1; j <= row + 1; j++) {
+        List<Vertex> cellVertices = verticesGrid.get(getCellKey(i, j));
+        if (cellVertices != null) {
+          for (Vertex vertex : cellVertices) {
+            if (Math.abs(vertex.x - x) <= VERTEX_TOLERANCE
+                && Math.abs(vertex.y - y) <= VERTEX_TOLERANCE) {
+              return vertex;
+            }
+          }
+        }
+      }
+    }
+    Vertex vertex = new Vertex(x, y);
+    Long key = getCellKey(column, row);
+    List<Vertex> cellVertices = verticesGrid.get(key);
+    if (cellVertices == null) {
+      cellVertices = new ArrayList<Vertex>(1);
+      verticesGrid.put(key, cellVertices);
+    }
+    cellVertices.add(vertex);
+    return vertex;
+  }
+
+  private static Long getCellKey(long column, long row) {
+    return Long.valueOf((column << 32) ^ (row & 0xFFFFFFFFL));
+  }
+
+  /**
+   * Returns the signed area of the polygon matching the given <code>points</code>.
+   */
+  private static double getSignedArea(float [][] points) {
+    double area = 0;
+    for (int i = 0; i < points.length; i++) {
+      float [] point = points [i];
+      float [] nextPoint = points [(i + 1) % points.length];
+      area += (double)point [0] * nextPoint [1] - (double)nextPoint [0] * point [1];
+    }
+    return area / 2;
+  }
+
+  /**
+   * Returns <code>true</code> if the polygon matching the given <code>points</code>
+   * contains the point at (<code>x</code>, <code>y</code>).
+   */
+  private static boolean contains(float [][] points, double x, double y) {
+    boolean inside = false;
+    for (int i = 0, j = points.length - 1; i < points.length; j = i++) {
+      float [] point = points [i];
+      float [] previousPoint = points [j];
+      if ((point [1] > y) != (previousPoint [1] > y)
+          && x < (previousPoint [0] - point [0]) * (y - point [1]) / (previousPoint [1] - point [1]) + point [0]) {
+        inside = !inside;
+      }
+    }
+    return inside;
+  }
+
+  /**
+   * A vertex of the graph of wall sides.
+   */
+  private static class Vertex {
+    private final float      x;
+    private final float      y;
+    private final List<Edge> outgoingEdges;
+    private final List<Edge> incomingEdges;
+
+    public Vertex(float x, float y) {
+      this.x = x;
+      this.y = y;
+      this.outgoingEdges = new ArrayList<Edge>(2);
+      this.incomingEdges = new ArrayList<Edge>(2);
+    }
+  }
+
+  /**
+   * An oriented edge of the graph of wall sides.
+   */
+  private static class Edge {
+    private final Vertex start;
+    private final Vertex end;
+
+    public Edge(Vertex start, Vertex end) {
+      this.start = start;
+      this.end = end;
+    }
+
+    @Override
+    public boolean equals(Object obj) {
+      if (obj instanceof Edge) {
+        Edge edge = (Edge)obj;
+        return edge.start == this.start
+            && edge.end == this.end;
+      }
+      return false;
+    }
+
+    @Override
+    public int hashCode() {
+      return System.identityHashCode(this.start) * 31 + System.identityHashCode(this.end);
+    }
+  }
+}
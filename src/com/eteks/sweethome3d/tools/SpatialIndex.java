@@ -0,0 +1,279 @@
+/*
+ * SpatialIndex.java 18 oct. 2026
+ *
+ * Sweet Home 3D, Copyright (c) 2026 Emmanuel PUYBARET / eTeks <info@eteks.com>
+ *
+ * This program is free software; you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation; either version 2 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program; if not, write to the Free Software
+ * Foundation, Inc., 59 Temple Place, Suite 330, Boston, MA  02111-1307  USA
+ */
+package com.eteks.sweethome3d.tools;
+
+import java.awt.geom.Rectangle2D;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * A uniform grid index able to return quickly the items whose bounds intersect a given area.
+ * Items are returned in the order they were added to the index, which enables to use
+ * an index built from a sorted list to paint items in the same order.
+ * <code>T</code> is the type of item stored in the index.
+ * @author Emmanuel Puybaret
+ */
+public class SpatialIndex<T> {
+  private static final int MAX_ITEM_CELL_COUNT = 64;
+
+  private final float                      cellSize;
+  private final Map<Long, List<Entry<T>>>  cells;
+  private final Map<T, Entry<T>>           entries;
+  private final List<Entry<T>>             largeEntries;
+  private long                             order;
+  private int                              queryStamp;
+
+  /**
+   * Creates an empty index which cells are <code>cellSize</code> wide.
+   */
+  public SpatialIndex(float cellSize) {
+    if (cellSize <= 0) {
+      throw new IllegalArgumentException("Cell size must be > 0");
+    }
+    this.cellSize = cellSize;
+    this.cells = new HashMap<Long, List<Entry<T>>>();
+    this.entries = new HashMap<T, Entry<T>>();
+    this.largeEntries = new ArrayList<Entry<T>>();
+  }
+
+  /**
+   * Adds <code>item</code> with the given <code>bounds</code> at the end of this index.
+   * If <code>item</code> was already indexed, only its bounds are updated.
+   */
+  public synchronized void add(T item, Rectangle2D bounds) {
+    Entry<T> entry = this.entries.get(item);
+    if (entry == null) {
+      entry = new Entry<T>(item, this.order++);
+      this.entries.put(item, entry);
+    } else {
+      removeFromCells(entry);
+    }
+    entry.bounds = (Rectangle2D)bounds.clone();
+    addToCells(entry);
+  }
+
+  /**
+   * Updates the bounds of <code>item</code> in this index without changing its order,
+   * and returns <code>false</code> if <code>item</code> isn't indexed.
+   */
+  public synchronized boolean update(T item, Rectangle2D bounds) {
+    Entry<T> entry = this.entries.get(item);
+    if (entry == null) {
+      return false;
+    } else {
+      removeFromCells(entry);
+      entry.bounds = (Rectangle2D)bounds.clone();
+      addToCells(entry);
+      return true;
+    }
+  }
+
+  /**
+   * Removes <code>item</code> from this index and returns <code>true</code> if it was indexed.
+   */
+  public synchronized boolean remove(T item) {
+    Entry<T> entry = this.entries.remove(item);
+    if (entry == null) {
+      return false;
+    } else {
+      removeFromCells(entry);
+      return true;
+    }
+  }
+
+  /**
+   * Returns <code>true</code> if <code>item</code> belongs to this index.
+   */
+  public synchronized boolean contains(T item) {
+    return this.entries.containsKey(item);
+  }
+
+  /**
+   * Returns the bounds stored for <code>item</code> or <code>null</code> if it isn't indexed.
+   */
+  public synchronized Rectangle2D getBounds(T item) {
+    Entry<T> entry = this.entries.get(item);
+    if (entry == null) {
+      return null;
+    } else {
+      return (Rectangle2D)entry.bounds.clone();
+    }
+  }
+
+  /**
+   * Returns the count of items in this index.
+   */
+  public synchronized int size() {
+    return this.entries.size();
+  }
+
+  /**
+   * Removes all the items of this index.
+   */
+  public synchronized void clear() {
+    this.cells.clear();
+    this.entries.clear();
+    this.largeEntries.clear();
+  }
+
+  /**
+   * Returns the items which bounds intersect the given <code>area</code>,
+   * in the order they were added to this index.
+   */
+  public synchronized List<T> getItems(Rectangle2D area) {
+    List<Entry<T>> foundEntries = new ArrayList<Entry<T>>();
+    long minColumn = getCellIndex(area.getMinX());
+    long maxColumn = getCellIndex(area.getMaxX());
+    long minRow = getCellIndex(area.getMinY());
+    long maxRow = getCellIndex(area.getMaxY());
+    if ((maxColumn - minColumn + 1) * (maxRow - minRow + 1) > this.entries.size()) {
+      // Area covers more cells than items: a simple scan is faster
+      for (Entry<T> entry : this.entries.values()) {
+        if (intersects(entry.bounds, area)) {
+          foundEntries.add(entry);
+        }
+      }
+    } else {
+      int stamp = ++this.queryStamp;
+      for (long column = minColumn; column <= maxColumn; column++) {
+        for (long row = minRow; row <= maxRow; row++) {
+          List<Entry<T>> cellEntries = this.cells.get(getCellKey(column, row));
+          if (cellEntries != null) {
+            for (Entry<T> entry : cellEntries) {
+              if (entry.stamp != stamp) {
+                entry.stamp = stamp;
+                if (intersects(entry.bounds, area)) {
+                  foundEntries.add(entry);
+                }
+              }
+            }
+          }
+        }
+      }
+      for (Entry<T> entry : this.largeEntries) {
+        if (intersects(entry.bounds, area)) {
+          foundEntries.add(entry);
+        }
+      }
+    }
+
+    Collections.sort(foundEntries, ENTRY_ORDER_COMPARATOR);
+    List<T> items = new ArrayList<T>(foundEntries.size());
+    for (Entry<T> entry : foundEntries) {
+      items.add(entry.item);
+    }
+    return items;
+  }
+
+  /**
+   * Returns <code>true</code> if the given rectangles intersect,
+   * including when one of them is empty.
+   */
+  private static boolean intersects(Rectangle2D bounds, Rectangle2D area) {
+    return bounds.getMaxX() >= area.getMinX()
+        && bounds.getMinX() <= area.getMaxX()
+        && bounds.getMaxY() >= area.getMinY()
+        && bounds.getMinY() <= area.getMaxY();
+  }
+
+  private void addToCells(Entry<T> entry) {
+    long minColumn = getCellIndex(entry.bounds.getMinX());
+    long maxColumn = getCellIndex(entry.bounds.getMaxX());
+    long minRow = getCellIndex(entry.bounds.getMinY());
+    long maxRow = getCellIndex(entry.bounds.getMaxY());
+    if ((maxColumn - minColumn + 1) * (maxRow - minRow + 1) > MAX_ITEM_CELL_COUNT) {
+      // Store items that span too many cells in a separated list
+      entry.large = true;
+      this.largeEntries.add(entry);
+    } else {
+      entry.large = false;
+      for (long column = minColumn; column <= maxColumn; column++) {
+        for (long row = minRow; row <= maxRow; row++) {
+          Long key = getCellKey(column, row);
+          List<Entry<T>> cellEntries = this.cells.get(key);
+          if (cellEntries == null) {
+            cellEntries = new ArrayList<Entry<T>>(4);
+            this.cells.put(key, cellEntries);
+          }
+          cellEntries.add(entry);
+        }
+      }
+    }
+  }
+
+  private void removeFromCells(Entry<T> entry) {
+    if (entry.large) {
+      this.largeEntries.remove(entry);
+    } else {
+      long minColumn = getCellIndex(entry.bounds.getMinX());
+      long maxColumn = getCellIndex(entry.bounds.getMaxX());
+      long minRow = getCellIndex(entry.bounds.getMinY());
+      long maxRow = getCellIndex(entry.bounds.getMaxY());
+      for (long column = minColumn; column <= maxColumn; column++) {
+        for (long row = minRow; row <= maxRow; row++) {
+          Long key = getCellKey(column, row);
+          List<Entry<T>> cellEntries = this.cells.get(key);
+          if (cellEntries != null) {
+            cellEntries.remove(entry);
+            if (cellEntries.isEmpty()) {
+              this.cells.remove(key);
+            }
+          }
+        }
+      }
+    }
+  }
+
+  private long getCellIndex(double coordinate) {
+    return (long)Math.floor(coordinate / this.cellSize);
+  }
+
+  private static Long getCellKey(long column, long row) {
+    return Long.valueOf((column << 32) ^ (row & 0xFFFFFFFFL));
+  }
+
+  private static final Comparator<Entry<?>> ENTRY_ORDER_COMPARATOR = new Comparator<Entry<?>>() {
+      public int compare(Entry<?> entry1, Entry<?> entry2) {
+        return entry1.order < entry2.order
+            ? -1
+            : (entry1.order == entry2.order ? 0 : 1);
+      }
+    };
+
+  /**
+   * An item stored in index with its bounds.
+   */
+  private static class Entry<T> {
+    private final T      item;
+    private final long   order;
+    private Rectangle2D  bounds;
+    private boolean      large;
+    private int          stamp;
+
+    public Entry(T item, long order) {
+      this.item = item;
+      this.order = order;
+    }
+  }
+}
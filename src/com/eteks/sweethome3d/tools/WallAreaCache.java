@@ -0,0 +1,255 @@
+/*
+ * WallAreaCache.java 18 oct. 2026
+ *
+ * Sweet Home 3D, Copyright (c) 2026 Emmanuel PUYBARET / eTeks <info@eteks.com>
+ *
+ * This program is free software; you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation; either version 2 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program; if not, write to the Free Software
+ * Foundation, Inc., 59 Temple Place, Suite 330, Boston, MA  02111-1307  USA
+ */
+package com.eteks.sweethome3d.tools;
+
+import java.awt.geom.Area;
+import java.awt.geom.GeneralPath;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.LinkedList;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.WeakHashMap;
+
+import com.eteks.sweethome3d.model.Wall;
+
+/**
+ * A cache able to compute incrementally the area covered by a set of walls.
+ * The area of each wall is kept as long as its points don't change, walls are gathered
+ * in small groups of connected walls, and the union of these groups is computed
+ * along a binary tree of areas, in order to recompute only the unions that depend
+ * on modified walls. A cache is meant to be owned by the view or the controller
+ * that computes walls area, and dropped with it.
+ * @author Emmanuel Puybaret
+ */
+public class WallAreaCache {
+  private static final int MAX_GROUP_SIZE = 16;
+  private static final int MAX_UNION_TREES = 8;
+
+  private final Map<Wall, WallArea>              wallAreas;
+  private final Map<List<Wall>, GroupArea>       groupAreas;
+  private final Map<Set<Wall>, List<List<Area>>> unionTrees;
+  private int                                    maxGroupCount = 256;
+  private float []                               pointsBuffer;
+
+  /**
+   * Creates an empty cache.
+   */
+  public WallAreaCache() {
+    this.wallAreas = new WeakHashMap<Wall, WallArea>();
+    this.groupAreas = new LinkedHashMap<List<Wall>, GroupArea>(16, 0.75f, true) {
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<List<Wall>, GroupArea> eldest) {
+          return size() > maxGroupCount;
+        }
+      };
+    this.unionTrees = new LinkedHashMap<Set<Wall>, List<List<Area>>>(16, 0.75f, true) {
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<Set<Wall>, List<List<Area>>> eldest) {
+          return size() > MAX_UNION_TREES;
+        }
+      };
+  }
+
+  /**
+   * Returns the area matching the union of the shapes of the given <code>walls</code>.
+   * The returned area is shared and must not be modified.
+   */
+  public synchronized Area getArea(Collection<Wall> walls) {
+    if (walls.isEmpty()) {
+      return new Area();
+    }
+
+    List<List<Wall>> groups = getConnectedWallGroups(walls);
+    this.maxGroupCount = Math.max(this.maxGroupCount, 2 * groups.size());
+    List<Area> leaves = new ArrayList<Area>(groups.size());
+    for (List<Wall> group : groups) {
+      leaves.add(getGroupArea(group));
+    }
+
+    // Compute the union of groups along a binary tree, reusing the nodes
+    // of the previous tree computed for the same walls when their children didn't change
+    Set<Wall> wallsKey = new HashSet<Wall>(walls);
+    List<List<Area>> previousTree = this.unionTrees.get(wallsKey);
+    List<List<Area>> tree = new ArrayList<List<Area>>();
+    tree.add(leaves);
+    List<Area> nodes = leaves;
+    while (nodes.size() > 1) {
+      int depth = tree.size();
+      List<Area> previousChildren = previousTree != null && previousTree.size() > depth
+          ? previousTree.get(depth - 1)
+          : null;
+      List<Area> previousNodes = previousTree != null && previousTree.size() > depth
+          ? previousTree.get(depth)
+          : null;
+      List<Area> parentNodes = new ArrayList<Area>((nodes.size() + 1) / 2);
+      for (int i = 0; i < nodes.size(); i += 2) {
+        if (i + 1 == nodes.size()) {
+          parentNodes.add(nodes.get(i));
+        } else if (previousNodes != null
+            && previousChildren.size() == nodes.size()
+            && previousChildren.get(i) == nodes.get(i)
+            && previousChildren.get(i + 1) == nodes.get(i + 1)) {
+          parentNodes.add(previousNodes.get(i / 2));
+        } else {
+          Area union = new Area(nodes.get(i));
+          union.add(nodes.get(i + 1));
+          parentNodes.add(union);
+        }
+      }
+      tree.add(parentNodes);
+      nodes = parentNodes;
+    }
+    this.unionTrees.put(wallsKey, tree);
+    return nodes.get(0);
+  }
+
+  /**
+   * Returns the walls of the given collection gathered in groups of connected walls.
+   * Groups contain at most <code>MAX_GROUP_SIZE</code> walls, and are always built
+   * in the same order for unchanged walls and connections.
+   */
+  private List<List<Wall>> getConnectedWallGroups(Collection<Wall> walls) {
+    Set<Wall> remainingWalls = new HashSet<Wall>(walls);
+    List<List<Wall>> groups = new ArrayList<List<Wall>>();
+    for (Wall wall : walls) {
+      if (remainingWalls.remove(wall)) {
+        // Browse connected walls
+        List<Wall> group = new ArrayList<Wall>();
+        LinkedList<Wall> connectedWalls = new LinkedList<Wall>();
+        connectedWalls.add(wall);
+        while (!connectedWalls.isEmpty()) {
+          Wall connectedWall = connectedWalls.removeFirst();
+          if (group.size() == MAX_GROUP_SIZE) {
+            groups.add(group);
+            group = new ArrayList<Wall>();
+          }
+          group.add(connectedWall);
+          Wall wallAtStart = connectedWall.getWallAtStart();
+          if (wallAtStart != null
+              && remainingWalls.remove(wallAtStart)) {
+            connectedWalls.add(wallAtStart);
+          }
+          Wall wallAtEnd = connectedWall.getWallAtEnd();
+          if (wallAtEnd != null
+              && remainingWalls.remove(wallAtEnd)) {
+            connectedWalls.add(wallAtEnd);
+          }
+        }
+        groups.add(group);
+      }
+    }
+    return groups;
+  }
+
+  /**
+   * Returns the union of the areas of the walls in <code>group</code>.
+   */
+  private Area getGroupArea(List<Wall> group) {
+    Area [] wallAreas = new Area [group.size()];
+    for (int i = 0; i < wallAreas.length; i++) {
+      wallAreas [i] = getWallArea(group.get(i));
+    }
+    GroupArea groupArea = this.groupAreas.get(group);
+    boolean groupModified = groupArea == null;
+    for (int i = 0; !groupModified && i < wallAreas.length; i++) {
+      groupModified = groupArea.wallAreas [i] != wallAreas [i];
+    }
+    if (groupModified) {
+      Area area = new Area();
+      for (Area wallArea : wallAreas) {
+        area.add(wallArea);
+      }
+      groupArea = new GroupArea(wallAreas, area);
+      this.groupAreas.put(group, groupArea);
+    }
+    return groupArea.area;
+  }
+
+  /**
+   * Returns the area of the given <code>wall</code>, computed again only if its points changed.
+   * The returned area is shared and must not be modified.
+   */
+  public synchronized Area getWallArea(Wall wall) {
+    // Compare wall points in a buffer reused from a call to the other
+    this.pointsBuffer = wall.getPoints(this.pointsBuffer);
+    int coordinateCount = 2 * wall.getPointCount();
+    WallArea wallArea = this.wallAreas.get(wall);
+    if (wallArea == null
+        || !equalPoints(wallArea.points, this.pointsBuffer, coordinateCount)) {
+      float [] points = new float [coordinateCount];
+      System.arraycopy(this.pointsBuffer, 0, points, 0, coordinateCount);
+      GeneralPath path = new GeneralPath(GeneralPath.WIND_NON_ZERO, coordinateCount / 2 + 1);
+      path.moveTo(points [0], points [1]);
+      for (int i = 2; i < coordinateCount; i += 2) {
+        path.lineTo(points [i], points [i + 1]);
+      }
+      path.closePath();
+      wallArea = new WallArea(points, new Area(path));
+      this.wallAreas.put(wall, wallArea);
+    }
+    return wallArea.area;
+  }
+
+  /**
+   * Returns <code>true</code> if <code>points</code> contains 
+   * the <code>coordinateCount</code> first values of <code>buffer</code>.
+   */
+  private static boolean equalPoints(float [] points, float [] buffer, int coordinateCount) {
+    if (points.length != coordinateCount) {
+      return false;
+    }
+    for (int i = 0; i < coordinateCount; i++) {
+      if (points [i] != buffer [i]) {
+        return false;
+      }
+    }
+    return true;
+  }
+
+  /**
+   * The area of a wall computed for given points.
+   */
+  private static class WallArea {
+    private final float [] points;
+    private final Area     area;
+
+    public WallArea(float [] points, Area area) {
+      this.points = points;
+      this.area = area;
+    }
+  }
+
+  /**
+   * The union of the areas of a group of walls.
+   */
+  private static class GroupArea {
+    private final Area [] wallAreas;
+    private final Area    area;
+
+    public GroupArea(Area [] wallAreas, Area area) {
+      this.wallAreas = wallAreas;
+      this.area = area;
+    }
+  }
+}
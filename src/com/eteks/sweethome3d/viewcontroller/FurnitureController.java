@@ -208,9 +208,15 @@ public class FurnitureController implements Controller {
                               Level furnitureLevel, 
                               Level [] furnitureLevels, 
                               boolean basePlanLocked) {
-    for (int i = 0; i < furnitureIndex.length; i++) {
-      this.home.addPieceOfFurniture (furniture [i], furnitureIndex [i]);
-      furniture [i].setLevel(furnitureLevels != null ? furnitureLevels [i] : furnitureLevel);
+    // Notify the additions of all the pieces at once to batch listeners
+    this.home.beginBatch();
+    try {
+      for (int i = 0; i < furnitureIndex.length; i++) {
+        this.home.addPieceOfFurniture (furniture [i], furnitureIndex [i]);
+        furniture [i].setLevel(furnitureLevels != null ? furnitureLevels [i] : furnitureLevel);
+      }
+    } finally {
+      this.home.endBatch();
     }
     this.home.setBasePlanLocked(basePlanLocked);
     this.home.setSelectedItems(Arrays.asList(furniture)); 
@@ -276,8 +282,13 @@ public class FurnitureController implements Controller {
   
   private void doDeleteFurniture(HomePieceOfFurniture [] furniture, 
                                  boolean basePlanLocked) { 
-    for (HomePieceOfFurniture piece : furniture) {
-      this.home.deletePieceOfFurniture(piece);
+    this.home.beginBatch();
+    try {
+      for (HomePieceOfFurniture piece : furniture) {
+        this.home.deletePieceOfFurniture(piece);
+      }
+    } finally {
+      this.home.endBatch();
     }
     this.home.setBasePlanLocked(basePlanLocked);
   }
@@ -72,6 +72,9 @@ import com.eteks.sweethome3d.model.SelectionListener;
 import com.eteks.sweethome3d.model.TextStyle;
 import com.eteks.sweethome3d.model.UserPreferences;
 import com.eteks.sweethome3d.model.Wall;
+import com.eteks.sweethome3d.tools.RoomDetector;
+import com.eteks.sweethome3d.tools.SpatialIndex;
+import com.eteks.sweethome3d.tools.WallAreaCache;
 
 /**
  * A MVC controller for the plan view.
@@ -118,6 +121,7 @@ public class PlanController extends FurnitureController implements Controller {
   private static final int PIXEL_MARGIN           = 4;
   private static final int INDICATOR_PIXEL_MARGIN = 4;
   private static final int WALL_ENDS_PIXEL_MARGIN = 2;
+  private static final int INDEX_CELL_SIZE        = 200;
 
   private final Home                  home;
   private final UserPreferences       preferences;
@@ -174,9 +178,12 @@ public class PlanController extends FurnitureController implements Controller {
   private float                           xLastMouseMove;
   private float                           yLastMouseMove;
   private Area                            wallsAreaCache;
-  private Area                            insideWallsAreaCache;
   private List<GeneralPath>               roomPathsCache;
+  private RoomDetector                    roomDetector;
+  private WallAreaCache                   wallAreaCache;
   private Map<HomePieceOfFurniture, Area> furnitureSidesCache;
+  private SpatialIndex<Wall>              levelWallsIndexCache;
+  private SpatialIndex<HomePieceOfFurniture> furnitureIndexCache;
   private List<Selectable>                draggedItems;
 
 
@@ -1492,28 +1499,12 @@ public class PlanController extends FurnitureController implements Controller {
   private List<Selectable> getVisibleItemsAtSelectedLevel() {
     List<Selectable> selectableItems = new ArrayList<Selectable>();
     Level selectedLevel = this.home.getSelectedLevel();
-    for (Wall wall : this.home.getWalls()) {
-      if (wall.isAtLevel(selectedLevel)) {
-        selectableItems.add(wall);
-      }
-    }
-    for (Room room : this.home.getRooms()) {
-      if (room.isAtLevel(selectedLevel)) {
-        selectableItems.add(room);
-      }
-    }
-    for (DimensionLine dimensionLine : this.home.getDimensionLines()) {
-      if (dimensionLine.isAtLevel(selectedLevel)) {
-        selectableItems.add(dimensionLine);
-      }
-    }
-    for (Label label : this.home.getLabels()) {
-      if (label.isAtLevel(selectedLevel)) {
-        selectableItems.add(label);
-      }
-    }
-    for (HomePieceOfFurniture piece : this.home.getFurniture()) {
-      if (isPieceOfFurnitureVisibleAtSelectedLevel(piece)) {
+    selectableItems.addAll(this.home.getWallsAtLevel(selectedLevel));
+    selectableItems.addAll(this.home.getRoomsAtLevel(selectedLevel));
+    selectableItems.addAll(this.home.getDimensionLinesAtLevel(selectedLevel));
+    selectableItems.addAll(this.home.getLabelsAtLevel(selectedLevel));
+    for (HomePieceOfFurniture piece : this.home.getFurnitureAtLevel(selectedLevel)) {
+      if (piece.isVisible()) {
         selectableItems.add(piece);
       }
     }
@@ -1544,22 +1535,22 @@ public class PlanController extends FurnitureController implements Controller {
     if (selectedLevel == null || levels.size() <= 1) {
       return rooms; 
     } else {
-      List<Room> visibleRooms = new ArrayList<Room>(rooms.size());
+      List<Room> visibleRooms = new ArrayList<Room>();
       int selectedLevelIndex = levels.indexOf(selectedLevel);
       boolean level0 = levels.get(0) == selectedLevel
           || levels.get(selectedLevelIndex - 1).getElevation() == selectedLevel.getElevation();
       Level otherLevel = levels.get(level0 && selectedLevelIndex < levels.size() - 1 
           ? selectedLevelIndex + 1 
           : selectedLevelIndex  - 1);
-      for (Room room : rooms) {
-        if (room.isAtLevel(selectedLevel)
-            || otherLevel != null 
-                && room.isAtLevel(otherLevel)
-                && (level0 && room.isFloorVisible()
-                    || !level0 && room.isCeilingVisible())) {
-          visibleRooms.add(room);
-        }
-      }      
+      visibleRooms.addAll(this.home.getRoomsAtLevel(selectedLevel));
+      if (otherLevel != null) {
+        for (Room room : this.home.getRoomsAtLevel(otherLevel)) {
+          if (level0 && room.isFloorVisible()
+              || !level0 && room.isCeilingVisible()) {
+            visibleRooms.add(room);
+          }
+        }      
+      }
       return visibleRooms;
     }
   }
@@ -1574,18 +1565,19 @@ public class PlanController extends FurnitureController implements Controller {
     if (selectedLevel == null || levels.size() <= 1) {
       return walls; 
     } else {
-      Collection<Wall> visibleWalls = new ArrayList<Wall>(walls.size());
+      Collection<Wall> visibleWalls = new ArrayList<Wall>();
       int selectedLevelIndex = levels.indexOf(selectedLevel);
       boolean level0 = levels.get(0) == selectedLevel
           || levels.get(selectedLevelIndex - 1).getElevation() == selectedLevel.getElevation();
       Level otherLevel = levels.get(level0 && selectedLevelIndex < levels.size() - 1 
           ? selectedLevelIndex + 1 
           : selectedLevelIndex  - 1);
-      for (Wall wall : walls) {
-        if (wall.isAtLevel(selectedLevel)
-            || otherLevel != null 
-               && wall.isAtLevel(otherLevel)) {
-          visibleWalls.add(wall);
+      visibleWalls.addAll(this.home.getWallsAtLevel(selectedLevel));
+      if (otherLevel != null) {
+        for (Wall wall : this.home.getWallsAtLevel(otherLevel)) {
+          if (!wall.isAtLevel(selectedLevel)) {
+            visibleWalls.add(wall);
+          }
         }
       }
       return visibleWalls;
@@ -1672,9 +1664,14 @@ public class PlanController extends FurnitureController implements Controller {
           String propertyName = ev.getPropertyName();
           if (HomePieceOfFurniture.Property.X.name().equals(propertyName)
               || HomePieceOfFurniture.Property.Y.name().equals(propertyName)
+              || HomePieceOfFurniture.Property.ANGLE.name().equals(propertyName)
               || HomePieceOfFurniture.Property.WIDTH.name().equals(propertyName)
               || HomePieceOfFurniture.Property.DEPTH.name().equals(propertyName)) {
-            furnitureSidesCache.remove((HomePieceOfFurniture)ev.getSource());
+            HomePieceOfFurniture piece = (HomePieceOfFurniture)ev.getSource();
+            furnitureSidesCache.remove(piece);
+            if (furnitureIndexCache != null) {
+              furnitureIndexCache.update(piece, getBounds(piece.getPoints()));
+            }
           }
         }
       };
@@ -1689,6 +1686,8 @@ public class PlanController extends FurnitureController implements Controller {
             ev.getItem().removePropertyChangeListener(furnitureChangeListener);
             furnitureSidesCache.remove(ev.getItem());
           }
+          // Rebuild furniture index at next use to keep it in the order of home furniture
+          furnitureIndexCache = null;
         }
       });
     
@@ -1707,8 +1706,8 @@ public class PlanController extends FurnitureController implements Controller {
 
   private void resetAreaCache() {
     wallsAreaCache = null;
-    insideWallsAreaCache = null;
     roomPathsCache = null;
+    levelWallsIndexCache = null;
   }
   
   /**
@@ -1773,13 +1772,14 @@ public class PlanController extends FurnitureController implements Controller {
     Level selectedLevel = this.home.getSelectedLevel();
     float [][] piecePoints = piece.getPoints();
     
-    Area wallsArea = getWallsArea();
-    Collection<Wall> walls = this.home.getWalls();
+    SpatialIndex<Wall> wallsIndex = getLevelWallsIndex();
+    WallAreaCache wallAreaCache = getWallAreaCache();
     
     Wall referenceWall = null;
     if (forceOrientation
         || !piece.isDoorOrWindow()) {
       // Search if point (x, y) is contained in home walls with no margin
+      List<Wall> walls = wallsIndex.getItems(new Rectangle2D.Float(x - margin, y - margin, 2 * margin, 2 * margin));
       for (Wall wall : walls) {
         if (wall.isAtLevel(selectedLevel) 
             && wall.containsPoint(x, y, 0) 
@@ -1803,15 +1803,21 @@ public class PlanController extends FurnitureController implements Controller {
 
     if (referenceWall == null) {
       // Search if the border of a wall at floor level intersects with the given piece
-      Area pieceAreaWithMargin = new Area(getRotatedRectangle(
+      GeneralPath piecePathWithMargin = getRotatedRectangle(
           piece.getX() - piece.getWidth() / 2 - margin, piece.getY() - piece.getDepth() / 2 - margin, 
-          piece.getWidth() + 2 * margin, piece.getDepth() + 2 * margin, piece.getAngle()));
+          piece.getWidth() + 2 * margin, piece.getDepth() + 2 * margin, piece.getAngle());
+      float [][] piecePointsWithMargin = getPathPoints(piecePathWithMargin, false);
+      Area pieceAreaWithMargin = null;
       float intersectionWithReferenceWallSurface = 0;
-      for (Wall wall : walls) {
+      // Search only among walls close to the piece, ignoring the ones clearly separated from it
+      for (Wall wall : wallsIndex.getItems(piecePathWithMargin.getBounds2D())) {
         if (wall.isAtLevel(selectedLevel) 
-            && wall.getStartPointToEndPointDistance() > 0) {
-          float [][] wallPoints = wall.getPoints();
-          Area wallAreaIntersection = new Area(getPath(wallPoints));
+            && wall.getStartPointToEndPointDistance() > 0
+            && !isSeparated(wall.getPoints(), piecePointsWithMargin)) {
+          if (pieceAreaWithMargin == null) {
+            pieceAreaWithMargin = new Area(piecePathWithMargin);
+          }
+          Area wallAreaIntersection = new Area(wallAreaCache.getWallArea(wall));
           wallAreaIntersection.intersect(pieceAreaWithMargin);
           if (!wallAreaIntersection.isEmpty()) {
             float surface = getArea(wallAreaIntersection);
@@ -1932,9 +1938,19 @@ public class PlanController extends FurnitureController implements Controller {
               || Line2D.relativeCCW(referenceWall.getXStart(), referenceWall.getYStart(), 
                   referenceWall.getXEnd(), referenceWall.getYEnd(), x, y) > 0)) {
         // Search if piece intersects some other walls and avoid it intersects the closest one 
+        GeneralPath adjustedPiecePath = getRotatedRectangle(xPiece - halfWidth, 
+            yPiece - halfDepth, piece.getWidth(), piece.getDepth(), pieceAngle);
+        // Only walls which intersect the adjusted piece matter, 
+        // so compute walls area from the walls close to it
+        float [][] adjustedPiecePoints = getPathPoints(adjustedPiecePath, false);
+        Area wallsArea = new Area();
+        for (Wall wall : wallsIndex.getItems(adjustedPiecePath.getBounds2D())) {
+          if (!isSeparated(wall.getPoints(), adjustedPiecePoints)) {
+            wallsArea.add(wallAreaCache.getWallArea(wall));
+          }
+        }
         Area wallsAreaIntersection = new Area(wallsArea);
-        Area adjustedPieceArea = new Area(getRotatedRectangle(xPiece - halfWidth, 
-                yPiece - halfDepth, piece.getWidth(), piece.getDepth(), pieceAngle));
+        Area adjustedPieceArea = new Area(adjustedPiecePath);
         wallsAreaIntersection.subtract(new Area(getPath(wallPoints)));
         wallsAreaIntersection.intersect(adjustedPieceArea);
         if (!wallsAreaIntersection.isEmpty()) {
@@ -2220,7 +2236,7 @@ public class PlanController extends FurnitureController implements Controller {
       float [][] piecePoints = piece.getPoints();
       HomePieceOfFurniture highestSurroundingPiece = null;
       float highestElevation = Float.MIN_VALUE;
-      for (HomePieceOfFurniture homePiece : this.home.getFurniture()) {
+      for (HomePieceOfFurniture homePiece : getFurnitureIndex().getItems(getBounds(piecePoints))) {
         if (homePiece != piece 
             && !homePiece.isDoorOrWindow()
             && isPieceOfFurnitureVisibleAtSelectedLevel(homePiece)) {
@@ -2258,7 +2274,7 @@ public class PlanController extends FurnitureController implements Controller {
                                                                   boolean forceOrientation, 
                                                                   Wall magnetWall) {
     float [][] piecePoints = piece.getPoints();
-    Area pieceArea = new Area(getPath(piecePoints));
+    Area pieceArea = null;
     boolean doorOrWindowBoundToWall = piece instanceof HomeDoorOrWindow 
         && ((HomeDoorOrWindow)piece).isBoundToWall();
     
@@ -2270,7 +2286,11 @@ public class PlanController extends FurnitureController implements Controller {
     Area intersectionWithReferencePieceArea = null;
     float intersectionWithReferencePieceSurface = 0;
     float [][] referencePiecePoints = null;
-    for (HomePieceOfFurniture homePiece : this.home.getFurniture()) {
+    // Search only among furniture close to the piece
+    Rectangle2D pieceBoundsWithMargin = getBounds(piecePoints);
+    pieceBoundsWithMargin.add(pieceBoundsWithMargin.getMinX() - margin, pieceBoundsWithMargin.getMinY() - margin);
+    pieceBoundsWithMargin.add(pieceBoundsWithMargin.getMaxX() + margin, pieceBoundsWithMargin.getMaxY() + margin);
+    for (HomePieceOfFurniture homePiece : getFurnitureIndex().getItems(pieceBoundsWithMargin)) {
       float homePieceElevation = homePiece.getGroundElevation();
       if (homePiece != piece 
           && isPieceOfFurnitureVisibleAtSelectedLevel(homePiece)
@@ -2280,6 +2300,9 @@ public class PlanController extends FurnitureController implements Controller {
               || homePiece.isDoorOrWindow())) {
         float [][] points = homePiece.getPoints();
         GeneralPath path = getPath(points);
+        if (pieceArea == null) {
+          pieceArea = new Area(getPath(piecePoints));
+        }
         Area marginArea;
         if (doorOrWindowBoundToWall && homePiece.isDoorOrWindow()) {
           marginArea = new Area(stroke.createStrokedShape(new Line2D.Float(
@@ -2449,13 +2472,14 @@ public class PlanController extends FurnitureController implements Controller {
    */
   private boolean isIntersectionEmpty(HomePieceOfFurniture piece1, HomePieceOfFurniture piece2,
                                       float deltaX, float deltaY) {
-    Area intersection = new Area(getRotatedRectangle(piece1.getX() - piece1.getWidth() / 2 + deltaX, 
-        piece1.getY() - piece1.getDepth() / 2 + deltaY, piece1.getWidth(), piece1.getDepth(), piece1.getAngle()));
+    GeneralPath rectangle1 = getRotatedRectangle(piece1.getX() - piece1.getWidth() / 2 + deltaX, 
+        piece1.getY() - piece1.getDepth() / 2 + deltaY, piece1.getWidth(), piece1.getDepth(), piece1.getAngle());
     float epsilon = 0.01f;
-    intersection.intersect(new Area(getRotatedRectangle(piece2.getX() - piece2.getWidth() / 2 - epsilon, 
+    GeneralPath rectangle2 = getRotatedRectangle(piece2.getX() - piece2.getWidth() / 2 - epsilon, 
         piece2.getY() - piece2.getDepth() / 2 - epsilon, 
-        piece2.getWidth() + 2 * epsilon, piece2.getDepth() + 2 * epsilon, piece2.getAngle())));
-    return intersection.isEmpty();
+        piece2.getWidth() + 2 * epsilon, piece2.getDepth() + 2 * epsilon, piece2.getAngle());
+    // As rectangles are convex, they don't intersect if and only if they're separated  
+    return isSeparated(getPathPoints(rectangle1, false), getPathPoints(rectangle2, false));
   }
   
   /**
@@ -2465,14 +2489,62 @@ public class PlanController extends FurnitureController implements Controller {
   private boolean isIntersectionEmpty(HomePieceOfFurniture piece, Wall wall,
                                       float deltaX, float deltaY) {
     if (wall != null) {
-      Area wallAreaIntersection = new Area(getPath(wall.getPoints()));
-      wallAreaIntersection.intersect(new Area(getRotatedRectangle(piece.getX() - piece.getWidth() / 2 + deltaX, 
-          piece.getY() - piece.getDepth() / 2 + deltaY, piece.getWidth(), piece.getDepth(), piece.getAngle())));
+      GeneralPath pieceRectangle = getRotatedRectangle(piece.getX() - piece.getWidth() / 2 + deltaX, 
+          piece.getY() - piece.getDepth() / 2 + deltaY, piece.getWidth(), piece.getDepth(), piece.getAngle());
+      if (isSeparated(wall.getPoints(), getPathPoints(pieceRectangle, false))) {
+        return true;
+      }
+      Area wallAreaIntersection = new Area(getWallAreaCache().getWallArea(wall));
+      wallAreaIntersection.intersect(new Area(pieceRectangle));
       return getArea(wallAreaIntersection) < 1E-4f;
     }
     return true;
   }
   
+  /**
+   * Returns <code>true</code> if an axis perpendicular to one of the sides of the polygons 
+   * described by <code>points1</code> and <code>points2</code> separates them.
+   * Polygons which are separated don't intersect, and convex polygons which 
+   * aren't separated intersect. 
+   */
+  private boolean isSeparated(float [][] points1, float [][] points2) {
+    return isSeparatedBySideAxis(points1, points2)
+        || isSeparatedBySideAxis(points2, points1);
+  }
+
+  /**
+   * Returns <code>true</code> if an axis perpendicular to one of the sides of the polygon 
+   * described by <code>points1</code> separates it from the polygon described by <code>points2</code>.
+   */
+  private boolean isSeparatedBySideAxis(float [][] points1, float [][] points2) {
+    for (int i = 0; i < points1.length; i++) {
+      float [] point = points1 [i];
+      float [] nextPoint = points1 [(i + 1) % points1.length];
+      double xAxis = point [1] - nextPoint [1];
+      double yAxis = nextPoint [0] - point [0];
+      if (xAxis != 0 || yAxis != 0) {
+        double min1 = Double.POSITIVE_INFINITY;
+        double max1 = Double.NEGATIVE_INFINITY;
+        for (float [] point1 : points1) {
+          double projection = point1 [0] * xAxis + point1 [1] * yAxis;
+          min1 = Math.min(min1, projection);
+          max1 = Math.max(max1, projection);
+        }
+        double min2 = Double.POSITIVE_INFINITY;
+        double max2 = Double.NEGATIVE_INFINITY;
+        for (float [] point2 : points2) {
+          double projection = point2 [0] * xAxis + point2 [1] * yAxis;
+          min2 = Math.min(min2, projection);
+          max2 = Math.max(max2, projection);
+        }
+        if (max1 <= min2 || max2 <= min1) {
+          return true;
+        }
+      }
+    }
+    return false;
+  }
+  
   /**
    * Returns the shape of the given rectangle rotated of a given <code>angle</code>. 
    */
@@ -2492,8 +2564,8 @@ public class PlanController extends FurnitureController implements Controller {
   private DimensionLine getMeasuringDimensionLineAt(float x, float y, 
                                                     boolean magnetismEnabled) {
     float margin = PIXEL_MARGIN / getScale();
-    for (HomePieceOfFurniture piece : this.home.getFurniture()) {
-      if (isPieceOfFurnitureVisibleAtSelectedLevel(piece)) {
+    for (HomePieceOfFurniture piece : this.home.getFurnitureAtLevel(this.home.getSelectedLevel())) {
+      if (piece.isVisible()) {
         DimensionLine dimensionLine = getDimensionLineBetweenPointsAt(piece.getPoints(), x, y, margin, magnetismEnabled);
         if (dimensionLine != null) {
           return dimensionLine;
@@ -2651,20 +2723,26 @@ public class PlanController extends FurnitureController implements Controller {
    * and labels. 
    */
   private void moveHomeItemsToLevel(Level level) {
-    for (HomePieceOfFurniture piece : this.home.getFurniture()) {
-      piece.setLevel(level);
-    }
-    for (Wall wall : this.home.getWalls()) {
-      wall.setLevel(level);
-    }
-    for (Room room : this.home.getRooms()) {
-      room.setLevel(level);
-    }
-    for (DimensionLine dimensionLine : this.home.getDimensionLines()) {
-      dimensionLine.setLevel(level);
-    }
-    for (Label label : this.home.getLabels()) {
-      label.setLevel(level);
+    // Notify the level changes of all items at once to batch listeners
+    this.home.beginBatch();
+    try {
+      for (HomePieceOfFurniture piece : this.home.getFurniture()) {
+        piece.setLevel(level);
+      }
+      for (Wall wall : this.home.getWalls()) {
+        wall.setLevel(level);
+      }
+      for (Room room : this.home.getRooms()) {
+        room.setLevel(level);
+      }
+      for (DimensionLine dimensionLine : this.home.getDimensionLines()) {
+        dimensionLine.setLevel(level);
+      }
+      for (Label label : this.home.getLabels()) {
+        label.setLevel(level);
+      }
+    } finally {
+      this.home.endBatch();
     }
   }
 
@@ -2688,19 +2766,25 @@ public class PlanController extends FurnitureController implements Controller {
         levelFurniture.add(piece);
       }
     }
-    // Delete furniture with inherited method
-    deleteFurniture(levelFurniture);      
-    
-    List<Selectable> levelOtherItems = new ArrayList<Selectable>();
-    addLevelItemsAtSelectedLevel(this.home.getWalls(), levelOtherItems);
-    addLevelItemsAtSelectedLevel(this.home.getRooms(), levelOtherItems);
-    addLevelItemsAtSelectedLevel(this.home.getDimensionLines(), levelOtherItems);
-    addLevelItemsAtSelectedLevel(this.home.getLabels(), levelOtherItems);
-    // First post to undo support that walls, rooms and dimension lines are deleted, 
-    // otherwise data about joined walls and rooms index can't be stored       
-    postDeleteItems(levelOtherItems, this.home.isBasePlanLocked());
-    // Then delete items from plan
-    doDeleteItems(levelOtherItems);
+    // Notify the deletions of all the items of the level at once to batch listeners
+    this.home.beginBatch();
+    try {
+      // Delete furniture with inherited method
+      deleteFurniture(levelFurniture);      
+      
+      List<Selectable> levelOtherItems = new ArrayList<Selectable>();
+      addLevelItemsAtSelectedLevel(this.home.getWalls(), levelOtherItems);
+      addLevelItemsAtSelectedLevel(this.home.getRooms(), levelOtherItems);
+      addLevelItemsAtSelectedLevel(this.home.getDimensionLines(), levelOtherItems);
+      addLevelItemsAtSelectedLevel(this.home.getLabels(), levelOtherItems);
+      // First post to undo support that walls, rooms and dimension lines are deleted, 
+      // otherwise data about joined walls and rooms index can't be stored       
+      postDeleteItems(levelOtherItems, this.home.isBasePlanLocked());
+      // Then delete items from plan
+      doDeleteItems(levelOtherItems);
+    } finally {
+      this.home.endBatch();
+    }
 
     this.home.deleteLevel(oldSelectedLevel);
     List<Level> levels = this.home.getLevels();
@@ -3620,19 +3704,25 @@ public class PlanController extends FurnitureController implements Controller {
           }
         });
 
-      // Delete furniture with inherited method
-      deleteFurniture(Home.getFurnitureSubList(deletedItems));      
-
-      List<Selectable> deletedOtherItems = 
-          new ArrayList<Selectable>(Home.getWallsSubList(deletedItems));
-      deletedOtherItems.addAll(Home.getRoomsSubList(deletedItems));
-      deletedOtherItems.addAll(Home.getDimensionLinesSubList(deletedItems));
-      deletedOtherItems.addAll(Home.getLabelsSubList(deletedItems));
-      // First post to undo support that walls, rooms and dimension lines are deleted, 
-      // otherwise data about joined walls and rooms index can't be stored       
-      postDeleteItems(deletedOtherItems, this.home.isBasePlanLocked());
-      // Then delete items from plan
-      doDeleteItems(deletedOtherItems);
+      // Notify the deletions of all the items at once to batch listeners
+      this.home.beginBatch();
+      try {
+        // Delete furniture with inherited method
+        deleteFurniture(Home.getFurnitureSubList(deletedItems));      
+  
+        List<Selectable> deletedOtherItems = 
+            new ArrayList<Selectable>(Home.getWallsSubList(deletedItems));
+        deletedOtherItems.addAll(Home.getRoomsSubList(deletedItems));
+        deletedOtherItems.addAll(Home.getDimensionLinesSubList(deletedItems));
+        deletedOtherItems.addAll(Home.getLabelsSubList(deletedItems));
+        // First post to undo support that walls, rooms and dimension lines are deleted, 
+        // otherwise data about joined walls and rooms index can't be stored       
+        postDeleteItems(deletedOtherItems, this.home.isBasePlanLocked());
+        // Then delete items from plan
+        doDeleteItems(deletedOtherItems);
+      } finally {
+        this.home.endBatch();
+      }
 
       // End compound edit
       this.undoSupport.endUpdate();
@@ -3678,10 +3768,15 @@ public class PlanController extends FurnitureController implements Controller {
       @Override
       public void undo() throws CannotUndoException {
         super.undo();
-        doAddWalls(joinedDeletedWalls, basePlanLocked);       
-        doAddRooms(rooms, roomsIndex, level, basePlanLocked);
-        doAddDimensionLines(dimensionLines, level, basePlanLocked);
-        doAddLabels(labels, level, basePlanLocked);
+        home.beginBatch();
+        try {
+          doAddWalls(joinedDeletedWalls, basePlanLocked);       
+          doAddRooms(rooms, roomsIndex, level, basePlanLocked);
+          doAddDimensionLines(dimensionLines, level, basePlanLocked);
+          doAddLabels(labels, level, basePlanLocked);
+        } finally {
+          home.endBatch();
+        }
         selectAndShowItems(deletedItems);
       }
       
@@ -3689,10 +3784,15 @@ public class PlanController extends FurnitureController implements Controller {
       public void redo() throws CannotRedoException {
         super.redo();
         selectItems(deletedItems);
-        doDeleteWalls(joinedDeletedWalls, basePlanLocked);       
-        doDeleteRooms(rooms, basePlanLocked);
-        doDeleteDimensionLines(dimensionLines, basePlanLocked);
-        doDeleteLabels(labels, basePlanLocked);
+        home.beginBatch();
+        try {
+          doDeleteWalls(joinedDeletedWalls, basePlanLocked);       
+          doDeleteRooms(rooms, basePlanLocked);
+          doDeleteDimensionLines(dimensionLines, basePlanLocked);
+          doDeleteLabels(labels, basePlanLocked);
+        } finally {
+          home.endBatch();
+        }
       }      
       
       @Override
@@ -3755,18 +3855,24 @@ public class PlanController extends FurnitureController implements Controller {
    * Moves <code>items</code> of (<code>dx</code>, <code>dy</code>) units.
    */
   public void moveItems(List<? extends Selectable> items, float dx, float dy) {
-    for (Selectable item : items) {
-      if (item instanceof Wall) {
-        Wall wall = (Wall)item;
-        moveWallStartPoint(wall, 
-            wall.getXStart() + dx, wall.getYStart() + dy,
-            !items.contains(wall.getWallAtStart()));
-        moveWallEndPoint(wall, 
-            wall.getXEnd() + dx, wall.getYEnd() + dy,
-            !items.contains(wall.getWallAtEnd()));
-      } else {
-        item.move(dx, dy);
-      } 
+    // Notify the changes of moved items at once to batch listeners
+    this.home.beginBatch();
+    try {
+      for (Selectable item : items) {
+        if (item instanceof Wall) {
+          Wall wall = (Wall)item;
+          moveWallStartPoint(wall, 
+              wall.getXStart() + dx, wall.getYStart() + dy,
+              !items.contains(wall.getWallAtStart()));
+          moveWallEndPoint(wall, 
+              wall.getXEnd() + dx, wall.getYEnd() + dy,
+              !items.contains(wall.getWallAtEnd()));
+        } else {
+          item.move(dx, dy);
+        } 
+      }
+    } finally {
+      this.home.endBatch();
     }
   }
   
@@ -3921,11 +4027,17 @@ public class PlanController extends FurnitureController implements Controller {
   public void addItems(final List<? extends Selectable> items) {
     // Start a compound edit that adds walls, furniture, rooms, dimension lines and labels to home
     this.undoSupport.beginUpdate();
-    addFurniture(Home.getFurnitureSubList(items));
-    addWalls(Home.getWallsSubList(items));
-    addRooms(Home.getRoomsSubList(items));
-    addDimensionLines(Home.getDimensionLinesSubList(items));
-    addLabels(Home.getLabelsSubList(items));
+    // Notify the additions of all the items at once to batch listeners
+    this.home.beginBatch();
+    try {
+      addFurniture(Home.getFurnitureSubList(items));
+      addWalls(Home.getWallsSubList(items));
+      addRooms(Home.getRoomsSubList(items));
+      addDimensionLines(Home.getDimensionLinesSubList(items));
+      addLabels(Home.getLabelsSubList(items));
+    } finally {
+      this.home.endBatch();
+    }
     this.home.setSelectedItems(items);
     
     // Add a undoable edit that will select all the items at redo
@@ -5145,20 +5257,16 @@ public class PlanController extends FurnitureController implements Controller {
 
   /**
    * Returns the list of closed paths that may define rooms from 
-   * the current set of home walls.
+   * the current set of home walls, sorted from the smallest to the largest one.
+   * The returned paths must not be modified.
    */
   private List<GeneralPath> getRoomPathsFromWalls() {
     if (this.roomPathsCache == null) {
-      // Iterate over all the paths the walls area contains
-      Area wallsArea = getWallsArea();
-      List<GeneralPath> roomPaths = getAreaPaths(wallsArea);
-      Area insideWallsArea = new Area(wallsArea);
-      for (GeneralPath roomPath : roomPaths) {
-        insideWallsArea.add(new Area(roomPath));              
+      // Get paths from the graph of wall sides maintained for the selected level
+      if (this.roomDetector == null) {
+        this.roomDetector = new RoomDetector();
       }
-      
-      this.roomPathsCache = roomPaths;
-      this.insideWallsAreaCache = insideWallsArea;
+      this.roomPathsCache = this.roomDetector.getRoomPaths(this.home, this.home.getSelectedLevel());
     }
     return this.roomPathsCache;
   }
@@ -5190,33 +5298,78 @@ public class PlanController extends FurnitureController implements Controller {
   }
   
   /**
-   * Returns the area that includes walls and inside walls area.
+   * Returns <code>true</code> if the given point belongs to walls or to the area they surround.
    */
-  private Area getInsideWallsArea() {
-    if (this.insideWallsAreaCache == null) {
-      getRoomPathsFromWalls();
+  private boolean isPointInsideWalls(float x, float y) {
+    // As outer paths of walls surround them, the point is inside walls if it's in one of the paths
+    for (GeneralPath roomPath : getRoomPathsFromWalls()) {
+      if (roomPath.contains(x, y)) {
+        return true;
+      }
     }
-    return this.insideWallsAreaCache;
+    return false;
   }
   
   /**
-   * Returns the area covered by walls.
+   * Returns the area covered by walls. The returned area must not be modified.
    */
   private Area getWallsArea() {
     if (this.wallsAreaCache == null) {
-      // Compute walls area
-      Area wallsArea = new Area();
-      Level selectedLevel = this.home.getSelectedLevel();
-      for (Wall wall : home.getWalls()) {
-        if (wall.isAtLevel(selectedLevel)) {
-          wallsArea.add(new Area(getPath(wall.getPoints())));
-        }
-      }
-      this.wallsAreaCache = wallsArea;
+      this.wallsAreaCache = getWallAreaCache().getArea(
+          this.home.getWallsAtLevel(this.home.getSelectedLevel()));
     }
     return this.wallsAreaCache;
   }
   
+  /**
+   * Returns the cache used to compute incrementally the area of walls.
+   */
+  private WallAreaCache getWallAreaCache() {
+    if (this.wallAreaCache == null) {
+      this.wallAreaCache = new WallAreaCache();
+    }
+    return this.wallAreaCache;
+  }
+  
+  /**
+   * Returns an index of the walls at the selected level, in the order of home walls.
+   */
+  private SpatialIndex<Wall> getLevelWallsIndex() {
+    if (this.levelWallsIndexCache == null) {
+      SpatialIndex<Wall> wallsIndex = new SpatialIndex<Wall>(INDEX_CELL_SIZE);
+      for (Wall wall : this.home.getWallsAtLevel(this.home.getSelectedLevel())) {
+        wallsIndex.add(wall, getBounds(wall.getPoints()));
+      }
+      this.levelWallsIndexCache = wallsIndex;
+    }
+    return this.levelWallsIndexCache;
+  }
+  
+  /**
+   * Returns an index of home furniture, in the order of home furniture.
+   */
+  private SpatialIndex<HomePieceOfFurniture> getFurnitureIndex() {
+    if (this.furnitureIndexCache == null) {
+      SpatialIndex<HomePieceOfFurniture> furnitureIndex = new SpatialIndex<HomePieceOfFurniture>(INDEX_CELL_SIZE);
+      for (HomePieceOfFurniture piece : this.home.getFurniture()) {
+        furnitureIndex.add(piece, getBounds(piece.getPoints()));
+      }
+      this.furnitureIndexCache = furnitureIndex;
+    }
+    return this.furnitureIndexCache;
+  }
+  
+  /**
+   * Returns the bounds of the given <code>points</code>.
+   */
+  private static Rectangle2D getBounds(float [][] points) {
+    Rectangle2D bounds = new Rectangle2D.Float(points [0][0], points [0][1], 0, 0);
+    for (int i = 1; i < points.length; i++) {
+      bounds.add(points [i][0], points [i][1]);
+    }
+    return bounds;
+  }
+  
   /**
    * Returns the shape matching the coordinates in <code>points</code> array.
    */
@@ -5701,39 +5854,45 @@ public class PlanController extends FurnitureController implements Controller {
       float deltaYToClosestObject = Float.POSITIVE_INFINITY;
       float xClosestObject = 0;
       float yClosestObject = 0;
+      float [] points = null;
       for (Room room : getDetectableRoomsAtSelectedLevel()) {
-        float [][] roomPoints = room.getPoints();
-        for (int i = 0; i < roomPoints.length; i++) {
-          if (editedPointIndex == -1 || (i != editedPointIndex && roomPoints.length > 2)) {
-            if (Math.abs(getX() - roomPoints [i][0]) < margin
-                && Math.abs(deltaYToClosestObject) > Math.abs(getY() - roomPoints [i][1])) {
-              xClosestObject = roomPoints [i][0];
-              deltaYToClosestObject = getY() - roomPoints [i][1];
+        points = room.getPoints(points);
+        int roomPointCount = room.getPointCount();
+        for (int i = 0; i < roomPointCount; i++) {
+          if (editedPointIndex == -1 || (i != editedPointIndex && roomPointCount > 2)) {
+            float xPoint = points [2 * i];
+            float yPoint = points [2 * i + 1];
+            if (Math.abs(getX() - xPoint) < margin
+                && Math.abs(deltaYToClosestObject) > Math.abs(getY() - yPoint)) {
+              xClosestObject = xPoint;
+              deltaYToClosestObject = getY() - yPoint;
             }
-            if (Math.abs(getY() - roomPoints [i][1]) < margin
-                && Math.abs(deltaXToClosestObject) > Math.abs(getX() - roomPoints [i][0])) {
-              yClosestObject = roomPoints [i][1];
-              deltaXToClosestObject = getX() - roomPoints [i][0];
+            if (Math.abs(getY() - yPoint) < margin
+                && Math.abs(deltaXToClosestObject) > Math.abs(getX() - xPoint)) {
+              yClosestObject = yPoint;
+              deltaXToClosestObject = getX() - xPoint;
             }
           }
         }
       }
       // Search which wall points are close to (x, y)
       for (Wall wall : getDetectableWallsAtSelectedLevel()) {
-        float [][] wallPoints = wall.getPoints();
+        points = wall.getPoints(points);
+        int wallPointCount = wall.getPointCount();
         // Take into account only points at start and end of the wall
-        wallPoints = new float [][] {wallPoints [0], wallPoints [wallPoints.length / 2 - 1], 
-                                     wallPoints [wallPoints.length / 2], wallPoints [wallPoints.length - 1]}; 
-        for (int i = 0; i < wallPoints.length; i++) {
-          if (Math.abs(getX() - wallPoints [i][0]) < margin
-              && Math.abs(deltaYToClosestObject) > Math.abs(getY() - wallPoints [i][1])) {
-            xClosestObject = wallPoints [i][0];
-            deltaYToClosestObject = getY() - wallPoints [i][1];
+        int [] wallPointIndices = {0, wallPointCount / 2 - 1, wallPointCount / 2, wallPointCount - 1}; 
+        for (int index : wallPointIndices) {
+          float xPoint = points [2 * index];
+          float yPoint = points [2 * index + 1];
+          if (Math.abs(getX() - xPoint) < margin
+              && Math.abs(deltaYToClosestObject) > Math.abs(getY() - yPoint)) {
+            xClosestObject = xPoint;
+            deltaYToClosestObject = getY() - yPoint;
           }
-          if (Math.abs(getY() - wallPoints [i][1]) < margin
-              && Math.abs(deltaXToClosestObject) > Math.abs(getX() - wallPoints [i][0])) {
-            yClosestObject = wallPoints [i][1];
-            deltaXToClosestObject = getX() - wallPoints [i][0];
+          if (Math.abs(getY() - yPoint) < margin
+              && Math.abs(deltaXToClosestObject) > Math.abs(getX() - xPoint)) {
+            yClosestObject = yPoint;
+            deltaXToClosestObject = getX() - xPoint;
           }
         }
       }
@@ -5791,8 +5950,11 @@ public class PlanController extends FurnitureController implements Controller {
       // Find the closest wall point to (x,y)
       double smallestDistance = Double.MAX_VALUE;
       for (GeneralPath roomPath : getRoomPathsFromWalls()) {
-        smallestDistance = updateMagnetizedPoint(-1, x, y,
-            smallestDistance, getPathPoints(roomPath, false));
+        // Ignore paths too far to contain a magnetized point
+        if (roomPath.getBounds2D().intersects(x - margin, y - margin, 2 * margin, 2 * margin)) {
+          smallestDistance = updateMagnetizedPoint(-1, x, y,
+              smallestDistance, getPathPoints(roomPath, false));
+        }
       }      
       for (Room room : getDetectableRoomsAtSelectedLevel()) {
         smallestDistance = updateMagnetizedPoint(room == editedRoom ? editedPointIndex : - 1, 
@@ -9451,8 +9613,7 @@ public class PlanController extends FurnitureController implements Controller {
                                      float xEnd, float yEnd) {
       Room newRoom = createRoom(new float [][] {{xStart, yStart}, {xEnd, yEnd}});
       // Let's consider that points outside of home will create  by default a room with no ceiling
-      Area insideWallsArea = getInsideWallsArea();
-      newRoom.setCeilingVisible(insideWallsArea.contains(xStart, yStart));
+      newRoom.setCeilingVisible(isPointInsideWalls(xStart, yStart));
       selectItem(newRoom);
       return newRoom;
     }
@@ -9500,7 +9661,7 @@ public class PlanController extends FurnitureController implements Controller {
         if (this.newRoom.isCeilingVisible()) {
           float [][] roomPoints = this.newRoom.getPoints();
           float [] lastPoint = roomPoints [roomPoints.length - 1];
-          if (!getInsideWallsArea().contains(lastPoint [0], lastPoint [1])) {
+          if (!isPointInsideWalls(lastPoint [0], lastPoint [1])) {
             this.newRoom.setCeilingVisible(false);
           }
         }
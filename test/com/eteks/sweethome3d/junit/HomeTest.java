@@ -22,14 +22,21 @@ package com.eteks.sweethome3d.junit;
 import java.beans.PropertyChangeEvent;
 import java.beans.PropertyChangeListener;
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.Collection;
 import java.util.List;
 
 import junit.framework.TestCase;
 
+import com.eteks.sweethome3d.model.CatalogPieceOfFurniture;
+import com.eteks.sweethome3d.model.CollectionBatchListener;
 import com.eteks.sweethome3d.model.CollectionEvent;
 import com.eteks.sweethome3d.model.CollectionListener;
 import com.eteks.sweethome3d.model.Home;
+import com.eteks.sweethome3d.model.HomePieceOfFurniture;
+import com.eteks.sweethome3d.model.Level;
+import com.eteks.sweethome3d.model.PropertyChangeBatchListener;
+import com.eteks.sweethome3d.model.Room;
 import com.eteks.sweethome3d.model.Wall;
 
 /**
@@ -129,6 +136,236 @@ public class HomeTest extends TestCase {
     assertWallCollectionContains(deletedWalls, wall2);
   }
 
+  public void testHomeItemsAtLevel() {
+    // Create a home with 3 levels
+    Home home = new Home();
+    Level level0 = new Level("0", 0, 12, 250);
+    Level level1 = new Level("1", 250, 12, 250);
+    Level level2 = new Level("2", 500, 12, 250);
+    home.addLevel(level0);
+    home.addLevel(level1);
+    home.addLevel(level2);
+    // Add a wall and a room at level 0, and a wall and a piece at level 1
+    home.setSelectedLevel(level0);
+    Wall wall0 = new Wall(0, 0, 100, 0, 10, 250);
+    home.addWall(wall0);
+    Room room0 = new Room(new float [][] {{0, 0}, {100, 0}, {100, 100}});
+    home.addRoom(room0);
+    home.setSelectedLevel(level1);
+    Wall wall1 = new Wall(0, 0, 100, 0, 10, 250);
+    home.addWall(wall1);
+    HomePieceOfFurniture piece = new HomePieceOfFurniture(
+        new CatalogPieceOfFurniture(null, "Box", null, null, null, 50, 50, 50, 0, true, null, null, true, null, null));
+    home.addPieceOfFurniture(piece);
+    
+    // Check items at each level
+    assertEquals("Wrong walls", Arrays.asList(wall0), home.getWallsAtLevel(level0));
+    assertEquals("Wrong walls", Arrays.asList(wall1), home.getWallsAtLevel(level1));
+    assertEquals("Wrong rooms", Arrays.asList(room0), home.getRoomsAtLevel(level0));
+    assertTrue("Wrong rooms", home.getRoomsAtLevel(level1).isEmpty());
+    assertEquals("Wrong furniture", Arrays.asList(piece), home.getFurnitureAtLevel(level1));
+    assertSame("Walls not cached", home.getWallsAtLevel(level0), home.getWallsAtLevel(level0));
+
+    // Check items are updated when heights and levels change
+    wall0.setHeight(300f);
+    assertEquals("Wrong walls", Arrays.asList(wall0, wall1), home.getWallsAtLevel(level1));
+    piece.setHeight(400);
+    assertEquals("Wrong furniture", Arrays.asList(piece), home.getFurnitureAtLevel(level2));
+    level2.setElevation(700);
+    assertTrue("Wrong furniture", home.getFurnitureAtLevel(level2).isEmpty());
+    room0.setLevel(level2);
+    assertTrue("Wrong rooms", home.getRoomsAtLevel(level0).isEmpty());
+    assertEquals("Wrong rooms", Arrays.asList(room0), home.getRoomsAtLevel(level2));
+    
+    // Check items are updated when items or levels are deleted
+    home.deleteWall(wall0);
+    assertEquals("Wrong walls", Arrays.asList(wall1), home.getWallsAtLevel(level1));
+    home.deleteLevel(level1);
+    assertTrue("Wrong walls", home.getWallsAtLevel(level1).isEmpty());
+    assertTrue("Wrong furniture", home.getFurnitureAtLevel(level1).isEmpty());
+  }
+
+  public void testHomeItemsPoints() {
+    // Create a wall joined to another one, a room and a rotated piece
+    Wall wall1 = new Wall(0, 0, 100, 0, 10, 250);
+    Wall wall2 = new Wall(100, 0, 100, 100, 10, 250);
+    wall1.setWallAtEnd(wall2);
+    wall2.setWallAtStart(wall1);
+    Room room = new Room(new float [][] {{0, 0}, {100, 0}, {100, 100}, {0, 100}, {-50, 50}});
+    HomePieceOfFurniture piece = new HomePieceOfFurniture(
+        new CatalogPieceOfFurniture(null, "Box", null, null, null, 50, 30, 50, 0, true, null, null, true, null, null));
+    piece.setAngle(0.5f);
+    
+    // 1. Check the number of points and their order match getPoints() ones 
+    assertEquals("Wrong wall point count", wall1.getPoints().length, wall1.getPointCount());
+    assertPointsEqual(wall1.getPoints(), wall1.getPoints(null), wall1.getPointCount());
+    assertEquals("Wrong room point count", 5, room.getPointCount());
+    assertPointsEqual(room.getPoints(), room.getPoints(null), room.getPointCount());
+    assertEquals("Wrong piece point count", 4, piece.getPointCount());
+    assertPointsEqual(piece.getPoints(), piece.getPoints(null), piece.getPointCount());
+    
+    // 2. Check a large enough buffer is reused and keeps its extra values
+    float [] buffer = new float [20];
+    Arrays.fill(buffer, -1);
+    assertSame("Buffer not reused", buffer, wall1.getPoints(buffer));
+    assertPointsEqual(wall1.getPoints(), buffer, wall1.getPointCount());
+    assertSame("Buffer not reused", buffer, room.getPoints(buffer));
+    assertPointsEqual(room.getPoints(), buffer, room.getPointCount());
+    assertSame("Buffer not reused", buffer, piece.getPoints(buffer));
+    assertPointsEqual(piece.getPoints(), buffer, piece.getPointCount());
+    assertEquals("Extra value modified", -1f, buffer [buffer.length - 1]);
+    
+    // 3. Check a new array is returned for a too small buffer
+    float [] smallBuffer = new float [7];
+    float [] points = room.getPoints(smallBuffer);
+    assertNotSame("Too small buffer reused", smallBuffer, points);
+    assertEquals("Wrong array length", 2 * room.getPointCount(), points.length);
+    assertNotSame("Too small buffer reused", smallBuffer, piece.getPoints(smallBuffer));
+    assertNotSame("Too small buffer reused", smallBuffer, wall1.getPoints(smallBuffer));
+    
+    // 4. Check points follow the changes of items
+    wall2.setXEnd(200);
+    room.setPoint(-100, 50, 4);
+    piece.setX(200);
+    assertPointsEqual(wall1.getPoints(), wall1.getPoints(buffer), wall1.getPointCount());
+    assertPointsEqual(room.getPoints(), room.getPoints(buffer), room.getPointCount());
+    assertPointsEqual(piece.getPoints(), piece.getPoints(buffer), piece.getPointCount());
+  }
+
+  public void testHomeBatch() {
+    // Count the notifications received by a simple listener and a batch listener
+    Home home = new Home();
+    final int [] notificationCounts = new int [3]; 
+    final List<CollectionEvent<HomePieceOfFurniture>> batchEvents = new ArrayList<CollectionEvent<HomePieceOfFurniture>>(); 
+    home.addFurnitureListener(new CollectionListener<HomePieceOfFurniture>() {
+        public void collectionChanged(CollectionEvent<HomePieceOfFurniture> ev) {
+          notificationCounts [0]++;
+        }
+      });
+    home.addFurnitureListener(new CollectionBatchListener<HomePieceOfFurniture>() {
+        public void collectionChanged(CollectionEvent<HomePieceOfFurniture> ev) {
+          notificationCounts [1]++;
+        }
+
+        public void collectionChanged(List<CollectionEvent<HomePieceOfFurniture>> events) {
+          notificationCounts [2]++;
+          batchEvents.addAll(events);
+        }
+      });
+    
+    // 1. Add 100 pieces in a batch with a nested batch
+    List<HomePieceOfFurniture> furniture = new ArrayList<HomePieceOfFurniture>();
+    home.beginBatch();
+    for (int i = 0; i < 100; i++) {
+      HomePieceOfFurniture piece = new HomePieceOfFurniture(new CatalogPieceOfFurniture(
+          null, "Box", null, null, null, 50, 50, 50, 0, true, null, null, true, null, null));
+      furniture.add(piece);
+      if (i == 50) {
+        home.beginBatch();
+        home.addPieceOfFurniture(piece);
+        home.endBatch();
+      } else {
+        home.addPieceOfFurniture(piece);
+      }
+    }
+    assertEquals("Wrong immediate notification count", 100, notificationCounts [0]);
+    assertEquals("Batch listener notified during batch", 0, notificationCounts [1] + notificationCounts [2]);
+    home.endBatch();
+    // Check batch listener received all the events at once and in order
+    assertEquals("Wrong batch notification count", 1, notificationCounts [2]);
+    assertEquals("Wrong event count", 100, batchEvents.size());
+    for (int i = 0; i < batchEvents.size(); i++) {
+      assertSame("Wrong item", furniture.get(i), batchEvents.get(i).getItem());
+      assertEquals("Wrong index", i, batchEvents.get(i).getIndex());
+    }
+    
+    // 2. Check batch listener is notified immediately out of a batch 
+    home.deletePieceOfFurniture(furniture.get(0));
+    assertEquals("Wrong single notification count", 1, notificationCounts [1]);
+    assertEquals("Wrong batch notification count", 1, notificationCounts [2]);
+    
+    // 3. Check a batch listener added during a batch receives only the events fired after its addition
+    final List<CollectionEvent<HomePieceOfFurniture>> lateBatchEvents = new ArrayList<CollectionEvent<HomePieceOfFurniture>>(); 
+    home.beginBatch();
+    home.deletePieceOfFurniture(furniture.get(1));
+    home.addFurnitureListener(new CollectionBatchListener<HomePieceOfFurniture>() {
+        public void collectionChanged(CollectionEvent<HomePieceOfFurniture> ev) {
+        }
+
+        public void collectionChanged(List<CollectionEvent<HomePieceOfFurniture>> events) {
+          lateBatchEvents.addAll(events);
+        }
+      });
+    home.deletePieceOfFurniture(furniture.get(2));
+    batchEvents.clear();
+    home.endBatch();
+    assertEquals("Wrong event count", 2, batchEvents.size());
+    assertEquals("Wrong late event count", 1, lateBatchEvents.size());
+    assertSame("Wrong late item", furniture.get(2), lateBatchEvents.get(0).getItem());
+    
+    // 4. Check item property changes are coalesced during a batch 
+    final List<PropertyChangeEvent> propertyChanges = new ArrayList<PropertyChangeEvent>();
+    final int [] propertyBatchCount = {0};
+    PropertyChangeListener pieceListener = home.createBatchPropertyChangeListener(
+        new PropertyChangeBatchListener() {
+          public void propertyChange(PropertyChangeEvent ev) {
+            propertyChanges.add(ev);
+          }
+  
+          public void propertyChange(List<PropertyChangeEvent> events) {
+            propertyBatchCount [0]++;
+            propertyChanges.addAll(events);
+          }
+        });
+    HomePieceOfFurniture movedPiece = furniture.get(3);
+    HomePieceOfFurniture restoredPiece = furniture.get(4);
+    movedPiece.addPropertyChangeListener(pieceListener);
+    restoredPiece.addPropertyChangeListener(pieceListener);
+    float x = movedPiece.getX();
+    float y = movedPiece.getY();
+    float restoredPieceX = restoredPiece.getX();
+    home.beginBatch();
+    for (int i = 0; i < 10; i++) {
+      movedPiece.move(10, 5);
+      restoredPiece.setX(restoredPieceX + i + 1);
+    }
+    restoredPiece.setX(restoredPieceX);
+    assertTrue("Property listener notified during batch", propertyChanges.isEmpty());
+    home.endBatch();
+    assertEquals("Wrong property batch count", 1, propertyBatchCount [0]);
+    assertEquals("Wrong coalesced change count", 2, propertyChanges.size());
+    assertEquals("Wrong property", HomePieceOfFurniture.Property.X.name(), propertyChanges.get(0).getPropertyName());
+    assertEquals("Wrong old x", x, propertyChanges.get(0).getOldValue());
+    assertEquals("Wrong new x", x + 100, propertyChanges.get(0).getNewValue());
+    assertEquals("Wrong property", HomePieceOfFurniture.Property.Y.name(), propertyChanges.get(1).getPropertyName());
+    assertEquals("Wrong old y", y, propertyChanges.get(1).getOldValue());
+    assertEquals("Wrong new y", y + 50, propertyChanges.get(1).getNewValue());
+    // Check instrumentation counts
+    assertEquals("Wrong batch event count", 31, home.getLastBatchEventCount());
+    assertEquals("Wrong batch notification count", 1, home.getLastBatchNotificationCount());
+    // Check property changes are notified immediately out of a batch
+    movedPiece.setX(0);
+    assertEquals("Wrong change count", 3, propertyChanges.size());
+    assertEquals("Wrong property batch count", 1, propertyBatchCount [0]);
+    
+    // 5. Check unbalanced batch end is detected
+    try {
+      home.endBatch();
+      fail("No batch in progress");
+    } catch (IllegalStateException ex) {
+      // Expected exception
+    }
+  }
+
+  private void assertPointsEqual(float [][] expectedPoints, float [] points, int pointCount) {
+    assertEquals("Wrong point count", expectedPoints.length, pointCount);
+    assertTrue("Array too small", points.length >= 2 * pointCount);
+    for (int i = 0; i < pointCount; i++) {
+      assertEquals("Wrong x at point " + i, expectedPoints [i][0], points [2 * i]);
+      assertEquals("Wrong y at point " + i, expectedPoints [i][1], points [2 * i + 1]);
+    }
+  }
+
   private void assertWallCollectionContains(Collection<Wall> wallCollection, Wall ... walls) {
     assertEquals("Walls incorrect count", walls.length, wallCollection.size());
     for (Wall wall : walls) {
@@ -0,0 +1,106 @@
+/*
+ * LightScopeCacheTest.java 18 oct. 2026
+ *
+ * Copyright (c) 2026 Emmanuel PUYBARET / eTeks <info@eteks.com>. All Rights Reserved.
+ *
+ * This program is free software; you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation; either version 2 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program; if not, write to the Free Software
+ * Foundation, Inc., 59 Temple Place, Suite 330, Boston, MA  02111-1307  USA
+ */
+package com.eteks.sweethome3d.junit;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import junit.framework.TestCase;
+
+import com.eteks.sweethome3d.j3d.LightScopeCache;
+import com.eteks.sweethome3d.model.CatalogLight;
+import com.eteks.sweethome3d.model.HomeLight;
+import com.eteks.sweethome3d.model.LightSource;
+import com.eteks.sweethome3d.model.Selectable;
+import com.eteks.sweethome3d.model.Wall;
+
+/**
+ * Tests {@link com.eteks.sweethome3d.j3d.LightScopeCache light scope cache} with 100 lights.
+ * @author Emmanuel Puybaret
+ */
+public class LightScopeCacheTest extends TestCase {
+  public void testLightScopeCache() {
+    // 1. Create a square room of 4 joined walls, 50 lights inside and 50 lights outside
+    List<Wall> walls = new ArrayList<Wall>();
+    walls.add(new Wall(0, 0, 1000, 0, 20, 250));
+    walls.add(new Wall(1000, 0, 1000, 1000, 20, 250));
+    walls.add(new Wall(1000, 1000, 0, 1000, 20, 250));
+    walls.add(new Wall(0, 1000, 0, 0, 20, 250));
+    for (int i = 0; i < 4; i++) {
+      walls.get(i).setWallAtStart(walls.get((i + 3) % 4));
+      walls.get(i).setWallAtEnd(walls.get((i + 1) % 4));
+    }
+    CatalogLight catalogLight = new CatalogLight("light", "Light", null, null, null, 
+        20, 20, 20, 150, true, new LightSource [] {new LightSource(0.5f, 0.5f, 0.5f, 0xFFFFFF)}, 
+        null, null, true, null, null);
+    List<HomeLight> lights = new ArrayList<HomeLight>();
+    for (int i = 0; i < 100; i++) {
+      HomeLight light = new HomeLight(catalogLight);
+      light.setX(i < 50 ? 100 + i * 15 : 1200 + i * 15);
+      light.setY(500);
+      lights.add(light);
+    }
+
+    // 2. Check which lights and wall sides are outside walls
+    LightScopeCache cache = new LightScopeCache();
+    List<float [][]> wallsPoints = LightScopeCache.getThinnerWallsPoints(walls);
+    Map<Selectable, boolean []> itemsOutsideWalls = cache.getItemsOutsideWalls(wallsPoints, getItemsPoints(walls, lights));
+    assertEquals("Wrong item count", 104, itemsOutsideWalls.size());
+    assertEquals("Wrong computed item count", 104, cache.getLastComputedItemCount());
+    for (int i = 0; i < lights.size(); i++) {
+      assertEquals("Wrong scope for light " + i, i >= 50, itemsOutsideWalls.get(lights.get(i)) [0]);
+    }
+    for (Wall wall : walls) {
+      boolean [] wallOutsideWalls = itemsOutsideWalls.get(wall);
+      assertTrue("Wall start and end at the same side", wallOutsideWalls [0] != wallOutsideWalls [1]);
+    }
+    
+    // 3. Move one light outside and check only its scope is computed again
+    lights.get(0).setX(-100);
+    itemsOutsideWalls = cache.getItemsOutsideWalls(wallsPoints, getItemsPoints(walls, lights));
+    assertEquals("Wrong computed item count", 1, cache.getLastComputedItemCount());
+    assertTrue("Light not outside", itemsOutsideWalls.get(lights.get(0)) [0]);
+    
+    // 4. Move a wall to put the outside lights inside and check all scopes are computed again
+    walls.get(1).setXStart(3000);
+    walls.get(1).setXEnd(3000);
+    walls.get(0).setXEnd(3000);
+    walls.get(2).setXStart(3000);
+    itemsOutsideWalls = cache.getItemsOutsideWalls(LightScopeCache.getThinnerWallsPoints(walls), 
+        getItemsPoints(walls, lights));
+    assertEquals("Wrong computed item count", 104, cache.getLastComputedItemCount());
+    for (int i = 1; i < lights.size(); i++) {
+      assertFalse("Light " + i + " outside", itemsOutsideWalls.get(lights.get(i)) [0]);
+    }
+  }
+
+  private Map<Selectable, float [][]> getItemsPoints(List<Wall> walls, List<HomeLight> lights) {
+    Map<Selectable, float [][]> itemsPoints = new LinkedHashMap<Selectable, float[][]>();
+    for (Wall wall : walls) {
+      itemsPoints.put(wall, wall.getPoints());
+    }
+    for (HomeLight light : lights) {
+      itemsPoints.put(light, light.getPoints());
+    }
+    return itemsPoints;
+  }
+}
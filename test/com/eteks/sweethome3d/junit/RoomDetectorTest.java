@@ -0,0 +1,101 @@
+/*
+ * RoomDetectorTest.java 18 oct. 2026
+ *
+ * Copyright (c) 2026 Emmanuel PUYBARET / eTeks <info@eteks.com>. All Rights Reserved.
+ *
+ * This program is free software; you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation; either version 2 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program; if not, write to the Free Software
+ * Foundation, Inc., 59 Temple Place, Suite 330, Boston, MA  02111-1307  USA
+ */
+package com.eteks.sweethome3d.junit;
+
+import java.awt.geom.GeneralPath;
+import java.awt.geom.Rectangle2D;
+import java.util.List;
+
+import junit.framework.TestCase;
+
+import com.eteks.sweethome3d.model.Home;
+import com.eteks.sweethome3d.model.Wall;
+import com.eteks.sweethome3d.tools.RoomDetector;
+
+/**
+ * Tests {@link com.eteks.sweethome3d.tools.RoomDetector room detector}.
+ * @author Emmanuel Puybaret
+ */
+public class RoomDetectorTest extends TestCase {
+  public void testRoomDetector() {
+    // 1. Create a home drawing walls as follows
+    // --------------------
+    // |        |         |
+    // |   0    |    1    |
+    // |--------|         |
+    // |   2    |         |
+    // |        |         |
+    // --------------------
+    Home home = new Home();
+    Wall [] walls = {new Wall(0, 0, 1000, 0, 20, 250),
+                     new Wall(1000, 0, 1000, 1000, 20, 250),
+                     new Wall(1000, 1000, 0, 1000, 20, 250),
+                     new Wall(0, 1000, 0, 0, 20, 250),
+                     new Wall(500, 0, 500, 1000, 10, 250),
+                     new Wall(0, 400, 500, 400, 10, 250)};
+    // Join the first 4 walls
+    for (int i = 0; i < 4; i++) {
+      walls [i].setWallAtStart(walls [(i + 3) % 4]);
+      walls [i].setWallAtEnd(walls [(i + 1) % 4]);
+    }
+    for (Wall wall : walls) {
+      home.addWall(wall);
+    }
+
+    // 2. Check the 3 rooms and the outline of walls are found, from the smallest to the largest one
+    RoomDetector detector = new RoomDetector();
+    List<GeneralPath> roomPaths = detector.getRoomPaths(home, null);
+    assertEquals("Wrong path count", 4, roomPaths.size());
+    assertBoundsEqual(new Rectangle2D.Float(10, 10, 485, 385), roomPaths.get(0));
+    assertBoundsEqual(new Rectangle2D.Float(10, 405, 485, 585), roomPaths.get(1));
+    assertBoundsEqual(new Rectangle2D.Float(505, 10, 485, 980), roomPaths.get(2));
+    assertBoundsEqual(new Rectangle2D.Float(-10, -10, 1020, 1020), roomPaths.get(3));
+    assertSame("Paths not cached", roomPaths, detector.getRoomPaths(home, null));
+
+    // 3. Move inner wall and check paths are updated
+    walls [5].setYStart(600);
+    walls [5].setYEnd(600);
+    roomPaths = detector.getRoomPaths(home, null);
+    assertEquals("Wrong path count", 4, roomPaths.size());
+    assertBoundsEqual(new Rectangle2D.Float(10, 605, 485, 385), roomPaths.get(0));
+    assertBoundsEqual(new Rectangle2D.Float(10, 10, 485, 585), roomPaths.get(1));
+
+    // 4. Remove the wall between rooms 0 and 2 and check they're merged
+    home.deleteWall(walls [5]);
+    roomPaths = detector.getRoomPaths(home, null);
+    assertEquals("Wrong path count", 3, roomPaths.size());
+    GeneralPath mergedRoomPath = null;
+    for (GeneralPath roomPath : roomPaths) {
+      if (roomPath.contains(100, 500)) {
+        mergedRoomPath = roomPath;
+        break;
+      }
+    }
+    assertBoundsEqual(new Rectangle2D.Float(10, 10, 485, 980), mergedRoomPath);
+  }
+
+  private void assertBoundsEqual(Rectangle2D bounds, GeneralPath path) {
+    Rectangle2D pathBounds = path.getBounds2D();
+    assertEquals("Wrong x", (float)bounds.getX(), (float)pathBounds.getX(), 1E-3f);
+    assertEquals("Wrong y", (float)bounds.getY(), (float)pathBounds.getY(), 1E-3f);
+    assertEquals("Wrong width", (float)bounds.getWidth(), (float)pathBounds.getWidth(), 1E-3f);
+    assertEquals("Wrong height", (float)bounds.getHeight(), (float)pathBounds.getHeight(), 1E-3f);
+  }
+}
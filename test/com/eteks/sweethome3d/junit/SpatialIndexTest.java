@@ -0,0 +1,67 @@
+/*
+ * SpatialIndexTest.java 18 oct. 2026
+ *
+ * Copyright (c) 2026 Emmanuel PUYBARET / eTeks <info@eteks.com>. All Rights Reserved.
+ *
+ * This program is free software; you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation; either version 2 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program; if not, write to the Free Software
+ * Foundation, Inc., 59 Temple Place, Suite 330, Boston, MA  02111-1307  USA
+ */
+package com.eteks.sweethome3d.junit;
+
+import java.awt.geom.Rectangle2D;
+import java.util.Arrays;
+import java.util.List;
+
+import junit.framework.TestCase;
+
+import com.eteks.sweethome3d.tools.SpatialIndex;
+
+/**
+ * Tests {@link com.eteks.sweethome3d.tools.SpatialIndex spatial index}.
+ * @author Emmanuel Puybaret
+ */
+public class SpatialIndexTest extends TestCase {
+  public void testSpatialIndex() {
+    SpatialIndex<String> index = new SpatialIndex<String>(100);
+    // 1. Add items in a given order
+    index.add("c", new Rectangle2D.Float(500, 500, 50, 50));
+    index.add("a", new Rectangle2D.Float(0, 0, 50, 50));
+    index.add("b", new Rectangle2D.Float(-150, -150, 200, 200));
+    index.add("large", new Rectangle2D.Float(-10000, -10000, 20000, 20000));
+    assertEquals("Wrong size", 4, index.size());
+
+    // 2. Check items are returned in insertion order
+    List<String> items = index.getItems(new Rectangle2D.Float(10, 10, 10, 10));
+    assertEquals("Wrong items", Arrays.asList(new String [] {"a", "b", "large"}), items);
+    items = index.getItems(new Rectangle2D.Float(-10000, -10000, 20000, 20000));
+    assertEquals("Wrong items", Arrays.asList(new String [] {"c", "a", "b", "large"}), items);
+    items = index.getItems(new Rectangle2D.Float(520, 520, 1, 1));
+    assertEquals("Wrong items", Arrays.asList(new String [] {"c", "large"}), items);
+
+    // 3. Move an item and check it keeps its order
+    assertTrue("Item not updated", index.update("c", new Rectangle2D.Float(10, 10, 5, 5)));
+    items = index.getItems(new Rectangle2D.Float(10, 10, 10, 10));
+    assertEquals("Wrong items", Arrays.asList(new String [] {"c", "a", "b", "large"}), items);
+    assertTrue("Wrong items", index.getItems(new Rectangle2D.Float(520, 520, 1, 1)).equals(
+        Arrays.asList(new String [] {"large"})));
+
+    // 4. Remove items
+    assertTrue("Item not removed", index.remove("large"));
+    assertFalse("Item removed twice", index.remove("large"));
+    assertFalse("Unknown item updated", index.update("large", new Rectangle2D.Float()));
+    items = index.getItems(new Rectangle2D.Float(1000, 1000, 10, 10));
+    assertTrue("Wrong items", items.isEmpty());
+    assertEquals("Wrong size", 3, index.size());
+  }
+}
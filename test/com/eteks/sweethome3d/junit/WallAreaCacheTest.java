@@ -0,0 +1,99 @@
+/*
+ * WallAreaCacheTest.java 18 oct. 2026
+ *
+ * Copyright (c) 2026 Emmanuel PUYBARET / eTeks <info@eteks.com>. All Rights Reserved.
+ *
+ * This program is free software; you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation; either version 2 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program; if not, write to the Free Software
+ * Foundation, Inc., 59 Temple Place, Suite 330, Boston, MA  02111-1307  USA
+ */
+package com.eteks.sweethome3d.junit;
+
+import java.awt.geom.Area;
+import java.awt.geom.GeneralPath;
+import java.util.ArrayList;
+import java.util.List;
+
+import junit.framework.TestCase;
+
+import com.eteks.sweethome3d.model.Wall;
+import com.eteks.sweethome3d.tools.WallAreaCache;
+
+/**
+ * Tests {@link com.eteks.sweethome3d.tools.WallAreaCache walls area cache}.
+ * @author Emmanuel Puybaret
+ */
+public class WallAreaCacheTest extends TestCase {
+  public void testWallAreaCache() {
+    // 1. Create 3 rooms of 20 joined walls and a few isolated walls
+    List<Wall> walls = new ArrayList<Wall>();
+    for (int i = 0; i < 3; i++) {
+      Wall previousWall = null;
+      Wall firstWall = null;
+      for (int j = 0; j < 20; j++) {
+        double angle = 2 * Math.PI * j / 20;
+        double nextAngle = 2 * Math.PI * (j + 1) / 20;
+        Wall wall = new Wall(i * 1000 + (float)(300 * Math.cos(angle)), (float)(300 * Math.sin(angle)),
+            i * 1000 + (float)(300 * Math.cos(nextAngle)), (float)(300 * Math.sin(nextAngle)), 10, 250);
+        if (previousWall != null) {
+          wall.setWallAtStart(previousWall);
+          previousWall.setWallAtEnd(wall);
+        } else {
+          firstWall = wall;
+        }
+        walls.add(wall);
+        previousWall = wall;
+      }
+      previousWall.setWallAtEnd(firstWall);
+      firstWall.setWallAtStart(previousWall);
+    }
+    for (int i = 0; i < 5; i++) {
+      walls.add(new Wall(i * 200, 500, i * 200 + 100, 600, 10, 250));
+    }
+
+    // 2. Check area is equal to the union of wall shapes
+    WallAreaCache cache = new WallAreaCache();
+    Area area = cache.getArea(walls);
+    assertTrue("Wrong area", area.equals(getWallsArea(walls)));
+    assertSame("Area not cached", area, cache.getArea(walls));
+
+    // 3. Move a wall joined to other walls and check area is updated
+    walls.get(25).setXStart(walls.get(25).getXStart() + 50);
+    walls.get(24).setXEnd(walls.get(25).getXStart());
+    area = cache.getArea(walls);
+    assertTrue("Wrong area", area.equals(getWallsArea(walls)));
+
+    // 4. Check area of a sub set of walls
+    List<Wall> subWalls = walls.subList(10, 50);
+    assertTrue("Wrong area", cache.getArea(subWalls).equals(getWallsArea(subWalls)));
+    assertTrue("Area not empty", cache.getArea(new ArrayList<Wall>()).isEmpty());
+  }
+
+  /**
+   * Returns the union of wall shapes.
+   */
+  private Area getWallsArea(List<Wall> walls) {
+    Area wallsArea = new Area();
+    for (Wall wall : walls) {
+      float [][] points = wall.getPoints();
+      GeneralPath path = new GeneralPath();
+      path.moveTo(points [0][0], points [0][1]);
+      for (int i = 1; i < points.length; i++) {
+        path.lineTo(points [i][0], points [i][1]);
+      }
+      path.closePath();
+      wallsArea.add(new Area(path));
+    }
+    return wallsArea;
+  }
+}